@@ -24,6 +24,7 @@ import agg.attribute.impl.AttrSession;
 import agg.attribute.impl.ContextView;
 import agg.attribute.impl.VerboseControl;
 import agg.attribute.parser.javaExpr.Jex;
+import agg.attribute.parser.javaExpr.JexCode;
 import agg.attribute.parser.javaExpr.Node;
 import java.util.List;
 
@@ -45,6 +46,16 @@ public class JexExpr extends Object implements HandlerExpr {
      * Represents the abstract syntax tree of an expression
      */
     protected Node ast;
+    /**
+     * True if the abstract syntax tree is shared with copies of this
+     * expression. It has to be copied before it can be changed.
+     */
+    private transient volatile boolean astShared = false;
+    /**
+     * Executable form of the expression, shared with copies of this
+     * expression.
+     */
+    private transient Compiled compiled = new Compiled();
     protected int property = Jex.PARSE_ERROR;
     public static final long serialVersionUID = 268212822469784946L;
 
@@ -172,12 +183,17 @@ public class JexExpr extends Object implements HandlerExpr {
         this.value = from.value;
         this.property = from.property;
         if (from.ast != null) {
+            // the tree is copied when one of both expressions changes it
+            from.astShared = true;
+            this.ast = from.ast;
+            this.astShared = true;
+            this.compiled = from.compiled;
             // try{
             // from.ast.getString() kopiert keine Objecte
             // TODO
             // this.property = parser.parse( from.ast.getString() );
             // ast = parser.getAST();
-            this.ast = from.ast.copy();
+            // this.ast = from.ast.copy();
             // }
             // catch(AttrHandlerException ahe){
             // ast = from.ast;
@@ -265,6 +281,7 @@ public class JexExpr extends Object implements HandlerExpr {
 //								"JexExpr.evaluate: rewrite");
                         parser.rewrite(getAST(), this.type.getClazz(), symtab);
                         this.property = Jex.IS_COMPLEX;
+                        this.compiled = new Compiled();
                     } catch (AttrHandlerException ex) {
 //						AttrSession.logPrintln(VerboseControl.logJexParser,
 //								"JexExpr.evaluate:  rewriting failed. "
@@ -277,9 +294,17 @@ public class JexExpr extends Object implements HandlerExpr {
                     }
                 } else if (this.ast != null) {
                     try {
+                        Object result = JexCode.UNDECIDED;
+                        if (symtab != null) {
+                            result = evaluateCode(symtab);
+                        }
+                        if (result != JexCode.UNDECIDED) {
+                            this.value = result;
+                        } else {
 //						AttrSession.logPrintln(VerboseControl.logJexParser,
 //								"JexExpr.evaluate: interpret");
-                        this.value = parser.interpret(this.ast, this.type.getClazz(), symtab);
+                            this.value = parser.interpret(ownAST(), this.type.getClazz(), symtab);
+                        }
                     } catch (AttrHandlerException ex) {
 //						AttrSession.logPrintln(VerboseControl.logJexParser,
 //								"JexExpr.evaluate:  interpretting failed. "
@@ -304,6 +329,48 @@ public class JexExpr extends Object implements HandlerExpr {
         }
     }
 
+    /**
+     * Evaluates the compiled expression. The expression is compiled by the
+     * first call.
+     *
+     * @return the value or {@link JexCode#UNDECIDED}, if the expression has
+     * to be interpreted
+     */
+    private Object evaluateCode(SymbolTable symtab) throws AttrHandlerException {
+        Compiled c = this.compiled;
+        if (c == null) {
+            c = new Compiled();
+            this.compiled = c;
+        }
+        JexCode code = c.code;
+        if (code == null) {
+            if (c.failed) {
+                return JexCode.UNDECIDED;
+            }
+            code = parser.compile(this.ast, symtab);
+            if (code == null) {
+                c.failed = true;
+                return JexCode.UNDECIDED;
+            }
+            c.code = code;
+        }
+        return code.evaluate(symtab);
+    }
+
+    /**
+     * Returns the abstract syntax tree, copies it before if it is shared with
+     * other expressions.
+     */
+    private Node ownAST() {
+        if (this.astShared) {
+            this.astShared = false;
+            if (this.ast != null) {
+                this.ast = this.ast.copy();
+            }
+        }
+        return this.ast;
+    }
+
     /**
      * Checks the expression if there is any variable which must be rewritten
      */
@@ -403,7 +470,9 @@ public class JexExpr extends Object implements HandlerExpr {
      * Returns the abstract syntax tree which represents the expression
      */
     public Node getAST() {
-        return this.ast;
+        // the caller may change the tree
+        this.compiled = new Compiled();
+        return ownAST();
     }
 
     /**
@@ -411,8 +480,8 @@ public class JexExpr extends Object implements HandlerExpr {
      * abstract syntax tree
      */
     public void getAllVariables(List<String> v) {
-        if (getAST() != null) {
-            getAST().getAllVariablesinExpression(v);
+        if (this.ast != null) {
+            this.ast.getAllVariablesinExpression(v);
         }
     }
 
@@ -436,6 +505,7 @@ public class JexExpr extends Object implements HandlerExpr {
          * Represents the abstract syntax tree of an expression
          */
         this.ast = (Node) gf.get("ast", null);
+        this.compiled = new Compiled();
         if (this.ast == null && this.value == null) {
             String text = (String) gf.get("text", null);
             if (text != null) {
@@ -450,6 +520,18 @@ public class JexExpr extends Object implements HandlerExpr {
             }
         }
     }
+
+    /**
+     * Holder of the executable form, shared by an expression and its copies.
+     */
+    private static final class Compiled {
+
+        volatile JexCode code = null;
+        /**
+         * True if the expression can only be interpreted.
+         */
+        volatile boolean failed = false;
+    }
 }
 /*
  * $Log: JexExpr.java,v $
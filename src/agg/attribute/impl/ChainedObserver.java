@@ -43,6 +43,12 @@ public abstract class ChainedObserver extends ManagedObject implements
      */
     protected transient final Vector<WeakReference<AttrObserver>> observers;
 
+    /**
+     * Size of this.observers at which addNewObserver removes the observers
+     * which are gone.
+     */
+    private transient int pruneSize;
+
     public ChainedObserver(AttrTupleManager m) {
         super(m);
         this.observers = new Vector<WeakReference<AttrObserver>>();
@@ -82,11 +88,18 @@ public abstract class ChainedObserver extends ManagedObject implements
 
     public void addObserver(AttrObserver attrObs) {
         if (attrObs != null) {
-//			removeNullObserver();
+            // the observers which are gone are removed on the way,
+            // otherwise the list grows with each temporary context
             boolean found = false;
             for (int i = 0; i < this.observers.size() && !found; i++) {
                 try {
-                    found = attrObs == this.observers.get(i).get();
+                    final AttrObserver obs = this.observers.get(i).get();
+                    if (obs == null) {
+                        this.observers.remove(i);
+                        i--;
+                    } else {
+                        found = attrObs == obs;
+                    }
                 } catch (ArrayIndexOutOfBoundsException ex) {
                     return;
                 }
@@ -98,6 +111,22 @@ public abstract class ChainedObserver extends ManagedObject implements
         }
     }
 
+    /**
+     * Adds an observer which is known not to be added yet, for instance a
+     * tuple which registers at its type on construction. The observers which
+     * are gone are removed each time the list has doubled, so adding many
+     * observers takes linear time.
+     */
+    protected void addNewObserver(AttrObserver attrObs) {
+        if (attrObs != null) {
+            if (this.observers.size() >= this.pruneSize) {
+                removeNullObserver();
+                this.pruneSize = Math.max(16, 2 * this.observers.size());
+            }
+            this.observers.addElement(new WeakReference<AttrObserver>(attrObs));
+        }
+    }
+
     public void addObserverAtPos(AttrObserver attrObs, int pos) {
         if (attrObs != null) {
 //			removeNullObserver();
@@ -148,9 +148,15 @@ public class ValueTuple extends TupleObject implements AttrInstance,
     }
 
     protected void setType(DeclTuple type) {
+        boolean fresh = this.type == null;
         this.type = type;
         if (this.type != null) {
-            this.type.addObserver(this);
+            if (fresh) {
+                // a tuple without type is not yet an observer of the type
+                this.type.addNewObserver(this);
+            } else {
+                this.type.addObserver(this);
+            }
             adaptToType();
             if (this.parent != null) {
                 copyEntries((AttrInstance) this.parent);
@@ -31,18 +31,19 @@ public class ASTAddNode extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         // System.out.println("ASTAddNode: top vor children "+top);
         AttrSession.logPrintln(VerboseControl.logJexParser,
-                "ASTAddNode: top vor children " + top);
+                "ASTAddNode: top vor children " + context.top);
         jjtGetChild(0).interpret();
         jjtGetChild(1).interpret();
         // System.out.println("ASTAddNode: top nach children "+top);
         AttrSession.logPrintln(VerboseControl.logJexParser,
-                "ASTAddNode: top nach children " + top);
+                "ASTAddNode: top nach children " + context.top);
         dump("ASTAddNode - interpret: ");
         Class<?> cls = getNodeClass();
-        Object op1Result = stack.get(top - 1); //stack[top - 1];
-        Object op2Result = stack.get(top); //stack[top];
+        Object op1Result = context.stack.get(context.top - 1); //stack[top - 1];
+        Object op2Result = context.stack.get(context.top); //stack[top];
         Object result;
         if (cls == stringClass) {
             result = new String("" + op1Result + op2Result);
@@ -55,7 +56,7 @@ public class ASTAddNode extends SimpleNode {
                         + ((Number) op2Result).floatValue());
             }
         }
-        top--;
+        context.top--;
         Node obj = ObjectConstNode
                 .jjtCreate(this.identifier + " to ObjectConstNode");
         ((ObjectConstNode) obj).obj = result;
@@ -98,8 +99,9 @@ public class ASTAddNode extends SimpleNode {
     }
 
     public String toString() {
+        final JexContext context = JexContext.current();
         String result = super.toString();
-        result += " " + stack + " " + top;
+        result += " " + context.stack + " " + context.top;
         return result;
     }
 
@@ -74,6 +74,7 @@ public class ASTAllocationExpression extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         if (this.constructor == null) {
             checkContext();
         }
@@ -81,7 +82,7 @@ public class ASTAllocationExpression extends SimpleNode {
         Object params[] = new Object[nChildren - 1];
         for (int i = 1; i < nChildren; i++) {
             jjtGetChild(i).interpret();
-            params[i - 1] = stack.get(top--); //stack[top--];
+            params[i - 1] = context.stack.get(context.top--); //stack[top--];
         }
         if (nChildren == 1) {
             params = null;
@@ -89,7 +90,7 @@ public class ASTAllocationExpression extends SimpleNode {
         try {
 //			stack[++top] = this.constructor.newInstance(params);
 //			Array.set(stack, ++top, this.constructor.newInstance(params));
-            stack.add(++top, this.constructor.newInstance(params));
+            context.stack.add(++context.top, this.constructor.newInstance(params));
         } catch (IllegalAccessException ex1) {
             throw new ASTMemberException("Cannot access this.constructor "
                     + getMethodName() + Jex.addMessage(ex1));
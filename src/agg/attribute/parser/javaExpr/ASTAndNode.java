@@ -28,6 +28,7 @@ public class ASTAndNode extends BOOLxBOOLtoBOOLnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         // System.out.println("ASTAndNode.interpret() .......... ");
         Object result;
         // jjtGetChild(0).interpret();
@@ -46,10 +47,10 @@ public class ASTAndNode extends BOOLxBOOLtoBOOLnode {
         // System.out.println("ASTAndNode.interpret() stack[top] booleanValue():
         // "+((Boolean)stack[top]).booleanValue());
 //		if (!((Boolean) stack[top]).booleanValue())
-        if (!((Boolean) stack.get(top)).booleanValue()) {
+        if (!((Boolean) context.stack.get(context.top)).booleanValue()) {
             result = Boolean.FALSE;
 //			stack[top] = result;
-            stack.set(top, result);
+            context.stack.set(context.top, result);
             // System.out.println("ASTAndNode.interpret() result: "+result);
             return;
         }
@@ -74,12 +75,10 @@ public class ASTAndNode extends BOOLxBOOLtoBOOLnode {
         // "+stack[top-1]);
         // System.out.println("ASTAndNode.interpret() stack[top+1]: "+(top+1)+"
         // "+stack[top+1]);
-        if (stack.get(top + 1) instanceof Boolean) {
-            result = Boolean.valueOf(((Boolean) stack.get(top)).booleanValue()
-                    && ((Boolean) stack.get(top + 1)).booleanValue());
-        } else if ((top > 0) && (stack.get(top - 1) instanceof Boolean)) {
-            result = Boolean.valueOf(((Boolean) stack.get(top)).booleanValue()
-                    && ((Boolean) stack.get(top - 1)).booleanValue());
+        // the right operand is on top, the left one below it
+        if ((context.top > 0) && (context.stack.get(context.top - 1) instanceof Boolean)) {
+            result = Boolean.valueOf(((Boolean) context.stack.get(context.top)).booleanValue()
+                    && ((Boolean) context.stack.get(context.top - 1)).booleanValue());
         } else {
             result = Boolean.FALSE; // ((Boolean)stack[top]).booleanValue());
         }
@@ -88,12 +87,12 @@ public class ASTAndNode extends BOOLxBOOLtoBOOLnode {
 		 * ((Boolean)stack[top - 1]).booleanValue()); //((Boolean)stack[top +
 		 * 1]).booleanValue());
          */
-        if (top > 0) {
+        if (context.top > 0) {
 //			stack[--top] = result;
-            stack.set(--top, result);
+            context.stack.set(--context.top, result);
         } else {
 //			stack[top] = result;
-            stack.set(top, result);
+            context.stack.set(context.top, result);
         }
         // System.out.println("stack[top] "+stack[top]);
         // System.out.println("ASTAndNode.interpret() result: "+result);
@@ -66,6 +66,7 @@ public class ASTArrayAllocation extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         int nChildren = jjtGetNumChildren();
         Node componentNode = jjtGetChild(0);
         Node lengthNode;
@@ -73,11 +74,11 @@ public class ASTArrayAllocation extends SimpleNode {
         int length;
         int lengthList[] = new int[nChildren - 1];
         componentNode.interpret();
-        this.componentClass = (Class<?>) stack.get(top--);
+        this.componentClass = (Class<?>) context.stack.get(context.top--);
         for (int i = 1; i < nChildren; i++) {
             lengthNode = jjtGetChild(i);
             lengthNode.interpret();
-            length = ((Integer) stack.get(top--)).intValue();
+            length = ((Integer) context.stack.get(context.top--)).intValue();
             lengthList[i - 1] = length;
             if (length < 0) {
                 throw new RuntimeException(
@@ -98,7 +99,7 @@ public class ASTArrayAllocation extends SimpleNode {
                         + "dimension length was empty.");
             }
         }
-        stack.add(++top, Array.newInstance(this.componentClass, lengthList));
+        context.stack.add(++context.top, Array.newInstance(this.componentClass, lengthList));
     }
 
     public String getString() {
@@ -30,14 +30,15 @@ public class ASTArrayIndex extends SimpleNode {
     }
 
     public static Class<?> getClassForName(String name) {
+        final JexContext context = JexContext.current();
         Class<?> clazz = null;
-        if (classResolver == null) {
+        if (context.classResolver == null) {
             try {
                 clazz = Class.forName(name);
             } catch (ClassNotFoundException e) {
             }
         } else {
-            clazz = classResolver.forName(name);
+            clazz = context.classResolver.forName(name);
         }
         return clazz;
     }
@@ -152,12 +153,13 @@ public class ASTArrayIndex extends SimpleNode {
     }
 
     public void interpret(SimpleNode arrayNode) {
+        final JexContext context = JexContext.current();
         Node indexNode = jjtGetChild(0);
         Object array, result;
         int index, length;
-        array = stack.get(top);
+        array = context.stack.get(context.top);
         indexNode.interpret();
-        index = ((Integer) stack.get(top--)).intValue();
+        index = ((Integer) context.stack.get(context.top--)).intValue();
         length = Array.getLength(array);
         if (index < 0) {
             throw new RuntimeException("Array index [" + index
@@ -167,7 +169,7 @@ public class ASTArrayIndex extends SimpleNode {
                     + "] exceeds length of array [" + length + "].");
         }
         result = Array.get(array, index);
-        stack.add(++top, result);
+        context.stack.add(++context.top, result);
     }
 
     public String getString() {
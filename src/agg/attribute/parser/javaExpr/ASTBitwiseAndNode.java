@@ -28,6 +28,7 @@ public class ASTBitwiseAndNode extends NUMxNUMtoNUMnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         jjtGetChild(0).interpret();
         jjtGetChild(1).interpret();
 //		if (stack[top] instanceof Boolean)
@@ -36,12 +37,12 @@ public class ASTBitwiseAndNode extends NUMxNUMtoNUMnode {
 //		else if (stack[top] instanceof Integer)
 //			stack[--top] = new Integer(((Integer) stack[top]).intValue()
 //					& ((Integer) stack[+1]).intValue());
-        if (stack.get(top) instanceof Boolean) {
-            stack.set(--top, Boolean.valueOf(((Boolean) stack.get(top)).booleanValue()
-                    & ((Boolean) stack.get(+1)).booleanValue()));
-        } else if (stack.get(top) instanceof Integer) {
-            stack.set(--top, ((Integer) stack.get(top)).intValue()
-                    & ((Integer) stack.get(+1)).intValue());
+        if (context.stack.get(context.top) instanceof Boolean) {
+            context.stack.set(--context.top, Boolean.valueOf(((Boolean) context.stack.get(context.top)).booleanValue()
+                    & ((Boolean) context.stack.get(+1)).booleanValue()));
+        } else if (context.stack.get(context.top) instanceof Integer) {
+            context.stack.set(--context.top, ((Integer) context.stack.get(context.top)).intValue()
+                    & ((Integer) context.stack.get(+1)).intValue());
         }
     }
 
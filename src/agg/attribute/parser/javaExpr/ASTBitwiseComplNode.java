@@ -28,9 +28,10 @@ public class ASTBitwiseComplNode extends NUMtoNUMnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         jjtGetChild(0).interpret();
 //		stack[top] = new Integer(~((Integer) stack[top]).intValue());
-        stack.set(top, ~((Integer) stack.get(top)).intValue());
+        context.stack.set(context.top, ~((Integer) context.stack.get(context.top)).intValue());
     }
 
     public String getString() {
@@ -33,8 +33,9 @@ public class ASTCharConstNode extends SimpleNode {
     }
 
     public void interpret() {
+final JexContext context = JexContext.current();
 //		stack[++top] = new Character(val);
-        stack.add(++top, new Character(this.val));
+        context.stack.add(++context.top, new Character(this.val));
     }
 
     public String getString() {
@@ -46,8 +46,9 @@ public class ASTClassName extends SimpleNode {
     }
 
     public void checkContext() {
+        final JexContext context = JexContext.current();
         Class<?> clazz;
-        if (classResolver == null) {
+        if (context.classResolver == null) {
             try {
                 clazz = Class.forName(this.name);
                 setNodeClass(clazz);
@@ -56,7 +57,7 @@ public class ASTClassName extends SimpleNode {
                         + " not found: ");
             }
         } else {
-            clazz = classResolver.forName(this.name);
+            clazz = context.classResolver.forName(this.name);
             if (clazz == null) {
                 System.out.println("Class " + this.name + " not found: ");
             } else {
@@ -67,9 +68,10 @@ public class ASTClassName extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         checkContext();
 //		stack[++top] = getNodeClass();
-        stack.add(++top, getNodeClass());
+        context.stack.add(++context.top, getNodeClass());
     }
 
     public String getString() {
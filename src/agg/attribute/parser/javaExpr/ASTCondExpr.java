@@ -55,8 +55,9 @@ public class ASTCondExpr extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         jjtGetChild(0).interpret();
-        if (((Boolean) stack.get(top--)).booleanValue()) {
+        if (((Boolean) context.stack.get(context.top--)).booleanValue()) {
             jjtGetChild(1).interpret();
         } else {
             jjtGetChild(2).interpret();
@@ -28,10 +28,11 @@ public class ASTDivNode extends NUMxNUMtoNUMnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         jjtGetChild(0).interpret();
         jjtGetChild(1).interpret();
-        Object op1Result = stack.get(top - 1);
-        Object op2Result = stack.get(top);
+        Object op1Result = context.stack.get(context.top - 1);
+        Object op2Result = context.stack.get(context.top);
         Object result;
         if (typeCode() <= typeCode(Integer.TYPE)) {
             result = ((Number) op1Result).intValue()
@@ -41,7 +42,7 @@ public class ASTDivNode extends NUMxNUMtoNUMnode {
                     / ((Number) op2Result).floatValue());
         }
 //		stack[--top] = result;
-        stack.set(--top, result);
+        context.stack.set(--context.top, result);
     }
 
     public String getString() {
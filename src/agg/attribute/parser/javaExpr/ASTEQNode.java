@@ -28,6 +28,7 @@ public class ASTEQNode extends TYPE1xTYPE1toBOOL {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         // System.out.println("ASTEQNode.interpret()... ");
         Node child1 = jjtGetChild(0);
         Node child2 = jjtGetChild(1);
@@ -61,23 +62,23 @@ public class ASTEQNode extends TYPE1xTYPE1toBOOL {
         Object op1Result = null;
         Object op2Result = null;
         Object result;
-        if (top > 0) {
-            op1Result = stack.get(top - 1);
-            op2Result = stack.get(top);
+        if (context.top > 0) {
+            op1Result = context.stack.get(context.top - 1);
+            op2Result = context.stack.get(context.top);
         } else {
-            op1Result = stack.get(top);
+            op1Result = context.stack.get(context.top);
         }
         // System.out.println("ASTEQNode.interpret() stack[top] is Boolean: "+
         // (stack[top] instanceof Boolean));
         // System.out.println("ASTEQNode.interpret() op1Result: "+op1Result);
         // System.out.println("ASTEQNode.interpret() op2Result: "+op2Result);
-        if (stack.get(top) instanceof Boolean) {
+        if (context.stack.get(context.top) instanceof Boolean) {
             if (op1Result instanceof Boolean && op2Result instanceof Boolean) {
                 result = Boolean.valueOf(
                         ((Boolean) op1Result).booleanValue() == ((Boolean) op2Result)
                         .booleanValue());
             } else {
-                result = stack.get(top); // Boolean.FALSE;
+                result = context.stack.get(context.top); // Boolean.FALSE;
             }
         } else if (((SimpleNode) child1).hasNumberType()) {
             // System.out.println("ASTEQNode.interpret()
@@ -143,10 +144,10 @@ public class ASTEQNode extends TYPE1xTYPE1toBOOL {
             result = null;
         }
 //		stack[top] = result;
-        stack.set(top, result);
-        if (top > 0) {
+        context.stack.set(context.top, result);
+        if (context.top > 0) {
 //			stack[--top] = result;
-            stack.set(--top, result);
+            context.stack.set(--context.top, result);
         }
         // System.out.println("ASTEQNode.interpret() stack[top] = result:
         // "+result);
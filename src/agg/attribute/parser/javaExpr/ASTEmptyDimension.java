@@ -32,8 +32,9 @@ public class ASTEmptyDimension extends SimpleNode {
     }
 
     public void interpret() {
+final JexContext context = JexContext.current();
 //		stack[++top] = new Integer(0);
-        stack.add(++top, 0);
+        context.stack.add(++context.top, 0);
     }
 }
 /*
@@ -28,8 +28,9 @@ public class ASTFalseNode extends BoolNode {
     }
 
     public void interpret() {
+final JexContext context = JexContext.current();
 //		stack[++top] = Boolean.FALSE;
-        stack.add(++top, Boolean.FALSE);
+        context.stack.add(++context.top, Boolean.FALSE);
     }
 
     public String getString() {
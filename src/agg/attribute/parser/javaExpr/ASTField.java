@@ -90,12 +90,13 @@ public class ASTField extends MemberNode {
     }
 
     public void interpret(SimpleNode recipient) {
+        final JexContext context = JexContext.current();
         Class<?> recClass = recipient.getNodeClass();
         String fieldName = ((ASTMemberName) jjtGetChild(0)).name;
         if (recClass.isArray()) {
             if (fieldName.equals("length")) {
 //				stack[++top] = new Integer(Array.getLength(stack[top - 1]));
-                stack.add(++top, Array.getLength(stack.get(top - 1)));
+                context.stack.add(++context.top, Array.getLength(context.stack.get(context.top - 1)));
             }
             return;
         }
@@ -104,7 +105,7 @@ public class ASTField extends MemberNode {
         }
         try {
 //			stack[++top] = field.get(stack[top - 1]);
-            stack.add(++top, this.field.get(stack.get(top - 1)));
+            context.stack.add(++context.top, this.field.get(context.stack.get(context.top - 1)));
         } catch (IllegalAccessException ex1) {
             throw new ASTMemberException("Cannot access field "
                     + getFieldName() + Jex.addMessage(ex1));
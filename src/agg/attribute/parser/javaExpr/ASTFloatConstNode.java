@@ -33,8 +33,9 @@ public class ASTFloatConstNode extends SimpleNode {
     }
 
     public void interpret() {
+final JexContext context = JexContext.current();
 //		stack[++top] = new Double(val);
-        stack.add(++top, new Double(this.val));
+        context.stack.add(++context.top, new Double(this.val));
     }
 
     public String getString() {
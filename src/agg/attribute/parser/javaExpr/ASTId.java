@@ -60,10 +60,11 @@ public class ASTId extends SimpleNode {
     }
 
     public void checkContext() {
+        final JexContext context = JexContext.current();
         Class<?> clazz = null;
         HandlerType tabEntry = null;
-        if (classResolver != null) {
-            clazz = classResolver.forName(this.name);
+        if (context.classResolver != null) {
+            clazz = context.classResolver.forName(this.name);
         } else {
             try {
                 clazz = Class.forName(this.name);
@@ -76,12 +77,12 @@ public class ASTId extends SimpleNode {
         }
         if (clazz == null) {
             this.isClass = false;
-            if (symtab == null) {
+            if (context.symtab == null) {
 //				AttrSession.logPrintln(VerboseControl.logJexParser,
 //						"ASTId: symtab is null.");
                 throw new ASTIdNotDeclaredException(this.name);
             }
-            if ((tabEntry = symtab.getType(this.name)) == null) {
+            if ((tabEntry = context.symtab.getType(this.name)) == null) {
 //				AttrSession.logPrintln(VerboseControl.logJexParser,
 //						"ASTId: symtab.getType(" + this.name + ") is null.");
                 throw new ASTIdNotDeclaredException(this.name);
@@ -99,14 +100,15 @@ public class ASTId extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         Object value = null;
         HandlerExpr tabEntry = null;
         checkContext();
         if (this.isClass) {
             value = getNodeClass();
         } else {
-            if (symtab == null
-                    || ((tabEntry = symtab.getExpr(this.name)) == null)
+            if (context.symtab == null
+                    || ((tabEntry = context.symtab.getExpr(this.name)) == null)
                     || ((value = tabEntry.getValue()) == null)) {
 //				if (symtab == null) {
 //						AttrSession.logPrintln(VerboseControl.logJexParser,
@@ -122,7 +124,7 @@ public class ASTId extends SimpleNode {
                 throw new ASTMissingValueException("Missing value exception for: " + this.name);
             }
         }
-        top++;
+        context.top++;
         Node obj = ObjectConstNode
                 .jjtCreate(this.identifier + " to ObjectConstNode");
         ((ObjectConstNode) obj).obj = value;
@@ -139,9 +141,10 @@ public class ASTId extends SimpleNode {
      * Rewrites a single id.
      */
     public void rewrite() {
+        final JexContext context = JexContext.current();
         // System.out.println( "ASTId.rewrite(): ...");
         checkContext();
-        HandlerExpr newExpr = symtab.getExpr(this.name);
+        HandlerExpr newExpr = context.symtab.getExpr(this.name);
         if (newExpr == null) {
 //			AttrSession.logPrintln(VerboseControl.logJexParser,
 //					"ASTId: symtab.getExpr(" + this.name + ") is null.");
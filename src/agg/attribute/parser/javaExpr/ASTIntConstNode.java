@@ -33,7 +33,8 @@ public class ASTIntConstNode extends SimpleNode {
     }
 
     public void interpret() {
-        stack.add(++top, this.val);
+        final JexContext context = JexContext.current();
+        context.stack.add(++context.top, this.val);
     }
 
     public String getString() {
@@ -28,12 +28,13 @@ public class ASTLENode extends NUMxNUMtoBOOLnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         Node child1 = jjtGetChild(0);
         Node child2 = jjtGetChild(1);
         child1.interpret();
         child2.interpret();
-        Object op1Result = stack.get(top - 1);
-        Object op2Result = stack.get(top);
+        Object op1Result = context.stack.get(context.top - 1);
+        Object op2Result = context.stack.get(context.top);
         Object result;
         Class<?> commonType = commonNumberType((SimpleNode) child1, (SimpleNode) child2);
         if (typeCode(commonType) <= typeCode(Integer.TYPE)) {
@@ -46,7 +47,7 @@ public class ASTLENode extends NUMxNUMtoBOOLnode {
                     .floatValue());
         }
 //		stack[--top] = result;
-        stack.set(--top, result);
+        context.stack.set(--context.top, result);
     }
 
     public String getString() {
@@ -44,10 +44,11 @@ public class ASTModNode extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         jjtGetChild(0).interpret();
         jjtGetChild(1).interpret();
-        stack.set(--top, ((Integer) stack.get(top)).intValue()
-                % ((Integer) stack.get(top + 1)).intValue());
+        context.stack.set(--context.top, ((Integer) context.stack.get(context.top)).intValue()
+                % ((Integer) context.stack.get(context.top + 1)).intValue());
     }
 
     public String getString() {
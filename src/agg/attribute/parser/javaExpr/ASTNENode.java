@@ -28,6 +28,7 @@ public class ASTNENode extends TYPE1xTYPE1toBOOL {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         // System.out.println("ASTNENode.interpret()... ");
         Node child1 = jjtGetChild(0);
         Node child2 = jjtGetChild(1);
@@ -58,15 +59,15 @@ public class ASTNENode extends TYPE1xTYPE1toBOOL {
         Object op1Result = null;
         Object op2Result = null;
         Object result;
-        if (top > 0) {
-            op1Result = stack.get(top - 1);
-            op2Result = stack.get(top);
+        if (context.top > 0) {
+            op1Result = context.stack.get(context.top - 1);
+            op2Result = context.stack.get(context.top);
         } else {
-            op1Result = stack.get(top);
+            op1Result = context.stack.get(context.top);
         }
         // System.out.println("ASTNENode.interpret() op1Result: "+op1Result);
         // System.out.println("ASTNENode.interpret() op2Result: "+op2Result);
-        if (stack.get(top) instanceof Boolean) {
+        if (context.stack.get(context.top) instanceof Boolean) {
             // System.out.println("ASTNENode.interpret() Boolean:");
             // System.out.println(((Boolean) op1Result).booleanValue()+"
             // "+((Boolean) op2Result).booleanValue());
@@ -75,7 +76,7 @@ public class ASTNENode extends TYPE1xTYPE1toBOOL {
                         ((Boolean) op1Result).booleanValue() != ((Boolean) op2Result)
                         .booleanValue());
             } else {
-                result = stack.get(top);
+                result = context.stack.get(context.top);
             }
         } else if (((SimpleNode) child1).hasNumberType()) {
             Class<?> commonType = commonNumberType((SimpleNode) child1, (SimpleNode) child2);
@@ -143,10 +144,10 @@ public class ASTNENode extends TYPE1xTYPE1toBOOL {
 			result = null;
         }
 //		stack[top] = result;
-        stack.set(top, result);
-        if (top > 0) {
+        context.stack.set(context.top, result);
+        if (context.top > 0) {
 //			stack[--top] = result;
-            stack.set(--top, result);
+            context.stack.set(--context.top, result);
         }
         // System.out.println("ASTNENode.interpret() stack[--top] = result:
         // "+result);
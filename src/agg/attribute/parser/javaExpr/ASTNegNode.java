@@ -28,9 +28,10 @@ public class ASTNegNode extends NUMtoNUMnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         jjtGetChild(0).interpret();
 //		stack[top] = new Integer(-1 * ((Integer) stack[top]).intValue());
-        stack.set(top, -1 * ((Integer) stack.get(top)).intValue());
+        context.stack.set(context.top, -1 * ((Integer) context.stack.get(context.top)).intValue());
     }
 
     public String getString() {
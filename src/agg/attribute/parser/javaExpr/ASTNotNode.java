@@ -28,6 +28,7 @@ public class ASTNotNode extends BOOLtoBOOLnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         jjtGetChild(0).interpret();
 //		stack[top] = Boolean.valueOf(!((Boolean) stack[top]).booleanValue());
 //		if (String.valueOf(stack.get(top)).equals("1"))
@@ -35,7 +36,7 @@ public class ASTNotNode extends BOOLtoBOOLnode {
 //		else if (String.valueOf(stack.get(top)).equals("0"))
 //			stack.set(top, Boolean.valueOf(!false));	
 //		else	
-        stack.set(top, Boolean.valueOf(!((Boolean) stack.get(top)).booleanValue()));
+        context.stack.set(context.top, Boolean.valueOf(!((Boolean) context.stack.get(context.top)).booleanValue()));
     }
 
     public String getString() {
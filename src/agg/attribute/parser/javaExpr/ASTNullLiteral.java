@@ -32,8 +32,9 @@ public class ASTNullLiteral extends SimpleNode {
     }
 
     public void interpret() {
+final JexContext context = JexContext.current();
 //		stack[++top] = null;
-        stack.add(++top, null);
+        context.stack.add(++context.top, null);
     }
 
     public String getString() {
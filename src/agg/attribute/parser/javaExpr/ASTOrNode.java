@@ -28,6 +28,7 @@ public class ASTOrNode extends BOOLxBOOLtoBOOLnode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         // System.out.println("ASTOrNode.interpret() ...");
         Object result;
         // jjtGetChild(0).interpret();
@@ -41,8 +42,8 @@ public class ASTOrNode extends BOOLxBOOLtoBOOLnode {
                 throw (RuntimeException) e;
             }
         }
-        if (((Boolean) stack.get(top)).booleanValue()) {
-            stack.set(top, Boolean.TRUE);
+        if (((Boolean) context.stack.get(context.top)).booleanValue()) {
+            context.stack.set(context.top, Boolean.TRUE);
             return;
         }
         // jjtGetChild(1).interpret();
@@ -59,24 +60,22 @@ public class ASTOrNode extends BOOLxBOOLtoBOOLnode {
         // System.out.println("ASTOrNode.interpret() stack[top]: "+stack[top]);
         // System.out.println("ASTOrNode.interpret() stack[top+1]:
         // "+stack[top+1]);
-        if (stack.get(top + 1) instanceof Boolean) {
-            result = Boolean.valueOf(((Boolean) stack.get(top)).booleanValue()
-                    || ((Boolean) stack.get(top + 1)).booleanValue());
-        } else if ((top > 0) && (stack.get(top - 1) instanceof Boolean)) {
-            result = Boolean.valueOf(((Boolean) stack.get(top)).booleanValue()
-                    || ((Boolean) stack.get(top - 1)).booleanValue());
+        // the right operand is on top, the left one below it
+        if ((context.top > 0) && (context.stack.get(context.top - 1) instanceof Boolean)) {
+            result = Boolean.valueOf(((Boolean) context.stack.get(context.top)).booleanValue()
+                    || ((Boolean) context.stack.get(context.top - 1)).booleanValue());
         } else {
-            result = Boolean.valueOf(((Boolean) stack.get(top)).booleanValue());
+            result = Boolean.valueOf(((Boolean) context.stack.get(context.top)).booleanValue());
         }
         /*
 		 * result = Boolean.valueOf(((Boolean)stack[top]).booleanValue() ||
 		 * ((Boolean)stack[top - 1]).booleanValue()); //((Boolean)stack[top +
 		 * 1]).booleanValue());
          */
-        if (top > 0) {
-            stack.set(--top, result);
+        if (context.top > 0) {
+            context.stack.set(--context.top, result);
         } else {
-            stack.set(top, result);
+            context.stack.set(context.top, result);
         }
         // System.out.println("ASTOrNode.interpret() result: "+result);
     }
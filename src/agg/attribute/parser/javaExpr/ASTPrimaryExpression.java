@@ -70,6 +70,7 @@ public class ASTPrimaryExpression extends SimpleNode {
     }
 
     public void interpret() {
+        final JexContext context = JexContext.current();
         int nChildren = jjtGetNumChildren();
         Node prefix, suffix;
         try {
@@ -82,9 +83,9 @@ public class ASTPrimaryExpression extends SimpleNode {
                 } else if (((SimpleNode) suffix).isArrayIndex()) {
                     ((ASTArrayIndex) suffix).interpret((SimpleNode) prefix);
                 }
-                top--;
+                context.top--;
                 if (!((SimpleNode) suffix).isAction()) {
-                    stack.set(top, stack.get(top + 1));
+                    context.stack.set(context.top, context.stack.get(context.top + 1));
                     prefix = suffix;
                 }
             }
@@ -33,7 +33,8 @@ public class ASTStringConstNode extends SimpleNode {
     }
 
     public void interpret() {
-        stack.add(++top, this.val.substring(1, this.val.length() - 1));
+        final JexContext context = JexContext.current();
+        context.stack.add(++context.top, this.val.substring(1, this.val.length() - 1));
     }
 
     public String getString() {
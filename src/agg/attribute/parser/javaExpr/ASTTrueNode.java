@@ -28,7 +28,8 @@ public class ASTTrueNode extends BoolNode {
     }
 
     public void interpret() {
-        stack.add(++top, Boolean.TRUE);
+        final JexContext context = JexContext.current();
+        context.stack.add(++context.top, Boolean.TRUE);
     }
 
     public String getString() {
@@ -25,27 +25,24 @@ public class ClassResolver implements java.io.Serializable {
             16);
     public static final long serialVersionUID = 5146841301451537847L;
 
+    static {
+        primitives.put("byte", Byte.TYPE);
+        primitives.put("short", Short.TYPE);
+        primitives.put("int", Integer.TYPE);
+        primitives.put("long", Long.TYPE);
+        primitives.put("float", Float.TYPE);
+        primitives.put("double", Double.TYPE);
+        primitives.put("char", Character.TYPE);
+        primitives.put("boolean", Boolean.TYPE);
+        primitives.put("void", Void.TYPE);
+    }
+
     public ClassResolver() {
-        init();
         this.packages.addElement("java.lang");
         this.packages.addElement("java.util");
 //		this.packages.addElement("com.objectspace.jgl");
     }
 
-    private void init() {
-        if (primitives.isEmpty()) {
-            primitives.put("byte", Byte.TYPE);
-            primitives.put("short", Short.TYPE);
-            primitives.put("int", Integer.TYPE);
-            primitives.put("long", Long.TYPE);
-            primitives.put("float", Float.TYPE);
-            primitives.put("double", Double.TYPE);
-            primitives.put("char", Character.TYPE);
-            primitives.put("boolean", Boolean.TYPE);
-            primitives.put("void", Void.TYPE);
-        }
-    }
-
     protected int[] getArrayDimensions(String text) {
         int[] dimArray;
         int nDimensions = 0;
@@ -116,7 +113,6 @@ public class ClassResolver implements java.io.Serializable {
     @SuppressWarnings("rawtypes")
     public Class<?> forName(String name) {
         Class<?> c;
-        init();
         if (name.indexOf("[") != -1) {
             // it's an array class
             return getArrayClass(name);
@@ -76,23 +76,25 @@ public class Jex implements ActionListener {
     }
 
     protected int getExprProperty() {
-        synchronized (JexParser.jjtree) {
-            SimpleNode node = (SimpleNode) JexParser.jjtree.rootNode();
-            int result = IS_COMPLEX;
-            if (node.isConstantExpr()) {
-                result = IS_CONSTANT;
-            } else if (node.jjtGetNumChildren() == 1) {
+        return getExprProperty(getAST());
+    }
+
+    protected int getExprProperty(Node root) {
+        SimpleNode node = (SimpleNode) root;
+        int result = IS_COMPLEX;
+        if (node.isConstantExpr()) {
+            result = IS_CONSTANT;
+        } else if (node.jjtGetNumChildren() == 1) {
+            node = (SimpleNode) node.jjtGetChild(0);
+            if (node.identifier.equals("PrimaryExpression")
+                    && node.jjtGetNumChildren() == 1) {
                 node = (SimpleNode) node.jjtGetChild(0);
-                if (node.identifier.equals("PrimaryExpression")
-                        && node.jjtGetNumChildren() == 1) {
-                    node = (SimpleNode) node.jjtGetChild(0);
-                    if (node.identifier.equals("Id")) {
-                        result = IS_VARIABLE;
-                    }
+                if (node.identifier.equals("Id")) {
+                    result = IS_VARIABLE;
                 }
             }
-            return result;
         }
+        return result;
     }
 
     protected void newStdOutStream() {
@@ -206,6 +208,11 @@ public class Jex implements ActionListener {
         }
     }
 
+    /**
+     * Parses the specified text. The generated parser is static, so the
+     * parsing itself is serialized. The resulting tree belongs to the current
+     * thread and is returned by {@link #getAST()}.
+     */
     protected int parse_(String text) throws ParseError {
         // swapPrintStream();
 //		AttrSession.logPrintln(VerboseControl.logTrace, "Jex:\n->\tparse_");
@@ -220,36 +227,27 @@ public class Jex implements ActionListener {
         byte bytes[] = line.getBytes();
         java.io.ByteArrayInputStream stream = new java.io.ByteArrayInputStream(
                 bytes);
+        final JexContext context = JexContext.current();
+        final Node root;
         synchronized (JexParser.jjtree) {
 //		if (parser == null) {
 //			parser = new JexParser(stream);
 //		} else 
-            {
-                JexParser.ReInit(stream);
-                JexParser.jjtree.reset();
-//			System.out.println("parse text: "+text+"    stack: "+SimpleNode.stack.size()+"   top: "+SimpleNode.top+"    :::: "+SimpleNode.stack.hashCode());
-                SimpleNode.top = -1;
-                SimpleNode.stack.clear();
-//			System.out.println("parse text: "+text+"    stack: "+SimpleNode.stack.size()+"   top: "+SimpleNode.top+"    :::: "+SimpleNode.stack.hashCode());
-            }
-            try {
+            JexParser.ReInit(stream);
+            JexParser.jjtree.reset();
+            context.ast = null;
 //			AttrSession.logPrintln(VerboseControl.logJexParser, "Parsing ["
 //					+ text + "] ...");
-                JexParser.CompilationUnit();
-                JexParser.jjtree.rootNode().dump("  ");
-                result = getExprProperty();
+            JexParser.CompilationUnit();
+            root = JexParser.jjtree.rootNode();
+            JexParser.jjtree.reset();
+        }
+        context.ast = root;
+        root.dump("  ");
+        result = getExprProperty(root);
 //			AttrSession.logPrintln(VerboseControl.logJexParser,
 //					" Expression property: " + getPropertyText(result));
-//			// swapPrintStream();
-//			AttrSession.logPrintln(VerboseControl.logTrace, "Jex:\n<-\tparse_");
-//			AttrSession.logPrintln(VerboseControl.logJexParser,
-//					"Jex:\n<-\tparse_");
-                // swapPrintStream();
-                return result;
-            } catch (ParseError ex1) {
-                throw ex1;
-            }
-        }
+        return result;
     }
 
     public void check(Node ast, Class<?> type, SymbolTable symtab)
@@ -338,12 +336,13 @@ public class Jex implements ActionListener {
             throws ParseError {
         parse_(text);
         SimpleNode.setSymbolTable(symtab);
-        synchronized (JexParser.jjtree) {
+        final Node root = getAST();
+        {
             try {
 //			AttrSession.logPrintln(VerboseControl.logJexParser,
 //					"Type-Checking ...");
-                JexParser.jjtree.rootNode().checkContext();
-                JexParser.jjtree.rootNode().dump("  ");
+                root.checkContext();
+                root.dump("  ");
             } catch (ASTIdNotDeclaredException ex1) {
 //			AttrSession.logPrintln(VerboseControl.logJexParser, "Variable \""
 //					+ ex1.getMessage() + "\" is not declared");
@@ -373,8 +372,7 @@ public class Jex implements ActionListener {
                 throw new RuntimeException("Exception:  " + ex.getMessage());
             }
             if (type != null && type != Void.TYPE) {
-                Class<?> resultType = ((SimpleNode) JexParser.jjtree.rootNode())
-                        .getNodeClass();
+                Class<?> resultType = ((SimpleNode) root).getNodeClass();
                 if (!isAssignable(type, resultType)) {
 //				AttrSession.logPrintln(VerboseControl.logJexParser,
 //						"Wrong expression type.\n Required: " + type.getName()
@@ -441,6 +439,8 @@ public class Jex implements ActionListener {
 //				"Jex: \n->interpret(ast)");
 //		AttrSession.logPrintln(VerboseControl.logJexParser,
 //				"Jex: \n->interpret(ast)");
+        final JexContext context = JexContext.current();
+        context.open();
         try {
             Object result = null;
             check(ast, type, symtab);
@@ -489,6 +489,7 @@ public class Jex implements ActionListener {
             throw new AttrHandlerException("AttrHandlerException  : "
                     + ex1.getMessage());
         } finally {
+            context.close();
             // restoreOutputStream();
 //			AttrSession.logPrintln(VerboseControl.logTrace,
 //					"Jex: \n<-interpret(ast)");
@@ -536,22 +537,22 @@ public class Jex implements ActionListener {
         // AttrSession.logPrintln(VerboseControl.logTrace,"Jex:\n->interpret_");
         // AttrSession.logPrintln(VerboseControl.logJexParser,
         // "Jex:\n->interpret_");
-        synchronized (JexParser.jjtree) {
-            if (JexParser.jjtree.rootNode() != null) {
-                JexParser.jjtree.rootNode().dump("");
-            }
+        final JexContext context = JexContext.current();
+        context.open();
+        try {
             // swapPrintStream();
             check_(text, type, symtab);
+            final Node root = getAST();
             try {
 //			AttrSession.logPrintln(VerboseControl.logJexParser,
 //					"Evaluating ...");
-                JexParser.jjtree.rootNode().interpret();
-                Object result = JexParser.jjtree.rootNode().getRootResult();
+                root.interpret();
+                Object result = root.getRootResult();
 //			String resultString = result == null ? "null" : result.toString();			
 //			AttrSession.logPrintln(VerboseControl.logJexParser, "Result = "
 //					+ resultString);
                 // swapPrintStream();
-                JexParser.jjtree.rootNode().dump("");
+                root.dump("");
 //			AttrSession.logPrintln(VerboseControl.logJexParser, "Result = "
 //					+ resultString);
                 // swapPrintStream();
@@ -593,6 +594,8 @@ public class Jex implements ActionListener {
 //					"Jex:\n<-interpret_");
                 // swapPrintStream();
             }
+        } finally {
+            context.close();
         }
     }
 
@@ -613,17 +616,42 @@ public class Jex implements ActionListener {
         } finally {
             // restoreOutputStream();
         }
-        ast.rewrite();
+        final JexContext context = JexContext.current();
+        context.open();
+        try {
+            ast.rewrite();
+        } finally {
+            context.close();
+        }
         if (ast.getError().length() != 0) {
             throw new AttrHandlerException(ast.getError());
         }
     }
 
     /**
-     * returns root node of the abstract syntax tree
+     * Compiles an expression. The specified tree is not changed, the symbol
+     * table is used to check a copy of it.
+     *
+     * @return the executable form of the expression or null, if the
+     * expression cannot be checked or can only be interpreted
+     */
+    public JexCode compile(Node ast, SymbolTable symtab) {
+        Node copy = ast.copy();
+        try {
+            SimpleNode.setSymbolTable(symtab);
+            copy.checkContext();
+        } catch (RuntimeException ex) {
+            return null;
+        }
+        return JexCompiler.compile(copy);
+    }
+
+    /**
+     * returns root node of the abstract syntax tree which was parsed last by
+     * the current thread
      */
     public Node getAST() {
-        return JexParser.jjtree.rootNode();
+        return JexContext.current().ast;
     }
 
     public Object getVariableExpression() {
@@ -0,0 +1,62 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.attribute.parser.javaExpr;
+
+import agg.attribute.handler.AttrHandlerException;
+import agg.attribute.handler.SymbolTable;
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Executable form of a checked abstract syntax tree, created by {@link Jex#compile(Node, SymbolTable)}. The methods
+ * and fields used by the expression are resolved once, the evaluation does not change the tree and does not use the
+ * calculation stack, so one code can be evaluated by many threads at the same time.
+ *
+ * @author Janusch Rentenatus
+ */
+public final class JexCode {
+
+    /**
+     * Result of {@link #evaluate(SymbolTable)} if the value cannot be computed by the code, e.g. a variable without
+     * value. The expression has to be interpreted then.
+     */
+    public static final Object UNDECIDED = new Object() {
+        @Override
+        public String toString() {
+            return "UNDECIDED";
+        }
+    };
+
+    /**
+     * Handle of type <code>(SymbolTable)Object</code>.
+     */
+    private final MethodHandle handle;
+
+    JexCode(final MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Evaluates the expression with the values of the specified symbol table.
+     *
+     * @return the value of the expression, which may be null, or {@link #UNDECIDED}, if the value cannot be computed
+     * by this code. In this case the expression has to be interpreted.
+     * @throws AttrHandlerException if the evaluation fails, like the interpreter does
+     */
+    public Object evaluate(final SymbolTable symtab) throws AttrHandlerException {
+        try {
+            return (Object) this.handle.invokeExact(symtab);
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            if (ex == JexCompiler.UNDECIDED) {
+                return UNDECIDED;
+            }
+            throw new AttrHandlerException("AttrHandlerException  : " + ex.getMessage());
+        }
+    }
+}
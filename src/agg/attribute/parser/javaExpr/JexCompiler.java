@@ -0,0 +1,445 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.attribute.parser.javaExpr;
+
+import agg.attribute.handler.HandlerExpr;
+import agg.attribute.handler.HandlerType;
+import agg.attribute.handler.SymbolTable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Compiles a checked abstract syntax tree into a tree of method handles of type <code>(SymbolTable)Object</code>.
+ * The operations compute the same values as the <code>interpret()</code> methods of the nodes as long as all
+ * variables have values. Every other case is left to the interpreter: a node which cannot be compiled makes the whole
+ * tree not compilable, and a compiled operation which cannot decide, e.g. for an operand of an unexpected type, throws
+ * {@link #UNDECIDED}. Any other exception is an error of the evaluation.
+ *
+ * @author Janusch Rentenatus
+ */
+final class JexCompiler {
+
+    private static final MethodType OPERAND = MethodType.methodType(Object.class, SymbolTable.class);
+
+    /**
+     * Thrown by the compiled operations if the interpreter has to decide.
+     */
+    static final RuntimeException UNDECIDED = new RuntimeException("undecided", null, false, false) {
+        static final long serialVersionUID = 1L;
+    };
+
+    private static final MethodHandle VARIABLE;
+    private static final MethodHandle TRUTH;
+    private static final MethodHandle BOOLEAN_RESULT;
+    private static final MethodHandle ARRAY_LENGTH;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            VARIABLE = lookup.findStatic(JexCompiler.class, "variable",
+                    MethodType.methodType(Object.class, String.class, Class.class, SymbolTable.class));
+            TRUTH = lookup.findStatic(JexCompiler.class, "truth",
+                    MethodType.methodType(boolean.class, Object.class));
+            BOOLEAN_RESULT = lookup.findStatic(JexCompiler.class, "booleanResult",
+                    MethodType.methodType(Object.class, Object.class));
+            ARRAY_LENGTH = lookup.findStatic(Array.class, "getLength",
+                    MethodType.methodType(int.class, Object.class)).asType(MethodType.genericMethodType(1));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private JexCompiler() {
+    }
+
+    /**
+     * Returns the code of the specified checked tree or null, if the tree contains nodes which can only be
+     * interpreted.
+     */
+    static JexCode compile(final Node ast) {
+        try {
+            return new JexCode(compileNode((SimpleNode) ast));
+        } catch (UnsupportedOperationException | ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private static MethodHandle compileNode(final SimpleNode node) throws ReflectiveOperationException {
+        if (node instanceof ASTExpression) {
+            return compileNode(child(node, 0));
+        } else if (node instanceof ASTPrimaryExpression) {
+            return compilePrimary(node);
+        } else if (node instanceof ASTId) {
+            final ASTId id = (ASTId) node;
+            if (id.isClass) {
+                return constant(id.getNodeClass());
+            }
+            return MethodHandles.insertArguments(VARIABLE, 0, id.name, id.getNodeClass());
+        } else if (node instanceof ObjectConstNode) {
+            return constant(((ObjectConstNode) node).obj);
+        } else if (node instanceof ASTIntConstNode) {
+            return constant(((ASTIntConstNode) node).val);
+        } else if (node instanceof ASTFloatConstNode) {
+            return constant(((ASTFloatConstNode) node).val);
+        } else if (node instanceof ASTStringConstNode) {
+            final String val = ((ASTStringConstNode) node).val;
+            return constant(val.substring(1, val.length() - 1));
+        } else if (node instanceof ASTCharConstNode) {
+            return constant(((ASTCharConstNode) node).val);
+        } else if (node instanceof ASTTrueNode) {
+            return constant(Boolean.TRUE);
+        } else if (node instanceof ASTFalseNode) {
+            return constant(Boolean.FALSE);
+        } else if (node instanceof ASTAndNode) {
+            return MethodHandles.guardWithTest(test(child(node, 0)),
+                    MethodHandles.filterReturnValue(compileNode(child(node, 1)), BOOLEAN_RESULT),
+                    constant(Boolean.FALSE));
+        } else if (node instanceof ASTOrNode) {
+            return MethodHandles.guardWithTest(test(child(node, 0)),
+                    constant(Boolean.TRUE),
+                    MethodHandles.filterReturnValue(compileNode(child(node, 1)), BOOLEAN_RESULT));
+        } else if (node instanceof ASTCondExpr) {
+            return MethodHandles.guardWithTest(test(child(node, 0)),
+                    compileNode(child(node, 1)), compileNode(child(node, 2)));
+        } else if (node instanceof ASTNotNode) {
+            return operation("not", node);
+        } else if (node instanceof ASTNegNode) {
+            return operation("neg", node);
+        } else if (node instanceof ASTModNode) {
+            return operation("mod", node);
+        } else if (node instanceof ASTAddNode) {
+            if (node.getNodeClass() == SimpleNode.stringClass) {
+                return operation("concat", node);
+            }
+            return operation(intOrFloat("add", node.getNodeClass()), node);
+        } else if (node instanceof ASTSubtractNode) {
+            return operation(intOrFloat("sub", node.getNodeClass()), node);
+        } else if (node instanceof ASTMulNode) {
+            return operation(intOrFloat("mul", node.getNodeClass()), node);
+        } else if (node instanceof ASTDivNode) {
+            return operation(intOrFloat("div", node.getNodeClass()), node);
+        } else if (node instanceof ASTLTNode) {
+            return operation(intOrFloat("lt", commonType(node)), node);
+        } else if (node instanceof ASTGTNode) {
+            return operation(intOrFloat("gt", commonType(node)), node);
+        } else if (node instanceof ASTLENode) {
+            return operation(intOrFloat("le", commonType(node)), node);
+        } else if (node instanceof ASTGENode) {
+            return operation(intOrFloat("ge", commonType(node)), node);
+        } else if (node instanceof ASTEQNode) {
+            return operation(equality("eq", node), node);
+        } else if (node instanceof ASTNENode) {
+            return operation(equality("ne", node), node);
+        }
+        throw new UnsupportedOperationException(node.toString());
+    }
+
+    /**
+     * Compiles a prefix followed by method calls and field accesses.
+     */
+    private static MethodHandle compilePrimary(final SimpleNode node) throws ReflectiveOperationException {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle prefix = compileNode(child(node, 0));
+        for (int i = 1; i < node.jjtGetNumChildren(); i++) {
+            final SimpleNode suffix = child(node, i);
+            if (suffix instanceof ASTMethod) {
+                final Method method = ((ASTMethod) suffix).method;
+                if (method == null) {
+                    throw new UnsupportedOperationException(suffix.toString());
+                }
+                MethodHandle target = lookup.unreflect(method).asFixedArity();
+                if (Modifier.isStatic(method.getModifiers())) {
+                    target = MethodHandles.dropArguments(target, 0, Object.class);
+                }
+                final int nParams = suffix.jjtGetNumChildren() - 1;
+                final MethodHandle[] operands = new MethodHandle[nParams + 1];
+                operands[0] = prefix;
+                for (int p = 1; p <= nParams; p++) {
+                    operands[p] = compileNode(child(suffix, p));
+                }
+                prefix = sequence(target.asType(MethodType.genericMethodType(nParams + 1)), operands);
+            } else if (suffix instanceof ASTField) {
+                final ASTField field = (ASTField) suffix;
+                MethodHandle getter;
+                if (field.field == null) {
+                    if (field.getNodeClass() != Integer.TYPE) {
+                        throw new UnsupportedOperationException(suffix.toString());
+                    }
+                    getter = ARRAY_LENGTH;
+                } else {
+                    getter = lookup.unreflectGetter(field.field);
+                    if (Modifier.isStatic(field.field.getModifiers())) {
+                        getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                    }
+                    getter = getter.asType(MethodType.genericMethodType(1));
+                }
+                prefix = sequence(getter, prefix);
+            } else {
+                throw new UnsupportedOperationException(suffix.toString());
+            }
+        }
+        return prefix;
+    }
+
+    private static SimpleNode child(final SimpleNode node, final int i) {
+        return (SimpleNode) node.jjtGetChild(i);
+    }
+
+    private static MethodHandle constant(final Object value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(Object.class, value), 0, SymbolTable.class);
+    }
+
+    private static MethodHandle test(final SimpleNode condition) throws ReflectiveOperationException {
+        return MethodHandles.filterReturnValue(compileNode(condition), TRUTH);
+    }
+
+    /**
+     * Returns the operation of the specified name applied to the compiled children of the node.
+     */
+    private static MethodHandle operation(final String name, final SimpleNode node)
+            throws ReflectiveOperationException {
+        final int n = node.jjtGetNumChildren();
+        final MethodHandle op = MethodHandles.lookup().findStatic(JexCompiler.class, name,
+                MethodType.genericMethodType(n));
+        final MethodHandle[] operands = new MethodHandle[n];
+        for (int i = 0; i < n; i++) {
+            operands[i] = compileNode(child(node, i));
+        }
+        return sequence(op, operands);
+    }
+
+    /**
+     * Evaluates the operands from left to right and applies the operation to their values.
+     */
+    private static MethodHandle sequence(final MethodHandle op, final MethodHandle... operands) {
+        MethodHandle mh = MethodHandles.dropArguments(op, operands.length, SymbolTable.class);
+        for (int i = operands.length - 1; i >= 0; i--) {
+            mh = MethodHandles.foldArguments(mh, i, operands[i]);
+        }
+        return mh.asType(OPERAND);
+    }
+
+    private static String intOrFloat(final String name, final Class<?> numberType) {
+        if (SimpleNode.typeCode(numberType) <= SimpleNode.typeCode(Integer.TYPE)) {
+            return name + "Int";
+        }
+        return name + "Float";
+    }
+
+    private static Class<?> commonType(final SimpleNode node) {
+        return node.commonNumberType(child(node, 0), child(node, 1));
+    }
+
+    private static String equality(final String name, final SimpleNode node) {
+        final SimpleNode child1 = child(node, 0);
+        final SimpleNode child2 = child(node, 1);
+        if (child1.hasNumberType() && child2.hasNumberType()) {
+            return intOrFloat(name, commonType(node));
+        } else if (child1.hasStringType() && child2.hasStringType()) {
+            return name + "String";
+        } else if (child1.getNodeClass() == Boolean.TYPE && child2.getNodeClass() == Boolean.TYPE) {
+            return name + "Boolean";
+        }
+        throw new UnsupportedOperationException(node.toString());
+    }
+
+    /* Operations */
+    private static Object variable(final String name, final Class<?> type, final SymbolTable symtab) {
+        final HandlerType t = symtab.getType(name);
+        if (t == null || t.getClazz() != type) {
+            throw UNDECIDED;
+        }
+        final HandlerExpr expr = symtab.getExpr(name);
+        final Object value = expr == null ? null : expr.getValue();
+        if (value == null) {
+            throw UNDECIDED;
+        }
+        return value;
+    }
+
+    private static Number number(final Object n) {
+        if (n instanceof Number) {
+            return (Number) n;
+        }
+        throw UNDECIDED;
+    }
+
+    private static Integer integer(final Object i) {
+        if (i instanceof Integer) {
+            return (Integer) i;
+        }
+        throw UNDECIDED;
+    }
+
+    private static String string(final Object s) {
+        if (s instanceof String) {
+            return (String) s;
+        }
+        throw UNDECIDED;
+    }
+
+    private static boolean truth(final Object b) {
+        if (b instanceof Boolean) {
+            return ((Boolean) b).booleanValue();
+        }
+        throw UNDECIDED;
+    }
+
+    private static Object booleanResult(final Object b) {
+        if (b instanceof Boolean) {
+            return b;
+        }
+        throw UNDECIDED;
+    }
+
+    private static Object not(final Object b) {
+        return Boolean.valueOf(!truth(b));
+    }
+
+    private static Object neg(final Object i) {
+        return -1 * integer(i).intValue();
+    }
+
+    private static Object mod(final Object a, final Object b) {
+        return integer(a).intValue() % integer(b).intValue();
+    }
+
+    private static Object concat(final Object a, final Object b) {
+        return "" + a + b;
+    }
+
+    private static Object addInt(final Object a, final Object b) {
+        return number(a).intValue() + number(b).intValue();
+    }
+
+    private static Object addFloat(final Object a, final Object b) {
+        return Float.valueOf(number(a).floatValue() + number(b).floatValue());
+    }
+
+    private static Object subInt(final Object a, final Object b) {
+        return number(a).intValue() - number(b).intValue();
+    }
+
+    private static Object subFloat(final Object a, final Object b) {
+        return Float.valueOf(number(a).floatValue() - number(b).floatValue());
+    }
+
+    private static Object mulInt(final Object a, final Object b) {
+        return number(a).intValue() * number(b).intValue();
+    }
+
+    private static Object mulFloat(final Object a, final Object b) {
+        return Float.valueOf(number(a).floatValue() * number(b).floatValue());
+    }
+
+    private static Object divInt(final Object a, final Object b) {
+        return number(a).intValue() / number(b).intValue();
+    }
+
+    private static Object divFloat(final Object a, final Object b) {
+        return Float.valueOf(number(a).floatValue() / number(b).floatValue());
+    }
+
+    private static Object ltInt(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).intValue() < number(b).intValue());
+    }
+
+    private static Object ltFloat(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).floatValue() < number(b).floatValue());
+    }
+
+    private static Object gtInt(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).intValue() > number(b).intValue());
+    }
+
+    private static Object gtFloat(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).floatValue() > number(b).floatValue());
+    }
+
+    private static Object leInt(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).intValue() <= number(b).intValue());
+    }
+
+    private static Object leFloat(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).floatValue() <= number(b).floatValue());
+    }
+
+    private static Object geInt(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).intValue() >= number(b).intValue());
+    }
+
+    private static Object geFloat(final Object a, final Object b) {
+        return Boolean.valueOf(number(a).floatValue() >= number(b).floatValue());
+    }
+
+    private static Object eqInt(final Object a, final Object b) {
+        if (a == null || b == null) {
+            return Boolean.valueOf(a == b);
+        }
+        return Boolean.valueOf(number(a).intValue() == number(b).intValue());
+    }
+
+    private static Object eqFloat(final Object a, final Object b) {
+        if (a == null || b == null) {
+            return Boolean.valueOf(a == b);
+        }
+        return Boolean.valueOf(number(a).floatValue() == number(b).floatValue());
+    }
+
+    private static Object eqString(final Object a, final Object b) {
+        if (a == null || b == null) {
+            return Boolean.valueOf(a == b);
+        }
+        return Boolean.valueOf(string(a).equals(b));
+    }
+
+    private static Object eqBoolean(final Object a, final Object b) {
+        if (!(b instanceof Boolean)) {
+            throw UNDECIDED;
+        }
+        if (a instanceof Boolean) {
+            return Boolean.valueOf(((Boolean) a).booleanValue() == ((Boolean) b).booleanValue());
+        }
+        return b;
+    }
+
+    private static Object neInt(final Object a, final Object b) {
+        if (a == null || b == null) {
+            return Boolean.valueOf(a != b);
+        }
+        return Boolean.valueOf(number(a).intValue() != number(b).intValue());
+    }
+
+    private static Object neFloat(final Object a, final Object b) {
+        if (a == null || b == null) {
+            return Boolean.valueOf(a != b);
+        }
+        return Boolean.valueOf(number(a).floatValue() != number(b).floatValue());
+    }
+
+    private static Object neString(final Object a, final Object b) {
+        if (a == null || b == null) {
+            return Boolean.valueOf(a != b);
+        }
+        return Boolean.valueOf(!string(a).equals(b));
+    }
+
+    private static Object neBoolean(final Object a, final Object b) {
+        if (!(b instanceof Boolean)) {
+            throw UNDECIDED;
+        }
+        if (a instanceof Boolean) {
+            return Boolean.valueOf(((Boolean) a).booleanValue() != ((Boolean) b).booleanValue());
+        }
+        return b;
+    }
+}
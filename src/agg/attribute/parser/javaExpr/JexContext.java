@@ -0,0 +1,91 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.attribute.parser.javaExpr;
+
+import agg.attribute.handler.SymbolTable;
+import java.util.ArrayList;
+
+/**
+ * Evaluation state of the abstract syntax tree nodes: the calculation stack, the symbol table, the class resolver and
+ * the tree parsed last.
+ * Every thread works on its own context, so attribute expressions of different graph transformations can be checked
+ * and interpreted at the same time.
+ *
+ * @author Janusch Rentenatus
+ */
+final class JexContext {
+
+    private static final ThreadLocal<JexContext> CURRENT = ThreadLocal.withInitial(JexContext::new);
+
+    /**
+     * Class resolver of threads which did not set their own one.
+     */
+    static volatile ClassResolver defaultClassResolver = null;
+
+    /**
+     * Stack for calculations.
+     */
+    final ArrayList<Object> stack = new ArrayList<>();
+    int top = -1;
+    /**
+     * Nesting depth of running evaluations.
+     */
+    int depth = 0;
+    SymbolTable symtab = null;
+    ClassResolver classResolver = null;
+    /**
+     * Root of the abstract syntax tree parsed last.
+     */
+    Node ast = null;
+
+    private JexContext() {
+        this.classResolver = defaultClassResolver;
+    }
+
+    /**
+     * Returns the context of the current thread.
+     */
+    static JexContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens an evaluation. The outermost evaluation of a thread starts with an empty stack.
+     */
+    void open() {
+        if (this.depth++ == 0) {
+            this.stack.clear();
+            this.top = -1;
+        }
+    }
+
+    /**
+     * Closes an evaluation opened by {@link #open()}.
+     */
+    void close() {
+        if (--this.depth == 0) {
+            this.stack.clear();
+            this.top = -1;
+        }
+    }
+
+    /**
+     * Returns the result of the outermost evaluation.
+     */
+    Object getRootResult() {
+        return this.stack.get(this.top);
+    }
+
+    /**
+     * Clears the stack before a new expression is parsed.
+     */
+    void reset() {
+        this.stack.clear();
+        this.top = -1;
+    }
+}
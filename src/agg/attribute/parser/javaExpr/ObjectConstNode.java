@@ -40,11 +40,12 @@ public class ObjectConstNode extends SimpleNode {
     }
 
     public void interpret() {
+final JexContext context = JexContext.current();
 //		stack[top] = obj;
-        if (top >= stack.size()) {
-            stack.add(this.obj);
+        if (context.top >= context.stack.size()) {
+            context.stack.add(this.obj);
         } else {
-            stack.set(top, this.obj);
+            context.stack.set(context.top, this.obj);
         }
     }
 
@@ -149,6 +149,7 @@ public class OpMemberNode extends MemberNode {
     }
 
     public void invoke(SimpleNode recipient) {
+        final JexContext context = JexContext.current();
         if (this.method == null) {
             checkContext(recipient);
         }
@@ -156,12 +157,12 @@ public class OpMemberNode extends MemberNode {
         Object params[] = new Object[nChildren - 1];
         for (int i = 1; i < nChildren; i++) {
             jjtGetChild(i).interpret();
-            params[i - 1] = stack.get(top--);
+            params[i - 1] = context.stack.get(context.top--);
         }
         if (nChildren == 1) {
             params = null;
         }
-        this.receivingObj = stack.get(top);;
+        this.receivingObj = context.stack.get(context.top);;
         try {
             this.returnObj = this.method.invoke(this.receivingObj, params);
 //			System.out.println("receivingObj=" + receivingObj );
@@ -197,9 +198,10 @@ public class OpMemberNode extends MemberNode {
     }
 
     public void interpret(SimpleNode recipient) {
+        final JexContext context = JexContext.current();
         invoke(recipient);
 //		stack[++top] = returnObj;
-        stack.add(++top, this.returnObj);
+        context.stack.add(++context.top, this.returnObj);
     }
 
     public Node copy() {
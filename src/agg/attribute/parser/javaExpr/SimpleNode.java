@@ -15,7 +15,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.util.ArrayList;
 import java.util.Vector;
 import agg.attribute.handler.SymbolTable;
 import agg.attribute.impl.AttrSession;
@@ -38,7 +37,6 @@ public class SimpleNode implements Node {
 
     public SimpleNode(String id) {
         this.identifier = id;
-        typeInit();
         this.error = "";
     }
 
@@ -123,11 +121,9 @@ public class SimpleNode implements Node {
      * *********************** Added by Sreeni. ******************
      */
     /**
-     * Stack for calculations.
+     * Stack for calculations, see {@link JexContext}.
      */
 //	protected static Object[] stack = new Object[2048]; //[1024];	
-    protected static ArrayList<Object> stack = new ArrayList<Object>();
-    protected static int top = -1;
 
     /**
      * This method must be overridden from all its subclasses.
@@ -143,18 +139,10 @@ public class SimpleNode implements Node {
     /**
      * *********************** Added by BM. ******************
      */
-    /**
-     * Initialization flag
-     */
-    static protected boolean neverCalled = true;
-    /**
-     * Symbol table
-     */
-    static protected SymbolTable symtab = null;
     /**
      * Widening order for numeric types
      */
-    protected static java.util.Hashtable<Class<?>, Integer> numberTypes = new java.util.Hashtable<Class<?>, Integer>();
+    protected static final java.util.Hashtable<Class<?>, Integer> numberTypes = new java.util.Hashtable<Class<?>, Integer>();
 //	/** Constructors */
 //	protected static java.util.Hashtable constructors = new java.util.Hashtable();
 //	/** Referencing methods for Operands */
@@ -162,30 +150,20 @@ public class SimpleNode implements Node {
     /**
      * String class handle for frequent comparison
      */
-    static protected Class<?> stringClass;
+    static protected final Class<?> stringClass = String.class;
     /**
      * Object class handle for frequent comparison
      */
-    static protected Class<?> objectClass;
-
-    static protected void typeInit() {
-        if (neverCalled) {
-            neverCalled = false;
-            int codeNr = 0;
-            codeNr = 0;
-            numberTypes.put(Byte.TYPE, codeNr++);
-            numberTypes.put(Short.TYPE, codeNr++);
-            numberTypes.put(Long.TYPE, codeNr++);
-            numberTypes.put(Integer.TYPE, codeNr++);
-            numberTypes.put(Float.TYPE, codeNr++);
-            numberTypes.put(Double.TYPE, codeNr++);
-            try {
-                stringClass = Class.forName("java.lang.String");
-                objectClass = Class.forName("java.lang.Object");
-            } catch (Exception e) {
-                throw (RuntimeException) e;
-            }
-        }
+    static protected final Class<?> objectClass = Object.class;
+
+    static {
+        int codeNr = 0;
+        numberTypes.put(Byte.TYPE, codeNr++);
+        numberTypes.put(Short.TYPE, codeNr++);
+        numberTypes.put(Long.TYPE, codeNr++);
+        numberTypes.put(Integer.TYPE, codeNr++);
+        numberTypes.put(Float.TYPE, codeNr++);
+        numberTypes.put(Double.TYPE, codeNr++);
     }
     /**
      * The class handle
@@ -299,22 +277,32 @@ public class SimpleNode implements Node {
         this.error = "SimpleNode.checkContext FAILED!";
     }
 
+    /**
+     * Sets the symbol table of the current thread.
+     */
     static public void setSymbolTable(SymbolTable st) {
-        symtab = st;
+        JexContext.current().symtab = st;
     }
 
+    /**
+     * Returns the symbol table of the current thread.
+     */
     static public SymbolTable getSymbolTable() {
-        return symtab;
+        return JexContext.current().symtab;
     }
-    static protected ClassResolver classResolver = null;
 
+    /**
+     * Sets the class resolver of the current thread. It is also used by the
+     * threads which did not set a class resolver yet.
+     */
     static public void setClassResolver(ClassResolver cr) {
-        classResolver = cr;
+        JexContext.defaultClassResolver = cr;
+        JexContext.current().classResolver = cr;
     }
 
     public Object getRootResult() {
 //		return stack[top];
-        return stack.get(top);
+        return JexContext.current().getRootResult();
     }
 
     /**
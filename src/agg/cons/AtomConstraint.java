@@ -13,6 +13,7 @@
  */
 package agg.cons;
 
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.Vector;
@@ -34,6 +35,7 @@ import agg.attribute.impl.ContextView;
 import agg.util.XMLHelper;
 import agg.util.XMLObject;
 import agg.xt_basis.Arc;
+import agg.xt_basis.BadMappingException;
 import agg.xt_basis.BaseFactory;
 import agg.xt_basis.Completion_InjCSP;
 import agg.xt_basis.Graph;
@@ -319,11 +321,58 @@ public class AtomConstraint extends OrdinaryMorphism
         return this.old_val;
     }
 
+    /**
+     * Returns the value of the last evaluation if it was done for the
+     * specified tick, otherwise null.
+     */
+    public Boolean getValueOfTick(int tick) {
+        if (tick != -1 && tick == this.old_tick) {
+            return Boolean.valueOf(this.old_val);
+        }
+        return null;
+    }
+
+    /**
+     * Sets the value of the evaluation for the specified tick. A formula
+     * evaluated with this tick uses the value without evaluating this atomic
+     * constraint again.
+     */
+    public void setValueOfTick(int tick, boolean value) {
+        this.old_tick = tick;
+        this.old_val = value;
+    }
+
+    /**
+     * Forgets the tick of the last evaluation, so a formula evaluates this
+     * atomic constraint again with any tick.
+     */
+    public void resetValueOfTick() {
+        this.old_tick = -1;
+    }
+
+    /**
+     * Evaluates this atomic constraint for the premise matches into the graph
+     * g which map at least one premise node onto one of the specified anchor
+     * nodes. All other premise matches are not checked.
+     *
+     * @param g the graph
+     * @param anchors nodes of the graph g
+     * @return false if one of the checked premise matches cannot be extended
+     * to a conclusion, otherwise true
+     */
+    public boolean evalAt(Graph g, Collection<Node> anchors) {
+        return eval(g, false, anchors);
+    }
+
     private boolean eval(Graph g) {
         return eval(g, false);
     }
 
     private boolean eval(Graph g, boolean negation) {
+        return eval(g, negation, null);
+    }
+
+    private boolean eval(Graph g, boolean negation, Collection<Node> anchors) {
 //		System.out.println("AtomConstraint.eval(Graph):: "+getAtomicName()+"  negation: "+negation);
         this.failedObjs.clear();
         if (!this.valid || this.conclusions.isEmpty()) {
@@ -356,9 +405,12 @@ public class AtomConstraint extends OrdinaryMorphism
             ((ContextView) matchP.getAttrContext()).setVariableContext(true);
         }
         OrdinaryMorphism t = null, t2 = null, t2match = null;
+        // without anchors all morphisms P --s--> G are checked by a single search,
+        // otherwise each search starts with a premise node mapped onto an anchor
+        final Iterator<Node[]> seeds = anchors == null ? null : seedsOf(conclusion0.getOriginal(), anchors);
         // For each morphism P --s--> G ...
         matchP.setCompletionStrategy(strategy1, true);
-        while (matchP.nextCompletionWithConstantsChecking()) {
+        while (nextPremiseMatch(matchP, seeds)) {
             // test output
 //			this.showMorphismData(matchP);
             setEvaluable(matchP, matchP.getSource());
@@ -494,6 +546,50 @@ public class AtomConstraint extends OrdinaryMorphism
         return result;
     }
 
+    /**
+     * Returns pairs of a premise node and an anchor node of the same type.
+     */
+    private static Iterator<Node[]> seedsOf(final Graph premise, final Collection<Node> anchors) {
+        final List<Node[]> seeds = new Vector<Node[]>();
+        for (Node a : anchors) {
+            for (Node p : premise.getNodesSet()) {
+                if (p.getType().isParentOf(a.getType())) {
+                    seeds.add(new Node[]{p, a});
+                }
+            }
+        }
+        return seeds.iterator();
+    }
+
+    /**
+     * Completes the premise match to its next morphism P --s--> G. Without
+     * seeds the completion strategy of the match is used. Otherwise the match
+     * is empty until the first seed is used, and each search of a seed starts
+     * with the premise node mapped onto the anchor node.
+     */
+    private static boolean nextPremiseMatch(final OrdinaryMorphism matchP, final Iterator<Node[]> seeds) {
+        if (seeds == null) {
+            return matchP.nextCompletionWithConstantsChecking();
+        }
+        if (!matchP.isEmpty() && matchP.nextCompletionWithConstantsChecking()) {
+            return true;
+        }
+        while (seeds.hasNext()) {
+            final Node[] seed = seeds.next();
+            matchP.clear();
+            matchP.setCompletionStrategy(new Completion_InjCSP(false), true);
+            try {
+                matchP.addMapping(seed[0], seed[1]);
+            } catch (BadMappingException ex) {
+                continue;
+            }
+            if (matchP.nextCompletionWithConstantsChecking()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void fillFailedObjects(OrdinaryMorphism matchP) {
         Iterator<GraphObject> codom = matchP.getCodomain();
         while (codom.hasNext()) {
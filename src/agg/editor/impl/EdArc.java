@@ -491,6 +491,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
      */
     public void setSource(EdGraphObject en) {
         this.from = en;
+        geometryChanged();
     }
 
     /**
@@ -505,6 +506,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
      */
     public void setTarget(EdGraphObject en) {
         this.to = en;
+        geometryChanged();
     }
 
     /**
@@ -523,6 +525,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
      */
     public void setAnchor(Point newAnchor) {
         this.anchor = newAnchor;
+        geometryChanged();
         if (this.anchor == null) {
             this.hasDefaultAnchor = true;
         } else if (isLine()) {
@@ -539,6 +542,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
      */
     public void setAnchor(int id, Point newAnchor) {
         this.anchor = newAnchor;
+        geometryChanged();
         if (this.anchor == null) {
             this.hasDefaultAnchor = true;
         } else if (!isLine() && id == Loop.UPPER_LEFT) {
@@ -596,8 +600,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
      * Returns the size of the text
      */
     public Dimension getTextSize(FontMetrics fm) {
-        this.textSize.setSize(new Dimension(super.getTextWidth(fm), super
-                .getTextHeight(fm)));
+        updateTextSize(fm);
         return this.textSize;
     }
 
@@ -605,8 +608,25 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
      * Updates the size of the text
      */
     public void updateTextSize(FontMetrics fm) {
-        this.textSize.setSize(new Dimension(super.getTextWidth(fm), super
-                .getTextHeight(fm)));
+        final int tw = super.getTextWidth(fm);
+        final int th = super.getTextHeight(fm);
+        if (fm != null && (tw != this.textSize.width || th != this.textSize.height)) {
+            this.textSize.setSize(tw, th);
+            geometryChanged();
+        } else {
+            this.textSize.setSize(tw, th);
+        }
+    }
+
+    /**
+     * Returns the size of the text of the last drawing, or an estimated size
+     * if the text was not drawn yet.
+     */
+    Dimension getLastTextSize() {
+        if (this.textSize.width > 0 || this.textSize.height > 0) {
+            return this.textSize;
+        }
+        return new Dimension(super.getTextWidth(null), super.getTextHeight(null));
     }
 
     /**
@@ -622,6 +642,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
     public void setTextOffset(int xOffset, int yOffset) {
         this.textOffset.x = xOffset;
         this.textOffset.y = yOffset;
+        geometryChanged();
     }
 
     /**
@@ -637,6 +658,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
         } else if (this.partOfText == 2) {
             this.trgMultiplicityOffset.translate(dx, dy);
         }
+        geometryChanged();
     }
     /**
      * Returns TRUE if the point specified by the int X, int Y is inside of
@@ -783,6 +805,7 @@ public class EdArc extends EdGraphObject implements AttrViewObserver,
                 this.h = (int) (this.h * (scale / this.itsScale));
             }
             this.itsScale = scale;
+            geometryChanged();
         }
     }
 
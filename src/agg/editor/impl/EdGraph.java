@@ -18,6 +18,7 @@ import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -106,6 +107,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
     private boolean staticNodeXY;
     private double itsScale;
     private boolean firstDraw = true;
+    private EdGraphGrid grid;
     protected boolean nodeNumberChanged;
     private boolean nodeRemoved;
     // undo / redo edit actions
@@ -225,6 +227,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
         }
         this.arcs.clear();
         this.nodes.clear();
+        this.grid = null;
         this.basisNode2node.clear();
         if (this.newAfterTransformStep != null) {
             this.newAfterTransformStep.clear();
@@ -270,6 +273,9 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
                 this.visibilityChecked = false;
             }
         }
+        if (this.grid != null) {
+            this.grid.add(go);
+        }
     }
 
     private void removeElement(EdGraphObject go) {
@@ -293,6 +299,9 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
             this.visibleNodes.remove(go);
         }
         this.nodes.remove(go);
+        if (this.grid != null) {
+            this.grid.remove(go);
+        }
         if (go.getType() != null) {
             this.typeSet.removeTypeUser(go.getType(), go);
         }
@@ -324,6 +333,9 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
             this.visibleArcs.remove(go);
         }
         this.arcs.remove(go);
+        if (this.grid != null) {
+            this.grid.remove(go);
+        }
         if (go.getType() != null) {
             this.typeSet.removeTypeUser(go.getType(), go);
         }
@@ -352,6 +364,9 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
             this.visibleArcs.remove(go);
         }
         this.arcs.remove(go);
+        if (this.grid != null) {
+            this.grid.remove(go);
+        }
         this.typeSet.removeArcTypeUser(go.getType(), go, nType);
         if (this.pickedObj == go) {
             this.pickedObj = null;
@@ -2068,6 +2083,49 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
         return null;
     }
 
+    /**
+     * Returns the grid over the nodes and arcs, or null if the graph is too
+     * small to need one. Type graphs are searched without grid.
+     */
+    private EdGraphGrid getGrid() {
+        if (this.isTG
+                || this.nodes.size() + this.arcs.size() < EdGraphGrid.MIN_OBJECTS) {
+            this.grid = null;
+        } else if (this.grid == null
+                || !this.grid.isConsistent(this.nodes.size(), this.arcs.size())) {
+            this.grid = new EdGraphGrid(this.nodes, this.arcs);
+        }
+        return this.grid;
+    }
+
+    /**
+     * Is called by a node or an arc of this graph, when its position or its
+     * size was changed.
+     */
+    void geometryChanged(EdGraphObject go) {
+        final EdGraphGrid g = this.grid;
+        if (g != null) {
+            g.invalidate(go);
+        }
+    }
+
+    /**
+     * Returns the nodes whose center is inside of the specified rectangle, in
+     * the order of the list of nodes.
+     */
+    public List<EdNode> getNodesInside(Rectangle rect) {
+        final EdGraphGrid g = getGrid();
+        final List<EdNode> list = (g != null) ? g.getNodes(rect) : this.nodes;
+        final List<EdNode> inside = new Vector<>();
+        for (int i = 0; i < list.size(); i++) {
+            EdNode n = list.get(i);
+            if (rect.contains(n.getX(), n.getY())) {
+                inside.add(n);
+            }
+        }
+        return inside;
+    }
+
     // pick
     /**
      * Gets an object on the position specifies by the int x, int y
@@ -2089,6 +2147,18 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
      */
     public EdNode getPickedNode(int x, int y) {
         this.pickedObj = null;
+        final EdGraphGrid g = getGrid();
+        if (g != null) {
+            final List<EdNode> list = g.getNodesAt(x, y);
+            for (int i = list.size() - 1; i >= 0; i--) {
+                EdNode en = list.get(i);
+                if (en.inside(x, y)) {
+                    this.pickedObj = en;
+                    return en;
+                }
+            }
+            return null;
+        }
         for (int i = this.nodes.size() - 1; i >= 0; i--) {
 //		for (int i = 0; i<this.nodes.size(); i++) {
             EdNode en = this.nodes.get(i);
@@ -2105,6 +2175,18 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
      */
     public EdArc getPickedArc(int x, int y) {
         this.pickedObj = null;
+        final EdGraphGrid g = getGrid();
+        if (g != null) {
+            final List<EdArc> list = g.getArcsAt(x, y);
+            for (int i = list.size() - 1; i >= 0; i--) {
+                EdArc ea = list.get(i);
+                if (ea.inside(x, y)) {
+                    this.pickedObj = ea;
+                    return ea;
+                }
+            }
+            return null;
+        }
         for (int i = this.arcs.size() - 1; i >= 0; i--) {
 //		for (int i = 0; i<this.arcs.size(); i++) {
             EdArc ea = this.arcs.get(i);
@@ -2128,6 +2210,9 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
             EdNode eNode = list.get(i);
             this.nodes.remove(eNode);
             this.nodes.add(eNode);
+            if (this.grid != null) {
+                this.grid.toFront(eNode);
+            }
         }
         list.clear();
     }
@@ -2136,6 +2221,9 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
         if (go != null) {
             this.nodes.remove(go);
             this.nodes.add(go);
+            if (this.grid != null) {
+                this.grid.toFront(go);
+            }
         }
     }
 
@@ -2144,9 +2232,11 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
      * int y
      */
     public EdArc getPickedTextOfArc(int x, int y, FontMetrics fm) {
+        final EdGraphGrid g = getGrid();
+        final List<EdArc> list = (g != null) ? g.getArcsAt(x, y) : this.arcs;
 //		for (int i=this.arcs.size()-1; i>=0; i--) {
-        for (int i = 0; i < this.arcs.size(); i++) {
-            EdArc ea = this.arcs.get(i);
+        for (int i = 0; i < list.size(); i++) {
+            EdArc ea = list.get(i);
             if (ea.insideTextOfArc(x, y, fm)) {
                 return ea;
             }
@@ -2164,8 +2254,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
         if (pickedNode != null) {
             final List<EdArc> in = getIncomingArcs(pickedNode);
             final List<EdArc> out = getOutgoingArcs(pickedNode);
-            pickedNode.x = pickedNode.x + dx;
-            pickedNode.y = pickedNode.y + dy;
+            pickedNode.setXY(pickedNode.x + dx, pickedNode.y + dy);
 //			System.out.println(pickedNode.x+" , "+pickedNode.y);
             for (int i = 0; i < in.size(); i++) {
                 final EdArc ea = in.get(i);
@@ -2202,8 +2291,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
         if (pickedNode != null) {
             final List<EdArc> in = getIncomingArcs(pickedNode);
             final List<EdArc> out = getOutgoingArcs(pickedNode);
-            pickedNode.x = pickedNode.x + dx;
-            pickedNode.y = pickedNode.y + dy;
+            pickedNode.setXY(pickedNode.x + dx, pickedNode.y + dy);
             for (int i = 0; i < in.size(); i++) {
                 final EdArc ea = in.get(i);
                 if (ea.isSelected()) {
@@ -2260,8 +2348,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
     private void moveNodeOnly(EdNode pickedNode, int dx, int dy) {
         if (pickedNode != null) {
             List<EdArc> in = getIncomingArcs(pickedNode);
-            pickedNode.x = pickedNode.x + dx;
-            pickedNode.y = pickedNode.y + dy;
+            pickedNode.setXY(pickedNode.x + dx, pickedNode.y + dy);
             for (int i = 0; i < in.size(); i++) {
                 EdArc ea = in.get(i);
                 // move loop-edge
@@ -2371,8 +2458,10 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
      */
     public EdGraphObject selectNode(int x, int y) {
         EdNode selEdNode = null;
-        for (int i = 0; i < this.nodes.size(); i++) {
-            EdNode eNode = this.nodes.get(i);
+        final EdGraphGrid g = getGrid();
+        final List<EdNode> list = (g != null) ? g.getNodesAt(x, y) : this.nodes;
+        for (int i = 0; i < list.size(); i++) {
+            EdNode eNode = list.get(i);
             if (eNode.inside(x, y)) {
                 selEdNode = eNode;
                 selEdNode.setSelected(true);
@@ -2429,8 +2518,10 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
      */
     public EdGraphObject selectArc(int x, int y) {
         EdArc selEdArc = null;
-        for (int i = 0; i < this.arcs.size(); i++) {
-            EdArc eArc = this.arcs.get(i);
+        final EdGraphGrid g = getGrid();
+        final List<EdArc> list = (g != null) ? g.getArcsAt(x, y) : this.arcs;
+        for (int i = 0; i < list.size(); i++) {
+            EdArc eArc = list.get(i);
             if (eArc.inside(x, y) || eArc.insideTextOfArc(x, y, null)) {
                 selEdArc = eArc;
                 selEdArc.setSelected(true);
@@ -3168,6 +3259,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
         }
         this.arcs.clear();
         this.nodes.clear();
+        this.grid = null;
         this.basisNode2node.clear();
         this.gCopy = null;
     }
@@ -4878,6 +4970,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
                 en.dispose();
             }
         }
+        this.grid = null;
     }
 
     public void setXYofNewNode(
@@ -5168,6 +5261,7 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
             this.arcs.get(i).applyScale(scale);
         }
         this.itsScale = scale;
+        this.grid = null;
     }
 
     /*
@@ -5340,8 +5434,25 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
                     }
                 }
             }
-            for (int i = 0; i < arcList.size(); i++) {
-                EdArc a = arcList.get(i);
+            List<EdArc> arcsToDraw = arcList;
+            List<EdNode> nodesToDraw = nodeList;
+            final Rectangle clip = graphics.getClipBounds();
+            final EdGraphGrid g = (clip != null) ? getGrid() : null;
+            if (g != null) {
+                // only the objects in the clip, in the order of the lists
+                if (arcList == this.arcs) {
+                    arcsToDraw = g.getArcs(clip);
+                } else if (arcList == this.visibleArcs) {
+                    arcsToDraw = removeInvisible(g.getArcs(clip));
+                }
+                if (nodeList == this.nodes) {
+                    nodesToDraw = g.getNodes(clip);
+                } else if (nodeList == this.visibleNodes) {
+                    nodesToDraw = removeInvisible(g.getNodes(clip));
+                }
+            }
+            for (int i = 0; i < arcsToDraw.size(); i++) {
+                EdArc a = arcsToDraw.get(i);
                 a.setAttributeVisible(attributeVisible);
                 if (this.isCPA) {
                     a.drawNameAttrOnly(graphics);
@@ -5349,8 +5460,8 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
                     a.drawGraphic(graphics);
                 }
             }
-            for (int i = 0; i < nodeList.size(); i++) {
-                EdNode n = nodeList.get(i);
+            for (int i = 0; i < nodesToDraw.size(); i++) {
+                EdNode n = nodesToDraw.get(i);
                 n.setAttributeVisible(attributeVisible);
                 if (this.isCPA) {
                     n.drawNameAttrOnly(graphics);
@@ -5361,6 +5472,11 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
         }
     }
 
+    private static <T extends EdGraphObject> List<T> removeInvisible(final List<T> list) {
+        list.removeIf(go -> !go.isVisible());
+        return list;
+    }
+
     /**
      * Draws the graphic of the node n
      */
@@ -5535,10 +5651,12 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
 
     public List<EdArc> getIncomingArcs(EdNode en) {
         synchronized (this) {
+            final EdGraphGrid g = getGrid();
+            final List<EdArc> list = (g != null) ? g.getArcs(en) : this.arcs;
             List<EdArc> in = new Vector<>();
-            for (int i = 0; i < this.arcs.size(); i++) {
-                if (this.arcs.get(i).getTarget() == en) {
-                    in.add(this.arcs.get(i));
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).getTarget() == en) {
+                    in.add(list.get(i));
                 }
             }
             return in;
@@ -5547,10 +5665,12 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
 
     public List<EdArc> getOutgoingArcs(EdNode en) {
         synchronized (this) {
+            final EdGraphGrid g = getGrid();
+            final List<EdArc> list = (g != null) ? g.getArcs(en) : this.arcs;
             List<EdArc> out = new Vector<>();
-            for (int i = 0; i < this.arcs.size(); i++) {
-                if (this.arcs.get(i).getSource() == en) {
-                    out.add(this.arcs.get(i));
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).getSource() == en) {
+                    out.add(list.get(i));
                 }
             }
             return out;
@@ -5689,6 +5809,8 @@ public class EdGraph implements XMLObject, Observer, StateEditable {
             h.enrichObject(a);
             a.getLArc().setFrozenByDefault(true);
         }
+        // the positions are read without setters
+        this.grid = null;
         if (hasLoadedLayout) {
             this.hasDefaultLayout = true;
         } else if (this.nodes.size() > 1) {
@@ -0,0 +1,491 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.editor.impl;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A uniform grid over the nodes and arcs of a graph layout. Each object is
+ * kept in the cells its bounds touch: a node in the cells of its rectangle, an
+ * arc in the cells along its line segments, its loop and its text. The bounds
+ * are conservative, because the sizes of the nodes and the end points of the
+ * arcs are computed while drawing: a cell yields candidates, which still have
+ * to be tested by <code>inside(..)</code>.
+ *
+ * <p>
+ * The grid keeps the order of the lists of the graph: each object gets an
+ * increasing stamp when it is added or brought to front, and the candidates
+ * are returned in this order. Changes of the geometry are collected and the
+ * objects are re-indexed lazily before the next query, a node together with
+ * its arcs.
+ *
+ * @author Janusch Rentenatus
+ */
+final class EdGraphGrid {
+
+    /**
+     * The width and the height of a cell.
+     */
+    static final int CELL_SIZE = 128;
+
+    /**
+     * Graphs with less objects are searched without grid.
+     */
+    static final int MIN_OBJECTS = 512;
+
+    private static final int NODE_MARGIN = 4;
+    private static final int ARC_MARGIN = 24;
+    private static final int LOOP_MARGIN = 40;
+
+    private static final int MIX = 0x9E3779B9;
+
+    private static final Comparator<Entry> BY_ORDER
+            = (e1, e2) -> Long.compare(e1.order, e2.order);
+
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<EdGraphObject, Entry> entries = new IdentityHashMap<>();
+    private final Map<EdGraphObject, List<Entry>> incident = new IdentityHashMap<>();
+    private final Set<Entry> dirty = new HashSet<>();
+    private final Keys keys = new Keys();
+    private long nextOrder;
+    private int nodeCount;
+    private int arcCount;
+    private int stamp;
+
+    /**
+     * Creates the grid of the objects of the lists, in the order of the
+     * lists.
+     */
+    EdGraphGrid(final List<EdNode> nodes, final List<EdArc> arcs) {
+        for (int i = 0; i < nodes.size(); i++) {
+            add(nodes.get(i));
+        }
+        for (int i = 0; i < arcs.size(); i++) {
+            add(arcs.get(i));
+        }
+    }
+
+    /**
+     * Returns true if the grid holds as many nodes and arcs as given.
+     */
+    synchronized boolean isConsistent(final int nodes, final int arcs) {
+        return this.nodeCount == nodes && this.arcCount == arcs;
+    }
+
+    /**
+     * Adds an object, which was appended to its list.
+     */
+    synchronized void add(final EdGraphObject go) {
+        if (this.entries.containsKey(go)) {
+            return;
+        }
+        final Entry e = new Entry(go, this.nextOrder++);
+        this.entries.put(go, e);
+        if (e.node) {
+            this.nodeCount++;
+        } else {
+            this.arcCount++;
+            connect(e);
+        }
+        insert(e);
+    }
+
+    /**
+     * Removes an object.
+     */
+    synchronized void remove(final EdGraphObject go) {
+        final Entry e = this.entries.remove(go);
+        if (e == null) {
+            return;
+        }
+        this.dirty.remove(e);
+        clear(e);
+        if (e.node) {
+            this.nodeCount--;
+        } else {
+            this.arcCount--;
+            disconnect(e);
+        }
+    }
+
+    /**
+     * Moves an object to the end of the order, it was moved to the end of its
+     * list.
+     */
+    synchronized void toFront(final EdGraphObject go) {
+        final Entry e = this.entries.get(go);
+        if (e != null) {
+            e.order = this.nextOrder++;
+        }
+    }
+
+    /**
+     * Marks the geometry of an object as changed.
+     */
+    synchronized void invalidate(final EdGraphObject go) {
+        final Entry e = this.entries.get(go);
+        if (e != null) {
+            this.dirty.add(e);
+        }
+    }
+
+    /**
+     * Returns the nodes whose bounds may contain the point, in the order of
+     * the list of nodes.
+     */
+    synchronized List<EdNode> getNodesAt(final int px, final int py) {
+        return sorted(find(px, py, true));
+    }
+
+    /**
+     * Returns the arcs whose bounds may contain the point, in the order of
+     * the list of arcs.
+     */
+    synchronized List<EdArc> getArcsAt(final int px, final int py) {
+        return sorted(find(px, py, false));
+    }
+
+    /**
+     * Returns the nodes whose bounds may intersect the rectangle, in the
+     * order of the list of nodes.
+     */
+    synchronized List<EdNode> getNodes(final Rectangle r) {
+        return sorted(find(r, true));
+    }
+
+    /**
+     * Returns the arcs whose bounds may intersect the rectangle, in the order
+     * of the list of arcs.
+     */
+    synchronized List<EdArc> getArcs(final Rectangle r) {
+        return sorted(find(r, false));
+    }
+
+    /**
+     * Returns the incoming and outgoing arcs of the node, in the order of the
+     * list of arcs.
+     */
+    synchronized List<EdArc> getArcs(final EdNode n) {
+        flush();
+        final List<Entry> list = this.incident.get(n);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return sorted(new ArrayList<>(list));
+    }
+
+    private List<Entry> find(final int px, final int py, final boolean nodes) {
+        flush();
+        final List<Entry> found = new ArrayList<>();
+        final List<Entry> list = this.cells.get(key(cell(px), cell(py)));
+        if (list != null) {
+            for (Entry e : list) {
+                if (e.node == nodes) {
+                    found.add(e);
+                }
+            }
+        }
+        return found;
+    }
+
+    private List<Entry> find(final Rectangle r, final boolean nodes) {
+        flush();
+        final List<Entry> found = new ArrayList<>();
+        final int cx0 = cell(r.x);
+        final int cy0 = cell(r.y);
+        final int cx1 = cell(r.x + r.width);
+        final int cy1 = cell(r.y + r.height);
+        final int s = ++this.stamp;
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > this.cells.size()) {
+            for (Map.Entry<Long, List<Entry>> c : this.cells.entrySet()) {
+                final long k = c.getKey();
+                final int cx = (int) (k >> 32);
+                final int cy = (int) k ^ (cx * MIX);
+                if (cx >= cx0 && cx <= cx1 && cy >= cy0 && cy <= cy1) {
+                    collect(c.getValue(), nodes, s, found);
+                }
+            }
+        } else {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int cy = cy0; cy <= cy1; cy++) {
+                    final List<Entry> list = this.cells.get(key(cx, cy));
+                    if (list != null) {
+                        collect(list, nodes, s, found);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static void collect(final List<Entry> list, final boolean nodes,
+            final int s, final List<Entry> found) {
+        for (Entry e : list) {
+            if (e.node == nodes && e.seen != s) {
+                e.seen = s;
+                found.add(e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends EdGraphObject> List<T> sorted(final List<Entry> found) {
+        found.sort(BY_ORDER);
+        final List<T> result = new ArrayList<>(found.size());
+        for (Entry e : found) {
+            result.add((T) e.obj);
+        }
+        return result;
+    }
+
+    /**
+     * Re-indexes the changed objects and the arcs of the changed nodes. If
+     * many objects are changed, as after a layout, the grid is built again.
+     */
+    private void flush() {
+        if (this.dirty.isEmpty()) {
+            return;
+        }
+        if (this.dirty.size() > this.entries.size() / 4) {
+            this.cells.clear();
+            for (Entry e : this.entries.values()) {
+                e.cells = null;
+                if (!e.node) {
+                    connect(e);
+                }
+                insert(e);
+            }
+        } else {
+            final Set<Entry> changed = new HashSet<>(this.dirty);
+            for (Entry e : this.dirty) {
+                if (e.node) {
+                    final List<Entry> arcs = this.incident.get(e.obj);
+                    if (arcs != null) {
+                        changed.addAll(arcs);
+                    }
+                }
+            }
+            for (Entry e : changed) {
+                clear(e);
+                if (!e.node) {
+                    connect(e);
+                }
+                insert(e);
+            }
+        }
+        this.dirty.clear();
+    }
+
+    /**
+     * Registers the arc at its source and target node, again if they were
+     * changed.
+     */
+    private void connect(final Entry e) {
+        final EdArc a = (EdArc) e.obj;
+        if (e.source == a.getSource() && e.target == a.getTarget()) {
+            return;
+        }
+        disconnect(e);
+        e.source = a.getSource();
+        e.target = a.getTarget();
+        link(e.source, e);
+        if (e.target != e.source) {
+            link(e.target, e);
+        }
+    }
+
+    private void disconnect(final Entry e) {
+        unlink(e.source, e);
+        unlink(e.target, e);
+        e.source = null;
+        e.target = null;
+    }
+
+    private void link(final EdGraphObject n, final Entry e) {
+        if (n != null) {
+            this.incident.computeIfAbsent(n, k -> new ArrayList<>(4)).add(e);
+        }
+    }
+
+    private void unlink(final EdGraphObject n, final Entry e) {
+        if (n != null) {
+            final List<Entry> list = this.incident.get(n);
+            if (list != null && list.remove(e) && list.isEmpty()) {
+                this.incident.remove(n);
+            }
+        }
+    }
+
+    private void insert(final Entry e) {
+        final Keys keys = this.keys;
+        keys.size = 0;
+        if (e.node) {
+            addNode(keys, (EdNode) e.obj, NODE_MARGIN);
+        } else {
+            addArc(keys, (EdArc) e.obj);
+        }
+        e.cells = keys.toDistinctArray();
+        for (long k : e.cells) {
+            this.cells.computeIfAbsent(k, c -> new ArrayList<>(4)).add(e);
+        }
+    }
+
+    private void clear(final Entry e) {
+        if (e.cells == null) {
+            return;
+        }
+        for (long k : e.cells) {
+            final List<Entry> list = this.cells.get(k);
+            if (list != null && list.remove(e) && list.isEmpty()) {
+                this.cells.remove(k);
+            }
+        }
+        e.cells = null;
+    }
+
+    private static void addNode(final Keys keys, final EdNode n, final int margin) {
+        final int hw = n.getWidth() / 2 + margin;
+        final int hh = n.getHeight() / 2 + margin;
+        addRect(keys, n.getX() - hw, n.getY() - hh, n.getX() + hw, n.getY() + hh);
+    }
+
+    private static void addArc(final Keys keys, final EdArc a) {
+        final EdGraphObject src = a.getSource();
+        final EdGraphObject trg = a.getTarget();
+        final Point p;
+        if (!a.isLine()) {
+            if (src instanceof EdNode) {
+                final int size = Math.max(Math.max(a.getWidth(), a.getHeight()),
+                        2 * Loop.DEFAULT_SIZE);
+                addNode(keys, (EdNode) src, size + LOOP_MARGIN);
+            }
+            if (a.getWidth() > 0 && a.getHeight() > 0) {
+                addRect(keys, a.getX() - LOOP_MARGIN, a.getY() - LOOP_MARGIN,
+                        a.getX() + a.getWidth() + LOOP_MARGIN,
+                        a.getY() + a.getHeight() + LOOP_MARGIN);
+            }
+            p = new Point(a.getX(), a.getY());
+        } else {
+            if (a.hasAnchor()) {
+                p = new Point(a.getAnchor());
+            } else if (a.getWidth() > 0) {
+                // the middle is computed while drawing
+                p = new Point(a.getX(), a.getY());
+            } else {
+                p = new Point((src.getX() + trg.getX()) / 2,
+                        (src.getY() + trg.getY()) / 2);
+            }
+            final int margin = ARC_MARGIN + Math.max(a.getWidth(), a.getHeight());
+            addSegment(keys, src.getX(), src.getY(), p.x, p.y, margin);
+            addSegment(keys, p.x, p.y, trg.getX(), trg.getY(), margin);
+        }
+        final Dimension d = a.getLastTextSize();
+        final Point offset = a.getTextOffset();
+        final int tx = (a.isLine() ? p.x - d.width / 2 : p.x) + offset.x;
+        final int ty = p.y + offset.y;
+        addRect(keys, tx - NODE_MARGIN, ty - NODE_MARGIN,
+                tx + d.width + NODE_MARGIN, ty + d.height + NODE_MARGIN);
+    }
+
+    /**
+     * Adds the cells of squares along the segment, the squares overlap, so
+     * all points in the distance of the margin are covered.
+     */
+    private static void addSegment(final Keys keys,
+            final int x1, final int y1, final int x2, final int y2, final int margin) {
+        final double length = Math.hypot(x2 - x1, y2 - y1);
+        final int step = CELL_SIZE / 2;
+        final int n = Math.max(1, (int) Math.ceil(length / step));
+        final int half = margin + step / 2 + 1;
+        for (int i = 0; i <= n; i++) {
+            final int sx = x1 + (int) Math.round((double) (x2 - x1) * i / n);
+            final int sy = y1 + (int) Math.round((double) (y2 - y1) * i / n);
+            addRect(keys, sx - half, sy - half, sx + half, sy + half);
+        }
+    }
+
+    private static void addRect(final Keys keys,
+            final int x0, final int y0, final int x1, final int y1) {
+        final int cx1 = cell(x1);
+        final int cy1 = cell(y1);
+        for (int cx = cell(x0); cx <= cx1; cx++) {
+            for (int cy = cell(y0); cy <= cy1; cy++) {
+                keys.add(key(cx, cy));
+            }
+        }
+    }
+
+    private static int cell(final int v) {
+        return Math.floorDiv(v, CELL_SIZE);
+    }
+
+    /**
+     * Returns the key of a cell. The lower half is mixed with the upper half,
+     * because the hash code of a long combines both halves by xor.
+     */
+    private static long key(final int cx, final int cy) {
+        return ((long) cx << 32) | ((cy ^ (cx * MIX)) & 0xffffffffL);
+    }
+
+    /**
+     * The keys of the cells of an object, with duplicates.
+     */
+    private static final class Keys {
+
+        long[] values = new long[16];
+        int size;
+
+        void add(final long k) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, 2 * this.size);
+            }
+            this.values[this.size++] = k;
+        }
+
+        long[] toDistinctArray() {
+            Arrays.sort(this.values, 0, this.size);
+            int n = 0;
+            for (int i = 0; i < this.size; i++) {
+                if (n == 0 || this.values[n - 1] != this.values[i]) {
+                    this.values[n++] = this.values[i];
+                }
+            }
+            return Arrays.copyOf(this.values, n);
+        }
+    }
+
+    private static final class Entry {
+
+        final EdGraphObject obj;
+        final boolean node;
+        long order;
+        long[] cells;
+        EdGraphObject source;
+        EdGraphObject target;
+        int seen;
+
+        Entry(final EdGraphObject obj, final long order) {
+            this.obj = obj;
+            this.node = obj.isNode();
+            this.order = order;
+        }
+    }
+}
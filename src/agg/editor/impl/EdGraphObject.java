@@ -459,36 +459,61 @@ public abstract class EdGraphObject {
      * Sets x, y positions
      */
     public void setXY(int X, int Y) {
-        this.x = X;
-        this.y = Y;
+        if (this.x != X || this.y != Y) {
+            this.x = X;
+            this.y = Y;
+            geometryChanged();
+        }
     }
 
     /**
      * Sets x positions
      */
     public void setX(int X) {
-        this.x = X;
+        if (this.x != X) {
+            this.x = X;
+            geometryChanged();
+        }
     }
 
     /**
      * Sets y positions
      */
     public void setY(int Y) {
-        this.y = Y;
+        if (this.y != Y) {
+            this.y = Y;
+            geometryChanged();
+        }
     }
 
     /**
      * Sets the width
      */
     public void setWidth(int W) {
-        this.w = W;
+        if (this.w != W) {
+            this.w = W;
+            geometryChanged();
+        }
     }
 
     /**
      * Sets the height
      */
     public void setHeight(int H) {
-        this.h = H;
+        if (this.h != H) {
+            this.h = H;
+            geometryChanged();
+        }
+    }
+
+    /**
+     * Tells the graph that the position or the size has changed, so its grid
+     * is updated.
+     */
+    protected void geometryChanged() {
+        if (this.eGraph != null) {
+            this.eGraph.geometryChanged(this);
+        }
     }
 
     /**
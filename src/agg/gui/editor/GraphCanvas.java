@@ -31,6 +31,9 @@ import java.awt.Window;
 import java.awt.event.MouseEvent;
 import java.util.List;
 import java.util.Vector;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import javax.swing.ImageIcon;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
@@ -2330,31 +2333,16 @@ public class GraphCanvas extends JPanel {
     }
 
     private void selectObjectsInside(Rectangle rect) {
-        List<EdGraphObject> selSet = new Vector<EdGraphObject>();
-        int k = -1;
-        boolean deselectDone = false;
-        for (int i = 0; i < this.eGraph.getNodes().size(); i++) {
-            EdNode n = this.eGraph.getNodes().get(i);
-            if (rect.contains(n.getX(), n.getY())) {
-                if (!deselectDone) {
-                    this.eGraph.deselectAll();
-                    deselectDone = true;
-                }
-                this.eGraph.select(n);
-                selSet.add(n);
-                k = i + 1;
-                break;
-            }
-        }
-        if (k == -1) {
+        List<EdNode> inside = this.eGraph.getNodesInside(rect);
+        if (inside.isEmpty()) {
             return;
         }
-        for (int i = k; i < this.eGraph.getNodes().size(); i++) {
-            EdNode n = this.eGraph.getNodes().get(i);
-            if (rect.contains(n.getX(), n.getY())) {
-                this.eGraph.select(n);
-                selSet.add(n);
-            }
+        this.eGraph.deselectAll();
+        Set<EdGraphObject> selSet = Collections.newSetFromMap(new IdentityHashMap<EdGraphObject, Boolean>());
+        for (int i = 0; i < inside.size(); i++) {
+            EdNode n = inside.get(i);
+            this.eGraph.select(n);
+            selSet.add(n);
         }
         for (int i = 0; i < this.eGraph.getArcs().size(); i++) {
             EdArc ea = this.eGraph.getArcs().get(i);
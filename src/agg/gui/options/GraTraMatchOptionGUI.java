@@ -336,6 +336,8 @@ public class GraTraMatchOptionGUI extends AbstractOptionGUI // implements
             this.strategyComboBox.setSelectedItem("CSP");
         } else if (optionNames.contains("CSP w/o BJ")) {
             this.strategyComboBox.setSelectedItem("CSP w/o BJ");
+        } else if (optionNames.contains(GraTraOptions.CSP_BY_COST)) {
+            this.strategyComboBox.setSelectedItem(GraTraOptions.CSP_BY_COST);
         }
         String stratName = (String) this.strategyComboBox.getSelectedItem();
         Enumeration<MorphCompletionStrategy> strats = CompletionStrategySelector.getStrategies();
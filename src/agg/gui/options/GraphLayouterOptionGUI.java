@@ -75,7 +75,7 @@ public class GraphLayouterOptionGUI extends AbstractOptionGUI implements
 
     protected EvolutionaryGraphLayout layouter;
     protected JCheckBox enableLayouterCB, saveCB, metricsCB, centerCB,
-            fixedNodePositionCB, usePatternCB;
+            fixedNodePositionCB, usePatternCB, acceleratedCB;
     protected JRadioButtonMenuItem x_leftCB, x_rightCB, x_equalCB, y_aboveCB, y_underCB,
             y_equalCB;
     protected Vector<JRadioButtonMenuItem> edgeXgroup, edgeYgroup;
@@ -132,6 +132,16 @@ public class GraphLayouterOptionGUI extends AbstractOptionGUI implements
             }
         });
         p1.add(this.enableLayouterCB);
+        this.acceleratedCB = new JCheckBox(
+                " accelerate for large graphs ( Barnes-Hut, parallel ) ", null, false);
+        this.acceleratedCB.setToolTipText(
+                "Approximates the repulsion of the nodes and counts intersections by a grid.");
+        this.acceleratedCB.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                GraphLayouterOptionGUI.this.layouter.setAccelerated(((JCheckBox) e.getSource()).isSelected());
+            }
+        });
+        p1.add(this.acceleratedCB);
         JPanel p2 = new JPanel(new GridLayout(0, 1));
         p2.setBorder(new TitledBorder(" Output "));
         JLabel l = new JLabel(" Graph sequence as JPEG ( .jpg ) images ");
@@ -1002,6 +1012,7 @@ public class GraphLayouterOptionGUI extends AbstractOptionGUI implements
      */
     public void updateGraphLayouter() {
         this.layouter.setEnabled(this.enableLayouterCB.isSelected());
+        this.layouter.setAccelerated(this.acceleratedCB.isSelected());
         this.layouter.setJpgOutput(this.saveCB.isSelected());
         this.layouter.setWriteMetricValues(this.metricsCB.isSelected());
         // this.layouter.setDoCenter(centerCB.isSelected());
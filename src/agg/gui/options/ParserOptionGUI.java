@@ -77,6 +77,10 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
      * The choice of a layered parser.
      */
     JCheckBox layered;
+    /**
+     * The choice of backtracking by an undo log.
+     */
+    JCheckBox undoLog;
     /**
      * This panel holds all the option.
      */
@@ -109,6 +113,7 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
     private static final String EXCLUDEPARSER = " Critical Pair Analysis";
     private static final String SIMPLEEXCLUDEPARSER = " Semi optimized backtracking";
     private static final String SIMPLEPARSER = " Backtracking without optimization";
+    private static final String PARALLELPARSER = " Parallel backtracking";
     /**
      * the option for the display settings
      *
@@ -292,6 +297,7 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
         this.parserAlgorithms.addItem(EXCLUDEPARSER);
         this.parserAlgorithms.addItem(SIMPLEEXCLUDEPARSER);
         this.parserAlgorithms.addItem(SIMPLEPARSER);
+        this.parserAlgorithms.addItem(PARALLELPARSER);
         this.parserAlgorithms.addItemListener(this);
         optionPanel.add(this.parserAlgorithms, c);
         this.layered = new JCheckBox("layered", false);
@@ -299,6 +305,11 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
         this.layered.addActionListener(this);
         c.insets = new Insets(0, 20, 0, 0);
         optionPanel.add(this.layered, c);
+        this.undoLog = new JCheckBox("undo log", false);
+        this.undoLog.setFocusPainted(false);
+        this.undoLog.setToolTipText("Backtracking without copies of the host graph");
+        this.undoLog.addActionListener(this);
+        optionPanel.add(this.undoLog, c);
         c.gridwidth = GridBagConstraints.REMAINDER;
         c.weightx = 1.0;
         optionPanel.add(new JPanel(), c);
@@ -320,6 +331,8 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
                 this.pOption.setSelectedParser(ParserOption.SIMPLEEXCLUDEPARSER);
             } else if (this.parserAlgorithms.getSelectedItem().equals(SIMPLEPARSER)) {
                 this.pOption.setSelectedParser(ParserOption.SIMPLEPARSER);
+            } else if (this.parserAlgorithms.getSelectedItem().equals(PARALLELPARSER)) {
+                this.pOption.setSelectedParser(ParserOption.PARALLELPARSER);
             }
         }
     }
@@ -356,6 +369,8 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
         } else if (source.equals(this.layered)) {
             this.pOption.enableLayer(this.layered.isSelected());
             this.cpOption.enableLayered(this.layered.isSelected());
+        } else if (source.equals(this.undoLog)) {
+            this.pOption.enableUndoLog(this.undoLog.isSelected());
         } else if (source.equals(this.delayField)) {
             if (!this.delayField.getText().equals("")) {
                 try {
@@ -433,6 +448,8 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
             this.parserAlgorithms.setSelectedItem(EXCLUDEPARSER);
         } else if (this.pOption.getSelectedParser() == ParserOption.SIMPLEEXCLUDEPARSER) {
             this.parserAlgorithms.setSelectedItem(SIMPLEEXCLUDEPARSER);
+        } else if (this.pOption.getSelectedParser() == ParserOption.PARALLELPARSER) {
+            this.parserAlgorithms.setSelectedItem(PARALLELPARSER);
         }
         if (this.guiOption.getParserDisplay() == ParserGUIOption.PARSINGINVISIBLE) {
             this.stopGraphButton.setEnabled(false);
@@ -452,6 +469,7 @@ public class ParserOptionGUI extends AbstractOptionGUI implements ItemListener,
             this.hostGraphButton.setSelected(true);
         }
         this.layered.setSelected(this.pOption.layerEnabled());
+        this.undoLog.setSelected(this.pOption.undoLogEnabled());
         // System.out.println("ParserOptionGUI.layered: "+layered.isSelected());
     }
 
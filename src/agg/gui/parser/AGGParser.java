@@ -261,7 +261,8 @@ public class AGGParser implements ParserEventListener, OptionListener,
                 if (!checkIfReadyToTransform(this.pairsGraGra)) {
                     return;
                 }
-                if (this.pOption.getSelectedParser() != ParserOption.SIMPLEPARSER) {
+                if (this.pOption.getSelectedParser() != ParserOption.SIMPLEPARSER
+                        && this.pOption.getSelectedParser() != ParserOption.PARALLELPARSER) {
                     if (this.pOption.layerEnabled()) {
                         RuleLayer rlayer = new RuleLayer(this.pairsGraGra
                                 .getBasisGraGra().getEnabledRules()); //getListOfRules());
@@ -304,7 +305,7 @@ public class AGGParser implements ParserEventListener, OptionListener,
                     ParserFactory.generateCriticalPairs(this.tmpPairs);
                 } // if( != ParserOption.SIMPLEPARSER )
                 else {
-                    // Backtracking without CP == ParserOption.SIMPLEPARSER
+                    // Backtracking without CP == ParserOption.SIMPLEPARSER, PARALLELPARSER
                     this.generateCP = false;
                     if (this.pOption.layerEnabled()) {
                         this.ruleLayer = new RuleLayer(this.pairsGraGra.getBasisGraGra()
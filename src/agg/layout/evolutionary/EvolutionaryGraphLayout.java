@@ -15,6 +15,8 @@ package agg.layout.evolutionary;
 
 import java.awt.Dimension;
 import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -27,7 +29,11 @@ import agg.editor.impl.EdArc;
 import agg.xt_basis.Arc;
 import agg.xt_basis.Type;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author Dennis
@@ -54,6 +60,20 @@ public class EvolutionaryGraphLayout {
     private final HashMap<LayoutNode, Type> layoutNode2Type;
 //	private boolean freezingOldNode, freezingOldEdge;
     private final Random random = new Random();
+    private boolean accelerated;
+    private int parallelism;
+    private ForkJoinPool pool;
+
+    /**
+     * Graphs with less nodes are layouted by the exact repulsion also in the
+     * accelerated mode.
+     */
+    private static final int MIN_TREE_NODES = 256;
+
+    /**
+     * Count of slices per worker of the parallel repulsion.
+     */
+    private static final int SLICES_PER_WORKER = 8;
 
     /**
      * konstruktor fuer den Layouter
@@ -81,6 +101,7 @@ public class EvolutionaryGraphLayout {
         this.gnrlEdgeLngth = 200;
         this.layoutPatterns = new HashMap<Type, List<LayoutPattern>>();
         this.layoutNode2Type = new HashMap<LayoutNode, Type>();
+        this.parallelism = Runtime.getRuntime().availableProcessors();
     }
 
     public void setEnabled(final boolean b) {
@@ -91,6 +112,39 @@ public class EvolutionaryGraphLayout {
         return this.enabled;
     }
 
+    /**
+     * Sets the accelerated mode for large graphs. The repulsion between the
+     * nodes is approximated by a Barnes-Hut tree per axis and computed by
+     * parallel workers. The layout metrics count the intersections and the
+     * overlapping nodes are found by a uniform grid. The layout by arc length
+     * updates only the lengths of the arcs of moved nodes.
+     *
+     * @param b true for the accelerated mode
+     */
+    public void setAccelerated(final boolean b) {
+        this.accelerated = b;
+        this.lmetric.setAccelerated(b);
+    }
+
+    public boolean isAccelerated() {
+        return this.accelerated;
+    }
+
+    /**
+     * Sets the count of workers of the accelerated mode.
+     *
+     * @param parallelism the count of workers, the count of available
+     * processors if it is not positive
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = (parallelism > 0)
+                ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
     /**
      * gibt die anziehungskraefte zwischen nodes wieder momentan wird die
      * eigenschaft der kante zwischen den nodes nicht beruecksichtigt. TODO
@@ -181,6 +235,18 @@ public class EvolutionaryGraphLayout {
             final List<EdNode> nodes,
             final List<EdArc> arcs,
             final int itrs) {
+        final boolean started = startWorkers(nodes.size());
+        try {
+            layoutByForces(egraph, nodes, arcs, itrs);
+        } finally {
+            stopWorkers(started);
+        }
+    }
+
+    private void layoutByForces(final EdGraph egraph,
+            final List<EdNode> nodes,
+            final List<EdArc> arcs,
+            final int itrs) {
         final List<LayoutNode> lnodes = getLayoutNodes(nodes);
         final List<LayoutArc> larcs = getLayoutArcs(arcs);
         int temp = this.temperature;
@@ -238,6 +304,10 @@ public class EvolutionaryGraphLayout {
      * @param lnodes
      */
     private void calcNodeRepulse(final List<LayoutNode> lnodes) {
+        if (this.accelerated && lnodes.size() >= MIN_TREE_NODES) {
+            new Repulsion(lnodes).run();
+            return;
+        }
         for (int j = 0; j < lnodes.size(); j++) {
             final LayoutNode lnodev = lnodes.get(j);
             if ((!this.usePattern && (lnodev.isFrozenByDefault() && this.frozenPos))
@@ -302,6 +372,146 @@ public class EvolutionaryGraphLayout {
         }
     }
 
+    /**
+     * Creates the workers of the accelerated mode, unless they exist.
+     *
+     * @return true if the workers are created
+     */
+    private boolean startWorkers(final int nodes) {
+        if (!this.accelerated || this.parallelism < 2
+                || nodes < MIN_TREE_NODES || this.pool != null) {
+            return false;
+        }
+        this.pool = new ForkJoinPool(this.parallelism);
+        return true;
+    }
+
+    private void stopWorkers(final boolean started) {
+        if (started) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+    /**
+     * The repulsion of the accelerated mode. The positions are taken before,
+     * the forces on the nodes are computed by the Barnes-Hut trees of both
+     * axes, by the workers if there are some. Nodes at the same position get
+     * random forces like in the exact repulsion.
+     */
+    private final class Repulsion {
+
+        private final List<LayoutNode> lnodes;
+        private final int[] xs;
+        private final int[] ys;
+        private final long[] points;
+        private final RepulseTree xTree;
+        private final RepulseTree yTree;
+
+        Repulsion(final List<LayoutNode> lnodes) {
+            this.lnodes = lnodes;
+            final int n = lnodes.size();
+            this.xs = new int[n];
+            this.ys = new int[n];
+            this.points = new long[n];
+            for (int i = 0; i < n; i++) {
+                final Point p = lnodes.get(i).getAkt();
+                this.xs[i] = p.x;
+                this.ys[i] = p.y;
+                this.points[i] = point(p.x, p.y);
+            }
+            Arrays.sort(this.points);
+            this.xTree = new RepulseTree(this.xs);
+            this.yTree = new RepulseTree(this.ys);
+        }
+
+        void run() {
+            final ForkJoinPool workers = EvolutionaryGraphLayout.this.pool;
+            if (workers == null) {
+                repulse(0, this.xs.length);
+            } else {
+                final int grain = Math.max(MIN_TREE_NODES / 4, this.xs.length
+                        / (workers.getParallelism() * SLICES_PER_WORKER));
+                workers.invoke(new Slice(null, 0, this.xs.length, grain));
+            }
+        }
+
+        void repulse(final int from, final int to) {
+            for (int i = from; i < to; i++) {
+                final LayoutNode lnodev = this.lnodes.get(i);
+                if ((!EvolutionaryGraphLayout.this.usePattern
+                        && (lnodev.isFrozenByDefault() && EvolutionaryGraphLayout.this.frozenPos))
+                        || isFrozen(lnodev)) {
+                    continue;
+                }
+                final int zone = lnodev.getZone();
+                int distx = this.xTree.force(this.xs[i], zone);
+                int disty = this.yTree.force(this.ys[i], zone);
+                final int same = count(point(this.xs[i], this.ys[i])) - 1;
+                for (int k = 0; k < same; k++) {
+                    final int r = ThreadLocalRandom.current()
+                            .nextInt(EvolutionaryGraphLayout.this.panel.width) % 200;
+                    distx += r;
+                    disty -= r;
+                }
+                lnodev.setDistX(distx);
+                lnodev.setDistY(disty);
+            }
+        }
+
+        /**
+         * Returns the count of nodes at the position.
+         */
+        private int count(final long p) {
+            int i = Arrays.binarySearch(this.points, p);
+            int lo = i;
+            while (lo > 0 && this.points[lo - 1] == p) {
+                lo--;
+            }
+            while (i + 1 < this.points.length && this.points[i + 1] == p) {
+                i++;
+            }
+            return i - lo + 1;
+        }
+
+        private long point(final int x, final int y) {
+            return ((long) x << 32) | (y & 0xffffffffL);
+        }
+
+        /**
+         * A slice of the nodes, it is split until it is not larger than the
+         * grain.
+         */
+        private final class Slice extends CountedCompleter<Void> {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private int to;
+            private final int grain;
+
+            Slice(final CountedCompleter<?> parent, final int from, final int to,
+                    final int grain) {
+                super(parent);
+                this.from = from;
+                this.to = to;
+                this.grain = grain;
+            }
+
+            @Override
+            public void compute() {
+                while (this.to - this.from > this.grain) {
+                    final int mid = (this.from + this.to) >>> 1;
+                    addToPendingCount(1);
+                    new Slice(this, mid, this.to, this.grain).fork();
+                    this.to = mid;
+                }
+                repulse(this.from, this.to);
+                propagateCompletion();
+            }
+        }
+    }
+
     private void calcDistToPos(final List<EdArc> arcs,
             final List<LayoutNode> lnodes,
             final int temp,
@@ -491,6 +701,11 @@ public class EvolutionaryGraphLayout {
             arc.getLArc().calcAktLength();
             arc.getLArc().resetUsed();
         }
+        // im beschleunigten modus: bevorzugte laengen einmal bestimmen und
+        // nur die laengen der kanten der verschobenen knoten neu berechnen
+        final int[] prefLengths = this.accelerated ? getPrefLengths(arcs) : null;
+        final Map<LayoutNode, List<LayoutArc>> incident = this.accelerated
+                ? getIncidentArcs(arcs) : null;
         int index;
         int max, abw, xchange, ychange, sxchange, sychange, txchange, tychange, sxnew, synew, txnew, tynew;
         boolean layoutDone = false;
@@ -501,12 +716,8 @@ public class EvolutionaryGraphLayout {
             for (int j = 0; j < arcs.size(); j++) {
                 final EdArc edarc = arcs.get(j);
                 final LayoutArc larc = edarc.getLArc();
-                int prefLength = larc.getPrefLength();
-                LayoutPattern lpat = getLayoutPatternForType(edarc
-                        .getBasisArc().getType(), "edge_length");
-                if (lpat != null && lpat.getLength() > 0) {
-                    prefLength = lpat.getLength();
-                }
+                final int prefLength = (prefLengths != null)
+                        ? prefLengths[j] : getPrefLength(edarc);
                 // System.out.println("prefLength: "+prefLength);
                 abw = Math.abs(prefLength - larc.getAktLength());
                 // vorzeichen interessiert hier nicht,sondern nur das ausmass
@@ -540,12 +751,8 @@ public class EvolutionaryGraphLayout {
             // neue Positionen fuer die endknoten berechnen
             final LayoutNode source = ((EdNode) arc.getSource()).getLNode();
             final LayoutNode target = ((EdNode) arc.getTarget()).getLNode();
-            int prefLength = larc.getPrefLength();
-            LayoutPattern lpat = getLayoutPatternForType(arc.getBasisArc()
-                    .getType(), "edge_length");
-            if (lpat != null && lpat.getLength() > 0) {
-                prefLength = lpat.getLength();
-            }
+            final int prefLength = (prefLengths != null)
+                    ? prefLengths[index] : getPrefLength(arc);
             abw = larc.getAktLength() - prefLength; // larc.getPrefLength();//abw
             // ist positiv, wenn die
             // aktuelle laenge groesser
@@ -697,10 +904,15 @@ public class EvolutionaryGraphLayout {
                 target.getOpt().setLocation(target.getAkt());
             }
             // aktuelle laengen neu berechnen
-            for (int k = 0; k < arcs.size(); k++) {
-                final EdArc a = arcs.get(k);
-                if (!a.getLArc().isFrozen()) {
-                    a.getLArc().calcAktLength();
+            if (incident != null) {
+                calcAktLengths(incident.get(source));
+                calcAktLengths(incident.get(target));
+            } else {
+                for (int k = 0; k < arcs.size(); k++) {
+                    final EdArc a = arcs.get(k);
+                    if (!a.getLArc().isFrozen()) {
+                        a.getLArc().calcAktLength();
+                    }
                 }
             }
             layoutDone = true;
@@ -710,6 +922,50 @@ public class EvolutionaryGraphLayout {
         return layoutDone;
     }
 
+    private int getPrefLength(final EdArc arc) {
+        final LayoutPattern lpat = getLayoutPatternForType(arc.getBasisArc()
+                .getType(), "edge_length");
+        if (lpat != null && lpat.getLength() > 0) {
+            return lpat.getLength();
+        }
+        return arc.getLArc().getPrefLength();
+    }
+
+    private int[] getPrefLengths(final List<EdArc> arcs) {
+        final int[] ret = new int[arcs.size()];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = getPrefLength(arcs.get(i));
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the arcs of the list, which are not frozen, by their source and
+     * target nodes.
+     */
+    private Map<LayoutNode, List<LayoutArc>> getIncidentArcs(final List<EdArc> arcs) {
+        final Map<LayoutNode, List<LayoutArc>> ret = new IdentityHashMap<>();
+        for (int i = 0; i < arcs.size(); i++) {
+            final LayoutArc larc = arcs.get(i).getLArc();
+            if (larc.isFrozen()) {
+                continue;
+            }
+            ret.computeIfAbsent(((EdNode) arcs.get(i).getSource()).getLNode(),
+                    k -> new ArrayList<>()).add(larc);
+            ret.computeIfAbsent(((EdNode) arcs.get(i).getTarget()).getLNode(),
+                    k -> new ArrayList<>()).add(larc);
+        }
+        return ret;
+    }
+
+    private static void calcAktLengths(final List<LayoutArc> larcs) {
+        if (larcs != null) {
+            for (int i = 0; i < larcs.size(); i++) {
+                larcs.get(i).calcAktLength();
+            }
+        }
+    }
+
     // combinedLayout1
     public void combinedLayout(final EdGraph eg,
             final List<EdNode> nodes,
@@ -749,6 +1005,20 @@ public class EvolutionaryGraphLayout {
             final int itrs,
             final int nodeit,
             final int arcit) {
+        final boolean started = startWorkers(nodes.size());
+        try {
+            return layoutGraphByForces(eg, nodes, arcs, itrs, nodeit, arcit);
+        } finally {
+            stopWorkers(started);
+        }
+    }
+
+    private boolean layoutGraphByForces(final EdGraph eg,
+            final List<EdNode> nodes,
+            final List<EdArc> arcs,
+            final int itrs,
+            final int nodeit,
+            final int arcit) {
 //		System.out.println("Layouter.layoutGraph... iters: "+iters+" nodeit: "+nodeit+" arcit: "+arcit);
         for (int i = 0; i < arcs.size(); i++) {
             final EdArc a = arcs.get(i);
@@ -778,6 +1048,8 @@ public class EvolutionaryGraphLayout {
         int x1, x2, y1, y2;
         int ovlNodeIndx;
         int stop = 100; //this.overlapscount;
+        final NodeOverlaps overlaps = (this.accelerated
+                && lnodes.size() >= MetricsGrid.MIN_OBJECTS) ? new NodeOverlaps(lnodes) : null;
         while (this.overlapscnt > 0 && stop > 0) {
             for (int i = 0; i < lnodes.size(); i++) {
                 final LayoutNode lnode1 = lnodes.get(i);
@@ -789,7 +1061,8 @@ public class EvolutionaryGraphLayout {
                     continue;
                 }
                 if (lnode1.isOverlapping()) {
-                    ovlNodeIndx = this.lmetric.getOverlappingNode(lnodes, i);
+                    ovlNodeIndx = (overlaps != null) ? overlaps.getOverlappingNode(i)
+                            : this.lmetric.getOverlappingNode(lnodes, i);
                     if (ovlNodeIndx < 0) {
                         lnode1.unsetOverlap();
                         continue;
@@ -838,6 +1111,10 @@ public class EvolutionaryGraphLayout {
                     lnode1.setOpt(lnode1.getAkt());
                     lnode2.setAkt(new Point(x2, y2));
                     lnode2.setOpt(lnode2.getAkt());
+                    if (overlaps != null) {
+                        overlaps.moved(i);
+                        overlaps.moved(ovlNodeIndx);
+                    }
                     lnode1.unsetOverlap();
                     lnode2.unsetOverlap();
                 }
@@ -15,6 +15,7 @@
 package agg.layout.evolutionary;
 //import java.awt.Dimension;
 
+import java.awt.Point;
 import java.awt.geom.Line2D;
 //import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
@@ -34,6 +35,7 @@ public class LayoutMetrics {
 
     private int epsilon;
     private int clusterplus, clusterminus;
+    private boolean accelerated;
 
     /**
      *
@@ -45,6 +47,21 @@ public class LayoutMetrics {
         this.clusterplus = 0;
     }
 
+    /**
+     * Sets the accelerated mode: the intersections of large lists are
+     * counted by a uniform grid instead of testing all pairs. The counts are
+     * the same in both modes.
+     *
+     * @param b true to count by a grid
+     */
+    public void setAccelerated(final boolean b) {
+        this.accelerated = b;
+    }
+
+    public boolean isAccelerated() {
+        return this.accelerated;
+    }
+
     /**
      * bestimmt die Anzahl der Kantenueberschneidungen
      *
@@ -52,6 +69,9 @@ public class LayoutMetrics {
      * @return Anzahl der Kantenueberscheidungen
      */
     public int getArcArcIntersect(final List<EdArc> arcs) {
+        if (this.accelerated && arcs.size() >= MetricsGrid.MIN_OBJECTS) {
+            return getArcArcIntersectByGrid(arcs);
+        }
         int ret = 0;
         EdArc arc1, arc2;
 //		LayoutNode lnodesource1, lnodetarget1, lnodesource2, lnodetarget2;
@@ -94,10 +114,56 @@ public class LayoutMetrics {
         return ret;
     }
 
+    private int getArcArcIntersectByGrid(final List<EdArc> arcs) {
+        final MetricsGrid grid = new MetricsGrid(arcs.size());
+        for (int i = 0; i < arcs.size(); i++) {
+            final EdArc arc = arcs.get(i);
+            final LayoutArc larc = arc.getLArc();
+            larc.calcSourceTargetpos();
+            if (arc.isLine()) {
+                grid.addSegment(i, larc.getSourcepos().x, larc.getSourcepos().y,
+                        larc.getTargetpos().x, larc.getTargetpos().y);
+            }
+        }
+        int ret = 0;
+        for (int i = 0; i < arcs.size() - 1; i++) {
+            final EdArc arc1 = arcs.get(i);
+            if (!arc1.isLine()) {
+                continue;
+            }
+            final Point s1 = arc1.getLArc().getSourcepos();
+            final Point t1 = arc1.getLArc().getTargetpos();
+            final int n = grid.findSegment(s1.x, s1.y, t1.x, t1.y);
+            for (int k = 0; k < n; k++) {
+                final int j = grid.get(k);
+                if (j <= i) {
+                    continue;
+                }
+                final EdArc arc2 = arcs.get(j);
+                if (arc1.getSource().equals(arc2.getSource())
+                        || arc1.getSource().equals(arc2.getTarget())
+                        || arc1.getTarget().equals(arc2.getSource())
+                        || arc1.getTarget().equals(arc2.getTarget())) {
+                    continue;
+                }
+                final Point s2 = arc2.getLArc().getSourcepos();
+                final Point t2 = arc2.getLArc().getTargetpos();
+                if (Line2D.linesIntersect(s1.x, s1.y, t1.x, t1.y,
+                        s2.x, s2.y, t2.x, t2.y)) {
+                    ret++;
+                }
+            }
+        }
+        return ret;
+    }
+
     /**
      * Bestimmt die Anzahl der Ueberschneidungen von Kanten und Knoten
      */
     public int getArcNodeIntersect(final List<EdNode> nodes, final List<EdArc> arcs) {
+        if (this.accelerated && nodes.size() >= MetricsGrid.MIN_OBJECTS) {
+            return getArcNodeIntersectByGrid(nodes, arcs);
+        }
         int ret = 0;
         EdArc arc;
         EdNode node;
@@ -131,6 +197,39 @@ public class LayoutMetrics {
         return ret;
     }
 
+    private int getArcNodeIntersectByGrid(final List<EdNode> nodes, final List<EdArc> arcs) {
+        final MetricsGrid grid = new MetricsGrid(nodes.size());
+        for (int j = 0; j < nodes.size(); j++) {
+            final EdNode node = nodes.get(j);
+            grid.addRect(j, node.getX(), node.getY(),
+                    node.getX() + node.getWidth(), node.getY() + node.getHeight());
+        }
+        int ret = 0;
+        for (int i = 0; i < arcs.size(); i++) {
+            final EdArc arc = arcs.get(i);
+            if (!arc.isLine()) {
+                continue;
+            }
+            arc.getLArc().calcSourceTargetpos();
+            final Point s = arc.getLArc().getSourcepos();
+            final Point t = arc.getLArc().getTargetpos();
+            final int n = grid.findSegment(s.x, s.y, t.x, t.y);
+            for (int k = 0; k < n; k++) {
+                final EdNode node = nodes.get(grid.get(k));
+                if (arc.getSource().equals(node)
+                        || arc.getTarget().equals(node)) {
+                    continue;
+                }
+                final Rectangle2D rect = new Rectangle2D.Double(node.getX(), node.getY(),
+                        node.getWidth(), node.getHeight());
+                if (rect.intersectsLine(s.x, s.y, t.x, t.y)) {
+                    ret++;
+                }
+            }
+        }
+        return ret;
+    }
+
     /**
      * bestimmt die Anzahl der Knotenueberschneidungen
      *
@@ -140,6 +239,9 @@ public class LayoutMetrics {
      * @return Anzahl der Knotenueberschneidungen.
      */
     public int getNodeIntersect(final List<EdNode> nodes, boolean mark) {
+        if (this.accelerated && nodes.size() >= MetricsGrid.MIN_OBJECTS) {
+            return getNodeIntersectByGrid(nodes, mark);
+        }
         final HashMap<EdNode, EdNode> intersect = new HashMap<EdNode, EdNode>();
         int ret = 0;
         EdNode node1, node2;
@@ -175,7 +277,48 @@ public class LayoutMetrics {
         return ret;
     }
 
-    private boolean nodesIntersect(EdNode n1, EdNode n2) {
+    /**
+     * Counts the nodes, which intersect a node before them in the list, as
+     * the pairwise test does. A node is marked together with the first node
+     * before it, which it intersects.
+     */
+    private int getNodeIntersectByGrid(final List<EdNode> nodes, boolean mark) {
+        final MetricsGrid grid = new MetricsGrid(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            final EdNode node = nodes.get(i);
+            final int w = node.getWidth();
+            final int h = node.getHeight();
+            final int x = node.getLNode().getAkt().x - (w + 1) / 2;
+            final int y = node.getLNode().getAkt().y - (h + 1) / 2;
+            grid.addRect(i, x, y, x + w, y + h);
+        }
+        int ret = 0;
+        for (int j = 1; j < nodes.size(); j++) {
+            final EdNode node2 = nodes.get(j);
+            final int w = node2.getWidth();
+            final int h = node2.getHeight();
+            final int x = node2.getLNode().getAkt().x - (w + 1) / 2;
+            final int y = node2.getLNode().getAkt().y - (h + 1) / 2;
+            final int n = grid.findRect(x, y, x + w, y + h);
+            int first = j;
+            for (int k = 0; k < n; k++) {
+                final int i = grid.get(k);
+                if (i < first && nodesIntersect(nodes.get(i), node2)) {
+                    first = i;
+                }
+            }
+            if (first < j) {
+                ret++;
+                if (mark) {
+                    nodes.get(first).getLNode().setOverlap();
+                    node2.getLNode().setOverlap();
+                }
+            }
+        }
+        return ret;
+    }
+
+    static boolean nodesIntersect(EdNode n1, EdNode n2) {
         boolean ret = false;
         // System.out.println("nodesIntersect:: w/h: "+ n1.getWidth()+" /
         // "+n1.getHeight());
@@ -0,0 +1,228 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.layout.evolutionary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A uniform grid over rectangles and line segments, which are numbered by
+ * the indices of their lists. The layout metrics test only the objects of
+ * the common cells for an intersection, instead of all pairs. The cells of
+ * an object cover its bounds with a margin, so the grid yields all objects,
+ * which may intersect, and the exact test is done by the caller.
+ *
+ * @author Janusch Rentenatus
+ */
+final class MetricsGrid {
+
+    /**
+     * The width and the height of a cell.
+     */
+    static final int CELL_SIZE = 128;
+
+    /**
+     * Lists with less objects are tested pair by pair.
+     */
+    static final int MIN_OBJECTS = 64;
+
+    private static final int MARGIN = 1;
+
+    private static final int MIX = 0x9E3779B9;
+
+    private final HashMap<Long, Cell> cells = new HashMap<>();
+    private final int[] seen;
+    private int stamp;
+    private int[] found = new int[16];
+    private int count;
+    private int adding = -1;
+    private int removing = -1;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param objects the count of objects, the indices are less
+     */
+    MetricsGrid(final int objects) {
+        this.seen = new int[objects];
+    }
+
+    /**
+     * Adds the rectangle of an object.
+     */
+    void addRect(final int index, final double x0, final double y0,
+            final double x1, final double y1) {
+        this.adding = index;
+        rect(x0, y0, x1, y1);
+        this.adding = -1;
+    }
+
+    /**
+     * Removes the rectangle of an object, it has to be the added rectangle.
+     */
+    void removeRect(final int index, final double x0, final double y0,
+            final double x1, final double y1) {
+        this.removing = index;
+        rect(x0, y0, x1, y1);
+        this.removing = -1;
+    }
+
+    /**
+     * Adds the segment of an object.
+     */
+    void addSegment(final int index, final double x1, final double y1,
+            final double x2, final double y2) {
+        this.adding = index;
+        segment(x1, y1, x2, y2);
+        this.adding = -1;
+    }
+
+    /**
+     * Finds the objects in the cells of the rectangle, each object once.
+     *
+     * @return the count of found objects
+     * @see #get(int)
+     */
+    int findRect(final double x0, final double y0,
+            final double x1, final double y1) {
+        startQuery();
+        rect(x0, y0, x1, y1);
+        return this.count;
+    }
+
+    /**
+     * Finds the objects in the cells of the segment, each object once.
+     *
+     * @return the count of found objects
+     * @see #get(int)
+     */
+    int findSegment(final double x1, final double y1,
+            final double x2, final double y2) {
+        startQuery();
+        segment(x1, y1, x2, y2);
+        return this.count;
+    }
+
+    /**
+     * Returns the index of a found object of the last query.
+     */
+    int get(final int i) {
+        return this.found[i];
+    }
+
+    private void startQuery() {
+        this.count = 0;
+        if (++this.stamp == 0) {
+            Arrays.fill(this.seen, 0);
+            this.stamp = 1;
+        }
+    }
+
+    /**
+     * Covers the squares along the segment, the squares overlap, so all
+     * points in the distance of the margin are covered.
+     */
+    private void segment(final double x1, final double y1,
+            final double x2, final double y2) {
+        final double length = Math.hypot(x2 - x1, y2 - y1);
+        final int step = CELL_SIZE / 2;
+        final int n = Math.max(1, (int) Math.ceil(length / step));
+        final double half = step / 2 + MARGIN;
+        for (int i = 0; i <= n; i++) {
+            final double sx = x1 + (x2 - x1) * i / n;
+            final double sy = y1 + (y2 - y1) * i / n;
+            rect(sx - half, sy - half, sx + half, sy + half);
+        }
+    }
+
+    private void rect(final double x0, final double y0,
+            final double x1, final double y1) {
+        final int cx1 = cell(x1 + MARGIN);
+        final int cy1 = cell(y1 + MARGIN);
+        for (int cx = cell(x0 - MARGIN); cx <= cx1; cx++) {
+            for (int cy = cell(y0 - MARGIN); cy <= cy1; cy++) {
+                visit(key(cx, cy));
+            }
+        }
+    }
+
+    private void visit(final long key) {
+        if (this.adding >= 0) {
+            Cell c = this.cells.get(key);
+            if (c == null) {
+                c = new Cell();
+                this.cells.put(key, c);
+            }
+            c.add(this.adding);
+            return;
+        }
+        final Cell c = this.cells.get(key);
+        if (c == null) {
+            return;
+        }
+        if (this.removing >= 0) {
+            c.remove(this.removing);
+            return;
+        }
+        for (int i = 0; i < c.size; i++) {
+            final int index = c.items[i];
+            if (this.seen[index] != this.stamp) {
+                this.seen[index] = this.stamp;
+                if (this.count == this.found.length) {
+                    this.found = Arrays.copyOf(this.found, 2 * this.count);
+                }
+                this.found[this.count++] = index;
+            }
+        }
+    }
+
+    private static int cell(final double v) {
+        return (int) Math.floor(v / CELL_SIZE);
+    }
+
+    /**
+     * Returns the key of a cell. The lower half is mixed with the upper half,
+     * because the hash code of a long combines both halves by xor.
+     */
+    private static long key(final int cx, final int cy) {
+        return ((long) cx << 32) | ((cy ^ (cx * MIX)) & 0xffffffffL);
+    }
+
+    /**
+     * The indices of the objects of a cell.
+     */
+    private static final class Cell {
+
+        int[] items = new int[4];
+        int size;
+
+        /**
+         * Adds the index, unless it was added last. The cells of an object
+         * are covered one object after the other, so an index is added once.
+         */
+        void add(final int index) {
+            if (this.size > 0 && this.items[this.size - 1] == index) {
+                return;
+            }
+            if (this.size == this.items.length) {
+                this.items = Arrays.copyOf(this.items, 2 * this.size);
+            }
+            this.items[this.size++] = index;
+        }
+
+        void remove(final int index) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.items[i] == index) {
+                    this.items[i] = this.items[--this.size];
+                    return;
+                }
+            }
+        }
+    }
+}
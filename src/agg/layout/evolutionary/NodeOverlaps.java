@@ -0,0 +1,82 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.layout.evolutionary;
+
+import java.awt.Point;
+import java.util.List;
+
+/**
+ * Finds overlapping layout nodes by a grid, while the overlaps are resolved.
+ * A moved node has to be reported, so its rectangle is updated in the grid.
+ *
+ * @author Janusch Rentenatus
+ * @see LayoutMetrics#getOverlappingNode(List, int)
+ */
+final class NodeOverlaps {
+
+    private final List<LayoutNode> lnodes;
+    private final MetricsGrid grid;
+    private final int[] rects;
+
+    NodeOverlaps(final List<LayoutNode> lnodes) {
+        this.lnodes = lnodes;
+        this.grid = new MetricsGrid(lnodes.size());
+        this.rects = new int[4 * lnodes.size()];
+        for (int i = 0; i < lnodes.size(); i++) {
+            add(i);
+        }
+    }
+
+    /**
+     * Returns the index of the first node, which overlaps the node of the
+     * index, like <code>LayoutMetrics.getOverlappingNode(..)</code> does.
+     *
+     * @param index the index of the node
+     * @return the index of the overlapping node, or -1
+     */
+    int getOverlappingNode(final int index) {
+        final int k = 4 * index;
+        final int n = this.grid.findRect(this.rects[k], this.rects[k + 1],
+                this.rects[k + 2], this.rects[k + 3]);
+        int ret = -1;
+        for (int j = 0; j < n; j++) {
+            final int i = this.grid.get(j);
+            if (i != index && (ret < 0 || i < ret)
+                    && LayoutMetrics.nodesIntersect(this.lnodes.get(index).getEdNode(),
+                            this.lnodes.get(i).getEdNode())) {
+                ret = i;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Updates the rectangle of the moved node of the index.
+     */
+    void moved(final int index) {
+        final int k = 4 * index;
+        this.grid.removeRect(index, this.rects[k], this.rects[k + 1],
+                this.rects[k + 2], this.rects[k + 3]);
+        add(index);
+    }
+
+    private void add(final int index) {
+        final LayoutNode lnode = this.lnodes.get(index);
+        final int w = lnode.getEdNode().getWidth();
+        final int h = lnode.getEdNode().getHeight();
+        final Point p = lnode.getAkt();
+        final int k = 4 * index;
+        this.rects[k] = p.x - (w + 1) / 2;
+        this.rects[k + 1] = p.y - (h + 1) / 2;
+        this.rects[k + 2] = this.rects[k] + w;
+        this.rects[k + 3] = this.rects[k + 1] + h;
+        this.grid.addRect(index, this.rects[k], this.rects[k + 1],
+                this.rects[k + 2], this.rects[k + 3]);
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.layout.evolutionary;
+
+import java.util.Arrays;
+
+/**
+ * A Barnes-Hut tree over the coordinates of the nodes on one axis. The
+ * repulsion of the layouter acts separately in x and in y: the force of a
+ * node u on a node v in x is <code>sign(dx)*(z*z/|dx|)</code>, it depends on
+ * the distance <code>dx</code> in x only. So the tree is built over the
+ * sorted coordinates of one axis, it is the one-dimensional counterpart of a
+ * quadtree.
+ *
+ * <p>
+ * The subtrees are the halves of ranges of the sorted coordinates. A subtree,
+ * which is narrow compared to its distance to the position, acts by its count
+ * of nodes in its centre of mass. Near subtrees are split down to leaves,
+ * whose forces are summed up node by node like the exact repulsion does.
+ * Nodes, which are farther away than <code>z*z</code>, do not act, because
+ * their integer force is zero.
+ *
+ * @author Janusch Rentenatus
+ */
+final class RepulseTree {
+
+    /**
+     * A subtree acts as a whole, if its width is at most this part of its
+     * distance to the position.
+     */
+    static final double THETA = 0.5;
+
+    /**
+     * Ranges of at most this count of nodes are summed up node by node.
+     */
+    private static final int LEAF = 8;
+
+    private final int[] coords;
+    private final long[] prefix;
+
+    /**
+     * Creates the tree over the coordinates of the nodes on one axis.
+     *
+     * @param values the coordinates, which are not changed
+     */
+    RepulseTree(final int[] values) {
+        this.coords = values.clone();
+        Arrays.sort(this.coords);
+        this.prefix = new long[this.coords.length + 1];
+        for (int i = 0; i < this.coords.length; i++) {
+            this.prefix[i + 1] = this.prefix[i] + this.coords[i];
+        }
+    }
+
+    /**
+     * Returns the sum of the repulsive forces of all nodes on a node at the
+     * position. Nodes at the same position do not act.
+     *
+     * @param p the position of the node on the axis
+     * @param zone the zone of the node
+     * @return the force, its sign is the direction
+     */
+    int force(final int p, final int zone) {
+        final long zz = (long) zone * zone;
+        final int lo = lowerBound(p - zz);
+        final int left = lowerBound(p);
+        final int right = upperBound(p);
+        final int hi = upperBound(p + zz);
+        final double f = sum(lo, left, p, zz) - sum(right, hi, p, zz);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, f));
+    }
+
+    /**
+     * Returns the sum of the amounts of the forces of the nodes of a range,
+     * all of them are on the same side of the position.
+     */
+    private double sum(final int lo, final int hi, final int p, final long zz) {
+        final int n = hi - lo;
+        if (n <= 0) {
+            return 0;
+        }
+        if (n <= LEAF) {
+            long s = 0;
+            for (int i = lo; i < hi; i++) {
+                s += zz / Math.abs((long) p - this.coords[i]);
+            }
+            return s;
+        }
+        final long width = (long) this.coords[hi - 1] - this.coords[lo];
+        final long nearest = Math.min(Math.abs((long) p - this.coords[lo]),
+                Math.abs((long) p - this.coords[hi - 1]));
+        if (width <= THETA * nearest) {
+            // the exact forces are integers, each one is truncated by half a
+            // unit on average
+            final double centre = (double) (this.prefix[hi] - this.prefix[lo]) / n;
+            return Math.max(n, n * zz / Math.abs(p - centre) - 0.5 * n);
+        }
+        final int mid = (lo + hi) >>> 1;
+        return sum(lo, mid, p, zz) + sum(mid, hi, p, zz);
+    }
+
+    /**
+     * Returns the index of the first coordinate not less than the value.
+     */
+    private int lowerBound(final long v) {
+        int lo = 0;
+        int hi = this.coords.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (this.coords[mid] < v) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the index of the first coordinate greater than the value.
+     */
+    private int upperBound(final long v) {
+        int lo = 0;
+        int hi = this.coords.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (this.coords[mid] <= v) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -57,6 +57,10 @@ public abstract class AbstractParser implements Parser {
     protected Vector<ParserEventListener> listener;
     protected int delay;
 
+    protected boolean undoLog;
+
+    protected boolean pruneVisited = true;
+
     /**
      * Creates a new abstract parser. This parser stores all the basic
      * information like host graph, stop graph, critical pairs and graph
@@ -219,6 +223,32 @@ public abstract class AbstractParser implements Parser {
         return resultMatch;
     }
 
+    // ----------------------------------------------------------------------+
+    /**
+     * Finds a <B>valid</B> match for a set of rules, which was not tried at
+     * the current state of the undo log.
+     *
+     * @param g The graph to match into. Usually the host graph.
+     * @param rules This enumeration must contain rule objects.
+     * @param log The undo log of the parser.
+     * @return The valid match from a choosen rule into the graph.
+     */
+    Match findUntriedMatch(Graph g, Iterator<?> rules, ParserUndoLog log) {
+        while (rules.hasNext()) {
+            Rule rule = (Rule) rules.next();
+            Match m = BaseFactory.theFactory().createMatch(rule, g);
+            m.setCompletionStrategy((MorphCompletionStrategy) this.grammar
+                    .getMorphismCompletionStrategy().clone(), true);
+            while (m.nextCompletion()) {
+                if (m.isValid() && !log.isTried(m)) {
+                    return m;
+                }
+            }
+            BaseFactory.theFactory().destroyMatch(m);
+        }
+        return null;
+    }
+
     // ----------------------------------------------------------------------+
     /**
      * Finds a <B>valid</B> match for the given set of rules.
@@ -318,6 +348,57 @@ public abstract class AbstractParser implements Parser {
     public void setDelayAfterApplyRule(int miliseconds) {
         this.delay = miliseconds;
     }
+
+    /**
+     * Enables the undo log mode. In this mode the host graph is changed in
+     * place and the parser backtracks by taking back the changes of the
+     * steps, instead of keeping a copy of the host graph for each decision
+     * point. If the graph is not part of the language or the parser is
+     * stopped, the host graph is reset to its state before parsing. The mode
+     * is used by the simple parser and the exclude parser, the layered parsers
+     * ignore it.
+     *
+     * @param enable true to enable the undo log mode
+     * @see agg.xt_basis.Graph#openJournal()
+     */
+    public void setUndoLogEnabled(boolean enable) {
+        this.undoLog = enable;
+    }
+
+    public boolean isUndoLogEnabled() {
+        return this.undoLog;
+    }
+
+    /**
+     * Enables the pruning of visited states in the undo log mode. A state is
+     * not explored again if its graph is isomorphic to a state visited
+     * before, the fingerprints select the states to compare. Each visited
+     * state keeps a compact code of some int arrays of the size of its graph,
+     * not a copy of the graph. Enabled by default.
+     *
+     * @param enable true to prune visited states
+     * @see agg.xt_basis.GraphFingerprint
+     */
+    public void setPruneVisitedEnabled(boolean enable) {
+        this.pruneVisited = enable;
+    }
+
+    public boolean isPruneVisitedEnabled() {
+        return this.pruneVisited;
+    }
+
+    /**
+     * Waits the delay after a rule is applied, if a delay is set.
+     */
+    protected void delayAfterApplyRule() {
+        if (this.delay > 0) {
+            try {
+                Thread.sleep(this.delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
 /*
  * End of Parser.java
@@ -11,22 +11,117 @@
  */
 package agg.parser;
 
+import agg.util.Pair;
+import agg.xt_basis.BaseFactory;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.MorphCompletionStrategy;
+import agg.xt_basis.OrdinaryMorphism;
 import agg.xt_basis.Rule;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Worker thread of the worker pool of an <code>ExcludePairContainer</code>.
+ * The critical pairs of a worker are computed on its own copies of the rules,
+ * so the workers do not share any rule graph, attribute context or
+ * morphism completion strategy. The overlappings found are moved back to the
+ * original rules before they are added to the containers.
+ */
 class ComputingThread extends Thread {
 
-    Rule r1;
-    Rule r2;
-    ExcludePairContainer container;
+    /**
+     * Copies of the original rules.
+     */
+    private final Map<Rule, Rule> copies = new HashMap<>();
+    /**
+     * Graphs of the rule copies to the graphs of the original rules.
+     */
+    private final Map<Graph, Graph> originalGraphs = new IdentityHashMap<>();
+    /**
+     * Graph objects of the rule copies to the graph objects of the original
+     * rules.
+     */
+    private final Map<GraphObject, GraphObject> originalObjects = new IdentityHashMap<>();
+    private MorphCompletionStrategy strategy;
+
+    ComputingThread(final Runnable task) {
+        super(task, "CPA worker");
+        this.setDaemon(true);
+    }
+
+    /**
+     * Returns the copy of the specified rule which is used by this worker.
+     */
+    Rule copyOf(final Rule rule) {
+        Rule copy = this.copies.get(rule);
+        if (copy == null) {
+            final Map<GraphObject, GraphObject> table = new HashMap<>();
+            copy = BaseFactory.theFactory().cloneRule(rule, table);
+            this.copies.put(rule, copy);
+            this.originalGraphs.put(copy.getLeft(), rule.getLeft());
+            this.originalGraphs.put(copy.getRight(), rule.getRight());
+            putGraphs(copy.getNACsList(), rule.getNACsList());
+            putGraphs(copy.getPACsList(), rule.getPACsList());
+            putGraphs(copy.getNestedACsList(), rule.getNestedACsList());
+            for (Map.Entry<GraphObject, GraphObject> e : table.entrySet()) {
+                this.originalObjects.put(e.getValue(), e.getKey());
+            }
+        }
+        return copy;
+    }
+
+    private void putGraphs(final List<OrdinaryMorphism> copyConds, final List<OrdinaryMorphism> conds) {
+        for (int i = 0; i < copyConds.size() && i < conds.size(); i++) {
+            this.originalGraphs.put(copyConds.get(i).getImage(), conds.get(i).getImage());
+        }
+    }
+
+    /**
+     * Returns a clone of the specified strategy which is used by this worker.
+     */
+    MorphCompletionStrategy getStrategy(final MorphCompletionStrategy strat) {
+        if (this.strategy == null) {
+            this.strategy = (MorphCompletionStrategy) strat.clone();
+        }
+        return this.strategy;
+    }
 
-    ComputingThread(ExcludePairContainer container, Rule r1, Rule r2) {
-        this.r1 = r1;
-        this.r2 = r2;
-        this.container = container;
-        this.start();
+    /**
+     * Moves the morphisms of the specified overlappings from the rule copies
+     * of this worker to the original rules.
+     */
+    void restoreOriginals(
+            final List<Pair<Pair<OrdinaryMorphism, OrdinaryMorphism>, Pair<OrdinaryMorphism, OrdinaryMorphism>>> overlapping) {
+        if (overlapping == null) {
+            return;
+        }
+        for (int i = 0; i < overlapping.size(); i++) {
+            final Pair<Pair<OrdinaryMorphism, OrdinaryMorphism>, Pair<OrdinaryMorphism, OrdinaryMorphism>> p = overlapping.get(i);
+            if (p == null) {
+                continue;
+            }
+            if (p.first != null) {
+                restoreOriginal(p.first.first);
+                restoreOriginal(p.first.second);
+            }
+            if (p.second != null) {
+                restoreOriginal(p.second.first);
+                restoreOriginal(p.second.second);
+            }
+        }
     }
 
-    public void run() {
-        this.container.computeCritical(this.r1, this.r2);
+    private void restoreOriginal(final OrdinaryMorphism morph) {
+        if (morph == null) {
+            return;
+        }
+        final Graph source = this.originalGraphs.get(morph.getSource());
+        final Graph target = this.originalGraphs.get(morph.getTarget());
+        if (source != null || target != null) {
+            morph.replaceGraphs(source, target, this.originalObjects);
+        }
     }
 }
@@ -97,6 +97,16 @@ public class DependencyPairContainer extends ExcludePairContainer {
         return (DependencyPair) this.excludePair;
     }
 
+    /**
+     * The rule pairs are computed by the own <code>computeCritical</code>
+     * of this container, so they are computed one after another even if the
+     * parallel computation is enabled.
+     */
+    @Override
+    protected boolean isParallelComputable() {
+        return false;
+    }
+
     /**
      * Computes if the second rule depends of the first rule. The result is
      * added to the container.
@@ -84,7 +84,7 @@ public class ExcludePair implements CriticalPair {
     protected boolean ownStrategy = true;
     protected boolean ignoreIdenticalRules;
     protected GraGra grammar;
-    protected boolean stop;
+    protected volatile boolean stop;
     protected boolean inclAsGraph;
     /* Global help containers needed for rule analysis and more */
     protected List<Pair<Type, Pair<Type, Type>>> typesTG_L2, typesTG_NAC2, typesTG_PAC2;
@@ -6337,6 +6337,9 @@ public class ExcludePair implements CriticalPair {
         if (g1 == g2) {
             return true;
         }
+        if (!g1.getFingerprint().mayHaveEqualConstants(g2.getFingerprint())) {
+            return false;
+        }
         List<OrdinaryMorphism> list = g1.getIsomorphicWith(g2, true);
         if (list != null && list.size() > 0) {
             for (int i = 0; i < list.size(); i++) {
@@ -19,13 +19,19 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.List;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import agg.xt_basis.BadMappingException;
 import agg.xt_basis.BaseFactory;
 import agg.xt_basis.CompletionStrategySelector;
 import agg.xt_basis.Completion_InjCSP;
 import agg.xt_basis.GraGra;
 import agg.xt_basis.Graph;
+import agg.xt_basis.GraphFingerprint;
 import agg.xt_basis.GraphObject;
 import agg.xt_basis.MorphCompletionStrategy;
 import agg.xt_basis.OrdinaryMorphism;
@@ -34,6 +40,7 @@ import agg.xt_basis.Node;
 import agg.xt_basis.Arc;
 import agg.xt_basis.TestStep;
 import agg.xt_basis.TypeException;
+import agg.xt_basis.TypeSet;
 import agg.xt_basis.Match;
 import agg.attribute.impl.ContextView;
 import agg.attribute.impl.ValueMember;
@@ -201,10 +208,25 @@ public class ExcludePairContainer implements PairContainer, Runnable {
      */
     protected Map<Rule, Map<Rule, Pair<Boolean, List<Pair<Pair<OrdinaryMorphism, OrdinaryMorphism>, Pair<OrdinaryMorphism, OrdinaryMorphism>>>>>> excludeContainer = null;
     /**
-     * true, if each calculation should be done in an extra Thread. This makes
-     * only sense on computer with a lot of CPUs (at least 2).
+     * true, if the rule pairs should be computed by a pool of worker threads.
+     * This makes only sense on computer with a lot of CPUs (at least 2).
      */
     protected boolean calculateParallel = false;
+    /**
+     * The number of worker threads, if it is less than 1 the number of
+     * available processors is used.
+     */
+    protected int parallelism = 0;
+    /**
+     * The worker pool exists only while the containers are filled in
+     * parallel.
+     */
+    private ExecutorService workerPool;
+    /**
+     * The exclude pairs which are computed by the workers at the moment.
+     */
+    private final Set<ExcludePair> activeExcludePairs = ConcurrentHashMap.newKeySet();
+    private int levelOfTypeGraphCheck;
     /**
      * This container stores the conflict free relations.
      */
@@ -239,7 +261,7 @@ public class ExcludePairContainer implements PairContainer, Runnable {
     /**
      * true if global generating process will be stopped
      */
-    protected boolean stop;
+    protected volatile boolean stop;
     /**
      * true if global generating process is running.
      */
@@ -355,6 +377,10 @@ public class ExcludePairContainer implements PairContainer, Runnable {
             this.isComputed = false;
             this.excludePair.stop = true;
         }
+        for (ExcludePair pair : this.activeExcludePairs) {
+            this.isComputed = false;
+            pair.stop = true;
+        }
     }
 
     /**
@@ -381,6 +407,46 @@ public class ExcludePairContainer implements PairContainer, Runnable {
         this.ignoreIdenticalRules = b;
     }
 
+    /**
+     * If the parameter is <code>true</code>, the rule pairs are computed by a
+     * fixed pool of worker threads. Each worker uses its own copies of the
+     * rules. The computation by a host graph is not done in parallel.
+     * Containers which compute a rule pair in their own way, see
+     * {@link #isParallelComputable()}, compute the pairs one after another;
+     * this is the case for the {@link DependencyPairContainer}, the
+     * {@link LayeredExcludePairContainer} and the
+     * {@link PriorityExcludePairContainer}. The fallback is reported on the
+     * console when the computation starts.
+     */
+    public void enableParallelComputation(boolean enable) {
+        this.calculateParallel = enable;
+    }
+
+    public boolean parallelComputationEnabled() {
+        return this.calculateParallel;
+    }
+
+    /**
+     * Sets the number of worker threads of the parallel computation. A number
+     * less than 1 means the number of available processors.
+     */
+    public void setParallelism(int n) {
+        this.parallelism = n;
+    }
+
+    public int getParallelism() {
+        return (this.parallelism > 0) ? this.parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns <code>true</code> if the rule pairs of this container can be
+     * computed by the worker pool. Containers which compute a rule pair in
+     * their own way return <code>false</code>.
+     */
+    protected boolean isParallelComputable() {
+        return true;
+    }
+
     // ****************************************************************************+
     /**
      * computes the critical part of two rules. This can be a
@@ -913,9 +979,13 @@ public class ExcludePairContainer implements PairContainer, Runnable {
             List<Pair<OrdinaryMorphism, OrdinaryMorphism>> overlapPairs,
             Pair<OrdinaryMorphism, OrdinaryMorphism> overlapPair) {
         Graph overlapGraph = overlapPair.first.getTarget();
+        GraphFingerprint overlapFp = overlapPairs.isEmpty() ? null : overlapGraph.getFingerprint();
         for (int j = 0; j < overlapPairs.size() && !this.stop; j++) {
             Pair<OrdinaryMorphism, OrdinaryMorphism> p1 = overlapPairs.get(j);
             Graph g = p1.first.getTarget();
+            if (!g.getFingerprint().mayBeIsomorphicTo(overlapFp)) {
+                continue;
+            }
             Map<GraphObject, GraphObject> partialMap = getMorphismMap(
                     p1.first, overlapPair.first);
             List<OrdinaryMorphism> overlapIsos = g.getIsomorphicWith(overlapGraph, partialMap);
@@ -1225,7 +1295,11 @@ public class ExcludePairContainer implements PairContainer, Runnable {
 		 * computeCritical(r1, r2) ist besser geeignet
          */
         if (this.useHostGraph && this.grammar != null) {
-            this.grammar.getApplicableRules(this.testGraph, this.strategy);
+            if (this.calculateParallel) {
+                this.grammar.getApplicableRulesInParallel(this.testGraph, this.strategy, getParallelism());
+            } else {
+                this.grammar.getApplicableRules(this.testGraph, this.strategy);
+            }
         }
         if (!this.useHostGraph) {
             this.isComputed = false;
@@ -1239,18 +1313,25 @@ public class ExcludePairContainer implements PairContainer, Runnable {
         }
         boolean asymmetric = this.asymmetrical
                 && (this.rules.equals(this.rules2));
-        /* 2 Schleifen um alle Regeln mit allen Regeln zu ueberpruefen. */
-        // horizontal - this.rules
-        // vertical   - this.rules2
-        int indx = 0;
-        for (int j = 0; j < this.rules2.size() && !this.stop; j++) {
-            Rule r1 = this.rules2.get(j);
-            if (asymmetric) {
-                indx = j;
+        final boolean parallel = startWorkerPool();
+        try {
+            /* 2 Schleifen um alle Regeln mit allen Regeln zu ueberpruefen. */
+            // horizontal - this.rules
+            // vertical   - this.rules2
+            int indx = 0;
+            for (int j = 0; j < this.rules2.size() && !this.stop; j++) {
+                Rule r1 = this.rules2.get(j);
+                if (asymmetric) {
+                    indx = j;
+                }
+                for (int i = indx; i < this.rules.size() && !this.stop; i++) {
+                    Rule r2 = this.rules.get(i);
+                    this.scheduleForComputing(r1, r2);
+                }
             }
-            for (int i = indx; i < this.rules.size() && !this.stop; i++) {
-                Rule r2 = this.rules.get(i);
-                this.scheduleForComputing(r1, r2);
+        } finally {
+            if (parallel) {
+                shutdownWorkerPool();
             }
         }
         if (!this.useHostGraph && !this.stop) {
@@ -1270,16 +1351,23 @@ public class ExcludePairContainer implements PairContainer, Runnable {
         }
         List<Rule> ruleList2 = new Vector<Rule>();
         ruleList2.addAll(ruleList);
-        /* 2 Schleifen um alle Regeln mit allen Regeln zu ueberpruefen. */
-        int indx = 0;
-        for (int j = 0; j < ruleList2.size() && !this.stop; j++) {
-            Rule r1 = ruleList2.get(j);
-            if (asymmetric) {
-                indx = j;
+        final boolean parallel = startWorkerPool();
+        try {
+            /* 2 Schleifen um alle Regeln mit allen Regeln zu ueberpruefen. */
+            int indx = 0;
+            for (int j = 0; j < ruleList2.size() && !this.stop; j++) {
+                Rule r1 = ruleList2.get(j);
+                if (asymmetric) {
+                    indx = j;
+                }
+                for (int i = indx; i < ruleList.size() && !this.stop; i++) {
+                    Rule r2 = ruleList.get(i);
+                    this.scheduleForComputing(r1, r2);
+                }
             }
-            for (int i = indx; i < ruleList.size() && !this.stop; i++) {
-                Rule r2 = ruleList.get(i);
-                this.scheduleForComputing(r1, r2);
+        } finally {
+            if (parallel) {
+                shutdownWorkerPool();
             }
         }
         if (!this.useHostGraph && !this.stop) {
@@ -1330,15 +1418,132 @@ public class ExcludePairContainer implements PairContainer, Runnable {
         if (this.getEntry(r1, r2).state == Entry.NOT_SET) {
             this.getEntry(r1, r2).state = Entry.SCHEDULED_FOR_COMPUTING;
         }
-        if (this.calculateParallel) {
-            // start computing in another Thread
-            new ComputingThread(this, r1, r2);
+        if (this.workerPool != null) {
+            // compute by a worker of the pool
+            this.workerPool.execute(() -> computeCriticalInParallel(r1, r2));
         } else {
             // start computing directly
             computeCritical(r1, r2);
         }
     }// scheduleForComputing
 
+    /**
+     * Starts the worker pool if the parallel computation is enabled and
+     * possible. The level of the type graph check is set here once for all
+     * workers, because it belongs to the type set shared by all rule copies.
+     *
+     * @return true if the worker pool is started
+     */
+    private boolean startWorkerPool() {
+        if (!this.calculateParallel || this.useHostGraph || this.grammar == null) {
+            return false;
+        }
+        if (!isParallelComputable()) {
+            System.out.println("Critical pairs - " + getClass().getSimpleName()
+                    + " cannot compute in parallel, the rule pairs are computed one after another.");
+            return false;
+        }
+        this.workerPool = Executors.newFixedThreadPool(getParallelism(),
+                task -> new ComputingThread(task));
+        final TypeSet types = this.grammar.getTypeSet();
+        this.levelOfTypeGraphCheck = types.getLevelOfTypeGraphCheck();
+        if (this.levelOfTypeGraphCheck > TypeSet.ENABLED_MAX) {
+            types.setLevelOfTypeGraph(TypeSet.ENABLED_MAX);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until all scheduled rule pairs are computed and stops the worker
+     * pool.
+     */
+    private void shutdownWorkerPool() {
+        final ExecutorService pool = this.workerPool;
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // wait for the workers
+            }
+        } catch (InterruptedException ex) {
+            stop();
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        this.workerPool = null;
+        this.grammar.getTypeSet().setLevelOfTypeGraph(this.levelOfTypeGraphCheck);
+    }
+
+    /**
+     * Computes if the first rule exclude the second rule on copies of the
+     * rules owned by the current worker. Only the result is added to the
+     * containers under the lock of this container.
+     *
+     * @param r1 The first rule.
+     * @param r2 The second rule.
+     */
+    protected void computeCriticalInParallel(final Rule r1, final Rule r2) {
+        if (this.stop) {
+            return;
+        }
+        synchronized (this) {
+            Entry e = this.getEntry(r1, r2);
+            if (!r1.isEnabled() || !r2.isEnabled()) { // test disabled rule
+                e.state = Entry.DISABLED;
+                addEntry(r1, r2, false, null);
+                addQuadruple(this.excludeContainer, r1, r2, false, null);
+                addQuadruple(this.conflictFreeContainer, r1, r2, false, null);
+                firePairEvent(new CriticalPairEvent(this, r1, r2, "<"
+                        + r1.getName() + ">  and  <" + r2.getName()
+                        + ">  should not be computed."));
+                return;
+            }
+            if ((e.state != Entry.SCHEDULED_FOR_COMPUTING)
+                    && (e.state != Entry.NOT_SET)) {
+                return;
+            }
+            e.state = Entry.COMPUTING_IS_RUNNING;
+        }
+        firePairEvent(new CriticalPairEvent(this, r1, r2,
+                "Computing critical rule pair  [  " + r1.getName()
+                + "  ,  " + r2.getName() + "  ]"));
+        final ComputingThread worker = (ComputingThread) Thread.currentThread();
+        final ExcludePair pair = this.complete ? new ExcludePair() : new SimpleExcludePair();
+        setOptionsOfExcludePair(pair);
+        pair.setMorphismCompletionStrategy(worker.getStrategy(this.grammar.getMorphismCompletionStrategy()));
+        this.activeExcludePairs.add(pair);
+        if (this.stop) {
+            pair.stop = true;
+        }
+        List<Pair<Pair<OrdinaryMorphism, OrdinaryMorphism>, Pair<OrdinaryMorphism, OrdinaryMorphism>>> overlapping = null;
+        try {
+            overlapping = pair.isCritical(CriticalPair.EXCLUDE, worker.copyOf(r1), worker.copyOf(r2));
+            worker.restoreOriginals(overlapping);
+        } catch (InvalidAlgorithmException iae) {
+        } finally {
+            this.activeExcludePairs.remove(pair);
+        }
+        boolean critic = (overlapping != null);
+        synchronized (this) {
+            this.getEntry(r1, r2).setProgressIndx(pair);
+            this.usedM = this.usedM + pair.usedM;
+            addEntry(r1, r2, critic, overlapping);
+            addQuadruple(this.excludeContainer, r1, r2, critic, overlapping);
+            addQuadruple(this.conflictFreeContainer, r1, r2, !critic, null);
+        }
+        pair.dispose();
+        if (overlapping != null) {
+            firePairEvent(new CriticalPairEvent(this, r1, r2,
+                    CriticalPairEvent.CRITICAL, "<" + r1.getName()
+                    + ">  and  <" + r2.getName()
+                    + ">  have critical pairs"));
+        } else {
+            firePairEvent(new CriticalPairEvent(this, r1, r2,
+                    CriticalPairEvent.UNCRITICAL, "<" + r1.getName()
+                    + ">  and  <" + r2.getName()
+                    + ">  have not any critical pairs"));
+        }
+    }
+
     /**
      * Fills all containers with the critical pairs.
      */
@@ -1493,21 +1698,25 @@ public class ExcludePairContainer implements PairContainer, Runnable {
         return getCriticalPair(r1, r2, container);
     }
 
-    @SuppressWarnings("deprecation")
     protected void setOptionsOfExcludePair() {
-        this.excludePair.enableNACs(this.withNACs);
-        this.excludePair.enablePACs(this.withPACs);
-        this.excludePair.enableIgnoreIdenticalRules(this.ignoreIdenticalRules);
-        this.excludePair.enableReduceSameMatch(this.reduceSameMatch);
-        this.excludePair.enableConsistent(this.consistent, this.grammar);
-        this.excludePair.enableStrongAttrCheck(this.strongAttrCheck);
-        this.excludePair.enableEqualVariableNameOfAttrMapping(this.equalVariableNameOfAttrMapping);
-        this.excludePair.enableReduce(this.reduce);
-        this.excludePair.enableDirectlyStrictConfluent(this.directStrctCnfl);
-        this.excludePair.enableDirectlyStrictConfluentUpToIso(this.directStrctCnflUpToIso);
-        this.excludePair.setMorphismCompletionStrategy(this.grammar.getMorphismCompletionStrategy());
-        this.excludePair.enableNamedObjectOnly(this.namedObjectOnly);
-        this.excludePair.setMaxBoundOfCriticKind(this.maxBoundOfCriticKind);
+        setOptionsOfExcludePair(this.excludePair);
+    }
+
+    @SuppressWarnings("deprecation")
+    protected void setOptionsOfExcludePair(final ExcludePair pair) {
+        pair.enableNACs(this.withNACs);
+        pair.enablePACs(this.withPACs);
+        pair.enableIgnoreIdenticalRules(this.ignoreIdenticalRules);
+        pair.enableReduceSameMatch(this.reduceSameMatch);
+        pair.enableConsistent(this.consistent, this.grammar);
+        pair.enableStrongAttrCheck(this.strongAttrCheck);
+        pair.enableEqualVariableNameOfAttrMapping(this.equalVariableNameOfAttrMapping);
+        pair.enableReduce(this.reduce);
+        pair.enableDirectlyStrictConfluent(this.directStrctCnfl);
+        pair.enableDirectlyStrictConfluentUpToIso(this.directStrctCnflUpToIso);
+        pair.setMorphismCompletionStrategy(this.grammar.getMorphismCompletionStrategy());
+        pair.enableNamedObjectOnly(this.namedObjectOnly);
+        pair.setMaxBoundOfCriticKind(this.maxBoundOfCriticKind);
     }
 
     public void refreshOptions(final CriticalPairOption op) {
@@ -536,8 +536,7 @@ public final class ExcludePairHelper {
         List<String> variableEqualitiesList = new Vector<>();
         List<GraphObject> checked = new Vector<>();
         List<GraphObject> tocheck = new Vector<>();
-        count1 = 1;
-        count2 = 1;
+        final int[] counts = {1, 1};
         final OrdinaryMorphism morph1 = pair.first;
         final OrdinaryMorphism morph2 = pair.second;
         final Graph graph = morph1.getImage();
@@ -548,7 +547,7 @@ public final class ExcludePairHelper {
                     && morph2.hasInverseImage(o)) {
                 checked.add(o);
                 if (o.getAttribute() != null) {
-                    renameVariableOfOverlapObj(o, morph1, morph2, prefix1, prefix2, variableEqualitiesList);
+                    renameVariableOfOverlapObj(o, morph1, morph2, prefix1, prefix2, variableEqualitiesList, counts);
                 }
             } else {
                 tocheck.add(o);
@@ -561,13 +560,13 @@ public final class ExcludePairHelper {
                     && morph2.hasInverseImage(o)) {
                 checked.add(o);
                 if (o.getAttribute() != null) {
-                    renameVariableOfOverlapObj(o, morph1, morph2, prefix1, prefix2, variableEqualitiesList);
+                    renameVariableOfOverlapObj(o, morph1, morph2, prefix1, prefix2, variableEqualitiesList, counts);
                 }
             } else {
                 tocheck.add(o);
             }
         }
-        renameSimilarVariables(r1, r2, morph1, morph2, checked, tocheck, prefix1, prefix2, variableEqualitiesList);
+        renameSimilarVariables(r1, r2, morph1, morph2, checked, tocheck, prefix1, prefix2, variableEqualitiesList, counts);
         if (!variableEqualitiesList.isEmpty()) {
             // save variable equalities as help info of the overlapping graph
             graph.setHelpInfo(graph.getHelpInfo() + ":VariableEquality:" + variableEqualitiesList.toString());
@@ -585,8 +584,6 @@ public final class ExcludePairHelper {
             final String prefix2) {
         renameContextVariableOfOverlappingPair(r1, r2, pair.first, prefix1, prefix2);
     }
-    static int count1;
-    static int count2;
 
     private static void renameVariableOfOverlapObj(
             final GraphObject o,
@@ -594,7 +591,8 @@ public final class ExcludePairHelper {
             final OrdinaryMorphism morph2,
             final String prefix1,
             final String prefix2,
-            final List<String> variableEqualitiesList) {
+            final List<String> variableEqualitiesList,
+            final int[] counts) {
         // expected: o1 != null and o2 != null
         final GraphObject o1 = morph1.firstOfInverseImage(o);
         final GraphObject o2 = morph2.firstOfInverseImage(o);
@@ -618,8 +616,8 @@ public final class ExcludePairHelper {
 //							part1 = prefix1+part1;
 //						}
                     } else if (vm1.getExpr().isComplex()) {
-                        part1 = "expr" + count1;
-                        count1++;
+                        part1 = "expr" + counts[0];
+                        counts[0]++;
                         part1 = prefix1 + part1;
                         final String variableEquality = part1 + "=" + vm1.getExprAsText();
                         saveVariableEquality(variableEqualitiesList, variableEquality);
@@ -647,8 +645,8 @@ public final class ExcludePairHelper {
 //							part2 = prefix2+part2;
 //						}
                     } else if (vm2.getExpr().isComplex()) {
-                        part2 = "expr" + count2;
-                        count2++;
+                        part2 = "expr" + counts[1];
+                        counts[1]++;
                         part2 = prefix2 + part2;
                         final String variableEquality = part2 + "=" + vm2.getExprAsText();
                         saveVariableEquality(variableEqualitiesList, variableEquality);
@@ -724,7 +722,8 @@ public final class ExcludePairHelper {
             final List<GraphObject> tocheck,
             final String prefix1,
             final String prefix2,
-            final List<String> variableEqualitiesList) {
+            final List<String> variableEqualitiesList,
+            final int[] counts) {
         List<GraphObject> checked2 = new Vector<>();
         for (int j = 0; j < tocheck.size(); j++) {
             final GraphObject o = tocheck.get(j);
@@ -798,7 +797,7 @@ public final class ExcludePairHelper {
                                                 part1 = valuem.getExprAsText();
                                             }
                                         } else if (src_l_vm.getExpr().isComplex()) {
-                                            part1 = "expr" + count1;
+                                            part1 = "expr" + counts[0];
                                             final String variableEquality = prefix1 + part1 + "=" + src_l_vm.getExprAsText();
                                             saveVariableEquality(variableEqualitiesList, variableEquality);
                                         }
@@ -848,7 +847,7 @@ public final class ExcludePairHelper {
                                                 part2 = valuem.getExprAsText();
                                             }
                                         } else if (src_l_vm.getExpr().isComplex()) {
-                                            part2 = "expr" + count2;
+                                            part2 = "expr" + counts[1];
                                             final String variableEquality = prefix2 + part2 + "=" + src_l_vm.getExprAsText();
                                             saveVariableEquality(variableEqualitiesList, variableEquality);
                                         }
@@ -910,13 +909,13 @@ public final class ExcludePairHelper {
                                     }
                                 } else if (srcvm.getExpr().isComplex()) {
                                     if (morph == morph1) {
-                                        part = "expr" + count1;
-                                        count1++;
+                                        part = "expr" + counts[0];
+                                        counts[0]++;
                                         String variableEquality = prefix1 + part + "=" + srcvm.getExprAsText();
                                         saveVariableEquality(variableEqualitiesList, variableEquality);
                                     } else if (morph == morph2) {
-                                        part = "expr" + count2;
-                                        count2++;
+                                        part = "expr" + counts[1];
+                                        counts[1]++;
                                         String variableEquality = prefix2 + part + "=" + srcvm.getExprAsText();
                                         saveVariableEquality(variableEqualitiesList, variableEquality);
                                     }
@@ -2210,16 +2209,15 @@ public final class ExcludePairHelper {
                         goSet = makeGraphObjectSet(select, itsGOSet);
                         inclusions = putGraphInclusionSet(goSet, inclusions, graphLike);
                     }
-                    select.set(v + 1, s - 1);
+                    select.set(s - 1, v + 1);
                     v = select.get(s - 1).intValue();
                 }
                 if (s > 1) {
                     v = select.get(s - 2).intValue();
                     if (v < max - selSize + s + 1) {
-                        select.set(v + 1, s - 2);
+                        select.set(s - 2, v + 1);
                         for (int j = 1; j <= selSize - s + 1; j++) {
-                            select.set(v + 1 + j, s + j
-                                    - 2);
+                            select.set(s + j - 2, v + 1 + j);
                         }
                     }
                 }
@@ -2274,6 +2272,7 @@ public final class ExcludePairHelper {
 //		}
 //		incl.trimToSize();
 //		inclusions.addElement(incl);
+        inclusions.add(goSet);
         return (inclusions);
     }
 
@@ -129,8 +129,15 @@ public class ExcludeParser extends AbstractParser implements Runnable {
 		 * immer wieder angesetzt wird
          */
         RuleInstances eri = new RuleInstances();
+        /* im Undo-Log-Modus wird der Wirtsgraph nicht kopiert */
+        ParserUndoLog log = null;
+        if (this.undoLog) {
+            log = new ParserUndoLog(getHostGraph(), this.stopGraph);
+            log.setPruneVisited(this.pruneVisited);
+            log.visit();
+        }
         fireParserEvent(new ParserMessageEvent(this, "Parser initialized"));
-        while (!this.stop && !this.graph.isIsomorphicTo(this.stopGraph) && this.correct) {
+        while (!this.stop && !isStopGraphReached(log) && this.correct) {
             boolean ruleApplied = false;
             /* zuerst sollen alle konfliktfreien Regeln probiert werden. */
             for (Rule r : conflictFreeLight.keySet()) {
@@ -191,7 +198,7 @@ public class ExcludeParser extends AbstractParser implements Runnable {
                                 }
                             } else {
                                 if (!validMatch && savedMatch == null) {
-                                    if (!eri.isIn(m)) {
+                                    if (log != null ? !log.isTried(m) : !eri.isIn(m)) {
                                         validMatch = true;
                                         savedMatch = m;
                                     }
@@ -211,7 +218,15 @@ public class ExcludeParser extends AbstractParser implements Runnable {
 				 * wenn keine Regel angewendet wurde, dann kann nur noch eine
 				 * kritische Regel angewendet werden.
                  */
-                if (!ruleApplied && (savedMatch != null) && !this.stop) {
+                if (!ruleApplied && (savedMatch != null) && !this.stop
+                        && log != null) {
+                    log.push(savedMatch);
+                    if (applyRule(savedMatch)) {
+                        delayAfterApplyRule();
+                        /* ein schon besuchter Zustand ist eine Sackgasse */
+                        ruleApplied = log.visit();
+                    }
+                } else if (!ruleApplied && (savedMatch != null) && !this.stop) {
                     OrdinaryMorphism copyMorph = getHostGraph().isomorphicCopy();
                     if (copyMorph != null) {
                         fireParserEvent(new ParserMessageEvent(copyMorph, "IsoCopy"));
@@ -256,7 +271,13 @@ public class ExcludeParser extends AbstractParser implements Runnable {
                         }
                     }
                 } // end if(!ruleApplied && (savedMatch != null)
-                if (!ruleApplied) {
+                if (!ruleApplied && log != null) {
+                    if (!log.pop()) {
+                        fireParserEvent(new ParserErrorEvent(this,
+                                "ERROR: This graph is not part of the language"));
+                        this.correct = false;
+                    }
+                } else if (!ruleApplied) {
                     try {
                         Pair<?, ?> tmpPair = (Pair) this.stack.pop();
                         /* backtrack */
@@ -272,6 +293,13 @@ public class ExcludeParser extends AbstractParser implements Runnable {
             } // end if(!ruleApplied
         } // end while(!graph.isIsomorphicWith(stopGraph) && correct
         /* Fertig mit den Excluderegeln */
+        if (log != null) {
+            if (this.correct && !this.stop) {
+                log.commitAll();
+            } else {
+                log.discardAll();
+            }
+        }
         while (!this.stack.empty()) {
             try {
                 fireParserEvent(new ParserMessageEvent(this, "Cleaning stack."));
@@ -287,6 +315,13 @@ public class ExcludeParser extends AbstractParser implements Runnable {
         return this.correct;
     }
 
+    private boolean isStopGraphReached(ParserUndoLog log) {
+        if (log != null) {
+            return log.isStopGraphReached();
+        }
+        return this.graph.isIsomorphicTo(this.stopGraph);
+    }
+
     /**
      * Clears some internal stuff.
      */
@@ -0,0 +1,406 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.parser;
+
+import agg.xt_basis.BadMappingException;
+import agg.xt_basis.BaseFactory;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.Match;
+import agg.xt_basis.MorphCompletionStrategy;
+import agg.xt_basis.Morphism;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Rule;
+import agg.xt_basis.StaticStep;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This parser explores the alternative derivations on a work stealing pool.
+ * A branch searches depth first like the simple parser in undo log mode. At a
+ * decision point, while the pool has not enough queued work, the branch hands
+ * the step of an alternative match over to a new branch, which works on its
+ * own copy of the graph. The visited states are shared by all branches, so a
+ * state is explored by one branch only.
+ *
+ * <p>
+ * As soon as a branch reaches the stop graph the other branches are
+ * cancelled. The graph of the successful branch becomes the host graph of the
+ * parser and its rules are reported by {@link #getDerivation()}. The host
+ * graph given to the parser is changed only if the first branch succeeds,
+ * otherwise it is reset to its state before parsing.
+ *
+ * <p>
+ * Each worker applies its own copies of the rules, so the workers do not
+ * share any rule graph, attribute context or completion strategy. The copies
+ * are disposed when the parse has ended.
+ *
+ * @see ParserFactory#createParser createParser(...)
+ * @author Janusch Rentenatus
+ */
+public class ParallelParser extends SimpleParser {
+
+    /**
+     * A branch hands steps over to new branches while the pool has less
+     * surplus queued tasks than this.
+     */
+    private static final int SPLIT_SURPLUS = 2;
+
+    private int parallelism;
+    private volatile boolean cancelled;
+    private final AtomicReference<Branch> winner = new AtomicReference<>();
+    private ParserUndoLog.Visited visited;
+    private ThreadLocal<Worker> workers;
+    private final List<Worker> allWorkers = Collections.synchronizedList(new ArrayList<>());
+    private List<Rule> derivation = Collections.emptyList();
+
+    /**
+     * Creates a new parser, which uses as many workers as processors are
+     * available.
+     *
+     * @param grammar The graph grammar.
+     * @param hostGraph The host graph.
+     * @param stopGraph The stop graph.
+     */
+    public ParallelParser(GraGra grammar, Graph hostGraph, Graph stopGraph) {
+        super(grammar, hostGraph, stopGraph);
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets the count of workers.
+     *
+     * @param parallelism the count of workers, the count of available
+     * processors if it is not positive
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = (parallelism > 0)
+                ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Returns the rules of the successful derivation in the order of their
+     * application, or an empty list if the graph could not be parsed.
+     *
+     * @return the rules of the derivation
+     */
+    public List<Rule> getDerivation() {
+        return this.derivation;
+    }
+
+    /**
+     * Stops the running and cancels all branches.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        this.cancelled = true;
+    }
+
+    /**
+     * Starts the parser.
+     *
+     * @return true if the graph can be parsed.
+     */
+    @Override
+    public boolean parse() {
+        this.correct = false;
+        this.cancelled = this.stop;
+        this.winner.set(null);
+        this.visited = new ParserUndoLog.Visited();
+        this.derivation = Collections.emptyList();
+        fireParserEvent(new ParserMessageEvent(this,
+                "Starting parallel parser with " + this.parallelism + " workers ..."));
+        final Graph host = getHostGraph();
+        this.workers = ThreadLocal.withInitial(Worker::new);
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.invoke(new Branch(null, host, new ArrayList<>(), null));
+        } finally {
+            pool.shutdownNow();
+            this.visited.clear();
+            this.visited = null;
+            this.workers = null;
+            for (Worker w : this.allWorkers) {
+                w.dispose();
+            }
+            this.allWorkers.clear();
+        }
+        final Branch w = this.winner.get();
+        if (w != null) {
+            this.correct = true;
+            this.derivation = Collections.unmodifiableList(w.path);
+            setHostGraph(w.graph);
+            StringBuilder sb = new StringBuilder("Derivation:");
+            for (Rule r : this.derivation) {
+                sb.append("  ").append(r.getName());
+            }
+            fireParserEvent(new ParserMessageEvent(this, sb.toString()));
+        } else if (!this.stop) {
+            fireParserEvent(new ParserErrorEvent(this,
+                    "ERROR: This graph is not part of the language"));
+        }
+        fireParserEvent(new ParserMessageEvent(this,
+                "Stopping parser. Result is " + this.correct + "."));
+        return this.correct;
+    }
+
+    private boolean canSplit() {
+        return this.parallelism > 1
+                && ForkJoinTask.getSurplusQueuedTaskCount() < SPLIT_SURPLUS;
+    }
+
+    /**
+     * Applies the match of a rule copy of the worker.
+     */
+    private static boolean execute(Match m) {
+        try {
+            Morphism comatch = StaticStep.execute(m);
+            if (comatch == null) {
+                return false;
+            }
+            ((OrdinaryMorphism) comatch).dispose();
+            return true;
+        } catch (TypeException e) {
+            return false;
+        } finally {
+            m.dispose();
+        }
+    }
+
+    /**
+     * The step of a match into the graph of a new branch, in terms of the
+     * original rule.
+     */
+    private static final class Step {
+
+        final Rule rule;
+        final GraphObject[] originals;
+        final GraphObject[] images;
+
+        Step(Worker worker, Match m, OrdinaryMorphism iso) {
+            this.rule = worker.originalOf(m.getRule());
+            List<GraphObject> dom = new ArrayList<>();
+            Iterator<GraphObject> it = m.getDomain();
+            while (it.hasNext()) {
+                dom.add(it.next());
+            }
+            this.originals = new GraphObject[dom.size()];
+            this.images = new GraphObject[dom.size()];
+            for (int i = 0; i < this.originals.length; i++) {
+                this.originals[i] = worker.originalOf(dom.get(i));
+                this.images[i] = iso.getImage(m.getImage(dom.get(i)));
+            }
+        }
+    }
+
+    /**
+     * A branch of the search, which works on its own graph. The first branch
+     * works on the host graph.
+     */
+    private final class Branch extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        final Graph graph;
+        final List<Rule> path;
+        private final Step first;
+
+        Branch(CountedCompleter<?> parent, Graph graph, List<Rule> path, Step first) {
+            super(parent);
+            this.graph = graph;
+            this.path = path;
+            this.first = first;
+        }
+
+        @Override
+        public void compute() {
+            try {
+                explore(ParallelParser.this.workers.get());
+            } finally {
+                propagateCompletion();
+            }
+        }
+
+        private void explore(Worker worker) {
+            if (this.first != null && !worker.apply(this.graph, this.first)) {
+                this.graph.dispose();
+                return;
+            }
+            final ParserUndoLog log = new ParserUndoLog(this.graph,
+                    ParallelParser.this.stopGraph, ParallelParser.this.visited);
+            boolean won = false;
+            try {
+                boolean unvisited = log.visit();
+                while (unvisited && !ParallelParser.this.cancelled) {
+                    if (log.isStopGraphReached()) {
+                        won = ParallelParser.this.winner.compareAndSet(null, this);
+                        ParallelParser.this.cancelled = true;
+                        break;
+                    }
+                    Match m = findUntriedMatch(this.graph, worker.getRules().iterator(), log);
+                    if (m != null && canSplit()) {
+                        log.markTried(m);
+                        split(worker, m);
+                        BaseFactory.theFactory().destroyMatch(m);
+                        continue;
+                    }
+                    if (m != null) {
+                        this.path.add(worker.originalOf(m.getRule()));
+                        log.push(m);
+                        if (execute(m) && log.visit()) {
+                            continue;
+                        }
+                    }
+                    if (!log.pop()) {
+                        break;
+                    }
+                    this.path.remove(this.path.size() - 1);
+                }
+            } finally {
+                if (won) {
+                    log.commitAll();
+                } else {
+                    log.discardAll();
+                    if (this.graph != getHostGraph()) {
+                        this.graph.dispose();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Hands the step of the match over to a new branch on a copy of the
+         * graph.
+         */
+        private void split(Worker worker, Match m) {
+            OrdinaryMorphism iso = this.graph.isomorphicCopy();
+            if (iso == null) {
+                return;
+            }
+            Step step = new Step(worker, m, iso);
+            Graph copy = iso.getImage();
+            iso.dispose();
+            List<Rule> childPath = new ArrayList<>(this.path);
+            childPath.add(step.rule);
+            addToPendingCount(1);
+            new Branch(this, copy, childPath, step).fork();
+        }
+    }
+
+    /**
+     * The copies of the rules of a thread. The steps of a thread are applied
+     * by its own copies of the rules.
+     */
+    private final class Worker {
+
+        private List<Rule> rules;
+        private final Map<Rule, Rule> copies = new HashMap<>();
+        private final Map<Rule, Rule> originalRules = new HashMap<>();
+        private final Map<GraphObject, GraphObject> copyObjects = new HashMap<>();
+        private final Map<GraphObject, GraphObject> originalObjects = new HashMap<>();
+
+        Worker() {
+            ParallelParser.this.allWorkers.add(this);
+        }
+
+        /**
+         * Returns the copies of the rules of the grammar.
+         */
+        List<Rule> getRules() {
+            if (this.rules == null) {
+                this.rules = new ArrayList<>();
+                Iterator<Rule> it = ParallelParser.this.grammar.getRuleIterator();
+                while (it.hasNext()) {
+                    this.rules.add(copyOf(it.next()));
+                }
+            }
+            return this.rules;
+        }
+
+        Rule copyOf(Rule rule) {
+            Rule copy = this.copies.get(rule);
+            if (copy == null) {
+                final Map<GraphObject, GraphObject> table = new HashMap<>();
+                copy = BaseFactory.theFactory().cloneRule(rule, table);
+                copy.setName(rule.getName());
+                this.copies.put(rule, copy);
+                this.originalRules.put(copy, rule);
+                for (Map.Entry<GraphObject, GraphObject> e : table.entrySet()) {
+                    this.copyObjects.put(e.getKey(), e.getValue());
+                    this.originalObjects.put(e.getValue(), e.getKey());
+                }
+            }
+            return copy;
+        }
+
+        Rule originalOf(Rule copy) {
+            return this.originalRules.get(copy);
+        }
+
+        GraphObject originalOf(GraphObject copy) {
+            return this.originalObjects.get(copy);
+        }
+
+        /**
+         * Disposes the copies of the rules, when the parse has ended.
+         */
+        void dispose() {
+            for (Rule copy : this.copies.values()) {
+                copy.dispose();
+            }
+            this.rules = null;
+            this.copies.clear();
+            this.originalRules.clear();
+            this.copyObjects.clear();
+            this.originalObjects.clear();
+        }
+
+        /**
+         * Applies the step handed over by another branch to the graph.
+         */
+        boolean apply(Graph g, Step step) {
+            Rule rule = copyOf(step.rule);
+            Match m = BaseFactory.theFactory().createMatch(rule, g);
+            m.setCompletionStrategy((MorphCompletionStrategy) ParallelParser.this.grammar
+                    .getMorphismCompletionStrategy().clone(), true);
+            try {
+                for (int i = 0; i < step.originals.length; i++) {
+                    m.addMapping(this.copyObjects.get(step.originals[i]), step.images[i]);
+                }
+            } catch (BadMappingException ex) {
+                BaseFactory.theFactory().destroyMatch(m);
+                return false;
+            }
+            boolean found = true;
+            while (!m.isValid() && found) {
+                found = m.nextCompletion();
+            }
+            if (!found) {
+                BaseFactory.theFactory().destroyMatch(m);
+                return false;
+            }
+            return execute(m);
+        }
+    }
+}
@@ -88,6 +88,9 @@ public class ParserFactory {
                 default:
                     break;
             }
+            if (p instanceof AbstractParser) {
+                ((AbstractParser) p).setUndoLogEnabled(option.undoLogEnabled());
+            }
         }
         return p;
     }
@@ -149,9 +152,15 @@ public class ParserFactory {
                     }
                 }
                 break;
+            case ParserOption.PARALLELPARSER:
+                p = new ParallelParser(grammar, hostGraph, stopGraph);
+                break;
             default:
                 break;
         }
+        if (p instanceof AbstractParser) {
+            ((AbstractParser) p).setUndoLogEnabled(option.undoLogEnabled());
+        }
         return p;
     }
 
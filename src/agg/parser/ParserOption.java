@@ -36,10 +36,15 @@ public class ParserOption {
      * A simple algorithm with critical pair analysis.
      */
     public static final int SIMPLEEXCLUDEPARSER = 2;
+    /**
+     * A backtracking on a work stealing pool.
+     */
+    public static final int PARALLELPARSER = 3;
     private static final int DEFAULTPARSER = EXCLUDEPARSER;
     private int selectedParser;
     private List<OptionEventListener> listener;
     private boolean layered;
+    private boolean undoLog;
 
     /**
      * Creates new option with default settings.
@@ -57,7 +62,7 @@ public class ParserOption {
      */
     public void setSelectedParser(int parser) {
         if (parser == EXCLUDEPARSER || parser == SIMPLEPARSER
-                || parser == SIMPLEEXCLUDEPARSER) {
+                || parser == SIMPLEEXCLUDEPARSER || parser == PARALLELPARSER) {
             this.selectedParser = parser;
         }
     }
@@ -92,6 +97,29 @@ public class ParserOption {
         }
     }
 
+    /**
+     * Returns if the parser backtracks by an undo log.
+     *
+     * @return true if the undo log is used.
+     */
+    public boolean undoLogEnabled() {
+        return this.undoLog;
+    }
+
+    /**
+     * Enables if the parser backtracks by an undo log instead of copies of
+     * the host graph.
+     *
+     * @param enable true if the undo log is used.
+     * @see AbstractParser#setUndoLogEnabled(boolean)
+     */
+    public void enableUndoLog(boolean enable) {
+        if (this.undoLog != enable) {
+            this.undoLog = enable;
+            fireOptionEvent(new EventObject(this));
+        }
+    }
+
     /**
      * Adds an option listener.
      *
@@ -0,0 +1,280 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.parser;
+
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphFingerprint;
+import agg.xt_basis.GraphJournal;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.Match;
+import agg.xt_basis.Rule;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The backtracking stack of a parser in undo log mode. The parser changes its
+ * host graph in place: before a rule is applied at a decision point an
+ * {@link Graph#openJournal() undo journal} of the graph is opened, and the
+ * parser backtracks by discarding the journal, so no copy of the host graph
+ * is made.
+ *
+ * <p>
+ * The tried matches of a state are kept as their images, because the matches
+ * are disposed by the step and the removed objects are replaced by new objects
+ * when a journal is discarded. The {@link StateCode code} of each visited state
+ * is kept in a bucket of its fingerprint, a state which is isomorphic to a
+ * visited one is not explored again: it is either on the current derivation
+ * or it failed already. The code keeps the labels and incidences of the
+ * objects in arrays instead of a copy of the graph; two states are
+ * isomorphic if a bijection keeps the types, the attribute values and the
+ * incidences.
+ *
+ * @author Janusch Rentenatus
+ */
+final class ParserUndoLog {
+
+    private final Graph graph;
+    private final Graph stopGraph;
+    private final GraphJournal root;
+    private final List<Frame> frames = new ArrayList<>();
+    private final Visited visited;
+    private final boolean ownsVisited;
+    private GraphFingerprint stopFingerprint;
+    private List<TriedMatch> tried = new ArrayList<>();
+    private boolean pruneVisited = true;
+
+    /**
+     * Opens a journal of the host graph, so the steps outside of decision points can be
+     * taken back as well. The log has to be closed by {@link #commitAll()} or
+     * {@link #discardAll()}.
+     */
+    ParserUndoLog(final Graph graph, final Graph stopGraph) {
+        this(graph, stopGraph, new Visited(), true);
+    }
+
+    /**
+     * Creates a log, which shares the visited states with other logs.
+     */
+    ParserUndoLog(final Graph graph, final Graph stopGraph, final Visited visited) {
+        this(graph, stopGraph, visited, false);
+    }
+
+    private ParserUndoLog(final Graph graph, final Graph stopGraph, final Visited visited,
+            final boolean ownsVisited) {
+        this.graph = graph;
+        this.stopGraph = stopGraph;
+        this.visited = visited;
+        this.ownsVisited = ownsVisited;
+        this.root = graph.openJournal();
+    }
+
+    void setPruneVisited(final boolean prune) {
+        this.pruneVisited = prune;
+    }
+
+    /**
+     * Returns true if the host graph is isomorphic to the stop graph. The
+     * sizes and the fingerprints are compared before the isomorphism is
+     * searched.
+     */
+    boolean isStopGraphReached() {
+        if (this.graph.getNodesCount() != this.stopGraph.getNodesCount()
+                || this.graph.getArcsCount() != this.stopGraph.getArcsCount()) {
+            return false;
+        }
+        if (this.stopFingerprint == null) {
+            this.stopFingerprint = this.stopGraph.getFingerprint();
+        }
+        return this.stopFingerprint.mayHaveEqualConstants(this.graph.getFingerprint())
+                && this.graph.isIsomorphicTo(this.stopGraph);
+    }
+
+    /**
+     * Marks the current state of the host graph as visited.
+     *
+     * @return false if the state was visited before
+     */
+    boolean visit() {
+        if (!this.pruneVisited) {
+            return true;
+        }
+        return this.visited.add(this.graph);
+    }
+
+    /**
+     * Returns true if the match was tried at the current state.
+     */
+    boolean isTried(final Match m) {
+        for (TriedMatch t : this.tried) {
+            if (t.isSame(m)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers the match as tried at the current state without applying it.
+     */
+    void markTried(final Match m) {
+        this.tried.add(new TriedMatch(m));
+    }
+
+    /**
+     * Remembers the match as tried at the current state and opens a journal
+     * of the host graph, the state after the step of the match is a new state without
+     * tried matches.
+     */
+    void push(final Match m) {
+        this.tried.add(new TriedMatch(m));
+        this.frames.add(new Frame(this.graph.openJournal(), this.tried));
+        this.tried = new ArrayList<>();
+    }
+
+    /**
+     * Takes back the changes since the last decision point.
+     *
+     * @return false if there is no decision point left
+     */
+    boolean pop() {
+        if (this.frames.isEmpty()) {
+            return false;
+        }
+        final Frame f = this.frames.remove(this.frames.size() - 1);
+        f.journal.discard();
+        for (TriedMatch t : f.tried) {
+            t.resolve(f.journal);
+        }
+        this.tried = f.tried;
+        return true;
+    }
+
+    /**
+     * Keeps the changes of all decision points, the host graph stays in its
+     * current state.
+     */
+    void commitAll() {
+        for (int i = this.frames.size() - 1; i >= 0; i--) {
+            this.frames.get(i).journal.commit();
+        }
+        this.frames.clear();
+        this.root.commit();
+        this.tried = new ArrayList<>();
+        if (this.ownsVisited) {
+            this.visited.clear();
+        }
+    }
+
+    /**
+     * Takes back the changes of all decision points, the host graph is reset
+     * to its state before parsing.
+     */
+    void discardAll() {
+        while (pop()) {
+        }
+        this.root.discard();
+        this.tried = new ArrayList<>();
+        if (this.ownsVisited) {
+            this.visited.clear();
+        }
+    }
+
+    /**
+     * The visited states, kept as {@link StateCode codes} in buckets of equal
+     * fingerprint structure. Each bucket has its own lock, so the states of
+     * different buckets are compared at the same time.
+     */
+    static final class Visited {
+
+        private final StateCode.Labels labels = new StateCode.Labels();
+        private final Map<GraphFingerprint, List<StateCode>> buckets = new ConcurrentHashMap<>();
+
+        /**
+         * Adds the code of the specified graph as visited state, unless an
+         * isomorphic state was added before.
+         *
+         * @return false if an isomorphic state was added before
+         */
+        boolean add(final Graph g) {
+            final GraphFingerprint fp = g.getFingerprint();
+            final StateCode code = new StateCode(g, this.labels);
+            final List<StateCode> bucket = this.buckets.computeIfAbsent(fp, k -> new ArrayList<>(2));
+            synchronized (bucket) {
+                if (bucket.contains(code)) {
+                    return false;
+                }
+                bucket.add(code);
+                return true;
+            }
+        }
+
+        /**
+         * Forgets the visited states.
+         */
+        void clear() {
+            this.buckets.clear();
+        }
+    }
+
+    private static final class Frame {
+
+        final GraphJournal journal;
+        final List<TriedMatch> tried;
+
+        Frame(final GraphJournal journal, final List<TriedMatch> tried) {
+            this.journal = journal;
+            this.tried = tried;
+        }
+    }
+
+    /**
+     * The rule and the images of a match.
+     */
+    private static final class TriedMatch {
+
+        final Rule rule;
+        final GraphObject[] originals;
+        final GraphObject[] images;
+
+        TriedMatch(final Match m) {
+            this.rule = m.getRule();
+            final List<GraphObject> dom = new ArrayList<>();
+            final Iterator<GraphObject> it = m.getDomain();
+            while (it.hasNext()) {
+                dom.add(it.next());
+            }
+            this.originals = dom.toArray(new GraphObject[dom.size()]);
+            this.images = new GraphObject[this.originals.length];
+            for (int i = 0; i < this.originals.length; i++) {
+                this.images[i] = m.getImage(this.originals[i]);
+            }
+        }
+
+        void resolve(final GraphJournal journal) {
+            for (int i = 0; i < this.images.length; i++) {
+                this.images[i] = journal.getCurrent(this.images[i]);
+            }
+        }
+
+        boolean isSame(final Match m) {
+            if (m.getRule() != this.rule || m.getSize() != this.originals.length) {
+                return false;
+            }
+            for (int i = 0; i < this.originals.length; i++) {
+                if (m.getImage(this.originals[i]) != this.images[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
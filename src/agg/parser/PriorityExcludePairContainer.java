@@ -45,6 +45,16 @@ public class PriorityExcludePairContainer extends ExcludePairContainer {
         super(gragra);
     }
 
+    /**
+     * The rule pairs are computed by the own <code>computeCritical</code>
+     * of this container, so they are computed one after another even if the
+     * parallel computation is enabled.
+     */
+    @Override
+    protected boolean isParallelComputable() {
+        return false;
+    }
+
     /**
      * Computes if the first rule exclude the second rule. The result is added
      * to the container.
@@ -81,6 +81,9 @@ public class SimpleParser extends AbstractParser implements Runnable {
      * @return true if the graph can be parsed.
      */
     public boolean parse() {
+        if (this.undoLog) {
+            return parseWithUndoLog();
+        }
 //		System.out.println("Starting simple parser ...");
         Stack<Pair<Graph, RuleInstances>> stack = new Stack<Pair<Graph, RuleInstances>>();
         this.correct = true;
@@ -175,6 +178,46 @@ public class SimpleParser extends AbstractParser implements Runnable {
                 "Stopping parser. Result is " + this.correct + "."));
         return this.correct;
     }
+
+    /**
+     * Starts the parser in undo log mode.
+     *
+     * @return true if the graph can be parsed.
+     */
+    protected boolean parseWithUndoLog() {
+        ParserUndoLog log = new ParserUndoLog(getHostGraph(), this.stopGraph);
+        log.setPruneVisited(this.pruneVisited);
+        log.visit();
+        this.correct = true;
+        fireParserEvent(new ParserMessageEvent(this,
+                "Starting simple parser with undo log ..."));
+        while (!this.stop && this.correct && !log.isStopGraphReached()) {
+            fireParserEvent(new ParserMessageEvent(this, "Searching for match!"));
+            Match m = findUntriedMatch(getHostGraph(), this.grammar.getRuleIterator(), log);
+            boolean ruleApplied = false;
+            if (m != null) {
+                log.push(m);
+                if (applyRule(m)) {
+                    delayAfterApplyRule();
+                    /* ein schon besuchter Zustand ist eine Sackgasse */
+                    ruleApplied = log.visit();
+                }
+            }
+            if (!ruleApplied && !log.pop()) {
+                fireParserEvent(new ParserErrorEvent(this,
+                        "ERROR: This graph is not part of the language"));
+                this.correct = false;
+            }
+        }
+        if (this.correct && !this.stop) {
+            log.commitAll();
+        } else {
+            log.discardAll();
+        }
+        fireParserEvent(new ParserMessageEvent(this,
+                "Stopping parser. Result is " + this.correct + "."));
+        return this.correct;
+    }
 }
 /*
  * End of Parser.java
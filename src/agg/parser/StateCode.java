@@ -0,0 +1,399 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.parser;
+
+import agg.attribute.AttrInstance;
+import agg.attribute.impl.ValueMember;
+import agg.attribute.impl.ValueTuple;
+import agg.xt_basis.Arc;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.Node;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compact code of a visited state of a parser. The code keeps the labels of
+ * the nodes and arcs and the incidences in arrays, so a visited state is not
+ * kept as a copy of the graph.
+ *
+ * <p>
+ * The label of an object is its type together with the text of its
+ * attribute members. The labels are numbered by a {@link Labels} table, which
+ * is shared by the codes compared with each other. Two codes are equal if
+ * there is a bijection of the nodes and a bijection of the arcs which keep
+ * the labels and the incidences. The nodes are refined by their neighbourhood
+ * in the way of {@link agg.xt_basis.GraphFingerprint}, a node is mapped only
+ * to a node of the same refined color.
+ *
+ * @author Janusch Rentenatus
+ */
+final class StateCode {
+
+    private static final long OUT = 0x3c6ef372fe94f82bL;
+    private static final long IN = 0xa54ff53a5f1d36f1L;
+
+    private static final int DIR_OUT = 0;
+    private static final int DIR_IN = 1;
+    private static final int DIR_LOOP = 2;
+
+    private final int[] nodeLabel;
+    private final int[] arcLabel;
+    private final int[] arcSource;
+    private final int[] arcTarget;
+    /** The arcs incident to node i are incident[incidentStart[i] .. incidentStart[i + 1]). */
+    private final int[] incidentStart;
+    private final int[] incident;
+    private final long[] color;
+    private final long[] sortedColors;
+    private final int[] sortedArcLabels;
+    private final int hash;
+
+    /**
+     * Encodes the current state of the specified graph.
+     *
+     * @param g the graph
+     * @param labels the numbers of the labels
+     */
+    StateCode(final Graph g, final Labels labels) {
+        final List<Node> nodeList = new ArrayList<>(g.getNodesSet());
+        final int n = nodeList.size();
+        final Map<Node, Integer> index = new HashMap<>(n * 2);
+        this.nodeLabel = new int[n];
+        for (int i = 0; i < n; i++) {
+            final Node v = nodeList.get(i);
+            index.put(v, Integer.valueOf(i));
+            this.nodeLabel[i] = labels.of(v);
+        }
+        final int a = g.getArcsCount();
+        this.arcLabel = new int[a];
+        this.arcSource = new int[a];
+        this.arcTarget = new int[a];
+        this.incidentStart = new int[n + 1];
+        int k = 0;
+        for (Arc arc : g.getArcsSet()) {
+            this.arcSource[k] = index.get(arc.getSource()).intValue();
+            this.arcTarget[k] = index.get(arc.getTarget()).intValue();
+            this.arcLabel[k] = labels.of(arc);
+            this.incidentStart[this.arcSource[k] + 1]++;
+            if (this.arcTarget[k] != this.arcSource[k]) {
+                this.incidentStart[this.arcTarget[k] + 1]++;
+            }
+            k++;
+        }
+        for (int i = 0; i < n; i++) {
+            this.incidentStart[i + 1] += this.incidentStart[i];
+        }
+        this.incident = new int[this.incidentStart[n]];
+        final int[] fill = Arrays.copyOf(this.incidentStart, n);
+        for (int i = 0; i < a; i++) {
+            this.incident[fill[this.arcSource[i]]++] = i;
+            if (this.arcTarget[i] != this.arcSource[i]) {
+                this.incident[fill[this.arcTarget[i]]++] = i;
+            }
+        }
+        this.color = refine();
+        this.sortedColors = this.color.clone();
+        Arrays.sort(this.sortedColors);
+        this.sortedArcLabels = this.arcLabel.clone();
+        Arrays.sort(this.sortedArcLabels);
+        this.hash = Arrays.hashCode(this.sortedColors);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    /**
+     * Returns true if the states of this and the specified code are
+     * isomorphic.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StateCode)) {
+            return false;
+        }
+        final StateCode c = (StateCode) o;
+        return this.hash == c.hash
+                && Arrays.equals(this.sortedColors, c.sortedColors)
+                && Arrays.equals(this.sortedArcLabels, c.sortedArcLabels)
+                && findIsomorphism(c);
+    }
+
+    /**
+     * Refines the node labels until the partition of the nodes is stable.
+     * The codes of isomorphic states stop at the same round, so their colors
+     * can be compared.
+     */
+    private long[] refine() {
+        final int n = this.nodeLabel.length;
+        long[] label = new long[n];
+        for (int i = 0; i < n; i++) {
+            label[i] = mix(this.nodeLabel[i] + 1L);
+        }
+        int classes = distinct(label);
+        for (int round = 0; round < n; round++) {
+            final long[] next = new long[n];
+            for (int i = 0; i < n; i++) {
+                final long[] neighbours = new long[this.incidentStart[i + 1] - this.incidentStart[i]];
+                for (int j = 0; j < neighbours.length; j++) {
+                    final int arc = this.incident[this.incidentStart[i] + j];
+                    final long l = mix(this.arcLabel[arc] + 1L);
+                    final int s = this.arcSource[arc];
+                    final int t = this.arcTarget[arc];
+                    if (s == t) {
+                        neighbours[j] = mix(OUT ^ IN ^ l);
+                    } else if (s == i) {
+                        neighbours[j] = mix(OUT ^ l ^ mix(label[t]));
+                    } else {
+                        neighbours[j] = mix(IN ^ l ^ mix(label[s]));
+                    }
+                }
+                next[i] = mix(label[i] ^ multiset(neighbours));
+            }
+            final int nextClasses = distinct(next);
+            label = next;
+            if (nextClasses == classes) {
+                break;
+            }
+            classes = nextClasses;
+        }
+        return label;
+    }
+
+    /**
+     * Searches a bijection of the nodes of this code to the nodes of the
+     * specified code, which keeps the colors, the labels and the incident
+     * arcs of the nodes mapped before. The search backtracks on an explicit
+     * stack.
+     */
+    private boolean findIsomorphism(final StateCode c) {
+        final int n = this.nodeLabel.length;
+        if (n != c.nodeLabel.length || this.arcLabel.length != c.arcLabel.length) {
+            return false;
+        }
+        // the nodes of c ordered by color, a node is mapped into its color range
+        final Integer[] byColor = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byColor[i] = Integer.valueOf(i);
+        }
+        Arrays.sort(byColor, (x, y) -> Long.compare(c.color[x.intValue()], c.color[y.intValue()]));
+        final long[] colorOfRange = new long[n];
+        for (int i = 0; i < n; i++) {
+            colorOfRange[i] = c.color[byColor[i].intValue()];
+        }
+        final int[] order = searchOrder();
+        final int[] rangeEnd = new int[n];
+        final int[] cursor = new int[n];
+        final int[] map = new int[n];
+        final int[] inverse = new int[n];
+        Arrays.fill(map, -1);
+        Arrays.fill(inverse, -1);
+        for (int level = 0; level < n; level++) {
+            final long col = this.color[order[level]];
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (colorOfRange[mid] < col) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            cursor[level] = lo;
+            int end = lo;
+            while (end < n && colorOfRange[end] == col) {
+                end++;
+            }
+            rangeEnd[level] = end;
+        }
+        final int[] start = cursor.clone();
+        int level = 0;
+        while (level >= 0) {
+            if (level == n) {
+                return true;
+            }
+            final int v = order[level];
+            if (map[v] >= 0) {
+                inverse[map[v]] = -1;
+                map[v] = -1;
+            }
+            int found = -1;
+            while (cursor[level] < rangeEnd[level]) {
+                final int w = byColor[cursor[level]++].intValue();
+                if (inverse[w] < 0 && this.nodeLabel[v] == c.nodeLabel[w]) {
+                    map[v] = w;
+                    inverse[w] = v;
+                    if (Arrays.equals(incidence(v, map, true), c.incidence(w, inverse, false))) {
+                        found = w;
+                        break;
+                    }
+                    map[v] = -1;
+                    inverse[w] = -1;
+                }
+            }
+            if (found >= 0) {
+                level++;
+                if (level < n) {
+                    cursor[level] = start[level];
+                }
+            } else {
+                level--;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the sorted keys of the arcs of node v to the nodes mapped by
+     * the specified table. A key holds the other node, the label and the
+     * direction of the arc; the other node is given by its image if
+     * translate is set, so the keys of both codes use the nodes of one code.
+     */
+    private long[] incidence(final int v, final int[] table, final boolean translate) {
+        final long[] keys = new long[this.incidentStart[v + 1] - this.incidentStart[v]];
+        int k = 0;
+        for (int j = this.incidentStart[v]; j < this.incidentStart[v + 1]; j++) {
+            final int arc = this.incident[j];
+            final int s = this.arcSource[arc];
+            final int t = this.arcTarget[arc];
+            final int other;
+            final int dir;
+            if (s == t) {
+                other = v;
+                dir = DIR_LOOP;
+            } else if (s == v) {
+                other = t;
+                dir = DIR_OUT;
+            } else {
+                other = s;
+                dir = DIR_IN;
+            }
+            final int image = table[other];
+            if (image < 0) {
+                continue;
+            }
+            keys[k++] = ((long) (translate ? image : other) << 34)
+                    | ((long) this.arcLabel[arc] << 2) | dir;
+        }
+        final long[] result = Arrays.copyOf(keys, k);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Orders the nodes breadth first, so a node is mostly mapped after one of
+     * its neighbours. A component starts at a node of the rarest color.
+     */
+    private int[] searchOrder() {
+        final int n = this.nodeLabel.length;
+        final Map<Long, Integer> classSize = new HashMap<>();
+        for (long col : this.color) {
+            classSize.merge(Long.valueOf(col), Integer.valueOf(1), Integer::sum);
+        }
+        final Integer[] starts = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = Integer.valueOf(i);
+        }
+        Arrays.sort(starts, (x, y) -> Integer.compare(
+                classSize.get(Long.valueOf(this.color[x.intValue()])).intValue(),
+                classSize.get(Long.valueOf(this.color[y.intValue()])).intValue()));
+        final int[] order = new int[n];
+        final boolean[] queued = new boolean[n];
+        int tail = 0;
+        int head = 0;
+        for (Integer s : starts) {
+            if (queued[s.intValue()]) {
+                continue;
+            }
+            queued[s.intValue()] = true;
+            order[tail++] = s.intValue();
+            while (head < tail) {
+                final int v = order[head++];
+                for (int j = this.incidentStart[v]; j < this.incidentStart[v + 1]; j++) {
+                    final int arc = this.incident[j];
+                    final int u = (this.arcSource[arc] == v) ? this.arcTarget[arc] : this.arcSource[arc];
+                    if (!queued[u]) {
+                        queued[u] = true;
+                        order[tail++] = u;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Order independent hash of the specified values, sorts the array.
+     */
+    private static long multiset(final long[] values) {
+        Arrays.sort(values);
+        long h = values.length;
+        for (long v : values) {
+            h = mix(h ^ v);
+        }
+        return h;
+    }
+
+    private static int distinct(final long[] values) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The finalizer of SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The numbers of the labels of the graph objects. A table may be used by
+     * several threads.
+     */
+    static final class Labels {
+
+        private final Map<String, Integer> numbers = new ConcurrentHashMap<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        int of(final GraphObject o) {
+            final StringBuilder sb = new StringBuilder(o.getType().convertToKey());
+            final AttrInstance attr = o.getAttribute();
+            if (attr != null) {
+                final ValueTuple value = (ValueTuple) attr;
+                for (int i = 0; i < value.getNumberOfEntries(); i++) {
+                    final ValueMember vm = value.getValueMemberAt(i);
+                    sb.append('\u0000').append(vm.getName())
+                            .append('=').append(vm.getExprAsText());
+                }
+            }
+            return this.numbers.computeIfAbsent(sb.toString(),
+                    k -> Integer.valueOf(this.next.getAndIncrement())).intValue();
+        }
+    }
+}
@@ -25,8 +25,11 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +37,7 @@ import java.util.Vector;
 import java.beans.XMLEncoder;
 import java.beans.XMLDecoder;
 import java.beans.ExceptionListener;
+import javax.xml.stream.XMLStreamException;
 import org.apache.xerces.dom.DocumentImpl;
 import org.apache.xerces.parsers.DOMParser;
 import org.apache.xml.serialize.OutputFormat;
@@ -67,6 +71,9 @@ public class XMLHelper implements ExceptionListener {
     private String version = "";
     private String ioException = "";
     private String dir = System.getProperty("user.dir");
+    private boolean streamed;
+    private String streamedFile;
+    private final Map<Element, List<Iterable<?>>> streamedElements = new IdentityHashMap<Element, List<Iterable<?>>>();
 
     public XMLHelper() {
         // Java XML Document
@@ -137,6 +144,9 @@ public class XMLHelper implements ExceptionListener {
             }
         }
 
+        if (this.streamed) {
+            return writeStreamed(f);
+        }
         FileOutputStream os = null;
         try {
             os = new FileOutputStream(f);
@@ -174,6 +184,10 @@ public class XMLHelper implements ExceptionListener {
             return false;
         }
         this.esp = 0;
+        if (this.streamed && (fname.endsWith(".ggx") || fname.endsWith(".cpx")
+                || fname.endsWith(".rsx"))) {
+            return readStreamed(fname);
+        }
         try {
             // read file
             InputSource inSrc = new InputSource();
@@ -234,6 +248,197 @@ public class XMLHelper implements ExceptionListener {
         return true;
     }
 
+    /**
+     * Switches the streamed mode on or off. In streamed mode the children of a
+     * <code>&lt;Graph&gt;</code> element directly below a
+     * <code>&lt;GraphTransformationSystem&gt;</code> element, that are the
+     * nodes and edges of the host graphs, are not held in the DOM.
+     * <code>read_from_xml()</code> reads them in a second pass over the file
+     * when the graph is read, <code>save_to_xml()</code> writes them one by
+     * one, so the graph must not be changed between
+     * <code>addTopObject()</code> and <code>save_to_xml()</code>.
+     */
+    public void setStreamed(boolean b) {
+        this.streamed = b;
+    }
+
+    public boolean isStreamed() {
+        return this.streamed;
+    }
+
+    /**
+     * Returns true if the children of the current DOM-Element are streamed.
+     * Then the XwriteObject() of its object adds the children by
+     * <code>addStreamedIteration()</code> and the XreadObject() gets them by
+     * <code>getStreamedIteration()</code>.
+     */
+    public boolean isStreamedElement() {
+        if (!this.streamed) {
+            return false;
+        }
+        Element e = top();
+        if (e == null) {
+            return false;
+        }
+        if (this.streamedElements.containsKey(e)) {
+            return true;
+        }
+        Element p = parent();
+        if (p != null && e.getParentNode() == null
+                && XMLStreamSupport.isStreamedTag(e.getTagName(), p.getTagName())) {
+            // a new element, not yet appended
+            this.streamedElements.put(e, new ArrayList<Iterable<?>>(2));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The XMLObjects of the specified iteration will be saved as Sub-Elements
+     * of the current streamed DOM-Element while the document is written.
+     */
+    public void addStreamedIteration(Iterable<?> it) {
+        List<Iterable<?>> content = this.streamedElements.get(top());
+        if (content != null) {
+            content.add(it);
+        }
+    }
+
+    /**
+     * Iteration of the Sub-Elements of a streamed DOM-Element. The file is
+     * read until the last element is requested, so an iteration which is left
+     * before has to be closed.
+     */
+    public interface StreamedIteration extends Iterator<Element>, AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Returns the Sub-Elements of the current streamed DOM-Element. Each
+     * element is read from the file when it is requested and can be used by
+     * <code>peekElement()</code> and <code>loadObject()</code>. The elements
+     * of loaded objects are dropped when the next element is requested. The
+     * iteration should be used by a try-with-resources statement.
+     */
+    public StreamedIteration getStreamedIteration() {
+        final StreamedIteration children = XMLStreamSupport.readChildren(
+                this.streamedFile, top().getAttribute("ID"), this.doc);
+        return new StreamedIteration() {
+            private Element last;
+
+            @Override
+            public boolean hasNext() {
+                if (children.hasNext()) {
+                    return true;
+                }
+                releaseElements(this.last, false);
+                this.last = null;
+                return false;
+            }
+
+            @Override
+            public Element next() {
+                releaseElements(this.last, false);
+                this.last = children.next();
+                registerElements(this.last);
+                return this.last;
+            }
+
+            @Override
+            public void close() {
+                children.close();
+                releaseElements(this.last, false);
+                this.last = null;
+            }
+        };
+    }
+
+    private boolean readStreamed(String fname) {
+        this.doc = new DocumentImpl();
+        this.streamedElements.clear();
+        try {
+            XMLStreamSupport.readSkeleton(fname, this.doc, this.index2element,
+                    this.streamedElements);
+        } catch (IOException | XMLStreamException ex) {
+            System.out.println("XMLHelper.read_from_xml: " + ex.getLocalizedMessage());
+            return false;
+        }
+        if (this.doc.getDocumentElement() == null) {
+            return false;
+        }
+        this.streamedFile = fname;
+        isAGG = true;
+        push(this.doc.getDocumentElement());
+        this.version = this.doc.getDocumentElement().getAttribute("version");
+        return true;
+    }
+
+    private boolean writeStreamed(File f) {
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(f))) {
+            XMLStreamSupport.write(os, this.doc, this.streamedElements,
+                    this::writeStreamedObject);
+        } catch (IOException | XMLStreamException ex) {
+            System.err.println("Absolute path: " + f.getAbsolutePath());
+            ex.printStackTrace();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates the DOM-Element of the specified XMLObject like
+     * <code>addObject()</code> without appending it.
+     */
+    private Element writeStreamedObject(Object o) {
+        XMLObject xo = (XMLObject) o;
+        if (getO2I(xo).length() != 0) {
+            return null;
+        }
+        String newi = newO2I(xo);
+        this.index2element.put(newi, null);
+        xo.XwriteObject(this);
+        Element el = (Element) this.index2element.get(newi);
+        releaseElements(el, true);
+        return el;
+    }
+
+    private void registerElements(Element e) {
+        if (e == null) {
+            return;
+        }
+        String id = e.getAttribute("ID");
+        if (!id.isEmpty()) {
+            this.index2element.put(id, e);
+        }
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() == Node.ELEMENT_NODE) {
+                registerElements((Element) n);
+            }
+        }
+    }
+
+    /**
+     * Removes the specified element and its Sub-Elements from the ID map. If
+     * all is false, only the elements of objects already read are removed.
+     */
+    private void releaseElements(Element e, boolean all) {
+        if (e == null) {
+            return;
+        }
+        String id = e.getAttribute("ID");
+        if (!id.isEmpty() && (all || this.index2object.containsKey(id))
+                && this.index2element.get(id) == e) {
+            this.index2element.remove(id);
+        }
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() == Node.ELEMENT_NODE) {
+                releaseElements((Element) n, all);
+            }
+        }
+    }
+
     /*
 	 * public static boolean hasGermanSpecialCh(String str){
 	 * if((str.indexOf('ÃƒÂ¶') != -1) || (str.indexOf('Ãƒâ€“') != -1) ||
@@ -0,0 +1,369 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.util;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * StAX based reading and writing of AGG XML documents for the streamed mode of
+ * {@link XMLHelper}. The children of a streamed element, that is a
+ * <code>&lt;Graph&gt;</code> element directly below a
+ * <code>&lt;GraphTransformationSystem&gt;</code> element, are never held in the
+ * DOM. On reading they are left out of the skeleton DOM and delivered one at a
+ * time by a second pass over the file, on writing they are serialized one at a
+ * time while the skeleton DOM is written.
+ *
+ * @author Janusch Rentenatus
+ */
+final class XMLStreamSupport {
+
+    static final String STREAMED_TAG = "Graph";
+    static final String STREAMED_PARENT_TAG = "GraphTransformationSystem";
+
+    private static final String INDENT = "    ";
+
+    private XMLStreamSupport() {
+    }
+
+    /**
+     * Returns true if the children of an element with the specified tag name
+     * below an element with the specified parent tag name are streamed.
+     */
+    static boolean isStreamedTag(String tagName, String parentTagName) {
+        return STREAMED_TAG.equals(tagName)
+                && STREAMED_PARENT_TAG.equals(parentTagName);
+    }
+
+    /**
+     * Reads the skeleton of the specified file into the specified empty
+     * document. All elements with an ID are put into the map index2element,
+     * the streamed elements are put into the map streamed.
+     */
+    static void readSkeleton(String fname, Document doc,
+            Map<Object, Object> index2element, Map<Element, List<Iterable<?>>> streamed)
+            throws IOException, XMLStreamException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(fname))) {
+            XMLStreamReader r = createReader(in);
+            try {
+                Deque<Node> stack = new ArrayDeque<>();
+                stack.push(doc);
+                int skip = 0;
+                while (r.hasNext()) {
+                    int event = r.next();
+                    if (skip > 0) {
+                        if (event == XMLStreamConstants.START_ELEMENT) {
+                            skip++;
+                        } else if (event == XMLStreamConstants.END_ELEMENT) {
+                            skip--;
+                            if (skip == 0) {
+                                stack.pop();
+                            }
+                        }
+                        continue;
+                    }
+                    switch (event) {
+                        case XMLStreamConstants.START_ELEMENT:
+                            Node parent = stack.peek();
+                            Element e = createElement(doc, r);
+                            parent.appendChild(e);
+                            String id = e.getAttribute("ID");
+                            if (!id.isEmpty()) {
+                                index2element.put(id, e);
+                            }
+                            stack.push(e);
+                            if (parent instanceof Element
+                                    && isStreamedTag(e.getTagName(), ((Element) parent).getTagName())) {
+                                streamed.put(e, null);
+                                skip = 1;
+                            }
+                            break;
+                        case XMLStreamConstants.END_ELEMENT:
+                            stack.pop();
+                            break;
+                        case XMLStreamConstants.CHARACTERS:
+                        case XMLStreamConstants.CDATA:
+                        case XMLStreamConstants.SPACE:
+                            if (stack.peek() instanceof Element) {
+                                appendText(doc, stack.peek(), r.getText());
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } finally {
+                r.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the children of the element with the specified ID of the
+     * specified file. Each child is read when it is requested and returned as
+     * an element of the specified document which is not appended to it. The
+     * file is closed when the last child is read or the iteration is closed.
+     */
+    static XMLHelper.StreamedIteration readChildren(String fname, String id, Document doc) {
+        return new ChildIterator(fname, id, doc);
+    }
+
+    /**
+     * Writes the specified document. After the children of a streamed element
+     * the elements of the objects of its iterations are written, they are
+     * created by the specified function.
+     */
+    static void write(OutputStream os, Document doc,
+            Map<Element, List<Iterable<?>>> streamed,
+            Function<Object, Element> writeObject) throws XMLStreamException {
+        XMLStreamWriter w = XMLOutputFactory.newInstance().createXMLStreamWriter(os, "UTF-8");
+        try {
+            w.writeStartDocument("UTF-8", "1.0");
+            writeElement(w, doc.getDocumentElement(), 0, streamed, writeObject);
+            w.writeCharacters("\n");
+            w.writeEndDocument();
+            w.flush();
+        } finally {
+            w.close();
+        }
+    }
+
+    private static void writeElement(XMLStreamWriter w, Element e, int depth,
+            Map<Element, List<Iterable<?>>> streamed,
+            Function<Object, Element> writeObject) throws XMLStreamException {
+        List<Iterable<?>> content = streamed.get(e);
+        w.writeCharacters("\n");
+        indent(w, depth);
+        if (!e.hasChildNodes() && (content == null || content.isEmpty())) {
+            w.writeEmptyElement(e.getTagName());
+            writeAttributes(w, e);
+            return;
+        }
+        w.writeStartElement(e.getTagName());
+        writeAttributes(w, e);
+        boolean hasElements = false;
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() == Node.ELEMENT_NODE) {
+                hasElements = true;
+                writeElement(w, (Element) n, depth + 1, streamed, writeObject);
+            }
+        }
+        if (!hasElements) {
+            for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+                if (n.getNodeType() == Node.TEXT_NODE
+                        || n.getNodeType() == Node.CDATA_SECTION_NODE) {
+                    w.writeCharacters(n.getNodeValue());
+                }
+            }
+        }
+        if (content != null) {
+            for (Iterable<?> iteration : content) {
+                for (Object o : iteration) {
+                    Element child = writeObject.apply(o);
+                    if (child != null) {
+                        hasElements = true;
+                        writeElement(w, child, depth + 1, streamed, writeObject);
+                    }
+                }
+            }
+        }
+        if (hasElements) {
+            w.writeCharacters("\n");
+            indent(w, depth);
+        }
+        w.writeEndElement();
+    }
+
+    private static void writeAttributes(XMLStreamWriter w, Element e) throws XMLStreamException {
+        NamedNodeMap attrs = e.getAttributes();
+        for (int i = 0; i < attrs.getLength(); i++) {
+            Attr a = (Attr) attrs.item(i);
+            w.writeAttribute(a.getName(), a.getValue());
+        }
+    }
+
+    private static void indent(XMLStreamWriter w, int depth) throws XMLStreamException {
+        for (int i = 0; i < depth; i++) {
+            w.writeCharacters(INDENT);
+        }
+    }
+
+    private static XMLStreamReader createReader(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        return factory.createXMLStreamReader(in);
+    }
+
+    private static Element createElement(Document doc, XMLStreamReader r) {
+        Element e = doc.createElement(r.getLocalName());
+        for (int i = 0; i < r.getAttributeCount(); i++) {
+            e.setAttribute(r.getAttributeLocalName(i), r.getAttributeValue(i));
+        }
+        return e;
+    }
+
+    /**
+     * Appends the specified text, adjacent text is merged into one node as
+     * the readers of attribute values expect.
+     */
+    private static void appendText(Document doc, Node parent, String text) {
+        Node last = parent.getLastChild();
+        if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+            ((Text) last).appendData(text);
+        } else {
+            parent.appendChild(doc.createTextNode(text));
+        }
+    }
+
+    /**
+     * Second pass over the file: positions a reader at the start tag of the
+     * element with the given ID and reads its children one by one.
+     */
+    private static final class ChildIterator implements XMLHelper.StreamedIteration {
+
+        private final String fname;
+        private final Document doc;
+        private InputStream in;
+        private XMLStreamReader reader;
+        private Element next;
+
+        ChildIterator(String fname, String id, Document doc) {
+            this.fname = fname;
+            this.doc = doc;
+            try {
+                this.in = new BufferedInputStream(new FileInputStream(fname));
+                this.reader = createReader(this.in);
+                boolean found = false;
+                while (!found && this.reader.hasNext()) {
+                    found = this.reader.next() == XMLStreamConstants.START_ELEMENT
+                            && id.equals(this.reader.getAttributeValue(null, "ID"));
+                }
+                if (found) {
+                    this.next = readChild();
+                } else {
+                    System.out.println("XMLHelper: stream of " + fname + ": no element with ID " + id);
+                }
+            } catch (IOException | XMLStreamException ex) {
+                System.out.println("XMLHelper: stream of " + fname + ": " + ex.getLocalizedMessage());
+            }
+            if (this.next == null) {
+                finish();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Element next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            Element result = this.next;
+            try {
+                this.next = readChild();
+            } catch (XMLStreamException ex) {
+                System.out.println("XMLHelper: stream of " + this.fname + ": " + ex.getLocalizedMessage());
+                this.next = null;
+            }
+            if (this.next == null) {
+                finish();
+            }
+            return result;
+        }
+
+        @Override
+        public void close() {
+            this.next = null;
+            finish();
+        }
+
+        /**
+         * Reads the next child element, returns null at the end tag of the
+         * streamed element.
+         */
+        private Element readChild() throws XMLStreamException {
+            Deque<Element> stack = new ArrayDeque<>();
+            Element child = null;
+            while (this.reader.hasNext()) {
+                int event = this.reader.next();
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        Element e = createElement(this.doc, this.reader);
+                        if (stack.isEmpty()) {
+                            child = e;
+                        } else {
+                            stack.peek().appendChild(e);
+                        }
+                        stack.push(e);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (stack.isEmpty()) {
+                            return null;
+                        }
+                        stack.pop();
+                        if (stack.isEmpty()) {
+                            return child;
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (!stack.isEmpty()) {
+                            appendText(this.doc, stack.peek(), this.reader.getText());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return null;
+        }
+
+        private void finish() {
+            try {
+                if (this.reader != null) {
+                    this.reader.close();
+                }
+                if (this.in != null) {
+                    this.in.close();
+                }
+            } catch (IOException | XMLStreamException ex) {
+                // nothing more to read
+            }
+            this.reader = null;
+            this.in = null;
+        }
+    }
+}
@@ -69,4 +69,14 @@ public interface SearchStrategy {
      * @see agg.util.csp.Query
      */
     public Vector<Query> execute(CSP csp);
+
+    /**
+     * Return <code>true</code> iff the search plan given by the queries
+     * should be computed again before the next search of the CSP, e.g.
+     * because the domain of the CSP changed. By default a plan is kept as
+     * long as the CSP.
+     */
+    public default boolean isOutdated(CSP csp, Vector<Query> queries) {
+        return false;
+    }
 }
@@ -247,7 +247,7 @@ public class Solution_Backjump implements SolutionStrategy {
     // the map of other solution solver
     private Map<Object, Variable> otherInstanceVarMap;
 //	final private BinaryPredicate itsVariableOrder = new SimpleVariableOrder();
-    final private SearchStrategy itsSearcher = new Search_BreadthFirst();
+    final private SearchStrategy itsSearcher;
     /**
      * Elements are of type <code>Variable</code>.
      */
@@ -285,7 +285,16 @@ public class Solution_Backjump implements SolutionStrategy {
     private final static int BACKJUMP = 7;
 
     public Solution_Backjump(boolean injective) {
+        this(injective, new Search_BreadthFirst());
+    }
+
+    /**
+     * Construct myself to compute the search plans by the specified search
+     * strategy.
+     */
+    public Solution_Backjump(boolean injective, SearchStrategy searcher) {
         this.itsInjectiveFlag = injective;
+        this.itsSearcher = searcher;
     }
 
     public void setRelatedInstanceVarMap(
@@ -432,6 +441,12 @@ public class Solution_Backjump implements SolutionStrategy {
                 return false;
             }
             this.itsState = START;
+        } else if (this.itsState == START
+                && this.itsSearcher.isOutdated(this.itsCSP, this.itsQueries)) {
+            // a new search with a new plan
+            if (!reinitialize(true)) {
+                return false;
+            }
         }
         if (this.itsState == SUCCESS) {
             this.itsState = BACK;
@@ -0,0 +1,615 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.util.csp;
+
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.csp.Query_Type;
+
+/**
+ * A CSP solution strategy using the backjumping technique like
+ * <code>Solution_Backjump</code>, which does not allocate objects while it
+ * searches.
+ *
+ * <p>
+ * The variables of the search plan are held in arrays and know their
+ * position. The backjump targets are a bitset of positions. The constraints
+ * of each variable are kept in an array, sorted by the position of the
+ * variable they blame for a conflict, so the first violated constraint names
+ * the earliest variable to jump back to and the check stops there. Unary
+ * constraints come first, the constraints with instantiation hooks, which map
+ * attributes, last. The arrays are sorted again, when constraints of a
+ * variable are added or removed.
+ *
+ * <p>
+ * The solutions are the same as of <code>Solution_Backjump</code> and are
+ * found in the same order.
+ *
+ * @author Janusch Rentenatus
+ * @see Solution_Backjump
+ */
+public class Solution_IndexedBackjump implements SolutionStrategy {
+
+    private static final BinaryConstraint[] NO_CONSTRAINTS = new BinaryConstraint[0];
+    private static final int[] NO_POSITIONS = new int[0];
+    // the sort keys of the constraints without a variable to blame
+    private static final int FIRST = -2;
+    private static final int LAST = Integer.MAX_VALUE;
+
+    private CSP itsCSP;
+    private boolean itsInjectiveFlag;
+    private boolean parallel;
+    private boolean startParallelbyFirst;
+    final private SearchStrategy itsSearcher;
+    final private Vector<Query> itsQueries = new Vector<Query>();
+    final private Map<Object, Variable> itsInstanceVarMap = new IdentityHashMap<Object, Variable>();
+    // the map of other solution solver
+    private Map<Object, Variable> otherInstanceVarMap;
+    /**
+     * The count of the positions of the search plan.
+     */
+    private int itsCount;
+    /**
+     * The query of each position.
+     */
+    private Query[] itsPlan = new Query[0];
+    /**
+     * The target variable of the query of each position.
+     */
+    private Variable[] itsVars = new Variable[0];
+    /**
+     * The positions of the source variables of the query of each position.
+     */
+    private int[][] itsSources = new int[0][];
+    /**
+     * The constraints of the variable of each position, sorted by the
+     * position of the blamed variable.
+     */
+    private BinaryConstraint[][] itsChecks = new BinaryConstraint[0][];
+    /**
+     * The position of the blamed variable of each constraint of
+     * <code>itsChecks</code> or -1.
+     */
+    private int[][] itsBlames = new int[0][];
+    /**
+     * The constraints version of the variable of each position, when its
+     * constraints were sorted.
+     */
+    private int[] itsVersions = new int[0];
+    /**
+     * The bitset of the positions of the backjump targets.
+     */
+    private long[] itsBackjumpTargets = new long[0];
+    /**
+     * Value is either <code>NEXT</code> or <code>BACK</code> according to the
+     * recent traversal direction of the search tree.
+     */
+    private int itsDirection;
+    private int itsCurrentIndex;
+    private Variable itsCurrentVar;
+    private Query itsCurrentQuery;
+    private int itsState;
+    private boolean solutionFound;
+    // constants for csp solution state machine:
+    private final static int START = 1;
+    private final static int NEXT = 2;
+    private final static int INSTANTIATE = 3;
+    private final static int BACK = 4;
+    private final static int SUCCESS = 5;
+    private final static int NO_MORE_SOLUTIONS = 6;
+    private final static int BACKJUMP = 7;
+
+    public Solution_IndexedBackjump(boolean injective) {
+        this(injective, new Search_BreadthFirst());
+    }
+
+    /**
+     * Construct myself to compute the search plans by the specified search
+     * strategy.
+     */
+    public Solution_IndexedBackjump(boolean injective, SearchStrategy searcher) {
+        this.itsInjectiveFlag = injective;
+        this.itsSearcher = searcher;
+    }
+
+    public void setRelatedInstanceVarMap(
+            Map<Object, Variable> relatedVarIndexMap) {
+        this.otherInstanceVarMap = relatedVarIndexMap;
+    }
+
+    public Map<Object, Variable> getInstanceVarMap() {
+        return this.itsInstanceVarMap;
+    }
+
+    /**
+     *
+     */
+    public void clear() {
+        this.itsQueries.clear();
+        this.itsInstanceVarMap.clear();
+        index();
+    }
+
+    /**
+     * Compute the search plan (variable order) and do some other initialization
+     * stuff. This is done by the first search, it can be done before to ask
+     * for the start variable.
+     *
+     * @return <code>false</code> iff some preinstantiated variables are
+     * violating some constraint.
+     */
+    public synchronized final boolean initialize(CSP csp) {
+        this.itsCSP = csp;
+        clear();
+        this.itsQueries.addAll(this.itsSearcher.execute(this.itsCSP));
+        this.itsQueries.trimToSize();
+        return instantiated();
+    }
+
+    public final boolean reinitialize(boolean doUpdateQueries) {
+        if (doUpdateQueries) {
+            this.itsQueries.clear();
+            this.itsQueries.addAll(this.itsSearcher.execute(this.itsCSP));
+            this.itsQueries.trimToSize();
+        }
+        this.itsInstanceVarMap.clear();
+        for (int i = 0; i < this.itsQueries.size(); i++) {
+            Query q = this.itsQueries.elementAt(i);
+            if (q instanceof Query_Type) {
+                ((Query_Type) q).resetObjects();
+            }
+        }
+        if (this.itsCSP != null && !instantiated()) {
+            return false;
+        }
+        if (this.itsCSP == null) {
+            index();
+        }
+        this.itsState = START;
+        return true;
+    }
+
+    /**
+     * Index the search plan and take the preinstantiated variables out of it.
+     *
+     * @return <code>false</code> iff some preinstantiated variables are
+     * violating some constraint.
+     */
+    private boolean instantiated() {
+        index();
+        final Enumeration<Variable> anEnum = this.itsCSP.getVariables();
+        while (anEnum.hasMoreElements()) {
+            final Variable aVar = anEnum.nextElement();
+            if (aVar.getInstance() != null) {
+                if (aVar.checkConstraints().hasMoreElements()) {
+                    return false;
+                }
+                if (positionOf(aVar) >= 0) {
+                    aVar.setPosition(-1);
+                }
+                this.itsInstanceVarMap.put(aVar.getInstance(), aVar);
+            }
+        }
+        indexSources();
+        return true;
+    }
+
+    public void reinitialize(final Variable var) {
+        if (var.getInstance() != null) {
+            this.itsInstanceVarMap.remove(var.getInstance());
+        }
+        boolean queryExists = false;
+        for (int i = 0; i < this.itsCount; i++) {
+            if (var == this.itsVars[i]) {
+                var.setPosition(i);
+                indexSources();
+                this.itsState = START;
+                queryExists = true;
+                break;
+            }
+        }
+        if (!queryExists) {
+            if (var.getTypeQuery() != null) {
+                this.itsQueries.add(0, var.getTypeQuery());
+                // the positions of the preinstantiated variables stay -1
+                final boolean[] out = new boolean[this.itsCount];
+                for (int i = 0; i < this.itsCount; i++) {
+                    out[i] = this.itsVars[i].getPosition() != i;
+                }
+                index();
+                for (int i = 0; i < out.length; i++) {
+                    if (out[i]) {
+                        this.itsVars[i + 1].setPosition(-1);
+                    }
+                }
+                indexSources();
+                this.itsState = START;
+            }
+        }
+    }
+
+    /**
+     * Fill the arrays of the positions by the queries.
+     */
+    private void index() {
+        for (int i = 0; i < this.itsCount; i++) {
+            if (this.itsVars[i].getPosition() == i) {
+                this.itsVars[i].setPosition(-1);
+            }
+        }
+        final int count = this.itsQueries.size();
+        if (count > this.itsPlan.length) {
+            this.itsPlan = new Query[count];
+            this.itsVars = new Variable[count];
+            this.itsSources = new int[count][];
+            this.itsChecks = new BinaryConstraint[count][];
+            this.itsBlames = new int[count][];
+            this.itsVersions = new int[count];
+            this.itsBackjumpTargets = new long[(count + 63) >>> 6];
+        } else {
+            Arrays.fill(this.itsPlan, count, this.itsCount, null);
+            Arrays.fill(this.itsVars, count, this.itsCount, null);
+            Arrays.fill(this.itsChecks, count, this.itsCount, null);
+        }
+        this.itsCount = count;
+        for (int i = 0; i < count; i++) {
+            this.itsPlan[i] = this.itsQueries.elementAt(i);
+            this.itsVars[i] = this.itsPlan[i].getTarget();
+            this.itsVars[i].setPosition(i);
+        }
+        Arrays.fill(this.itsBackjumpTargets, 0L);
+        indexSources();
+    }
+
+    /**
+     * Compute the positions of the source variables of the queries and mark
+     * all constraints to be sorted again, because positions changed.
+     */
+    private void indexSources() {
+        for (int i = 0; i < this.itsCount; i++) {
+            final List<?> sources = this.itsPlan[i].getSources();
+            int[] positions = sources.isEmpty() ? NO_POSITIONS : new int[sources.size()];
+            for (int j = 0; j < positions.length; j++) {
+                positions[j] = positionOf((Variable) sources.get(j));
+            }
+            this.itsSources[i] = positions;
+            this.itsVersions[i] = this.itsVars[i].getConstraintsVersion() - 1;
+        }
+    }
+
+    /**
+     * Sort the constraints of the variable at the specified position by the
+     * position of the variable, which they blame for a conflict.
+     */
+    private void sortChecks(final int position) {
+        final Variable var = this.itsVars[position];
+        int count = 0;
+        Iterator<Object> iterator = var.getConstraints();
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        BinaryConstraint[] checks = this.itsChecks[position];
+        int[] blames = this.itsBlames[position];
+        if (checks == null || checks.length != count) {
+            checks = count == 0 ? NO_CONSTRAINTS : new BinaryConstraint[count];
+            blames = count == 0 ? NO_POSITIONS : new int[count];
+        }
+        final int[] keys = new int[count];
+        iterator = var.getConstraints();
+        for (int i = 0; i < count; i++) {
+            final BinaryConstraint c = (BinaryConstraint) iterator.next();
+            final Variable cause = c.getCause(var);
+            final int blame = cause == var ? -1 : positionOf(cause);
+            int key = blame;
+            if (blame < 0) {
+                key = c instanceof InstantiationHook ? LAST : FIRST;
+            }
+            // insertion sort, stable for equal keys
+            int j = i;
+            while (j > 0 && keys[j - 1] > key) {
+                checks[j] = checks[j - 1];
+                blames[j] = blames[j - 1];
+                keys[j] = keys[j - 1];
+                j--;
+            }
+            checks[j] = c;
+            blames[j] = blame;
+            keys[j] = key;
+        }
+        this.itsChecks[position] = checks;
+        this.itsBlames[position] = blames;
+        this.itsVersions[position] = var.getConstraintsVersion();
+    }
+
+    /**
+     * Check the constraints of the variable at the specified position.
+     *
+     * @return -1, if all applicable constraints are satisfied, otherwise the
+     * position of the variable blamed by the first violated constraint or
+     * <code>itsCount</code>, if it has none.
+     */
+    private int checkConstraints(final int position) {
+        if (this.itsVersions[position] != this.itsVars[position].getConstraintsVersion()) {
+            sortChecks(position);
+        }
+        final BinaryConstraint[] checks = this.itsChecks[position];
+        for (int i = 0; i < checks.length; i++) {
+            final BinaryConstraint aConstraint = checks[i];
+            if (aConstraint.isApplicable() && !aConstraint.execute()) {
+                final int blame = this.itsBlames[position][i];
+                return blame < 0 ? this.itsCount : blame;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the position of the specified variable in my search plan or -1.
+     */
+    private int positionOf(final Variable var) {
+        final int p = var.getPosition();
+        return (p >= 0 && p < this.itsCount && this.itsVars[p] == var) ? p : -1;
+    }
+
+    private void addToBackjumpTargets(final int position) {
+        if (position >= 0 && position < this.itsCount) {
+            this.itsBackjumpTargets[position >>> 6] |= 1L << position;
+        }
+    }
+
+    private boolean removeFromBackjumpTargets(final int position) {
+        final long bit = 1L << position;
+        if ((this.itsBackjumpTargets[position >>> 6] & bit) != 0) {
+            this.itsBackjumpTargets[position >>> 6] &= ~bit;
+            return true;
+        }
+        return false;
+    }
+
+    public Variable getStartVariable() {
+        return this.itsQueries.get(0).itsTarget;
+    }
+
+    public Query getQuery(final Variable var) {
+        final int p = positionOf(var);
+        return p >= 0 ? this.itsPlan[p] : null;
+    }
+
+    /**
+     * Set my state to <code>START</code>.
+     */
+    public final void reset() {
+        this.itsState = START;
+    }
+
+    /**
+     * Reset the object domain of the query <code>Query_Type</code>.
+     */
+    public void resetQuery_Type() {
+        for (int i = 0; i < this.itsCount; i++) {
+            if (this.itsPlan[i] instanceof Query_Type) {
+                ((Query_Type) this.itsPlan[i]).resetObjects();
+            }
+        }
+    }
+
+    /**
+     * Search for next solution.
+     */
+    public synchronized final boolean next(CSP csp) {
+        this.solutionFound = false;
+        if (!csp.equals(this.itsCSP)) {
+            if (!initialize(csp)) {
+                return false;
+            }
+            this.itsState = START;
+        } else if (this.itsState == START
+                && this.itsSearcher.isOutdated(this.itsCSP, this.itsQueries)) {
+            // a new search with a new plan
+            if (!reinitialize(true)) {
+                return false;
+            }
+        }
+        if (this.itsState == SUCCESS) {
+            this.itsState = BACK;
+            // we want to continue where we left off, instead of actually
+            // making a back step:
+            this.itsCurrentIndex++;
+        }
+        while (true) {
+            switch (this.itsState) {
+                case START:
+                    this.itsCurrentIndex = -1;
+                    this.itsState = NEXT;
+                    break;
+                case NEXT:
+                    if (this.itsCurrentIndex >= this.itsCount - 1) {
+                        this.itsState = SUCCESS;
+                    } else {
+                        this.itsCurrentQuery = this.itsPlan[++this.itsCurrentIndex];
+                        this.itsCurrentVar = this.itsVars[this.itsCurrentIndex];
+                        if (this.itsCurrentQuery.isApplicable()
+                                && !this.itsCurrentQuery.isDomainEmpty()) {
+                            this.itsCurrentVar.setDomainEnum(this.itsCurrentQuery.execute());
+                            final int[] sources = this.itsSources[this.itsCurrentIndex];
+                            for (int i = 0; i < sources.length; i++) {
+                                addToBackjumpTargets(sources[i]);
+                            }
+                            this.itsState = INSTANTIATE;
+                        } else {
+                            this.itsState = NO_MORE_SOLUTIONS;
+                        }
+                    }
+                    this.itsDirection = NEXT;
+                    break;
+                case INSTANTIATE:
+                    if (this.itsDirection == NEXT) {
+                        // we will use backjumping if instantiation fails
+                        this.itsState = BACKJUMP;
+                    } else {
+                        // we must not use backjumping because there was
+                        // a consistent instantiation found for the current
+                        // variable previously
+                        this.itsState = BACK;
+                    }
+                    // deactivate correspondent constraint before checking
+                    this.itsCurrentQuery.deactivateCorrespondent();
+                    while (this.itsCurrentVar.hasNext()) {
+                        Object obj = this.itsCurrentVar.getNext();
+                        // Node/Edge with graph context == null was destroyed,
+                        // but it remains in domain of CSP variable during parallel matching,
+                        // so it must be exclude as instance of a CSP variable
+                        if (((GraphObject) obj).getContext() == null) {
+                            continue;
+                        }
+                        this.itsCurrentVar.setInstance(obj);
+                        Variable aConflictVar = checkInjection(obj);
+                        if (aConflictVar != null) {
+                            this.itsCurrentVar.setInstance(null);
+                            addToBackjumpTargets(positionOf(aConflictVar));
+                            continue;
+                        }
+                        int aConflict = checkConstraints(this.itsCurrentIndex);
+                        if (aConflict < 0) {
+                            this.itsState = NEXT;
+                            addInjection(this.itsCurrentVar);
+                            break;
+                        }
+                        if (this.itsState == BACKJUMP) {
+                            addToBackjumpTargets(aConflict);
+                        }
+                    }
+                    // re-activate correspondent constraint after checking
+                    this.itsCurrentQuery.activateCorrespondent();
+                    break;
+                case BACK:
+                    if (this.itsCurrentIndex == 0) {
+                        if ((this.itsCurrentVar != null)
+                                && this.itsCurrentVar.hasNext()) {
+                            removeInjection(this.itsCurrentVar);
+                            this.itsCurrentVar.setInstance(null);
+                            this.itsState = INSTANTIATE;
+                            this.itsDirection = NEXT;
+                        } else {
+                            this.itsState = NO_MORE_SOLUTIONS;
+                            this.itsDirection = BACK;
+                        }
+                    } else if (this.itsCurrentIndex > 0) {
+                        removeInjection(this.itsCurrentVar);
+                        this.itsCurrentVar.setInstance(null);
+                        this.itsCurrentQuery = this.itsPlan[--this.itsCurrentIndex];
+                        this.itsCurrentVar = this.itsVars[this.itsCurrentIndex];
+                        removeInjection(this.itsCurrentVar);
+                        this.itsState = INSTANTIATE;
+                        this.itsDirection = BACK;
+                    } else {
+                        this.itsState = NO_MORE_SOLUTIONS;
+                        this.itsDirection = BACK;
+                    }
+                    break;
+                case BACKJUMP:
+                    this.itsState = NO_MORE_SOLUTIONS;
+                    while (this.itsCurrentIndex > 0) {
+                        removeInjection(this.itsCurrentVar);
+                        this.itsCurrentVar.setInstance(null);
+                        this.itsCurrentQuery = this.itsPlan[--this.itsCurrentIndex];
+                        this.itsCurrentVar = this.itsVars[this.itsCurrentIndex];
+                        removeInjection(this.itsCurrentVar);
+                        this.itsState = INSTANTIATE;
+                        if (removeFromBackjumpTargets(this.itsCurrentIndex)) {
+                            break;
+                        }
+                    }
+                    this.itsDirection = BACK;
+                    break;
+                case SUCCESS:
+                    if (this.parallel && this.startParallelbyFirst) {
+                        removeUsedObjectFromDomain();
+                    }
+                    this.solutionFound = true;
+                    return true;
+                case NO_MORE_SOLUTIONS:
+                    return false;
+                default:
+                    throw new IllegalStateException("Unknown search state " + this.itsState);
+            }
+        }
+    }
+
+    private void removeUsedObjectFromDomain() {
+        for (int i = 0; i < this.itsCount; i++) {
+            Query q = this.itsPlan[i];
+            if (q instanceof Query_Type) {
+                ((Query_Type) q).removeObject((GraphObject) q.getTarget().getInstance());
+            }
+        }
+        this.itsInstanceVarMap.clear();
+        Arrays.fill(this.itsBackjumpTargets, 0L);
+    }
+
+    public boolean hasSolution() {
+        return this.solutionFound;
+    }
+
+    public boolean hasQueries() {
+        return (!this.itsQueries.isEmpty());
+    }
+
+    private final void addInjection(Variable var) {
+        if (this.itsInjectiveFlag && (var.getInstance() != null)) {
+            this.itsInstanceVarMap.put(var.getInstance(), var);
+        }
+    }
+
+    private final void removeInjection(Variable var) {
+        if (this.itsInjectiveFlag && (var.getInstance() != null)) {
+            this.itsInstanceVarMap.remove(var.getInstance());
+        }
+    }
+
+    private final Variable checkInjection(Object instance) {
+        if (this.otherInstanceVarMap != null) {
+            // in case of NAC / PAC
+            // this check is always injective
+            Variable other = this.otherInstanceVarMap.get(instance);
+            if (other != null) {
+                return other;
+            }
+        }
+        if (this.itsInjectiveFlag) {
+            return this.itsInstanceVarMap.get(instance);
+        }
+        return null;
+    }
+
+    /* (non-Javadoc)
+	 * @see agg.util.csp.SolutionStrategy#parallelSearch()
+     */
+    public boolean parallelSearch() {
+        return this.parallel;
+    }
+
+    public void enableParallelSearch(boolean b) {
+        this.parallel = b;
+    }
+
+    /* (non-Javadoc)
+	 * @see agg.util.csp.SolutionStrategy#setStartParallelSearchByFirst(boolean)
+     */
+    public void setStartParallelSearchByFirst(boolean b) {
+        this.startParallelbyFirst = b;
+    }
+}
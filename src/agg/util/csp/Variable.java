@@ -156,6 +156,7 @@
 //
 package agg.util.csp;
 
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -182,7 +183,8 @@ public class Variable {
     private Iterator<?> itsDomain;
 //	private boolean randomizedDomain;
     private boolean enabled;
-    final private Vector<InstantiationHook> itsInstantiationHooks;
+    private InstantiationHook[] itsInstantiationHooks;
+    private int itsInstantiationHookCount;
     private Object LHSgo; // node or arc from LHS of a rule
 //	private boolean isEdge;
     private String convertedTypeString;
@@ -190,6 +192,8 @@ public class Variable {
     private int domainsize;
     private int itsWeight;
     private Query_Type itsTypeQuery;
+    private int itsConstraintsVersion;
+    private int itsPosition = -1;
 
     public Variable() {
 //		randomizedDomain = true;
@@ -197,7 +201,7 @@ public class Variable {
         this.itsConstraints = new OrderedSet<Object>();
         this.itsOutgoingQueries = new OrderedSet<Query>(theirQueryOrder);
         this.itsIncomingQueries = new OrderedSet<Query>(theirQueryOrder);
-        this.itsInstantiationHooks = new Vector<InstantiationHook>(2, 2);
+        this.itsInstantiationHooks = new InstantiationHook[2];
     }
 
     public void clear() {
@@ -210,7 +214,9 @@ public class Variable {
             ((BinaryConstraint) iterator.next()).clear();
         }
         this.itsConstraints.clear();
-        this.itsInstantiationHooks.clear();
+        this.itsConstraintsVersion++;
+        Arrays.fill(this.itsInstantiationHooks, null);
+        this.itsInstantiationHookCount = 0;
     }
 
     /**
@@ -224,18 +230,15 @@ public class Variable {
      * Instantiate me by given value.
      */
     public final void setInstance(Object value) {
-        Enumeration<InstantiationHook> en;
         if (this.itsInstance != null) {
-            en = this.itsInstantiationHooks.elements();
-            while (en.hasMoreElements()) {
-                en.nextElement().uninstantiate(this);
+            for (int i = 0; i < this.itsInstantiationHookCount; i++) {
+                this.itsInstantiationHooks[i].uninstantiate(this);
             }
         }
         this.itsInstance = value;
         if (this.itsInstance != null) {
-            en = this.itsInstantiationHooks.elements();
-            while (en.hasMoreElements()) {
-                en.nextElement().instantiate(this);
+            for (int i = 0; i < this.itsInstantiationHookCount; i++) {
+                this.itsInstantiationHooks[i].instantiate(this);
             }
         }
     }
@@ -271,7 +274,11 @@ public class Variable {
      * @see agg.util.csp.InstantiationHook
      */
     public final void addInstantiationHook(InstantiationHook hook) {
-        this.itsInstantiationHooks.addElement(hook);
+        if (this.itsInstantiationHookCount == this.itsInstantiationHooks.length) {
+            this.itsInstantiationHooks = Arrays.copyOf(this.itsInstantiationHooks,
+                    this.itsInstantiationHookCount + 2);
+        }
+        this.itsInstantiationHooks[this.itsInstantiationHookCount++] = hook;
     }
 
     /**
@@ -330,6 +337,29 @@ public class Variable {
         return this.itsConstraints.iterator();
     }
 
+    /**
+     * Return the count of the changes of my constraints. A solver keeping the
+     * constraints in an array compares it to notice added or removed
+     * constraints.
+     */
+    final int getConstraintsVersion() {
+        return this.itsConstraintsVersion;
+    }
+
+    /**
+     * Return my position in the search plan of the solver, which set it, or
+     * -1.
+     *
+     * @see agg.util.csp.Solution_IndexedBackjump
+     */
+    final int getPosition() {
+        return this.itsPosition;
+    }
+
+    final void setPosition(int position) {
+        this.itsPosition = position;
+    }
+
     public void setDomainSize(int size) {
         this.domainsize = size;
     }
@@ -392,12 +422,14 @@ public class Variable {
      */
     protected final void addConstraint(BinaryConstraint c) {
         this.itsConstraints.add(c);
+        this.itsConstraintsVersion++;
         this.itsWeight += c.getWeight();
     }
 
     public final void removeConstraint(BinaryConstraint c) {
         this.itsWeight -= c.getWeight();
         this.itsConstraints.remove(c);
+        this.itsConstraintsVersion++;
     }
 
     /**
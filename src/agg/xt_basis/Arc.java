@@ -69,9 +69,6 @@ public class Arc extends GraphObject implements XMLObject {
         if (this.itsAttr != null) {
             this.itsAttr.addObserver(this);
         }
-        this.keyStr = this.itsSource.getType().convertToKey()
-                .concat(this.itsType.convertToKey())
-                .concat(this.itsTarget.getType().convertToKey());
     }
 
     /**
@@ -101,9 +98,6 @@ public class Arc extends GraphObject implements XMLObject {
         if (this.itsAttr != null) {
             this.itsAttr.addObserver(this);
         }
-        this.keyStr = this.itsSource.getType().convertToKey()
-                .concat(this.itsType.convertToKey())
-                .concat(this.itsTarget.getType().convertToKey());
     }
 
     /**
@@ -248,10 +242,8 @@ public class Arc extends GraphObject implements XMLObject {
         if (newSource != null && this.itsContext != null) {
             Graph g = (Graph) this.itsContext;
             g.getOrientation().addArcToNodes(this, newSource, (Node) this.itsTarget);
+            g.fingerprintChanged();
         }
-        this.keyStr = this.itsSource.getType().convertToKey()
-                .concat(this.itsType.convertToKey())
-                .concat(this.itsTarget.getType().convertToKey());
     }
 
     /**
@@ -270,10 +262,8 @@ public class Arc extends GraphObject implements XMLObject {
         if (newTarget != null && this.itsContext != null) {
             Graph g = (Graph) this.itsContext;
             g.getOrientation().addArcToNodes(this, (Node) this.itsSource, newTarget);
+            g.fingerprintChanged();
         }
-        this.keyStr = this.itsSource.getType().convertToKey()
-                .concat(this.itsType.convertToKey())
-                .concat(this.itsTarget.getType().convertToKey());
     }
 
     /**
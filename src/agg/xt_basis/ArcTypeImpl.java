@@ -61,6 +61,10 @@ public class ArcTypeImpl implements Type {
      */
     boolean typeGraphObjectDefined;
     String keyStr = null;
+    /**
+     * the number given by the type set, -1 if not numbered yet
+     */
+    int typeId = -1;
 
     /**
      * Creates a new arc type with default settings. This creates a
@@ -177,6 +181,7 @@ public class ArcTypeImpl implements Type {
         if (this.keyStr == null) {
             this.keyStr = this.itsStringRepr.concat("%").concat(this.additionalRepr);
 //			this.keyStr = String.valueOf(this.hashCode());
+            TypeIds.keysChanged();
         }
         return this.keyStr;
     }
@@ -185,9 +190,20 @@ public class ArcTypeImpl implements Type {
     public String resetKey() {
         this.keyStr = this.itsStringRepr.concat("%").concat(this.additionalRepr);
 //		this.keyStr = String.valueOf(this.hashCode());
+        TypeIds.keysChanged();
         return this.keyStr;
     }
 
+    @Override
+    public int getTypeId() {
+        return this.typeId;
+    }
+
+    @Override
+    public void setTypeId(final int id) {
+        this.typeId = id;
+    }
+
     /**
      * Adds those attribute members of the specified Type type which are not
      * found in this type. A conflict can arise when a new member and an
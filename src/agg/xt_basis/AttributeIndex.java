@@ -0,0 +1,267 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import agg.attribute.impl.ValueMember;
+import agg.attribute.impl.ValueTuple;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index of the constant attribute values of the objects of a graph. An
+ * index is built for a domain of the type objects map and an attribute member,
+ * when a rule asks for objects of the domain with a constant value of the
+ * member. Afterwards the graph keeps it up to date, when objects are added to
+ * or removed from the domain and when their attributes change.
+ *
+ * <p>
+ * Only values of strings, numbers, characters and booleans are indexed.
+ * Objects with another value, with an expression or without a value of the
+ * member can not be ruled out by the index, they are added to each set of
+ * candidates.
+ *
+ * <p>
+ * The index is synchronized, so matches of several threads can ask for
+ * candidates of the same graph.
+ *
+ * @author Janusch Rentenatus
+ */
+final class AttributeIndex {
+
+    /**
+     * Key of objects which are not indexed by value.
+     */
+    private static final Object UNINDEXED = new Object();
+
+    private final Map<Integer, Map<String, MemberIndex>> byDomain = new HashMap<>();
+    private final List<MemberIndex> all = new ArrayList<>();
+
+    /**
+     * Returns the set of candidates of the specified domain, which have the
+     * specified value of the member or which are not indexed. The set is kept
+     * up to date. Returns null, if the value can not be indexed.
+     *
+     * @param domainId the number of the domain
+     * @param domain the objects of the domain to build a new index from
+     * @param member the name of the attribute member
+     * @param value the constant value
+     */
+    synchronized HashSet<GraphObject> getCandidates(final int domainId, final HashSet<GraphObject> domain,
+            final String member, final Object value) {
+        final Object key = keyOf(value);
+        if (key == null) {
+            return null;
+        }
+        Map<String, MemberIndex> members = this.byDomain.get(domainId);
+        if (members == null) {
+            members = new HashMap<>(4);
+            this.byDomain.put(domainId, members);
+        }
+        MemberIndex index = members.get(member);
+        if (index == null) {
+            index = new MemberIndex(member, domain);
+            members.put(member, index);
+            this.all.add(index);
+        }
+        return index.candidates(key);
+    }
+
+    /**
+     * The object was added to the domain.
+     */
+    synchronized void added(final int domainId, final GraphObject go) {
+        final Map<String, MemberIndex> members = this.byDomain.get(domainId);
+        if (members != null) {
+            for (MemberIndex index : members.values()) {
+                index.add(go);
+            }
+        }
+    }
+
+    /**
+     * The object was removed from the domain.
+     */
+    synchronized void removed(final int domainId, final GraphObject go) {
+        final Map<String, MemberIndex> members = this.byDomain.get(domainId);
+        if (members != null) {
+            for (MemberIndex index : members.values()) {
+                index.remove(go);
+            }
+        }
+    }
+
+    /**
+     * The attributes of the object changed.
+     */
+    synchronized void changed(final GraphObject go) {
+        for (int i = 0; i < this.all.size(); i++) {
+            this.all.get(i).rekey(go);
+        }
+    }
+
+    /**
+     * Returns the count of indexed domains and members.
+     */
+    synchronized int size() {
+        return this.all.size();
+    }
+
+    /**
+     * Returns the key of a value: integral numbers and floating point numbers
+     * with an integral value are keyed as long, other floating point numbers as
+     * double. Returns null, if the value can not be indexed.
+     */
+    static Object keyOf(final Object value) {
+        if (value instanceof String || value instanceof Boolean || value instanceof Character) {
+            return value;
+        }
+        if (value instanceof Long) {
+            return value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            final double d = ((Number) value).doubleValue();
+            if (d == Math.rint(d) && Math.abs(d) < 0x1p53) {
+                return (long) d;
+            }
+            return d;
+        }
+        return null;
+    }
+
+    /**
+     * Index of one attribute member of the objects of one domain.
+     */
+    private static final class MemberIndex {
+
+        private final String member;
+        /**
+         * a graph object or a set of graph objects of each value
+         */
+        private final Map<Object, Object> byValue = new HashMap<>();
+        private final LinkedHashSet<GraphObject> unindexed = new LinkedHashSet<>();
+        private final Map<GraphObject, Object> keys = new IdentityHashMap<>();
+        private final Map<Object, LinkedHashSet<GraphObject>> candidates = new HashMap<>(4);
+
+        MemberIndex(final String member, final HashSet<GraphObject> domain) {
+            this.member = member;
+            if (domain != null) {
+                for (GraphObject go : domain) {
+                    add(go);
+                }
+            }
+        }
+
+        LinkedHashSet<GraphObject> candidates(final Object key) {
+            LinkedHashSet<GraphObject> result = this.candidates.get(key);
+            if (result == null) {
+                result = new LinkedHashSet<>();
+                final Object objects = this.byValue.get(key);
+                if (objects instanceof GraphObject) {
+                    result.add((GraphObject) objects);
+                } else if (objects != null) {
+                    @SuppressWarnings("unchecked")
+                    final LinkedHashSet<GraphObject> set = (LinkedHashSet<GraphObject>) objects;
+                    result.addAll(set);
+                }
+                result.addAll(this.unindexed);
+                this.candidates.put(key, result);
+            }
+            return result;
+        }
+
+        void add(final GraphObject go) {
+            if (this.keys.containsKey(go)) {
+                return;
+            }
+            final Object key = currentKey(go);
+            this.keys.put(go, key);
+            if (key == UNINDEXED) {
+                this.unindexed.add(go);
+                for (LinkedHashSet<GraphObject> set : this.candidates.values()) {
+                    set.add(go);
+                }
+                return;
+            }
+            final Object objects = this.byValue.get(key);
+            if (objects == null) {
+                this.byValue.put(key, go);
+            } else if (objects instanceof GraphObject) {
+                final LinkedHashSet<GraphObject> set = new LinkedHashSet<>(4);
+                set.add((GraphObject) objects);
+                set.add(go);
+                this.byValue.put(key, set);
+            } else {
+                @SuppressWarnings("unchecked")
+                final LinkedHashSet<GraphObject> set = (LinkedHashSet<GraphObject>) objects;
+                set.add(go);
+            }
+            final LinkedHashSet<GraphObject> candidateSet = this.candidates.get(key);
+            if (candidateSet != null) {
+                candidateSet.add(go);
+            }
+        }
+
+        void remove(final GraphObject go) {
+            final Object key = this.keys.remove(go);
+            if (key == null) {
+                return;
+            }
+            if (key == UNINDEXED) {
+                this.unindexed.remove(go);
+                for (LinkedHashSet<GraphObject> set : this.candidates.values()) {
+                    set.remove(go);
+                }
+                return;
+            }
+            final Object objects = this.byValue.get(key);
+            if (objects == go) {
+                this.byValue.remove(key);
+            } else if (objects instanceof LinkedHashSet) {
+                @SuppressWarnings("unchecked")
+                final LinkedHashSet<GraphObject> set = (LinkedHashSet<GraphObject>) objects;
+                set.remove(go);
+                if (set.size() == 1) {
+                    this.byValue.put(key, set.iterator().next());
+                }
+            }
+            final LinkedHashSet<GraphObject> candidateSet = this.candidates.get(key);
+            if (candidateSet != null) {
+                candidateSet.remove(go);
+            }
+        }
+
+        void rekey(final GraphObject go) {
+            final Object key = this.keys.get(go);
+            if (key != null && !key.equals(currentKey(go))) {
+                remove(go);
+                add(go);
+            }
+        }
+
+        private Object currentKey(final GraphObject go) {
+            if (!(go.getAttribute() instanceof ValueTuple)) {
+                return UNINDEXED;
+            }
+            final ValueMember vm = ((ValueTuple) go.getAttribute()).getValueMemberAt(this.member);
+            if (vm == null || !vm.isSet() || !vm.getExpr().isConstant()) {
+                return UNINDEXED;
+            }
+            final Object key = keyOf(vm.getExprAsObject());
+            return key == null ? UNINDEXED : key;
+        }
+    }
+}
@@ -1704,6 +1704,32 @@ public class BaseFactory {
         return false;
     }
 
+    /*
+	 * Returns true if the rule deletes the specified object of its left-hand side
+	 * or changes one of its attribute values, in the sense of 
+	 * checkWeakParallelMatches(Match, Match).
+     */
+    public boolean isDeletedOrChanged(final Rule r, final GraphObject lhsObj) {
+        final GraphObject img = r.getImage(lhsObj);
+        if (img == null) {
+            return true;
+        }
+        if (img.getAttribute() != null && lhsObj.getAttribute() != null) {
+            final ValueTuple vtl = (ValueTuple) lhsObj.getAttribute();
+            final ValueTuple vtr = (ValueTuple) img.getAttribute();
+            for (int i = 0; i < vtr.getNumberOfEntries(); i++) {
+                final ValueMember vmr = vtr.getEntryAt(i);
+                final ValueMember vml = vtl.getEntryAt(vmr.getName());
+                if (vmr.isSet()
+                        && (vml == null || !vml.isSet()
+                        || !vmr.getExprAsText().equals(vml.getExprAsText()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public ParallelRule makeParallelRule(final TypeSet types, final List<Rule> rules) {
         if (rules.size() == 2) {
             return new ParallelRule(types, rules.get(0), rules.get(1));
@@ -3348,6 +3374,24 @@ public class BaseFactory {
         return ruleClone;
     }
 
+    /**
+     * Creates and returns a clone of the specified rule.
+     * The cloned rule uses the same type set as the original rule.
+     * The specified table is filled with the graph objects of the rule
+     * and its application conditions as keys and their copies as values.
+     *
+     * @param rule the rule to clone
+     * @param table the mapping table for graph objects
+     * @return a new Rule instance that is a copy of the specified rule
+     */
+    public Rule cloneRule(final Rule rule, final Map<GraphObject, GraphObject> table) {
+        Rule ruleClone = new Rule(rule.getOriginal().getTypeSet());
+        copyRule(rule, ruleClone, table, true);
+        ruleClone.setLayer(rule.getLayer());
+        ruleClone.setPriority(rule.getPriority());
+        return ruleClone;
+    }
+
     /**
      * Copies the contents of one rule to another existing rule.
      *
@@ -6172,23 +6216,28 @@ public class BaseFactory {
 
     /**
      * Checks and removes isomorphic inclusions from the list.
-     * If two inclusions have isomorphic source graphs, one of them is removed.
+     * If two inclusions have isomorphic source graphs, the later one is removed.
+     * The source graphs are bucketed by their fingerprints first, so the
+     * isomorphism check is done inside a bucket only.
      *
      * @param inclusions The list of inclusions to check for isomorphism.
      */
     protected void checkIsomorphicInclusions(List<OrdinaryMorphism> inclusions) {
-        int size = inclusions.size();
-        for (int i = 0; i < size; i++) {
-            OrdinaryMorphism inclusion = inclusions.get(i);
-            for (int j = i + 1; j < size; j++) {
-                OrdinaryMorphism inc = inclusions.get(j);
-                if (inclusion.getSource().isIsomorphicTo(inc.getSource())) {
-                    inclusions.remove(inc);
-                    j--;
-                    size = inclusions.size();
-                    BaseFactory.theFactory().destroyMorphism(inc);
-                    inc = null;
-                }
+        final Map<GraphFingerprint, List<Graph>> buckets = new HashMap<>();
+        final Iterator<OrdinaryMorphism> iter = inclusions.iterator();
+        while (iter.hasNext()) {
+            final OrdinaryMorphism inc = iter.next();
+            final Graph g = inc.getSource();
+            final List<Graph> bucket = buckets.computeIfAbsent(g.getFingerprint(), k -> new ArrayList<>(2));
+            boolean isomorphic = false;
+            for (int i = 0; i < bucket.size() && !isomorphic; i++) {
+                isomorphic = bucket.get(i).isIsomorphicTo(g);
+            }
+            if (isomorphic) {
+                iter.remove();
+                BaseFactory.theFactory().destroyMorphism(inc);
+            } else {
+                bucket.add(g);
             }
         }
     }
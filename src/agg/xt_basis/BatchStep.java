@@ -0,0 +1,274 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import agg.attribute.AttrContext;
+import agg.attribute.impl.AttrImplException;
+import agg.attribute.impl.ValueTuple;
+import agg.util.Change;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A maximal parallel step of a rule: a batch of pairwise parallel independent
+ * matches of the rule, which are applied to the host graph together in one
+ * pass. A match is added to the batch only if it does not overlap an accepted
+ * match at an object, which one of both matches deletes or changes the
+ * attributes of. This is the condition of
+ * {@link BaseFactory#checkWeakParallelMatches(Match, Match)}, but it is
+ * checked by a map of the used host objects in one lookup per object instead
+ * of comparing each pair of matches.
+ *
+ * <p>
+ * The images of the matches are kept as arrays, no co-matches are created.
+ * The rules supported are described at {@link #isSupported(Match)}.
+ *
+ * @author Janusch Rentenatus
+ */
+public class BatchStep {
+
+    private final Rule itsRule;
+
+    /**
+     * The objects of the left-hand side, the nodes first.
+     */
+    private final GraphObject[] itsLeft;
+    private final boolean[] itsDeleted;
+    private final boolean[] itsTouched;
+
+    private final Node[] itsRightNodes;
+    private final int[] itsRightNodeOrig;
+    private final Arc[] itsRightArcs;
+    private final int[] itsRightArcOrig;
+    private final int[] itsRightArcSource;
+    private final int[] itsRightArcTarget;
+
+    /**
+     * The host objects used by the accepted matches, mapped to true if one of
+     * them deletes or changes the object.
+     */
+    private final Map<GraphObject, Boolean> itsUsed = new IdentityHashMap<>();
+    private final List<GraphObject[]> itsImages = new ArrayList<>();
+
+    /**
+     * Creates an empty batch of matches of the specified rule.
+     *
+     * @param r the rule
+     */
+    public BatchStep(final Rule r) {
+        this.itsRule = r;
+        final List<GraphObject> left = new ArrayList<>(r.getLeft().getSize());
+        left.addAll(r.getLeft().getNodesSet());
+        left.addAll(r.getLeft().getArcsSet());
+        this.itsLeft = left.toArray(new GraphObject[left.size()]);
+        this.itsDeleted = new boolean[this.itsLeft.length];
+        this.itsTouched = new boolean[this.itsLeft.length];
+        final Map<GraphObject, Integer> origOf = new IdentityHashMap<>();
+        for (int i = 0; i < this.itsLeft.length; i++) {
+            final GraphObject img = r.getImage(this.itsLeft[i]);
+            this.itsDeleted[i] = img == null;
+            this.itsTouched[i] = BaseFactory.theFactory().isDeletedOrChanged(r, this.itsLeft[i]);
+            if (img != null) {
+                origOf.put(img, i);
+            }
+        }
+        this.itsRightNodes = r.getRight().getNodesSet().toArray(new Node[0]);
+        this.itsRightNodeOrig = new int[this.itsRightNodes.length];
+        final Map<Node, Integer> nodeIndex = new IdentityHashMap<>();
+        for (int j = 0; j < this.itsRightNodes.length; j++) {
+            final Integer orig = origOf.get(this.itsRightNodes[j]);
+            this.itsRightNodeOrig[j] = (orig != null) ? orig : -1;
+            nodeIndex.put(this.itsRightNodes[j], j);
+        }
+        this.itsRightArcs = r.getRight().getArcsSet().toArray(new Arc[0]);
+        this.itsRightArcOrig = new int[this.itsRightArcs.length];
+        this.itsRightArcSource = new int[this.itsRightArcs.length];
+        this.itsRightArcTarget = new int[this.itsRightArcs.length];
+        for (int j = 0; j < this.itsRightArcs.length; j++) {
+            final Integer orig = origOf.get(this.itsRightArcs[j]);
+            this.itsRightArcOrig[j] = (orig != null) ? orig : -1;
+            this.itsRightArcSource[j] = nodeIndex.get((Node) this.itsRightArcs[j].getSource());
+            this.itsRightArcTarget[j] = nodeIndex.get((Node) this.itsRightArcs[j].getTarget());
+        }
+    }
+
+    /**
+     * Returns true if the matches of the rule of the specified match can be
+     * applied as a batch: the rule is not a parallel rule or a rule scheme,
+     * it has no application conditions and post application constraints, no
+     * attribute variables and conditions, the rule and the match are
+     * injective, and the type graph does not check multiplicities.
+     *
+     * @param m the match
+     * @return true if a batch step is possible
+     */
+    public static boolean isSupported(final Match m) {
+        final Rule r = m.getRule();
+        if (r instanceof agg.xt_basis.agt.RuleScheme
+                || r instanceof ParallelRule
+                || r.hasNACs() || r.hasPACs() || r.hasNestedACs()
+                || !r.getConstraints().isEmpty()
+                || !r.isInjective()
+                || !m.getCompletionStrategy().getProperties()
+                        .get(agg.xt_basis.csp.CompletionPropertyBits.INJECTIVE)) {
+            return false;
+        }
+        final Graph g = m.getTarget();
+        if (g.getTypeSet() != r.getTypeSet()
+                || g.getTypeSet().getLevelOfTypeGraphCheck() > TypeSet.ENABLED) {
+            return false;
+        }
+        return !g.isAttributed()
+                || (r.getAttrContext().getVariables().getNumberOfEntries() == 0
+                && r.getAttrContext().getConditions().getNumberOfEntries() == 0);
+    }
+
+    /**
+     * Adds the images of the specified complete match to the batch, if the
+     * match is parallel independent of all matches of the batch.
+     *
+     * @param m the complete match of the rule
+     * @return true if the match was added
+     */
+    public boolean add(final Match m) {
+        final GraphObject[] images = new GraphObject[this.itsLeft.length];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = m.getImage(this.itsLeft[i]);
+            final Boolean used = this.itsUsed.get(images[i]);
+            if (used != null && (used || this.itsTouched[i])) {
+                return false;
+            }
+        }
+        for (int i = 0; i < images.length; i++) {
+            if (this.itsTouched[i]) {
+                this.itsUsed.put(images[i], Boolean.TRUE);
+            } else {
+                this.itsUsed.putIfAbsent(images[i], Boolean.FALSE);
+            }
+        }
+        this.itsImages.add(images);
+        return true;
+    }
+
+    public int size() {
+        return this.itsImages.size();
+    }
+
+    public boolean isEmpty() {
+        return this.itsImages.isEmpty();
+    }
+
+    public void clear() {
+        this.itsUsed.clear();
+        this.itsImages.clear();
+    }
+
+    /**
+     * Applies all matches of the batch to the specified host graph: deletes
+     * the arcs and nodes of all matches first, then creates the new objects
+     * and computes the attributes. The type objects map of the graph is
+     * updated for each deleted and created object, as by a single step.
+     *
+     * @param g the host graph of the matches
+     * @param context the attribute context of the match of the rule
+     * @throws TypeException if an object cannot be created or an attribute
+     * cannot be computed
+     */
+    public void execute(final Graph g, final AttrContext context) throws TypeException {
+        synchronized (g) {
+            for (GraphObject[] images : this.itsImages) {
+                for (int i = 0; i < images.length; i++) {
+                    if (this.itsDeleted[i] && images[i].isArc()) {
+                        g.destroyArcFast((Arc) images[i]);
+                    }
+                }
+            }
+            for (GraphObject[] images : this.itsImages) {
+                for (int i = 0; i < images.length; i++) {
+                    if (this.itsDeleted[i] && images[i].isNode()) {
+                        destroyNode((Node) images[i], g);
+                    }
+                }
+            }
+            final boolean attributed = g.isAttributed();
+            context.freeze();
+            try {
+                final Node[] nodes = new Node[this.itsRightNodes.length];
+                for (GraphObject[] images : this.itsImages) {
+                    for (int j = 0; j < nodes.length; j++) {
+                        final Node n = this.itsRightNodes[j];
+                        final int orig = this.itsRightNodeOrig[j];
+                        if (orig >= 0) {
+                            nodes[j] = (Node) images[orig];
+                            if (attributed && this.itsTouched[orig]) {
+                                computeAttributes(n, nodes[j], g, context);
+                            }
+                        } else {
+                            nodes[j] = g.newNodeFast(n.getType());
+                            nodes[j].setContextUsage(n.getContextUsage());
+                            if (attributed) {
+                                computeAttributes(n, nodes[j], g, context);
+                            }
+                        }
+                    }
+                    for (int j = 0; j < this.itsRightArcs.length; j++) {
+                        final Arc a = this.itsRightArcs[j];
+                        final int orig = this.itsRightArcOrig[j];
+                        if (orig >= 0) {
+                            if (attributed && this.itsTouched[orig]) {
+                                computeAttributes(a, images[orig], g, context);
+                            }
+                        } else {
+                            final Arc a2 = g.newArcFast(a.getType(),
+                                    nodes[this.itsRightArcSource[j]],
+                                    nodes[this.itsRightArcTarget[j]]);
+                            a2.setContextUsage(a.getContextUsage());
+                            if (attributed) {
+                                computeAttributes(a, a2, g, context);
+                            }
+                        }
+                    }
+                }
+            } catch (AttrImplException ex) {
+                throw new TypeException("Rule:  " + this.itsRule.getName() + " : " + ex.getMessage());
+            } finally {
+                context.defreeze();
+            }
+        }
+    }
+
+    private static void computeAttributes(
+            final GraphObject rhsObj,
+            final GraphObject gObj,
+            final Graph g,
+            final AttrContext context) throws AttrImplException {
+        if (!gObj.attrExists() || rhsObj.getAttribute() == null) {
+            return;
+        }
+        g.propagateChange(new Change(Change.WANT_MODIFY_OBJECT, gObj));
+        ((ValueTuple) gObj.getAttribute()).apply((ValueTuple) rhsObj.getAttribute(), context);
+    }
+
+    private static void destroyNode(final Node n, final Graph g) {
+        Iterator<Arc> iter = n.getOutgoingArcsSet().iterator();
+        while (iter.hasNext()) {
+            g.destroyArcFast(iter.next());
+            iter = n.getOutgoingArcsSet().iterator();
+        }
+        iter = n.getIncomingArcsSet().iterator();
+        while (iter.hasNext()) {
+            g.destroyArcFast(iter.next());
+            iter = n.getIncomingArcsSet().iterator();
+        }
+        g.destroyNodeFast(n);
+    }
+}
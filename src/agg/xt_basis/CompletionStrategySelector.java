@@ -16,6 +16,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 import agg.xt_basis.csp.Completion_CSP_NoBJ;
+import agg.xt_basis.csp.Completion_CostCSP;
 
 /**
  * This class contains an instance of every available completion strategy
@@ -41,6 +42,8 @@ public class CompletionStrategySelector {
         itsStrategies.put(itsDefaultStrategy, "CSP");
         itsStrategies.put(new Completion_NAC(new Completion_CSP_NoBJ()),
                 "CSP w/o BJ");
+        itsStrategies.put(new Completion_NAC(new Completion_CostCSP()),
+                Completion_CostCSP.NAME);
         // itsStrategies.put( new Completion_NAC( new Completion_SimpleBT() ),
         // "Simple BT" );
     }
@@ -159,6 +159,18 @@ public class Completion_NAC extends MorphCompletionStrategy {
         return this.itsStrategy.isDomainOfTypeEmpty(t);
     }
 
+    public GraphObject getStartObject() {
+        return this.itsStrategy.getStartObject();
+    }
+
+    public HashSet<?> getTypeDomain(GraphObject anObj) {
+        return this.itsStrategy.getTypeDomain(anObj);
+    }
+
+    public void restrictVariableDomain(GraphObject anObj, Collection<GraphObject> objects) {
+        this.itsStrategy.restrictVariableDomain(anObj, objects);
+    }
+
     public boolean isDomainOfTypeEmpty(Type t, Type src, Type tar) {
         return this.itsStrategy.isDomainOfTypeEmpty(t, src, tar);
     }
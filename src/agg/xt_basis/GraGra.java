@@ -38,6 +38,7 @@ import agg.util.XMLObject;
 import agg.xt_basis.agt.RuleScheme;
 import agg.xt_basis.csp.CompletionPropertyBits;
 import agg.xt_basis.csp.Completion_CSP_NoBJ;
+import agg.xt_basis.csp.Completion_CostCSP;
 import de.jare.ndimcol.ref.ArrayMovie;
 import de.jare.ndimcol.ref.ArrayTape;
 import de.jare.ndimcol.ref.IteratorWalker;
@@ -45,6 +46,7 @@ import de.jare.ndimcol.primint.ArrayMovieInt;
 import de.jare.ndimcol.ref.SortedSeasonSet;
 import de.jare.ndimcol.utils.BiPredicateInteger;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
@@ -55,6 +57,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.w3c.dom.Element;
 
 /**
@@ -145,6 +154,10 @@ public class GraGra implements Disposable, XMLObject {
      * File name for saving
      */
     protected String fileName;
+    /**
+     * Load and save the host graphs streamed
+     */
+    private boolean streamedXML;
 //	private static final agg.attribute.AttrContext 
 //	aGraphContext = agg.attribute.impl.AttrTupleManager.getDefaultManager().newContext(
 //														agg.attribute.AttrMapping.GRAPH_MAP);
@@ -1048,6 +1061,21 @@ public class GraGra implements Disposable, XMLObject {
         return this.dirName;
     }
 
+    /**
+     * Sets whether <code>save()</code>, <code>load()</code> and
+     * <code>read()</code> stream the nodes and edges of the host graphs
+     * instead of holding the whole XML document in a DOM.
+     *
+     * @see agg.util.XMLHelper#setStreamed(boolean)
+     */
+    public void setStreamedXML(final boolean b) {
+        this.streamedXML = b;
+    }
+
+    public boolean isStreamedXML() {
+        return this.streamedXML;
+    }
+
     /**
      * Sets the file name for saving the gragra
      */
@@ -2842,6 +2870,18 @@ public class GraGra implements Disposable, XMLObject {
      * graph set defined with this grammar.
      */
     public boolean checkGraphConsistency(Graph g, final List<Formula> constraints) {
+        return checkGraphConsistency(g, constraints, -1);
+    }
+
+    /**
+     * Returns TRUE if the graph g satisfies the specified container with graph
+     * constraints of this graph grammar. All constraints are evaluated with the
+     * specified tick, so an atomic constraint used by several constraints is
+     * evaluated once, and values set by
+     * <code>AtomConstraint.setValueOfTick(tick, value)</code> are used instead
+     * of an evaluation. The tick -1 evaluates each constraint separately.
+     */
+    public boolean checkGraphConsistency(Graph g, final List<Formula> constraints, int tick) {
 //		System.out.println("GraGra.checkGraphConsistency(Graph, Vector constraints");
         this.consistErrMsg = "";
         boolean all_valid = true;
@@ -2873,7 +2913,7 @@ public class GraGra implements Disposable, XMLObject {
                 this.consistErrMsg = this.consistErrMsg + "   "
                         + f.getName() + "   ";
                 return true;
-            } else if (!f.eval(g)) {
+            } else if (!f.eval(g, tick)) {
                 this.consistErrMsg = this.consistErrMsg + "   "
                         + f.getName() + "   ";
                 return false;
@@ -3037,6 +3077,8 @@ public class GraGra implements Disposable, XMLObject {
             this.strategy = new Completion_NAC(new Completion_InjCSP());
         } else if (this.gratraOptions.contains("CSP w/o BJ")) {
             this.strategy = new Completion_NAC(new Completion_CSP_NoBJ());
+        } else if (this.gratraOptions.contains(GraTraOptions.CSP_BY_COST)) {
+            this.strategy = new Completion_NAC(new Completion_CostCSP());
         }
         if (this.strategy == null) {
             initMorphismCompletionStrategy();
@@ -3630,6 +3672,105 @@ public class GraGra implements Disposable, XMLObject {
         return applicableRules;
     }
 
+    /**
+     * Returns applicable rules due to the specified host graph and morphism
+     * completion strategy like
+     * {@link #getApplicableRules(Graph, MorphCompletionStrategy)}, but the
+     * rules are checked by a pool of worker threads. Each worker matches the
+     * rules against its own copy of the host graph using its own clone of the
+     * strategy, so the host graph is only read. Each rule is checked by one
+     * worker. The returned rules are in the order of the rule list. If the
+     * current thread is interrupted, the rules not checked so far are not
+     * applicable.
+     *
+     * @param g the host graph
+     * @param aStrategy the morphism completion strategy
+     * @param parallelism the number of workers, a number less than 1 means
+     * the number of available processors
+     * @return the applicable rules
+     */
+    public List<Rule> getApplicableRulesInParallel(final Graph g,
+            final MorphCompletionStrategy aStrategy, final int parallelism) {
+        if (!this.itsGraphs.contains(g) && !g.isReadyForTransform()) {
+            return new ArrayList<Rule>();
+        }
+        final List<Rule> rules = new ArrayList<>(this.itsRules);
+        final int workers = Math.min(rules.size(), (parallelism > 0)
+                ? parallelism : Runtime.getRuntime().availableProcessors());
+        if (workers < 2) {
+            return getApplicableRules(g, aStrategy);
+        }
+        final boolean[] applicable = new boolean[rules.size()];
+        final AtomicInteger nextRule = new AtomicInteger();
+        final List<Graph> copies = new ArrayList<>(workers);
+        final List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            final Graph copy = g.graphcopy();
+            if (copy == null) {
+                break;
+            }
+            copies.add(copy);
+            final MorphCompletionStrategy strategy = (MorphCompletionStrategy) aStrategy.clone();
+            tasks.add(() -> {
+                for (int i = nextRule.getAndIncrement(); i < applicable.length;
+                        i = nextRule.getAndIncrement()) {
+                    applicable[i] = rules.get(i).isApplicable(copy, strategy, false);
+                }
+                return null;
+            });
+        }
+        if (tasks.isEmpty()) {
+            return getApplicableRules(g, aStrategy);
+        }
+        final ExecutorService pool = Executors.newFixedThreadPool(tasks.size(), task -> {
+            Thread t = new Thread(task, "Applicability worker");
+            t.setDaemon(true);
+            return t;
+        });
+        boolean interrupted = false;
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException ex) {
+            interrupted = true;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            // no more rules for the workers, the copies are disposed when
+            // the current rules are checked
+            nextRule.set(applicable.length);
+            pool.shutdown();
+            while (!pool.isTerminated()) {
+                try {
+                    pool.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            for (Graph copy : copies) {
+                copy.dispose();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final List<Rule> applicableRules = new ArrayList<Rule>();
+        for (int i = 0; i < applicable.length; i++) {
+            rules.get(i).setApplicable(applicable[i]);
+            if (applicable[i]) {
+                applicableRules.add(rules.get(i));
+            }
+        }
+        return applicableRules;
+    }
+
     /**
      * Reset applicability attribute of all rules by <code>true</code>.
      */
@@ -3968,6 +4109,7 @@ public class GraGra implements Disposable, XMLObject {
         }
         if (outfileName.endsWith(ggx)) {
             XMLHelper xmlh = new XMLHelper();
+            xmlh.setStreamed(this.streamedXML);
             // outfileName = XMLHelper.replaceGermanSpecialCh(outfileName);
             xmlh.addTopObject(this);
             xmlh.save_to_xml(outfileName);
@@ -3988,6 +4130,51 @@ public class GraGra implements Disposable, XMLObject {
         save(fullname);
     }
 
+    /**
+     * Saves a binary snapshot of my host graphs into the specified file. The
+     * snapshot holds the graphs and their types only, it is meant to save the
+     * host graphs between the phases of a long transformation.
+     *
+     * @param filename the full name of the snapshot file
+     * @see #loadSnapshot(String)
+     */
+    public void saveSnapshot(String filename) throws IOException {
+        GraphSnapshot.save(filename, this.itsGraphs);
+    }
+
+    /**
+     * Replaces my host graphs by the graphs of the specified snapshot file.
+     * Types of the snapshot which are not found in my type set are added.
+     *
+     * @param filename the full name of the snapshot file
+     * @see #saveSnapshot(String)
+     */
+    public void loadSnapshot(String filename) throws IOException {
+        final List<Graph> old = new ArrayList<>(this.itsGraphs);
+        final List<Graph> loaded = new ArrayList<>();
+        try {
+            GraphSnapshot.load(filename, this.typeSet, i -> {
+                Graph g = createGraph();
+                loaded.add(g);
+                return g;
+            });
+        } catch (IOException ex) {
+            for (Graph g : loaded) {
+                this.itsGraphs.remove(g);
+                g.dispose();
+            }
+            throw ex;
+        }
+        if (loaded.isEmpty()) {
+            return;
+        }
+        for (Graph g : old) {
+            this.itsGraphs.remove(g);
+            g.dispose();
+        }
+        this.itsGraph = loaded.get(0);
+    }
+
     /**
      * The specified file name is the full name of the file to load a grammar
      * from.
@@ -3999,6 +4186,7 @@ public class GraGra implements Disposable, XMLObject {
         if (f.exists()) {
             if (filename.endsWith(".ggx")) {
                 XMLHelper h = new XMLHelper();
+                h.setStreamed(this.streamedXML);
                 /*
 				 * if(XMLHelper.hasGermanSpecialCh(filename)){
 				 * System.out.println("Read file name exception occurred! "
@@ -4033,6 +4221,7 @@ public class GraGra implements Disposable, XMLObject {
         if (f.exists()) {
             if (filename.endsWith(".ggx")) {
                 XMLHelper h = new XMLHelper();
+                h.setStreamed(this.streamedXML);
                 /*
 				 * if(XMLHelper.hasGermanSpecialCh(filename)){
 				 * System.out.println("Read file name exception occurred! "
@@ -19,6 +19,7 @@ import agg.attribute.AttrVariableTuple;
 import agg.attribute.impl.VarMember;
 import agg.cons.Formula;
 import agg.util.Pair;
+import agg.xt_basis.agt.Covering;
 import agg.xt_basis.agt.RuleScheme;
 import agg.xt_basis.csp.CompletionPropertyBits;
 import java.util.ArrayList;
@@ -50,6 +51,12 @@ public abstract class GraTra {
     protected boolean writeLogFile = false;
     protected GraTraOptions options;
     protected String errorMsg = "";
+    protected boolean incrementalMatching;
+    protected IncrementalMatcher incrementalMatcher;
+    protected boolean incrementalConsistency;
+    protected IncrementalConsistency consistencyCheck;
+    protected boolean batchApply;
+    protected boolean directAmalgamation;
     protected boolean wait;
 
     public void dispose() {
@@ -58,6 +65,8 @@ public abstract class GraTra {
             this.grammar.destroyAllMatches();
         }
         this.currentRuleSet.clear();
+        disposeIncrementalMatcher();
+        disposeConsistencyCheck();
         this.grammar = null;
         this.hostgraph = null;
         this.currentRule = null;
@@ -119,6 +128,10 @@ public abstract class GraTra {
     }
 
     public boolean setHostGraph(Graph g) {
+        if (this.hostgraph != g) {
+            disposeIncrementalMatcher();
+            disposeConsistencyCheck();
+        }
         if (this.hostgraph == null) {
             this.hostgraph = g;
             this.hostgraph.updateTypeObjectsMap();
@@ -239,7 +252,7 @@ public abstract class GraTra {
             if (this.options.hasOption(GraTraOptions.CONSISTENCY_CHECK_AFTER_GRAPH_TRAFO)) {
                 try {
 //				fireGraTra(new GraTraEvent(this, GraTraEvent.MATCH_VALID, m));
-                    co_match = StaticStep.execute(m);
+                    co_match = executeStep(m);
 //				co_match = StaticStep.executeColimBased(m);
                 } catch (TypeException e) {
                     this.errorMsg = e.getMessage();
@@ -251,7 +264,7 @@ public abstract class GraTra {
                 try {
                     // break after inconsistent step
 //				fireGraTra(new GraTraEvent(this, GraTraEvent.MATCH_VALID, m));
-                    co_match = StaticStep.execute(m);
+                    co_match = executeStep(m);
 //				co_match = StaticStep.executeColimBased(m);
                     if ((co_match != null)
                             && !checkGraphConsistency(m.getRule(), m.getTarget())) {
@@ -263,6 +276,18 @@ public abstract class GraTra {
                     // destroyMatch(m);
                     return null;
                 }
+            } else if (consistencyCheckOf(m) != null
+                    && IncrementalConsistency.canUndo(m.getRule())) {
+                // GraTraOptions.CONSISTENT_ONLY, test steps at the host graph
+                co_match = applyConsistentStep(m);
+                if (co_match == null) {
+                    if (!this.consistentGraph) {
+                        this.errorMsg = "Graph inconsistency after transformation.";
+                    } else {
+                        fireGraTra(new GraTraEvent(this, GraTraEvent.CANNOT_TRANSFORM, m, this.errorMsg));
+                        return null;
+                    }
+                }
             } else { // GraTraOptions.CONSISTENT_ONLY
                 boolean validStep = false;
 //			consistentGraph = false;
@@ -303,7 +328,7 @@ public abstract class GraTra {
                     fireGraTra(new GraTraEvent(this, GraTraEvent.MATCH_VALID, m));
                     // now make the current step
                     try {
-                        co_match = StaticStep.execute(m);
+                        co_match = executeStep(m);
 //					co_match = StaticStep.executeColimBased(m);
                     } catch (TypeException e) {
                         this.errorMsg = e.getMessage();
@@ -348,6 +373,9 @@ public abstract class GraTra {
             } else if (this.updateTypeObjectsMapAfterStep) {
                 this.currentMatch.setTypeObjectsMapChanged(true);
             }
+            if (r.isParallelApplyEnabled() && canApplyBatch(this.currentMatch)) {
+                return applyBatch(r);
+            }
             boolean parallelApply = true;
             boolean is_applied = false;
 //		int matchCompletions = 0;
@@ -366,27 +394,35 @@ public abstract class GraTra {
                     return false;
                 }
                 valid = false;
-                while (!valid) {
-                    if (this.currentMatch.nextCompletion()) {
-                        if (this.currentMatch.isValid()) {
-                            valid = true;
+                final IncrementalMatcher matcher = incrementalMatcherOf(this.currentMatch);
+                if (matcher != null) {
+                    valid = matcher.nextMatch(this.currentMatch);
+                    if (!valid) {
+                        this.errorMsg = this.currentMatch.getErrorMsg();
+                    }
+                } else {
+                    while (!valid) {
+                        if (this.currentMatch.nextCompletion()) {
+                            if (this.currentMatch.isValid()) {
+                                valid = true;
 //						matchCompletions++;
-                            if (r.isParallelApplyEnabled()
-                                    && this.currentMatch.typeObjectsMapChanged) {
-                                this.currentMatch.typeObjectsMapChanged = false;
-                                this.updateTypeObjectsMapAfterStep = false;
-                                // das hat Auswirkung auf den naechsten Aufruf 							
-                                // von nextCompletion():
-                                // die Graphaenderungen nach dem Step werden 
-                                // NICHT BEACHTET!!!
+                                if (r.isParallelApplyEnabled()
+                                        && this.currentMatch.typeObjectsMapChanged) {
+                                    this.currentMatch.typeObjectsMapChanged = false;
+                                    this.updateTypeObjectsMapAfterStep = false;
+                                    // das hat Auswirkung auf den naechsten Aufruf 							
+                                    // von nextCompletion():
+                                    // die Graphaenderungen nach dem Step werden 
+                                    // NICHT BEACHTET!!!
+                                }
+                            } else {
+                                this.errorMsg = this.currentMatch.getErrorMsg();
+                                this.currentMatch.clear();
                             }
                         } else {
                             this.errorMsg = this.currentMatch.getErrorMsg();
-                            this.currentMatch.clear();
+                            break;
                         }
-                    } else {
-                        this.errorMsg = this.currentMatch.getErrorMsg();
-                        break;
                     }
                 }
                 if (valid) {
@@ -460,6 +496,273 @@ public abstract class GraTra {
         }
     }
 
+    /**
+     * Enables or disables the batch application of rules with parallel
+     * matching. If enabled, all matches of such a rule are collected first
+     * and a maximal set of parallel independent matches is applied to the
+     * host graph in one pass, see {@link BatchStep}. No co-matches are
+     * created and no events are fired for the single matches of a batch. The
+     * same is done when the option {@link GraTraOptions#BATCH_APPLY} is set.
+     *
+     * @param b true to enable the batch application
+     */
+    public void setBatchApplyEnabled(boolean b) {
+        this.batchApply = b;
+    }
+
+    public boolean isBatchApplyEnabled() {
+        return this.batchApply
+                || (this.options != null
+                && this.options.hasOption(GraTraOptions.BATCH_APPLY));
+    }
+
+    /**
+     * Returns true if the matches of the rule of the specified match can be
+     * applied as a batch step. The incremental matching, the incremental
+     * consistency check and the consistent steps need the single steps.
+     */
+    protected boolean canApplyBatch(final Match m) {
+        return isBatchApplyEnabled()
+                && !isIncrementalMatchingEnabled()
+                && !isIncrementalConsistencyEnabled()
+                && (this.options == null
+                || !this.options.hasOption(GraTraOptions.CONSISTENT_ONLY))
+                && BatchStep.isSupported(m);
+    }
+
+    /**
+     * Applies a maximal set of parallel independent matches of the specified
+     * rule in one batch step. The graph consistency is checked once after the
+     * batch.
+     *
+     * @return true if at least one match was applied
+     */
+    protected boolean applyBatch(final Rule r) {
+        final BatchStep batch = new BatchStep(r);
+        this.errorMsg = "";
+        while (this.currentMatch.nextCompletion()) {
+            if (this.stopping || this.stoppingRule) {
+                this.currentMatch.clear();
+                return false;
+            }
+            if (this.currentMatch.isValid()) {
+                batch.add(this.currentMatch);
+            } else {
+                this.errorMsg = this.currentMatch.getErrorMsg();
+                this.currentMatch.clear();
+            }
+        }
+        this.currentMatch.clear();
+        this.currentMatch.typeObjectsMapChanged = true;
+        this.updateTypeObjectsMapAfterStep = true;
+        if (batch.isEmpty()) {
+            fireGraTra(new GraTraEvent(this, GraTraEvent.NO_COMPLETION,
+                    this.currentMatch, this.currentMatch.getErrorMsg()));
+            return false;
+        }
+        try {
+            batch.execute(this.currentMatch.getTarget(), this.currentMatch.getAttrContext());
+        } catch (TypeException ex) {
+            this.errorMsg = ex.getMessage();
+            fireGraTra(new GraTraEvent(this, GraTraEvent.CANNOT_TRANSFORM,
+                    this.currentMatch, this.errorMsg));
+            return false;
+        }
+        this.consistentGraph = checkGraphConsistency(r, this.currentMatch.getTarget());
+        if (!this.consistentGraph) {
+            fireGraTra(new GraTraEvent(this, GraTraEvent.INCONSISTENT, this.currentMatch));
+        }
+        return true;
+    }
+
+    /**
+     * Enables or disables the incremental maintenance of rule matches. If
+     * enabled, the matches of a rule are kept across steps and only the
+     * changed part of the host graph is searched again. The same is done when
+     * the option {@link GraTraOptions#INCREMENTAL_MATCHING} is set.
+     *
+     * @param b true to enable incremental matching
+     * @see IncrementalMatcher
+     */
+    public void setIncrementalMatchingEnabled(boolean b) {
+        this.incrementalMatching = b;
+        if (!b) {
+            disposeIncrementalMatcher();
+        }
+    }
+
+    public boolean isIncrementalMatchingEnabled() {
+        return this.incrementalMatching
+                || (this.options != null
+                && this.options.hasOption(GraTraOptions.INCREMENTAL_MATCHING));
+    }
+
+    /**
+     * Returns the incremental matcher of the current host graph, or null if
+     * incremental matching was not used yet.
+     */
+    public IncrementalMatcher getIncrementalMatcher() {
+        return this.incrementalMatcher;
+    }
+
+    /**
+     * Returns the incremental matcher to complete the specified match, or null
+     * if the match has to be completed by the usual search.
+     */
+    protected IncrementalMatcher incrementalMatcherOf(final Match m) {
+        if (!isIncrementalMatchingEnabled()
+                || m.getTarget() != this.hostgraph
+                || !m.isEmpty()
+                || (this.options != null
+                && this.options.hasOption(GraTraOptions.CONSISTENT_ONLY))) {
+            return null;
+        }
+        if (this.incrementalMatcher == null) {
+            this.incrementalMatcher = new IncrementalMatcher(this.hostgraph);
+        }
+        return this.incrementalMatcher.isSupported(m.getRule()) ? this.incrementalMatcher : null;
+    }
+
+    private void disposeIncrementalMatcher() {
+        if (this.incrementalMatcher != null) {
+            this.incrementalMatcher.dispose();
+            this.incrementalMatcher = null;
+        }
+    }
+
+    /**
+     * Enables or disables the incremental check of graph constraints. If
+     * enabled, the values of the atomic constraints at the host graph are kept
+     * across steps and only the part of the host graph changed by a step is
+     * checked again. With option {@link GraTraOptions#CONSISTENT_ONLY} the
+     * steps of rules which do not delete objects are tested in the host graph
+     * itself under an undo journal instead of at a copy of it, so the
+     * observers of the host graph see the changes of steps which are taken
+     * back. The same is done
+     * when the option {@link GraTraOptions#INCREMENTAL_CONSISTENCY} is set.
+     *
+     * @param b true to enable the incremental consistency check
+     * @see IncrementalConsistency
+     */
+    public void setIncrementalConsistencyEnabled(boolean b) {
+        this.incrementalConsistency = b;
+        if (!b) {
+            disposeConsistencyCheck();
+        }
+    }
+
+    public boolean isIncrementalConsistencyEnabled() {
+        return this.incrementalConsistency
+                || (this.options != null
+                && this.options.hasOption(GraTraOptions.INCREMENTAL_CONSISTENCY));
+    }
+
+    /**
+     * Returns the incremental consistency check of the current host graph, or
+     * null if it was not used yet.
+     */
+    public IncrementalConsistency getIncrementalConsistency() {
+        return this.consistencyCheck;
+    }
+
+    /**
+     * Returns the incremental consistency check of the target graph of the
+     * specified match, or null if the constraints have to be checked at the
+     * whole graph.
+     */
+    protected IncrementalConsistency consistencyCheckOf(final Match m) {
+        if (!isIncrementalConsistencyEnabled()
+                || m.getTarget() != this.hostgraph
+                || this.grammar == null) {
+            return null;
+        }
+        if (this.consistencyCheck == null) {
+            this.consistencyCheck = new IncrementalConsistency(this.grammar, this.hostgraph);
+        }
+        return this.consistencyCheck;
+    }
+
+    private void disposeConsistencyCheck() {
+        if (this.consistencyCheck != null) {
+            this.consistencyCheck.dispose();
+            this.consistencyCheck = null;
+        }
+    }
+
+    /**
+     * Executes the step of the specified match. Keeps the matches of the
+     * incremental matcher and the values of the incremental consistency check
+     * up to date, if there are some.
+     */
+    protected Morphism executeStep(final Match m) throws TypeException {
+        final IncrementalMatcher matcher = this.incrementalMatcher != null
+                && m.getTarget() == this.incrementalMatcher.getHostGraph()
+                ? this.incrementalMatcher : null;
+        final IncrementalConsistency check = consistencyCheckOf(m);
+        if (matcher == null && check == null) {
+            return StaticStep.execute(m);
+        }
+        final IncrementalMatcher.StepDelta delta = matcher != null ? matcher.beforeStep(m) : null;
+        final IncrementalConsistency.StepDelta consDelta = check != null ? check.beforeStep(m) : null;
+        Morphism co_match = null;
+        try {
+            co_match = StaticStep.execute(m);
+        } finally {
+            if (check != null) {
+                check.afterStep(consDelta, co_match);
+            }
+            if (matcher != null) {
+                matcher.afterStep(delta, co_match);
+            }
+        }
+        return co_match;
+    }
+
+    /**
+     * Applies the specified match, or one of its next completions, so that the
+     * host graph stays consistent. Each step is done in the host graph under
+     * an undo journal, which the incremental consistency check discards if
+     * the graph constraints are not satisfied afterwards. The rule of the match must not
+     * delete objects, so the match stays valid after a step is taken back.
+     *
+     * @return the co-match of the consistent step or null. The field
+     * <code>consistentGraph</code> is false if there were only inconsistent
+     * steps.
+     * @see IncrementalConsistency#openJournal()
+     */
+    protected Morphism applyConsistentStep(final Match m) {
+        final IncrementalConsistency check = consistencyCheckOf(m);
+        boolean validStep = false;
+        boolean hasNext = true;
+        while (hasNext) {
+            if (m.isValid()) {
+                final GraphJournal journal = check.openJournal();
+                try {
+                    final Morphism co_match = executeStep(m);
+                    validStep = true;
+                    this.consistentGraph = checkGraphConsistency(m.getRule(), m.getTarget());
+                    if (this.consistentGraph) {
+                        check.commit(journal);
+                        fireGraTra(new GraTraEvent(this, GraTraEvent.MATCH_VALID, m));
+                        return co_match;
+                    }
+                    check.discard(journal);
+                    m.setCoMorphism(null);
+                    co_match.dispose();
+                } catch (TypeException ex) {
+                    this.errorMsg = ex.getLocalizedMessage();
+                } finally {
+                    if (journal.isOpen()) {
+                        check.discard(journal);
+                    }
+                }
+            }
+            hasNext = m.nextCompletion();
+        }
+        this.consistentGraph = !validStep;
+        return null;
+    }
+
     public void enableWriteLogFile(boolean b) {
         this.writeLogFile = b;
     }
@@ -592,10 +895,10 @@ public abstract class GraTra {
         if (this.grammar.isLayered()) {
             List<Formula> constraints = this.grammar.getConstraintsForLayer(-1);
             // first check global constraints
-            if (this.grammar.checkGraphConsistency(g, constraints)) {
+            if (checkConstraints(g, constraints)) {
                 constraints = this.grammar.getConstraintsForLayer(r.getLayer());
                 // now for the layer only
-                if (this.grammar.checkGraphConsistency(g, constraints)) {
+                if (checkConstraints(g, constraints)) {
                     return true;
                 }
                 return false;
@@ -604,23 +907,36 @@ public abstract class GraTra {
         } else if (this.grammar.trafoByPriority()) {
             List<Formula> constraints = this.grammar.getConstraintsForPriority(-1);
             // first check global constraints
-            if (this.grammar.checkGraphConsistency(g, constraints)) {
+            if (checkConstraints(g, constraints)) {
                 constraints = this.grammar
                         .getConstraintsForPriority(r.getPriority());
                 // now for the priority only
-                if (this.grammar.checkGraphConsistency(g, constraints)) {
+                if (checkConstraints(g, constraints)) {
                     return true;
                 }
                 return false;
             }
             return false;
-        } else if (this.grammar.checkGraphConsistency(g)) {
+        } else if (checkConstraints(g, this.grammar.getListOfConstraints())) {
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Checks the specified constraints at the specified graph, incrementally
+     * if the graph is the host graph of the incremental consistency check.
+     */
+    private boolean checkConstraints(Graph g, List<Formula> constraints) {
+        if (this.consistencyCheck != null
+                && g == this.consistencyCheck.getHostGraph()
+                && isIncrementalConsistencyEnabled()) {
+            return this.consistencyCheck.check(constraints);
+        }
+        return this.grammar.checkGraphConsistency(g, constraints);
+    }
+
     /*
 	 * occurred
      */
@@ -802,7 +1118,7 @@ public abstract class GraTra {
         } else {
             constraints = this.grammar.getGlobalConstraints();
         }
-        if (this.grammar.checkGraphConsistency(this.grammar.getGraph(), constraints)) {
+        if (checkConstraints(this.grammar.getGraph(), constraints)) {
             return true;
         }
         String msgstr = " Constraint:" + this.grammar.getConsistencyErrorMsg() + "- failed.";
@@ -815,7 +1131,7 @@ public abstract class GraTra {
             return true;
         }
         List<Formula> constraints = this.grammar.getConstraintsForLayer(layer);
-        if (this.grammar.checkGraphConsistency(this.grammar.getGraph(), constraints)) {
+        if (checkConstraints(this.grammar.getGraph(), constraints)) {
             return true;
         }
         String msgstr = " Layer: " + layer + "  Constraint:" + this.grammar.getConsistencyErrorMsg() + "- failed.";
@@ -828,7 +1144,7 @@ public abstract class GraTra {
             return true;
         }
         List<Formula> constraints = this.grammar.getConstraintsForPriority(priority);
-        if (this.grammar.checkGraphConsistency(this.grammar.getGraph(), constraints)) {
+        if (checkConstraints(this.grammar.getGraph(), constraints)) {
             return true;
         }
         String msgstr = " Priority: " + priority + "  Constraint:" + this.grammar.getConsistencyErrorMsg() + "- failed.";
@@ -851,6 +1167,12 @@ public abstract class GraTra {
             this.stoppingRule = false;
             boolean result = false;
             this.currentMatch = rs.getMatch();
+            if (this.currentMatch == null && canApplyDirectly()) {
+                final Covering cov = new Covering(rs, this.hostgraph, this.strategy);
+                if (cov.isDirectStepSupported()) {
+                    return applyDirectly(rs, cov);
+                }
+            }
             if (this.currentMatch == null) {
                 if (!rs.isInputParameterSet(true)) {
                     fireGraTra(new GraTraEvent(this, GraTraEvent.INPUT_PARAMETER_NOT_SET, rs));
@@ -899,6 +1221,61 @@ public abstract class GraTra {
         }
     }
 
+    /**
+     * Enables or disables the direct application of rule schemes. If enabled,
+     * the kernel rule and the instances of the multi rules are applied to the
+     * host graph directly, without constructing the amalgamated rule and
+     * match, see {@link Covering#apply()}. No amalgamated match and co-match
+     * are created and no step events are fired. The same is done when the
+     * option {@link GraTraOptions#DIRECT_AMALGAMATION} is set.
+     *
+     * @param b true to enable the direct application
+     */
+    public void setDirectAmalgamationEnabled(boolean b) {
+        this.directAmalgamation = b;
+    }
+
+    public boolean isDirectAmalgamationEnabled() {
+        return this.directAmalgamation
+                || (this.options != null
+                && this.options.hasOption(GraTraOptions.DIRECT_AMALGAMATION));
+    }
+
+    /**
+     * Returns true if rule schemes may be applied directly. The incremental
+     * matching, the incremental consistency check and the consistent steps
+     * need the amalgamated match.
+     */
+    protected boolean canApplyDirectly() {
+        return isDirectAmalgamationEnabled()
+                && !isIncrementalMatchingEnabled()
+                && !isIncrementalConsistencyEnabled()
+                && (this.options == null
+                || !this.options.hasOption(GraTraOptions.CONSISTENT_ONLY));
+    }
+
+    /**
+     * Applies the specified rule scheme directly by the specified covering.
+     * The graph consistency is checked after the step.
+     */
+    protected boolean applyDirectly(final RuleScheme rs, final Covering cov) {
+        if (this.stopping || this.stoppingRule || this.pauseRule) {
+            return false;
+        }
+        if (!cov.apply()) {
+            this.errorMsg = cov.getErrorMessage();
+            fireGraTra(new GraTraEvent(this, GraTraEvent.MATCH_FAILED,
+                    "Amalgamated match failed.\n" + this.errorMsg));
+            return false;
+        }
+        this.errorMsg = "";
+        this.consistentGraph = checkGraphConsistency(rs, this.hostgraph);
+        if (!this.consistentGraph) {
+            fireGraTra(new GraTraEvent(this, GraTraEvent.INCONSISTENT, rs));
+        }
+        return true;
+    }
+
     protected boolean isInputParameterSet(
             final RuleScheme rs,
             boolean left) {
@@ -19,7 +19,7 @@ import agg.xt_basis.csp.CompletionPropertyBits;
 /**
  * This class defines the options for graph transformation, backed by a vector
  * of names. Possible options are: for completion strategy (it is always the
- * first element of the vector): "CSP", "CSP w/o BJ" for match : "injective",
+ * first element of the vector): "CSP", "CSP w/o BJ", "CSP by cost" for match : "injective",
  * "dangling", "identification", "NACs", other general options: "consistency",
  * "checkRuleApplicability", "showGraphAfterStep", "waitAfterStep",
  * "selectNewAfterStep", for kind of graph transformation: "layered",
@@ -34,6 +34,7 @@ public class GraTraOptions {
 
     public final static String CSP = "CSP";
     public final static String CSP_WO_BJ = "CSP w/o BJ";
+    public final static String CSP_BY_COST = "CSP by cost";
     public final static String INJECTIVE = "injective";
     public final static String DANGLING = "dangling";
     public final static String IDENTIFICATION = "identification";
@@ -60,6 +61,10 @@ public class GraTraOptions {
     public final static String BREAK_LAYER = "breakLayer";
     public final static String BREAK_ALL_LAYER = "breakAllLayer";
     public final static String PARALLEL_MATCHING = "parallelMatching";
+    public final static String INCREMENTAL_MATCHING = "incrementalMatching";
+    public final static String INCREMENTAL_CONSISTENCY = "incrementalConsistency";
+    public final static String BATCH_APPLY = "batchApply";
+    public final static String DIRECT_AMALGAMATION = "directAmalgamation";
     public final static String XY_POS_ATTRIBUTE = "xyPosAttribute";
     final private List<String> options;
     private MorphCompletionStrategy strategy;
@@ -138,6 +143,8 @@ public class GraTraOptions {
             stratName = "CSP";
         } else if (this.options.contains("CSP w/o BJ")) {
             stratName = "CSP w/o BJ";
+        } else if (this.options.contains(CSP_BY_COST)) {
+            stratName = CSP_BY_COST;
         }
         Enumeration<MorphCompletionStrategy> strats = CompletionStrategySelector.getStrategies();
         while (strats.hasMoreElements()) {
@@ -33,7 +33,9 @@ import agg.util.XMLObject;
 import agg.xt_basis.csp.CompletionPropertyBits;
 import de.jare.ndimcol.ref.ArrayMovie;
 import de.jare.ndimcol.ref.ArraySeason;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -45,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import org.w3c.dom.Element;
 
 /**
  * This class extends simple graphs with the possibility to have arcs between
@@ -63,7 +66,18 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
     protected List<Observer> observer;
     protected LinkedGOHashSet<Node> itsNodes;
     protected LinkedGOHashSet<Arc> itsArcs;
-    protected Map<String, HashSet<GraphObject>> itsTypeObjectsMap;
+    protected TypeObjectsMap itsTypeObjectsMap;
+    private AttributeIndex itsAttributeIndex;
+    private GraphStatistics itsStatistics;
+    /* counts of the nodes and arcs by the numbers of their types, null if not counted yet */
+    private int[] itsTypeUsage;
+    /* incremented whenever a node or an arc is added or removed */
+    private int itsTypeUsageStamp;
+    /* the fingerprint computed at the type usage stamp itsFingerprintStamp, null if not computed or out of date */
+    private GraphFingerprint itsFingerprint;
+    private int itsFingerprintStamp;
+    /* the log of the changes while a journal is open, null otherwise */
+    private GraphJournal.Log itsJournal;
     protected List<OrdinaryMorphism> itsUsingMorphs;
     protected String kind;
     protected String itsName;
@@ -179,7 +193,7 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
         observer = new ArrayList<>();
         itsNodes = new LinkedGOHashSet<>();
         itsArcs = new LinkedGOHashSet<>();
-        itsTypeObjectsMap = new HashMap<>();
+        itsTypeObjectsMap = new TypeObjectsMap(itsTypes);
         itsUsingMorphs = new ArrayList<>();
         kind = GraphKind.GRAPH;
         comment = "";
@@ -306,7 +320,16 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
      * graph. This won'arcType be checked.
      */
     public void setTypeSet(TypeSet types) {
-        this.itsTypes = types;
+        if (types != this.itsTypes && types != null) {
+            // the domains are held by the numbers of the type set
+            boolean filled = !this.itsTypeObjectsMap.isEmpty();
+            this.itsTypes = types;
+            this.itsTypeObjectsMap = new TypeObjectsMap(types);
+            resetTypeUsage();
+            if (filled) {
+                fillTypeObjectsMap();
+            }
+        }
     }
 
     /**
@@ -419,8 +442,7 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
                     try {
                         if (type != null) {
                             boolean found = false;
-                            String keystr = type.convertToKey();
-                            HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr);
+                            HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(this.itsTypes.getTypeId(type));
                             if (objSet != null) {
                                 Iterator<GraphObject> iter = objSet.iterator();
                                 while (iter.hasNext()) {
@@ -463,10 +485,8 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
                             Node src = memo1.get(source);
                             Node tar = memo1.get(target);
                             boolean found = false;
-                            String keystr = src.convertToKey()
-                                    + arcOrig.getType().convertToKey()
-                                    + tar.convertToKey();
-                            HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr);
+                            HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(this.itsTypes.getArcKeyId(
+                                    src.getType(), arcOrig.getType(), tar.getType()));
                             if (objSet != null) {
                                 Iterator<GraphObject> iter = objSet.iterator();
                                 while (iter.hasNext()) {
@@ -986,6 +1006,8 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
         this.itsNodes = null;
         this.itsArcs = null;
         this.itsAttrContext = null;
+        this.itsAttributeIndex = null;
+        this.itsStatistics = null;
         this.itsTypes = null;
         this.changed = false;
 //		System.out.println("Graph.dispose()  DONE  "+this.hashCode());
@@ -2456,6 +2478,10 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
      * @param ch The change to propagate.
      */
     protected void propagateChange(agg.util.Change ch) {
+        if (this.itsJournal != null && ch.getEvent() == Change.WANT_MODIFY_OBJECT
+                && ch.getItem() instanceof GraphObject) {
+            this.itsJournal.modifying((GraphObject) ch.getItem());
+        }
         if (this.notificationRequired) {
             setChanged();
             notifyObservers(ch);
@@ -3000,6 +3026,38 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
                 && isAttributeSet(this.itsArcs.iterator(), storeOfFailedObjs);
     }
 
+    /**
+     * Computes an isomorphism invariant fingerprint of this graph. Graphs with
+     * fingerprints which are not
+     * {@link GraphFingerprint#mayBeIsomorphicTo(GraphFingerprint) compatible}
+     * are not isomorphic, so the fingerprints can be used to bucket graphs
+     * before {@link #getIsomorphicWith(Graph)} is called. The fingerprint is
+     * kept until a node or an arc is added or removed, an arc is connected to
+     * another node, an attribute changes or the inheritance of the type set
+     * changes.
+     *
+     * @return the fingerprint of this graph
+     */
+    public GraphFingerprint getFingerprint() {
+        GraphFingerprint fp = this.itsFingerprint;
+        if (fp == null || this.itsFingerprintStamp != this.itsTypeUsageStamp
+                || !fp.isCurrent(this)) {
+            final int stamp = this.itsTypeUsageStamp;
+            fp = GraphFingerprint.of(this);
+            this.itsFingerprintStamp = stamp;
+            this.itsFingerprint = fp;
+        }
+        return fp;
+    }
+
+    /**
+     * Forgets the fingerprint of this graph, it is computed again on the next
+     * query. Used when an arc is connected to another node.
+     */
+    void fingerprintChanged() {
+        this.itsFingerprint = null;
+    }
+
     /**
      * Checks if this graph is isomorphic to the specified graph.
      *
@@ -3525,6 +3583,28 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
         return BaseFactory.theBaseFactory.getOverlappings(this, g, sizeOfInclusions, disjunion, withIsomorphic);
     }
 
+    /**
+     * Saves a binary snapshot of this graph into the specified file.
+     *
+     * @param fileName the full name of the snapshot file
+     * @see GraGra#saveSnapshot(String)
+     */
+    public void saveSnapshot(String fileName) throws IOException {
+        GraphSnapshot.save(fileName, Collections.singletonList(this));
+    }
+
+    /**
+     * Adds the nodes and arcs of the first graph of the specified snapshot
+     * file to this graph, usually an empty one, and takes over its name.
+     * Types which are not found in my type set are added.
+     *
+     * @param fileName the full name of the snapshot file
+     * @see GraGra#loadSnapshot(String)
+     */
+    public void loadSnapshot(String fileName) throws IOException {
+        GraphSnapshot.load(fileName, this.itsTypes, i -> i == 0 ? this : null);
+    }
+
     /**
      * Writes this graph to XML format using the specified helper.
      *
@@ -3545,8 +3625,13 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
         if (!this.info.equals("")) {
             h.addAttr("info", this.info);
         }
-        h.addIteration("", this.itsNodes.iterator(), true);
-        h.addIteration("", this.itsArcs.iterator(), true);
+        if (h.isStreamedElement()) {
+            h.addStreamedIteration(this.itsNodes);
+            h.addStreamedIteration(this.itsArcs);
+        } else {
+            h.addIteration("", this.itsNodes.iterator(), true);
+            h.addIteration("", this.itsArcs.iterator(), true);
+        }
         h.close();
 //		updateTypeObjectsMap();
     }
@@ -3569,48 +3654,89 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
             if (!str.equals("")) {
                 this.info = str;
             }
-            Iterator<?> en = helper.getEnumeration("", null, true, "Node");
-            while (en.hasNext()) {
-                helper.peekElement(en.next());
-                Type t = (Type) helper.getObject("type", null, false);
-                if (t != null) {
-                    Node n = null;
-                    try {
-                        n = newNode(t);
-                        n = (Node) helper.loadObject(n);
-                    } catch (TypeException e) {
-                        // while loading the type check should be disabled,
-                        // so this Exception should never be thrown
-                        System.out.println("Graph.XreadObject: cannot load a Node :  <"
-                                + t.getName() + ">  into graph  <" + this.getName() + ">   "
-                                + e.getMessage());
-                    }
+            if (helper.isStreamedElement()) {
+                readStreamedObjects(helper);
+            } else {
+                Iterator<?> en = helper.getEnumeration("", null, true, "Node");
+                while (en.hasNext()) {
+                    helper.peekElement(en.next());
+                    readNode(helper);
+                    helper.close();
+                }
+                en = helper.getEnumeration("", null, true, "Edge");
+                while (en.hasNext()) {
+                    helper.peekElement(en.next());
+                    readArc(helper);
+                    helper.close();
                 }
-                helper.close();
             }
-            en = helper.getEnumeration("", null, true, "Edge");
+            helper.close();
+        }
+//		this.showTypeMap(this.getTypeObjectsMap());	
+    }
+
+    /**
+     * Reads the nodes and arcs of a streamed graph element. An arc read before
+     * its source or target node is kept until all elements are read.
+     */
+    private void readStreamedObjects(XMLHelper helper) {
+        List<Element> pending = new ArrayList<>();
+        try (XMLHelper.StreamedIteration en = helper.getStreamedIteration()) {
             while (en.hasNext()) {
-                helper.peekElement(en.next());
-                Type t = (Type) helper.getObject("type", null, false);
-                Node n1 = (Node) helper.getObject("source", null, false);
-                Node n2 = (Node) helper.getObject("target", null, false);
-                if (t != null && n1 != null && n2 != null) {
-                    try {
-                        Arc a = newArc(t, n1, n2);
-                        a = (Arc) helper.loadObject(a);
-                    } catch (TypeException e) {
-                        // while loading the type check should be disabled,
-                        // so this Exception should never be thrown
-                        System.out.println("Graph.XreadObject: cannot load an Arc :  <"
-                                + t.getName() + ">  into graph <" + this.getName() + ">   "
-                                + e.getMessage());
-                    }
+                Element e = en.next();
+                helper.peekElement(e);
+                if ("Node".equals(e.getTagName())) {
+                    readNode(helper);
+                } else if ("Edge".equals(e.getTagName()) && !readArc(helper)) {
+                    pending.add(e);
                 }
                 helper.close();
             }
+        }
+        for (Element e : pending) {
+            helper.peekElement(e);
+            readArc(helper);
             helper.close();
         }
-//		this.showTypeMap(this.getTypeObjectsMap());	
+    }
+
+    private void readNode(XMLHelper helper) {
+        Type t = (Type) helper.getObject("type", null, false);
+        if (t != null) {
+            Node n = null;
+            try {
+                n = newNode(t);
+                n = (Node) helper.loadObject(n);
+            } catch (TypeException e) {
+                // while loading the type check should be disabled,
+                // so this Exception should never be thrown
+                System.out.println("Graph.XreadObject: cannot load a Node :  <"
+                        + t.getName() + ">  into graph  <" + this.getName() + ">   "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns false if the source or target node of the arc is not read yet.
+     */
+    private boolean readArc(XMLHelper helper) {
+        Type t = (Type) helper.getObject("type", null, false);
+        Node n1 = (Node) helper.getObject("source", null, false);
+        Node n2 = (Node) helper.getObject("target", null, false);
+        if (t != null && n1 != null && n2 != null) {
+            try {
+                Arc a = newArc(t, n1, n2);
+                a = (Arc) helper.loadObject(a);
+            } catch (TypeException e) {
+                // while loading the type check should be disabled,
+                // so this Exception should never be thrown
+                System.out.println("Graph.XreadObject: cannot load an Arc :  <"
+                        + t.getName() + ">  into graph <" + this.getName() + ">   "
+                        + e.getMessage());
+            }
+        }
+        return n1 != null && n2 != null;
     }
 
     @Override
@@ -4242,8 +4368,12 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
      * Returns a map of object domains for used types. The key of a node type is
      * built by <code>type.convertToKey()</code>, the key of an arc type by
      * <code>srcNodeType.convertToKey()+type.convertToKey()+tarNodeType.convertToKey()</code>.
+     * The map is a view of the domains, which are held by the numbers of the
+     * types and arc keys of the type set.
      *
      * @return map from type keys to sets of graph objects of that type
+     * @see TypeSet#getTypeId(Type)
+     * @see TypeSet#getArcKeyId(Type, Type, Type)
      */
     public Map<String, HashSet<GraphObject>> getTypeObjectsMap() {
         if (this.itsTypeObjectsMap.isEmpty()) {
@@ -4252,6 +4382,63 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
         return this.itsTypeObjectsMap;
     }
 
+    /**
+     * Returns the domain of the type key of the specified graph object, which
+     * may be an object of another graph with the same type set, e.g. of the
+     * left-hand side of a rule. For an arc of an undirected graph the domain of
+     * the inverse arc key is returned, if there is one.
+     *
+     * @param anObj a node or an arc
+     * @return the set of graph objects of the type key or null
+     */
+    public HashSet<GraphObject> getTypeObjects(final GraphObject anObj) {
+        if (this.itsTypeObjectsMap.isEmpty()) {
+            fillTypeObjectsMap();
+        }
+        if (anObj.isNode()) {
+            return this.itsTypeObjectsMap.get(this.itsTypes.getTypeId(anObj.getType()));
+        }
+        final Arc arc = (Arc) anObj;
+        return this.itsTypeObjectsMap.get(arcDomainId(arc.getSource().getType(), arc.getType(),
+                arc.getTarget().getType()));
+    }
+
+    /**
+     * Returns the domain of the type key of the specified graph object like
+     * {@link #getTypeObjects(GraphObject)}, an empty domain is added if there
+     * is none.
+     *
+     * @param anObj a node or an arc
+     * @return the set of graph objects of the type key
+     */
+    public HashSet<GraphObject> getOrAddTypeObjects(final GraphObject anObj) {
+        if (this.itsTypeObjectsMap.isEmpty()) {
+            fillTypeObjectsMap();
+        }
+        if (anObj.isNode()) {
+            return this.itsTypeObjectsMap.getOrAdd(this.itsTypes.getTypeId(anObj.getType()));
+        }
+        final Arc arc = (Arc) anObj;
+        return this.itsTypeObjectsMap.getOrAdd(arcDomainId(arc.getSource().getType(), arc.getType(),
+                arc.getTarget().getType()));
+    }
+
+    /**
+     * Sets the domain of the type key of the specified graph object.
+     *
+     * @param anObj a node or an arc
+     * @param objects the set of graph objects of the type key
+     */
+    public void setTypeObjects(final GraphObject anObj, final HashSet<GraphObject> objects) {
+        if (anObj.isNode()) {
+            this.itsTypeObjectsMap.set(this.itsTypes.getTypeId(anObj.getType()), objects);
+        } else {
+            final Arc arc = (Arc) anObj;
+            this.itsTypeObjectsMap.set(this.itsTypes.getArcKeyId(arc.getSource().getType(),
+                    arc.getType(), arc.getTarget().getType()), objects);
+        }
+    }
+
     /**
      * Refreshes object domains for used types by clearing and refilling the
      * type objects map.
@@ -4268,6 +4455,10 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
      * @param anObj the graph object to add to the type map
      */
     protected void addToTypeObjectsMap(GraphObject anObj) {
+        countTypeUsage(anObj, 1);
+        if (this.itsJournal != null) {
+            this.itsJournal.created(anObj);
+        }
         if (anObj.isNode()) {
             extendTypeObjectsMapByNode((Node) anObj);
         } else {
@@ -4281,21 +4472,17 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
      * @param anObj the node to remove from the type map
      */
     protected void removeNodeFromTypeObjectsMap(final Node anObj) {
+        countTypeUsage(anObj, -1);
+        if (this.itsJournal != null) {
+            this.itsJournal.removed(anObj);
+        }
         if (anObj.getType().hasParent()) {
             List<Type> myParents = anObj.getType().getAllParents();
             for (int i = 0; i < myParents.size(); ++i) {
-                final String keystr = myParents.get(i).convertToKey();
-                final HashSet<GraphObject> anObjVec = this.itsTypeObjectsMap.get(keystr);
-                if (anObjVec != null) {
-                    anObjVec.remove(anObj);
-                }
+                removeFromDomain(this.itsTypes.getTypeId(myParents.get(i)), anObj);
             }
         } else {
-            final String keystr = anObj.getType().convertToKey();
-            final HashSet<GraphObject> anObjVec = this.itsTypeObjectsMap.get(keystr);
-            if (anObjVec != null) {
-                anObjVec.remove(anObj);
-            }
+            removeFromDomain(this.itsTypes.getTypeId(anObj.getType()), anObj);
         }
     }
 
@@ -4305,6 +4492,10 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
      * @param anArc the arc to remove from the type map
      */
     protected void removeArcFromTypeObjectsMap(final Arc anArc) {
+        countTypeUsage(anArc, -1);
+        if (this.itsJournal != null) {
+            this.itsJournal.removed(anArc);
+        }
         if (anArc.getSource() == null || anArc.getTarget() == null) {
             return;
         }
@@ -4314,25 +4505,121 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
             List<Type> tarParents = anArc.getTarget().getType().getAllParents();
             for (Type srcParent : srcParents) {
                 for (Type tarParent : tarParents) {
-                    String[] keystr = orientation.arcStringKeys(srcParent, anArc, tarParent);
-                    HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr[0]);
-                    if (objSet == null && keystr.length == 2) {
-                        objSet = this.itsTypeObjectsMap.get(keystr[1]);
-                    }
-                    if (objSet != null) {
-                        objSet.remove(anArc);
-                    }
+                    removeFromDomain(arcDomainId(srcParent, anArc.getType(), tarParent), anArc);
                 }
             }
         } else {
-            String[] keystr = orientation.arcStringKeys(anArc);
-            HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr[0]);
-            if (objSet == null && keystr.length == 2) {
-                objSet = this.itsTypeObjectsMap.get(keystr[1]);
-            }
-            if (objSet != null) {
-                objSet.remove(anArc);
+            removeFromDomain(arcDomainId(anArc.getSource().getType(), anArc.getType(),
+                    anArc.getTarget().getType()), anArc);
+        }
+    }
+
+    /**
+     * Opens an undo journal of this graph: the following changes of this
+     * graph can be taken back by {@link GraphJournal#discard()} or kept by
+     * {@link GraphJournal#commit()}. The journal is not a separate graph, the
+     * changes are made in this graph and are seen by its observers. Opening
+     * costs O(1) and each change costs O(1) while the journal is open.
+     *
+     * @return the journal
+     * @see GraphJournal
+     */
+    public synchronized GraphJournal openJournal() {
+        if (this.itsJournal == null) {
+            this.itsJournal = new GraphJournal.Log(this);
+        }
+        return this.itsJournal.open();
+    }
+
+    /**
+     * Returns true if a journal of this graph is open.
+     *
+     * @return true if the changes of this graph are written to a journal
+     */
+    public boolean hasOpenJournal() {
+        return this.itsJournal != null;
+    }
+
+    void endJournal(final GraphJournal.Log log) {
+        if (this.itsJournal == log) {
+            this.itsJournal = null;
+        }
+    }
+
+    /**
+     * Returns the count of the nodes or arcs of exactly the specified type in
+     * this graph. The counts are kept up to date while nodes and arcs are
+     * added and removed, so the query does not iterate the graph.
+     *
+     * @param type a node or an arc type of the type set of this graph
+     * @return the count of the objects of the type
+     */
+    public int getTypeUsage(final Type type) {
+        if (this.itsTypeUsage == null) {
+            countTypeUsage();
+        }
+        final int id = this.itsTypes.getTypeId(type);
+        return id < this.itsTypeUsage.length ? this.itsTypeUsage[id] : 0;
+    }
+
+    /**
+     * Returns the count of the nodes of the specified node type or one of its
+     * child types in this graph. For an arc type it is the count of
+     * {@link #getTypeUsage(Type)}.
+     *
+     * @param type a node or an arc type of the type set of this graph
+     * @return the count of the objects of the type and its child types
+     */
+    public int getInheritedTypeUsage(final Type type) {
+        if (!type.hasChild()) {
+            return getTypeUsage(type);
+        }
+        int count = 0;
+        for (Type t : type.getAllChildren()) {
+            count += getTypeUsage(t);
+        }
+        return count;
+    }
+
+    /**
+     * Returns a number, which changes whenever a node or an arc is added to or
+     * removed from this graph. Values derived from the used types of this
+     * graph can be kept until the number changes.
+     *
+     * @return the stamp of the type usage
+     */
+    public int getTypeUsageStamp() {
+        return this.itsTypeUsageStamp;
+    }
+
+    /**
+     * Forgets the type usage counts, they are counted again on the next
+     * query. Used when nodes or arcs are added around the type objects map.
+     */
+    void resetTypeUsage() {
+        this.itsTypeUsage = null;
+        this.itsTypeUsageStamp++;
+    }
+
+    private void countTypeUsage() {
+        this.itsTypeUsage = new int[Math.max(16, this.itsTypes.getTypeIds().size())];
+        for (Node n : this.itsNodes) {
+            countTypeUsage(n, 1);
+        }
+        for (Arc a : this.itsArcs) {
+            countTypeUsage(a, 1);
+        }
+    }
+
+    private void countTypeUsage(final GraphObject anObj, final int delta) {
+        this.itsTypeUsageStamp++;
+        if (this.itsTypeUsage != null) {
+            final int id = this.itsTypes.getTypeId(anObj.getType());
+            if (id >= this.itsTypeUsage.length) {
+                this.itsTypeUsage = Arrays.copyOf(this.itsTypeUsage,
+                        Math.max(id + 1, 2 * this.itsTypeUsage.length));
             }
+            this.itsTypeUsage[id] += delta;
         }
     }
 
@@ -4392,13 +4679,7 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
     private void extendTypeObjectsMapByNode(final Node node, final Type parent) {
         List<Type> newParents = parent.getAllParents();
         for (int i = 0; i < newParents.size(); ++i) {
-            String keystr = newParents.get(i).convertToKey();
-            HashSet<GraphObject> anObjVec = this.itsTypeObjectsMap.get(keystr);
-            if (anObjVec == null) {
-                anObjVec = new LinkedHashSet<>();
-                this.itsTypeObjectsMap.put(keystr, anObjVec);
-            }
-            anObjVec.add(node);
+            addToDomain(this.itsTypes.getTypeId(newParents.get(i)), node);
         }
     }
 
@@ -4412,22 +4693,10 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
         if (node.getType().hasParent()) {
             List<Type> myParents = node.getType().getAllParents();
             for (int i = 0; i < myParents.size(); ++i) {
-                String keystr = myParents.get(i).convertToKey();
-                HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr);
-                if (objSet == null) {
-                    objSet = new LinkedHashSet<>();
-                    this.itsTypeObjectsMap.put(keystr, objSet);
-                }
-                objSet.add(node);
+                addToDomain(this.itsTypes.getTypeId(myParents.get(i)), node);
             }
         } else {
-            String keystr = node.convertToKey();
-            HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr);
-            if (objSet == null) {
-                objSet = new LinkedHashSet<>();
-                this.itsTypeObjectsMap.put(keystr, objSet);
-            }
-            objSet.add(node);
+            addToDomain(this.itsTypes.getTypeId(node.getType()), node);
         }
     }
 
@@ -4445,29 +4714,138 @@ public class Graph extends ExtObservable implements Observer, XMLObject {
             List<Type> tarParents = anArc.getTarget().getType().getAllParents();
             for (Type srcParent : srcParents) {
                 for (Type tarParent : tarParents) {
-                    String[] keystr = orientation.arcStringKeys(srcParent, anArc, tarParent);
-                    HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr[0]);
-                    if (objSet == null && keystr.length == 2) {
-                        objSet = this.itsTypeObjectsMap.get(keystr[1]);
-                    }
-                    if (objSet == null) {
-                        objSet = new LinkedHashSet<>();
-                        this.itsTypeObjectsMap.put(keystr[0], objSet);
-                    }
-                    objSet.add(anArc);
+                    addToDomain(arcDomainId(srcParent, anArc.getType(), tarParent), anArc);
                 }
             }
         } else {
-            String[] keystr = orientation.arcStringKeys(anArc);
-            HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(keystr[0]);
-            if (objSet == null && keystr.length == 2) {
-                objSet = this.itsTypeObjectsMap.get(keystr[1]);
+            addToDomain(arcDomainId(anArc.getSource().getType(), anArc.getType(), anArc.getTarget().getType()),
+                    anArc);
+        }
+    }
+
+    /**
+     * Returns the number of the domain of the arc key of the specified types.
+     * In an undirected graph the domain of the inverse arc key is used, if
+     * there is no domain of the arc key.
+     */
+    private int arcDomainId(final Type source, final Type arcType, final Type target) {
+        final int id = this.itsTypes.getArcKeyId(source, arcType, target);
+        if (!this.orientation.isDirected() && this.itsTypeObjectsMap.get(id) == null) {
+            final int inverse = this.itsTypes.getArcKeyId(target, arcType, source);
+            if (this.itsTypeObjectsMap.get(inverse) != null) {
+                return inverse;
+            }
+        }
+        return id;
+    }
+
+    private void addToDomain(final int id, final GraphObject go) {
+        if (this.itsTypeObjectsMap.getOrAdd(id).add(go) && this.itsAttributeIndex != null) {
+            this.itsAttributeIndex.added(id, go);
+        }
+    }
+
+    private void removeFromDomain(final int id, final GraphObject go) {
+        final HashSet<GraphObject> objSet = this.itsTypeObjectsMap.get(id);
+        if (objSet != null) {
+            objSet.remove(go);
+        }
+        if (this.itsAttributeIndex != null) {
+            this.itsAttributeIndex.removed(id, go);
+        }
+    }
+
+    /**
+     * Enables or disables the attribute value index of this graph. The index
+     * holds the objects of a type by the constant values of an attribute
+     * member. It is built for a type and a member, when a rule with a constant
+     * value of the member is matched, and kept up to date afterwards.
+     *
+     * @param indexed true to enable the index, false to drop it
+     * @see #getTypeObjectsByConstants(GraphObject)
+     */
+    public void setAttributeIndexed(final boolean indexed) {
+        if (indexed && this.itsAttributeIndex == null) {
+            this.itsAttributeIndex = new AttributeIndex();
+        } else if (!indexed) {
+            this.itsAttributeIndex = null;
+        }
+    }
+
+    /**
+     * Returns true, if the attribute value index of this graph is enabled.
+     *
+     * @return true, if the index is enabled
+     */
+    public boolean isAttributeIndexed() {
+        return this.itsAttributeIndex != null;
+    }
+
+    /**
+     * Returns the statistics of this graph, which estimate the costs of
+     * search plans: the cardinalities of the types and the degrees of the
+     * nodes.
+     *
+     * @return the statistics of this graph
+     */
+    public GraphStatistics getStatistics() {
+        if (this.itsStatistics == null) {
+            this.itsStatistics = new GraphStatistics(this);
+        }
+        return this.itsStatistics;
+    }
+
+    /**
+     * Returns the candidates of the specified graph object, e.g. of the
+     * left-hand side of a rule, by the attribute value index. Among the
+     * attribute members with a constant value of the object the member with
+     * the fewest candidates is taken. The candidates are the objects of the
+     * domain of the type key which have this value or which could not be
+     * indexed. The set is kept up to date like the sets of the type objects
+     * map.
+     *
+     * @param anObj a node or an arc
+     * @return the candidates or null, if the index is not enabled or the
+     * object has no indexable constant value
+     */
+    public HashSet<GraphObject> getTypeObjectsByConstants(final GraphObject anObj) {
+        if (this.itsAttributeIndex == null || !(anObj.getAttribute() instanceof ValueTuple)) {
+            return null;
+        }
+        final ValueTuple value = (ValueTuple) anObj.getAttribute();
+        HashSet<GraphObject> result = null;
+        int id = -1;
+        for (int i = 0; i < value.getSize(); i++) {
+            final ValueMember vm = value.getValueMemberAt(i);
+            if (vm == null || !vm.isSet() || !vm.getExpr().isConstant()) {
+                continue;
             }
-            if (objSet == null) {
-                objSet = new LinkedHashSet<>();
-                this.itsTypeObjectsMap.put(keystr[0], objSet);
+            if (id < 0) {
+                if (this.itsTypeObjectsMap.isEmpty()) {
+                    fillTypeObjectsMap();
+                }
+                id = anObj.isNode()
+                        ? this.itsTypes.getTypeId(anObj.getType())
+                        : arcDomainId(((Arc) anObj).getSource().getType(), anObj.getType(),
+                                ((Arc) anObj).getTarget().getType());
+            }
+            final HashSet<GraphObject> candidates = this.itsAttributeIndex.getCandidates(id,
+                    this.itsTypeObjectsMap.getOrAdd(id), vm.getName(), vm.getExprAsObject());
+            if (candidates != null && (result == null || candidates.size() < result.size())) {
+                result = candidates;
             }
-            objSet.add(anArc);
+        }
+        return result;
+    }
+
+    /**
+     * Updates the attribute value index and forgets the fingerprint after the
+     * attributes of the specified object of this graph changed.
+     */
+    void attributeChanged(final GraphObject go) {
+        this.itsFingerprint = null;
+        if (this.itsAttributeIndex != null) {
+            this.itsAttributeIndex.changed(go);
         }
     }
 
@@ -0,0 +1,302 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import agg.attribute.AttrInstance;
+import agg.attribute.handler.HandlerExpr;
+import agg.attribute.impl.ValueMember;
+import agg.attribute.impl.ValueTuple;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Isomorphism invariant fingerprint of a graph, computed by a typed
+ * Weisfeiler-Lehman refinement of node labels. Isomorphic graphs in the sense
+ * of {@link Graph#getIsomorphicWith(Graph)} have equal fingerprints, so graphs
+ * with different fingerprints need not be checked by the constraint solver.
+ *
+ * <p>
+ * The fingerprint has two parts. The structure part uses the node and arc
+ * types; node types are left out when the type set has an inheritance
+ * relation, because an isomorphism may map a node to a node of a child type.
+ * The attribute part uses the attribute values as well and is only known when
+ * all attribute members of the graph are set to constants, because a variable
+ * or an unset member matches any value. {@link #equals(Object)} and
+ * {@link #hashCode()} use the structure part only, so the fingerprints can be
+ * used as keys of buckets.
+ *
+ * <p>
+ * {@link Graph#getIsomorphicWith(Graph)} does not compare attribute values, so
+ * {@link #mayBeIsomorphicTo(GraphFingerprint)} compares the structure parts
+ * only. Callers which require equal constants of the isomorphic objects, see
+ * {@link OrdinaryMorphism#checkConstants()}, use
+ * {@link #mayHaveEqualConstants(GraphFingerprint)} instead.
+ *
+ * @author Janusch Rentenatus
+ */
+public final class GraphFingerprint {
+
+    private static final long OUT = 0x3c6ef372fe94f82bL;
+    private static final long IN = 0xa54ff53a5f1d36f1L;
+
+    private final int nodes;
+    private final int arcs;
+    private final boolean withNodeTypes;
+    private final long structure;
+    private final boolean attributesKnown;
+    private final long attributes;
+
+    private GraphFingerprint(final Graph g) {
+        this.nodes = g.getNodesCount();
+        this.arcs = g.getArcsCount();
+        this.withNodeTypes = !g.getTypeSet().hasInheritance();
+        this.structure = refine(g, this.withNodeTypes, false);
+        this.attributesKnown = g.isAttributed() && isConstant(g);
+        this.attributes = this.attributesKnown ? refine(g, this.withNodeTypes, true) : 0L;
+    }
+
+    /**
+     * Computes the fingerprint of the specified graph.
+     *
+     * @param g the graph
+     * @return the fingerprint
+     */
+    public static GraphFingerprint of(final Graph g) {
+        return new GraphFingerprint(g);
+    }
+
+    /**
+     * Returns false if the specified graph has another count of nodes or arcs
+     * than when this fingerprint was computed, or if an inheritance relation
+     * was added to or removed from its type set since. Changes of the graph
+     * which keep these counts are not seen.
+     *
+     * @param g the graph of this fingerprint
+     * @return false if the fingerprint has to be computed again
+     */
+    boolean isCurrent(final Graph g) {
+        return this.nodes == g.getNodesCount()
+                && this.arcs == g.getArcsCount()
+                && this.withNodeTypes != g.getTypeSet().hasInheritance();
+    }
+
+    /**
+     * Returns the structure part of this fingerprint.
+     */
+    public long getStructure() {
+        return this.structure;
+    }
+
+    /**
+     * Returns true if the attribute part of this fingerprint is known, that is
+     * all attribute members of the graph are set to constants.
+     */
+    public boolean isAttributesKnown() {
+        return this.attributesKnown;
+    }
+
+    /**
+     * Returns false if the graphs of this and the specified fingerprint are
+     * not isomorphic. True means the graphs have to be checked by
+     * {@link Graph#getIsomorphicWith(Graph)}.
+     *
+     * @param other fingerprint of another graph
+     * @return false if the graphs cannot be isomorphic
+     */
+    public boolean mayBeIsomorphicTo(final GraphFingerprint other) {
+        return equals(other);
+    }
+
+    /**
+     * Returns false if the graphs of this and the specified fingerprint are
+     * not isomorphic, or if no isomorphism maps the attribute constants to
+     * equal constants. The attribute parts are compared when both are known.
+     *
+     * @param other fingerprint of another graph
+     * @return false if the graphs cannot be isomorphic with equal constants
+     */
+    public boolean mayHaveEqualConstants(final GraphFingerprint other) {
+        if (!equals(other)) {
+            return false;
+        }
+        return !this.attributesKnown || !other.attributesKnown
+                || this.attributes == other.attributes;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GraphFingerprint)) {
+            return false;
+        }
+        final GraphFingerprint f = (GraphFingerprint) o;
+        return this.structure == f.structure
+                && this.nodes == f.nodes
+                && this.arcs == f.arcs;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.structure);
+    }
+
+    @Override
+    public String toString() {
+        return "GraphFingerprint[" + this.nodes + ", " + this.arcs + ", "
+                + Long.toHexString(this.structure)
+                + (this.attributesKnown ? ", " + Long.toHexString(this.attributes) : "") + "]";
+    }
+
+    /**
+     * Refines the node labels until the partition of the nodes is stable and
+     * returns the hash of the multiset of the node and arc labels.
+     */
+    private static long refine(final Graph g, final boolean withNodeTypes, final boolean withAttributes) {
+        final List<Node> nodeList = new ArrayList<>(g.getNodesSet());
+        final int n = nodeList.size();
+        final Map<Node, Integer> index = new HashMap<>(n * 2);
+        long[] label = new long[n];
+        for (int i = 0; i < n; i++) {
+            final Node v = nodeList.get(i);
+            index.put(v, Integer.valueOf(i));
+            long l = withNodeTypes ? mix(v.getType().convertToKey().hashCode()) : 1L;
+            if (withAttributes) {
+                l = mix(l ^ attributeHash(v.getAttribute()));
+            }
+            label[i] = l;
+        }
+        final int[] arcSource = new int[g.getArcsCount()];
+        final int[] arcTarget = new int[arcSource.length];
+        final long[] arcLabel = new long[arcSource.length];
+        int a = 0;
+        for (Arc arc : g.getArcsSet()) {
+            arcSource[a] = index.get(arc.getSource()).intValue();
+            arcTarget[a] = index.get(arc.getTarget()).intValue();
+            long l = mix(arc.getType().convertToKey().hashCode());
+            if (withAttributes) {
+                l = mix(l ^ attributeHash(arc.getAttribute()));
+            }
+            arcLabel[a] = l;
+            a++;
+        }
+        final long[][] neighbours = new long[n][];
+        final int[] degree = new int[n];
+        for (int i = 0; i < a; i++) {
+            degree[arcSource[i]]++;
+            degree[arcTarget[i]]++;
+        }
+        for (int i = 0; i < n; i++) {
+            neighbours[i] = new long[degree[i]];
+        }
+        int classes = distinct(label);
+        for (int round = 0; round < n; round++) {
+            Arrays.fill(degree, 0);
+            for (int i = 0; i < a; i++) {
+                final int s = arcSource[i];
+                final int t = arcTarget[i];
+                neighbours[s][degree[s]++] = mix(OUT ^ arcLabel[i] ^ mix(label[t]));
+                neighbours[t][degree[t]++] = mix(IN ^ arcLabel[i] ^ mix(label[s]));
+            }
+            final long[] next = new long[n];
+            for (int i = 0; i < n; i++) {
+                next[i] = mix(label[i] ^ multiset(neighbours[i]));
+            }
+            final int nextClasses = distinct(next);
+            label = next;
+            if (nextClasses == classes) {
+                break;
+            }
+            classes = nextClasses;
+        }
+        long result = mix(n * 31L + a);
+        result = mix(result ^ multiset(label));
+        return mix(result ^ multiset(arcLabel));
+    }
+
+    private static boolean isConstant(final Graph g) {
+        for (Node v : g.getNodesSet()) {
+            if (!isConstant(v.getAttribute())) {
+                return false;
+            }
+        }
+        for (Arc arc : g.getArcsSet()) {
+            if (!isConstant(arc.getAttribute())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConstant(final AttrInstance attr) {
+        if (attr == null) {
+            return true;
+        }
+        final ValueTuple value = (ValueTuple) attr;
+        for (int i = 0; i < value.getNumberOfEntries(); i++) {
+            final ValueMember vm = value.getValueMemberAt(i);
+            final HandlerExpr expr = vm != null ? vm.getExpr() : null;
+            if (expr == null || !expr.isConstant()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long attributeHash(final AttrInstance attr) {
+        if (attr == null) {
+            return 0L;
+        }
+        final ValueTuple value = (ValueTuple) attr;
+        long h = 0L;
+        for (int i = 0; i < value.getNumberOfEntries(); i++) {
+            final ValueMember vm = value.getValueMemberAt(i);
+            final Object obj = vm.getExprAsObject();
+            h = mix(h ^ vm.getName().hashCode()) ^ (obj != null ? obj.hashCode() : 0);
+        }
+        return h;
+    }
+
+    /**
+     * Order independent hash of the specified values, sorts the array.
+     */
+    private static long multiset(final long[] values) {
+        Arrays.sort(values);
+        long h = values.length;
+        for (long v : values) {
+            h = mix(h ^ v);
+        }
+        return h;
+    }
+
+    private static int distinct(final long[] values) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The finalizer of SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import agg.attribute.handler.HandlerExpr;
+import agg.attribute.impl.ValueMember;
+import agg.attribute.impl.ValueTuple;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An undo journal of a graph, opened by {@link Graph#openJournal()}. The
+ * changes of the graph after the journal is opened are written to it: the
+ * created nodes and arcs, the removed nodes and arcs with their types,
+ * attribute values and ends, and the old attribute values of the objects,
+ * which are announced by the change <code>Change.WANT_MODIFY_OBJECT</code>
+ * before their attributes are changed, as all transformation steps do. The
+ * journal can be committed, which keeps the changes, or discarded, which
+ * takes the changes back.
+ *
+ * <p>
+ * A journal is not a separate graph and not a copy on write fork. The graph
+ * is changed in place, so everybody who holds the graph, its observers
+ * included, sees the changes at once and sees them taken back by a discard.
+ * Opening a journal costs O(1) and a change costs O(1) plus the size of the
+ * attribute tuple. Journals can be nested, the inner journal has to be
+ * committed or discarded before the outer one. Callers which need a second
+ * graph beside the original one still have to copy it.
+ *
+ * <p>
+ * A discard does not restore the identity of removed objects: it creates new
+ * nodes and arcs for the removed ones, and the old objects are disposed.
+ * {@link #getCurrent(GraphObject)} returns the new object of a removed one.
+ * The objects, which were not removed, keep their identity, so matches into
+ * the graph stay valid if the changes after the journal was opened did not
+ * remove objects.
+ *
+ * @author Janusch Rentenatus
+ */
+public class GraphJournal {
+
+    private final Log itsLog;
+    private final int itsMark;
+    private boolean open = true;
+
+    private GraphJournal(final Log log, final int mark) {
+        this.itsLog = log;
+        this.itsMark = mark;
+    }
+
+    /**
+     * Returns the graph of this journal.
+     *
+     * @return the graph
+     */
+    public Graph getGraph() {
+        return this.itsLog.graph;
+    }
+
+    /**
+     * Returns true if this journal is neither committed nor discarded.
+     *
+     * @return true if the journal is open
+     */
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    /**
+     * Returns the count of the changes written since this journal was opened.
+     *
+     * @return the count of changes
+     */
+    public int getChangeCount() {
+        return this.open ? this.itsLog.entries.size() - this.itsMark : 0;
+    }
+
+    /**
+     * Keeps the changes since this journal was opened. The changes of a
+     * nested journal become changes of the outer journal.
+     */
+    public void commit() {
+        synchronized (this.itsLog.graph) {
+            this.itsLog.close(this);
+        }
+    }
+
+    /**
+     * Takes back the changes since this journal was opened in reverse order.
+     */
+    public void discard() {
+        synchronized (this.itsLog.graph) {
+            this.itsLog.check(this);
+            this.itsLog.undo(this.itsMark);
+            this.itsLog.close(this);
+        }
+    }
+
+    /**
+     * Returns the object, which replaces the specified object after a discard
+     * of a journal of the same graph, or the object itself.
+     *
+     * @param go a node or an arc of the graph
+     * @return the current object
+     */
+    public GraphObject getCurrent(final GraphObject go) {
+        return this.itsLog.resolve(go);
+    }
+
+    /**
+     * The log of the changes of a graph while a journal is open.
+     */
+    static final class Log {
+
+        private static final int CREATED = 0;
+        private static final int REMOVED = 1;
+        private static final int MODIFIED = 2;
+
+        private final Graph graph;
+        private final List<Entry> entries = new ArrayList<>();
+        private final List<GraphJournal> marks = new ArrayList<>();
+        private final Map<GraphObject, GraphObject> replaced = new IdentityHashMap<>();
+        private boolean undoing;
+
+        Log(final Graph g) {
+            this.graph = g;
+        }
+
+        GraphJournal open() {
+            final GraphJournal f = new GraphJournal(this, this.entries.size());
+            this.marks.add(f);
+            return f;
+        }
+
+        void created(final GraphObject go) {
+            if (!this.undoing) {
+                this.entries.add(new Entry(CREATED, go));
+            }
+        }
+
+        void removed(final GraphObject go) {
+            if (!this.undoing && go.getType() != null) {
+                final Entry e = new Entry(REMOVED, go);
+                e.type = go.getType();
+                e.values = valuesOf(go);
+                e.name = go.getObjectName();
+                e.contextUsage = go.getContextUsage();
+                if (go.isArc()) {
+                    e.source = (Node) ((Arc) go).getSource();
+                    e.target = (Node) ((Arc) go).getTarget();
+                }
+                this.entries.add(e);
+            }
+        }
+
+        void modifying(final GraphObject go) {
+            if (!this.undoing && go.getAttribute() != null) {
+                final Entry e = new Entry(MODIFIED, go);
+                e.values = valuesOf(go);
+                this.entries.add(e);
+            }
+        }
+
+        GraphObject resolve(final GraphObject go) {
+            GraphObject current = go;
+            GraphObject next = this.replaced.get(current);
+            while (next != null) {
+                current = next;
+                next = this.replaced.get(current);
+            }
+            return current;
+        }
+
+        void check(final GraphJournal f) {
+            if (!f.open) {
+                throw new IllegalStateException("The journal is already closed.");
+            }
+            if (this.marks.get(this.marks.size() - 1) != f) {
+                throw new IllegalStateException("A nested journal is still open.");
+            }
+        }
+
+        void close(final GraphJournal f) {
+            check(f);
+            f.open = false;
+            this.marks.remove(this.marks.size() - 1);
+            if (this.marks.isEmpty()) {
+                this.entries.clear();
+                this.graph.endJournal(this);
+            }
+        }
+
+        void undo(final int mark) {
+            this.undoing = true;
+            try {
+                for (int i = this.entries.size() - 1; i >= mark; i--) {
+                    undo(this.entries.remove(i));
+                }
+            } finally {
+                this.undoing = false;
+            }
+        }
+
+        private void undo(final Entry e) {
+            final GraphObject go = resolve(e.object);
+            switch (e.kind) {
+                case CREATED:
+                    if (this.graph.isElement(go)) {
+                        if (go.isArc()) {
+                            this.graph.destroyArcFast((Arc) go);
+                        } else {
+                            this.graph.destroyNodeFast((Node) go);
+                        }
+                    }
+                    break;
+                case REMOVED:
+                    final GraphObject restored = e.source == null
+                            ? this.graph.newNodeFast(e.type)
+                            : this.graph.newArcFast(e.type,
+                                    (Node) resolve(e.source), (Node) resolve(e.target));
+                    restored.setObjectName(e.name);
+                    restored.setContextUsage(e.contextUsage);
+                    setValues(restored, e.values);
+                    this.replaced.put(e.object, restored);
+                    break;
+                default:
+                    setValues(go, e.values);
+                    break;
+            }
+        }
+
+        private static HandlerExpr[] valuesOf(final GraphObject go) {
+            final ValueTuple value = (ValueTuple) go.getAttribute();
+            if (value == null) {
+                return null;
+            }
+            final HandlerExpr[] values = new HandlerExpr[value.getNumberOfEntries()];
+            for (int i = 0; i < values.length; i++) {
+                final ValueMember vm = value.getValueMemberAt(i);
+                final HandlerExpr expr = (vm != null) ? vm.getExpr() : null;
+                values[i] = (expr != null) ? expr.getCopy() : null;
+            }
+            return values;
+        }
+
+        private static void setValues(final GraphObject go, final HandlerExpr[] values) {
+            final ValueTuple value = (ValueTuple) go.getAttribute();
+            if (values == null || value == null) {
+                return;
+            }
+            final int length = Math.min(values.length, value.getNumberOfEntries());
+            for (int i = 0; i < length; i++) {
+                final ValueMember vm = value.getValueMemberAt(i);
+                if (vm != null) {
+                    vm.setExpr(values[i]);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final int kind;
+        final GraphObject object;
+        Type type;
+        HandlerExpr[] values;
+        String name;
+        int contextUsage;
+        Node source;
+        Node target;
+
+        Entry(final int kind, final GraphObject object) {
+            this.kind = kind;
+            this.object = object;
+        }
+    }
+}
@@ -293,6 +293,9 @@ public abstract class GraphObject implements GraphElement, XMLObject, AttrObserv
         if (inputVector != null && inputVector.nullOutAtAttrChange()) {
             inputVector = null;
         }
+        if (this.itsContext != null) {
+            this.itsContext.attributeChanged(this);
+        }
     }
 
     /**
@@ -0,0 +1,858 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import agg.attribute.AttrTypeMember;
+import agg.attribute.handler.AttrHandler;
+import agg.attribute.handler.HandlerExpr;
+import agg.attribute.impl.AttrTupleManager;
+import agg.attribute.impl.DeclTuple;
+import agg.attribute.impl.ValueMember;
+import agg.attribute.impl.ValueTuple;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Binary snapshot of host graphs. A snapshot is much faster to write and to
+ * read than the XML file of a grammar and is meant to save the host graph
+ * between the phases of a long transformation.
+ *
+ * <p>
+ * The file contains the sections of the graphs, a dictionary of the used
+ * types, a string table and a directory at the end. A graph section holds the
+ * node and arc arrays, the references are indices of the type dictionary, the
+ * string table and the node array, followed by the attribute values in
+ * columns of one attribute member of one type. Values of the primitive types
+ * and strings are written directly, expressions as text and other objects by
+ * Java serialization. The file is read through memory mapped windows.
+ *
+ * <p>
+ * The types are found by their keys in the type set of the loaded graph. A
+ * type which is not found is created with its attribute members and parents.
+ *
+ * @author Janusch Rentenatus
+ */
+final class GraphSnapshot {
+
+    static final int MAGIC = 0x41474753;
+    static final int VERSION = 1;
+
+    private static final int TAIL_SIZE = 8 + 8 + 8 + 4;
+    private static final long WINDOW = 1L << 28;
+
+    private static final byte NODE_TYPE = 0;
+    private static final byte ARC_TYPE = 1;
+
+    private static final byte UNSET = 0;
+    private static final byte CONSTANT = 1;
+    private static final byte EXPRESSION = 2;
+    private static final byte SERIALIZED = 3;
+
+    private static final byte K_OBJECT = 0;
+    private static final byte K_INT = 1;
+    private static final byte K_LONG = 2;
+    private static final byte K_SHORT = 3;
+    private static final byte K_BYTE = 4;
+    private static final byte K_CHAR = 5;
+    private static final byte K_BOOLEAN = 6;
+    private static final byte K_FLOAT = 7;
+    private static final byte K_DOUBLE = 8;
+    private static final byte K_STRING = 9;
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the specified graphs.
+     */
+    static void save(final String fileName, final List<Graph> graphs) throws IOException {
+        try (CountingOutputStream counter = new CountingOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+                DataOutputStream out = new DataOutputStream(counter)) {
+            Writer w = new Writer(out);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            long[] graphOffsets = new long[graphs.size()];
+            for (int i = 0; i < graphs.size(); i++) {
+                out.flush();
+                graphOffsets[i] = counter.count;
+                w.writeGraph(graphs.get(i));
+            }
+            out.flush();
+            long typesOffset = counter.count;
+            w.writeTypes();
+            out.flush();
+            long stringsOffset = counter.count;
+            w.writeStrings();
+            out.flush();
+            long directoryOffset = counter.count;
+            out.writeInt(graphOffsets.length);
+            for (long offset : graphOffsets) {
+                out.writeLong(offset);
+            }
+            out.writeLong(directoryOffset);
+            out.writeLong(typesOffset);
+            out.writeLong(stringsOffset);
+            out.writeInt(MAGIC);
+        }
+    }
+
+    /**
+     * Reads a snapshot. The specified function returns the graph to fill for
+     * the graph with the given index of the snapshot or null to skip it.
+     *
+     * @return the number of graphs of the snapshot
+     */
+    static int load(final String fileName, final TypeSet typeSet,
+            final IntFunction<Graph> graphAt) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            MappedInput in = new MappedInput(channel);
+            if (in.size < 8 + TAIL_SIZE) {
+                throw new IOException(fileName + " is not a graph snapshot.");
+            }
+            in.position(0);
+            if (in.getInt() != MAGIC) {
+                throw new IOException(fileName + " is not a graph snapshot.");
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException(fileName + ": unsupported snapshot version " + version);
+            }
+            in.position(in.size - TAIL_SIZE);
+            long directoryOffset = in.getLong();
+            long typesOffset = in.getLong();
+            long stringsOffset = in.getLong();
+            if (in.getInt() != MAGIC) {
+                throw new IOException(fileName + ": the snapshot is incomplete.");
+            }
+            Reader r = new Reader(in, typeSet);
+            in.position(stringsOffset);
+            r.readStrings();
+            in.position(typesOffset);
+            r.readTypes();
+            in.position(directoryOffset);
+            int count = in.getInt();
+            long[] graphOffsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                graphOffsets[i] = in.getLong();
+            }
+            for (int i = 0; i < count; i++) {
+                Graph g = graphAt.apply(i);
+                if (g != null) {
+                    in.position(graphOffsets[i]);
+                    r.readGraph(g);
+                }
+            }
+            return count;
+        }
+    }
+
+    private static byte kindOf(final String typeName) {
+        if (typeName == null) {
+            return K_OBJECT;
+        }
+        switch (typeName) {
+            case "int":
+            case "Integer":
+                return K_INT;
+            case "long":
+            case "Long":
+                return K_LONG;
+            case "short":
+            case "Short":
+                return K_SHORT;
+            case "byte":
+            case "Byte":
+                return K_BYTE;
+            case "char":
+            case "Character":
+                return K_CHAR;
+            case "boolean":
+            case "Boolean":
+                return K_BOOLEAN;
+            case "float":
+            case "Float":
+                return K_FLOAT;
+            case "double":
+            case "Double":
+                return K_DOUBLE;
+            case "String":
+                return K_STRING;
+            default:
+                return K_OBJECT;
+        }
+    }
+
+    /**
+     * Writes graph sections and collects their types and strings.
+     */
+    private static final class Writer {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final List<String> stringList = new ArrayList<>();
+        private final Map<Type, Integer> types = new HashMap<>();
+        private final List<Type> typeList = new ArrayList<>();
+
+        Writer(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeGraph(final Graph g) throws IOException {
+            List<Node> nodes = new ArrayList<>(g.getNodesSet());
+            List<Arc> arcs = new ArrayList<>(g.getArcsSet());
+            this.out.writeInt(stringIndex(g.getName()));
+            this.out.writeInt(stringIndex(g.getKind()));
+            this.out.writeInt(nodes.size());
+            this.out.writeInt(arcs.size());
+            Map<Node, Integer> nodeIndex = new HashMap<>(nodes.size() * 2);
+            Map<Integer, List<GraphObject>> nodesOfType = new HashMap<>();
+            for (Node n : nodes) {
+                int t = typeIndex(n.getType());
+                nodeIndex.put(n, Integer.valueOf(nodeIndex.size()));
+                nodesOfType.computeIfAbsent(Integer.valueOf(t), k -> new ArrayList<>()).add(n);
+                this.out.writeInt(t);
+                this.out.writeInt(nameIndex(n));
+            }
+            Map<Integer, List<GraphObject>> arcsOfType = new HashMap<>();
+            for (Arc a : arcs) {
+                int t = typeIndex(a.getType());
+                arcsOfType.computeIfAbsent(Integer.valueOf(t), k -> new ArrayList<>()).add(a);
+                this.out.writeInt(t);
+                this.out.writeInt(nodeIndex.get(a.getSource()).intValue());
+                this.out.writeInt(nodeIndex.get(a.getTarget()).intValue());
+                this.out.writeInt(nameIndex(a));
+            }
+            nodeIndex.clear();
+            List<Object[]> columns = new ArrayList<>();
+            collectColumns(nodesOfType, columns);
+            collectColumns(arcsOfType, columns);
+            this.out.writeInt(columns.size());
+            for (Object[] column : columns) {
+                writeColumn(((Integer) column[0]).intValue(), (String) column[1],
+                        (List<?>) column[2]);
+            }
+        }
+
+        /**
+         * A column is the type index, the member name and the objects of
+         * this type.
+         */
+        private void collectColumns(final Map<Integer, List<GraphObject>> objectsOfType,
+                final List<Object[]> columns) {
+            for (Map.Entry<Integer, List<GraphObject>> e : objectsOfType.entrySet()) {
+                ValueTuple value = null;
+                for (GraphObject o : e.getValue()) {
+                    if (o.getAttribute() != null) {
+                        value = (ValueTuple) o.getAttribute();
+                        break;
+                    }
+                }
+                if (value == null) {
+                    continue;
+                }
+                for (int i = 0; i < value.getNumberOfEntries(); i++) {
+                    columns.add(new Object[]{e.getKey(),
+                        value.getValueMemberAt(i).getName(), e.getValue()});
+                }
+            }
+        }
+
+        private void writeColumn(final int type, final String member,
+                final List<?> objects) throws IOException {
+            this.out.writeInt(type);
+            this.out.writeInt(stringIndex(member));
+            byte kind = K_OBJECT;
+            for (Object o : objects) {
+                ValueMember vm = memberOf((GraphObject) o, member);
+                if (vm != null) {
+                    kind = kindOf(vm.getDeclaration().getTypeName());
+                    break;
+                }
+            }
+            this.out.writeByte(kind);
+            for (Object o : objects) {
+                writeValue(memberOf((GraphObject) o, member), kind);
+            }
+        }
+
+        private ValueMember memberOf(final GraphObject o, final String member) {
+            if (o.getAttribute() == null) {
+                return null;
+            }
+            return ((ValueTuple) o.getAttribute()).getValueMemberAt(member);
+        }
+
+        private void writeValue(final ValueMember vm, final byte kind) throws IOException {
+            if (vm == null || !vm.isSet()) {
+                this.out.writeByte(UNSET);
+                return;
+            }
+            HandlerExpr expr = vm.getExpr();
+            if (!expr.isConstant()) {
+                this.out.writeByte(EXPRESSION);
+                this.out.writeInt(stringIndex(vm.getExprAsText()));
+                return;
+            }
+            Object v = expr.getValue();
+            while (v instanceof HandlerExpr) {
+                v = ((HandlerExpr) v).getValue();
+            }
+            if (!writeConstant(v, kind)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                    oos.writeObject(v);
+                }
+                this.out.writeByte(SERIALIZED);
+                this.out.writeInt(bytes.size());
+                bytes.writeTo(this.out);
+            }
+        }
+
+        private boolean writeConstant(final Object v, final byte kind) throws IOException {
+            switch (kind) {
+                case K_INT:
+                    if (v instanceof Integer) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeInt(((Integer) v).intValue());
+                        return true;
+                    }
+                    return false;
+                case K_LONG:
+                    if (v instanceof Long) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeLong(((Long) v).longValue());
+                        return true;
+                    }
+                    return false;
+                case K_SHORT:
+                    if (v instanceof Short) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeShort(((Short) v).shortValue());
+                        return true;
+                    }
+                    return false;
+                case K_BYTE:
+                    if (v instanceof Byte) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeByte(((Byte) v).byteValue());
+                        return true;
+                    }
+                    return false;
+                case K_CHAR:
+                    if (v instanceof Character) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeChar(((Character) v).charValue());
+                        return true;
+                    }
+                    return false;
+                case K_BOOLEAN:
+                    if (v instanceof Boolean) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeBoolean(((Boolean) v).booleanValue());
+                        return true;
+                    }
+                    return false;
+                case K_FLOAT:
+                    if (v instanceof Float) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeFloat(((Float) v).floatValue());
+                        return true;
+                    }
+                    return false;
+                case K_DOUBLE:
+                    if (v instanceof Double) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeDouble(((Double) v).doubleValue());
+                        return true;
+                    }
+                    return false;
+                case K_STRING:
+                    if (v instanceof String) {
+                        this.out.writeByte(CONSTANT);
+                        this.out.writeInt(stringIndex((String) v));
+                        return true;
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        void writeTypes() throws IOException {
+            // the list grows by the parents
+            for (int i = 0; i < this.typeList.size(); i++) {
+                for (Type p : this.typeList.get(i).getParents()) {
+                    typeIndex(p);
+                }
+            }
+            this.out.writeInt(this.typeList.size());
+            for (Type t : this.typeList) {
+                this.out.writeByte(t.isArcType() ? ARC_TYPE : NODE_TYPE);
+                this.out.writeInt(stringIndex(t.getStringRepr()));
+                this.out.writeInt(stringIndex(t.getAdditionalRepr()));
+                List<Type> parents = t.getParents();
+                this.out.writeInt(parents.size());
+                for (Type p : parents) {
+                    this.out.writeInt(this.types.get(p).intValue());
+                }
+                List<AttrTypeMember> own = new ArrayList<>();
+                DeclTuple decl = (DeclTuple) t.getAttrType();
+                if (decl != null) {
+                    for (int i = 0; i < decl.getNumberOfEntries(); i++) {
+                        AttrTypeMember m = (AttrTypeMember) decl.getMemberAt(i);
+                        if (m != null && m.getHoldingTuple() == decl && m.getHandler() != null) {
+                            own.add(m);
+                        }
+                    }
+                }
+                this.out.writeBoolean(decl != null);
+                this.out.writeInt(own.size());
+                for (AttrTypeMember m : own) {
+                    this.out.writeInt(stringIndex(m.getHandler().getName()));
+                    this.out.writeInt(stringIndex(m.getTypeName()));
+                    this.out.writeInt(stringIndex(m.getName()));
+                }
+            }
+        }
+
+        void writeStrings() throws IOException {
+            this.out.writeInt(this.stringList.size());
+            for (String s : this.stringList) {
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                this.out.writeInt(b.length);
+                this.out.write(b);
+            }
+        }
+
+        private int typeIndex(final Type t) {
+            Integer i = this.types.get(t);
+            if (i == null) {
+                i = Integer.valueOf(this.typeList.size());
+                this.types.put(t, i);
+                this.typeList.add(t);
+            }
+            return i.intValue();
+        }
+
+        private int nameIndex(final GraphObject o) {
+            String name = o.getObjectName();
+            return name == null || name.isEmpty() ? -1 : stringIndex(name);
+        }
+
+        private int stringIndex(final String s) {
+            if (s == null) {
+                return -1;
+            }
+            Integer i = this.strings.get(s);
+            if (i == null) {
+                i = Integer.valueOf(this.stringList.size());
+                this.strings.put(s, i);
+                this.stringList.add(s);
+            }
+            return i.intValue();
+        }
+    }
+
+    /**
+     * Reads the sections of a snapshot.
+     */
+    private static final class Reader {
+
+        private final MappedInput in;
+        private final TypeSet typeSet;
+        private String[] strings;
+        private Type[] types;
+
+        Reader(final MappedInput in, final TypeSet typeSet) {
+            this.in = in;
+            this.typeSet = typeSet;
+        }
+
+        void readStrings() throws IOException {
+            int count = this.in.getInt();
+            this.strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                int len = this.in.getInt();
+                this.strings[i] = this.in.getString(len);
+            }
+        }
+
+        void readTypes() throws IOException {
+            Map<String, Type> byKey = new HashMap<>();
+            for (Type t : this.typeSet.getTypeList()) {
+                byKey.putIfAbsent(t.convertToKey(), t);
+            }
+            int count = this.in.getInt();
+            this.types = new Type[count];
+            int[][] parents = new int[count][];
+            boolean[] created = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                byte kind = this.in.get();
+                String name = string(this.in.getInt());
+                String additionalRepr = string(this.in.getInt());
+                parents[i] = new int[this.in.getInt()];
+                for (int j = 0; j < parents[i].length; j++) {
+                    parents[i][j] = this.in.getInt();
+                }
+                boolean attributed = this.in.get() != 0;
+                int members = this.in.getInt();
+                Type t = byKey.get(name.concat("%").concat(additionalRepr));
+                if (t == null) {
+                    t = kind == ARC_TYPE
+                            ? this.typeSet.createArcType(attributed)
+                            : this.typeSet.createNodeType(attributed);
+                    t.setStringRepr(name);
+                    t.setAdditionalRepr(additionalRepr);
+                    byKey.put(t.convertToKey(), t);
+                    created[i] = true;
+                }
+                for (int j = 0; j < members; j++) {
+                    String handlerName = string(this.in.getInt());
+                    String typeName = string(this.in.getInt());
+                    String memberName = string(this.in.getInt());
+                    if (created[i]) {
+                        AttrHandler handler = AttrTupleManager.getDefaultManager().getHandler(handlerName);
+                        if (handler == null) {
+                            throw new IOException("Unknown attribute handler " + handlerName);
+                        }
+                        t.getAttrType().addMember(handler, typeName, memberName);
+                    }
+                }
+                this.types[i] = t;
+            }
+            for (int i = 0; i < count; i++) {
+                if (created[i]) {
+                    for (int p : parents[i]) {
+                        TypeError error = this.typeSet.addInheritanceRelation(this.types[i], this.types[p]);
+                        if (error != null) {
+                            throw new IOException(error.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+
+        void readGraph(final Graph g) throws IOException {
+            g.setName(string(this.in.getInt()));
+            this.in.getInt(); // the kind is given by the owner of the graph
+            int nodeCount = this.in.getInt();
+            int arcCount = this.in.getInt();
+            Node[] nodes = new Node[nodeCount];
+            List<List<GraphObject>> nodesOfType = new ArrayList<>(this.types.length);
+            List<List<GraphObject>> arcsOfType = new ArrayList<>(this.types.length);
+            for (int i = 0; i < this.types.length; i++) {
+                nodesOfType.add(null);
+                arcsOfType.add(null);
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                int t = this.in.getInt();
+                Node n = new Node(type(t), g);
+                setName(n, this.in.getInt());
+                g.itsNodes.add(n);
+                g.attributed = g.attributed || n.getAttribute() != null;
+                nodes[i] = n;
+                objectsOf(nodesOfType, t).add(n);
+            }
+            putNodesToTypeObjectsMap(g, nodesOfType);
+            g.resetTypeUsage();
+            for (int i = 0; i < arcCount; i++) {
+                int t = this.in.getInt();
+                Node src = node(nodes, this.in.getInt());
+                Node tar = node(nodes, this.in.getInt());
+                Arc a = g.newArcFast(type(t), src, tar);
+                setName(a, this.in.getInt());
+                objectsOf(arcsOfType, t).add(a);
+            }
+            int columns = this.in.getInt();
+            for (int c = 0; c < columns; c++) {
+                int t = this.in.getInt();
+                String member = string(this.in.getInt());
+                byte kind = this.in.get();
+                List<GraphObject> objects = nodesOfType.get(t);
+                if (objects == null) {
+                    objects = arcsOfType.get(t);
+                }
+                if (objects == null) {
+                    throw new IOException("Attribute column of unused type " + type(t).getName());
+                }
+                for (GraphObject o : objects) {
+                    readValue(o, member, kind);
+                }
+            }
+            g.changed = true;
+        }
+
+        /**
+         * The nodes of a type without parents go into one set of the type
+         * objects map, the other nodes are added one by one.
+         */
+        private void putNodesToTypeObjectsMap(final Graph g, final List<List<GraphObject>> nodesOfType) {
+            for (int t = 0; t < nodesOfType.size(); t++) {
+                List<GraphObject> objects = nodesOfType.get(t);
+                if (objects == null) {
+                    continue;
+                }
+                if (this.types[t].hasParent()) {
+                    for (GraphObject o : objects) {
+                        g.addToTypeObjectsMap(o);
+                    }
+                } else {
+                    final int id = g.getTypeSet().getTypeId(this.types[t]);
+                    HashSet<GraphObject> domain = g.itsTypeObjectsMap.get(id);
+                    if (domain == null) {
+                        domain = new LinkedHashSet<>(objects.size() * 2);
+                        g.itsTypeObjectsMap.set(id, domain);
+                    }
+                    domain.addAll(objects);
+                }
+            }
+        }
+
+        private void readValue(final GraphObject o, final String member, final byte kind) throws IOException {
+            byte state = this.in.get();
+            Object value;
+            switch (state) {
+                case UNSET:
+                    return;
+                case EXPRESSION:
+                    value = string(this.in.getInt());
+                    break;
+                case CONSTANT:
+                    value = readConstant(kind);
+                    break;
+                case SERIALIZED:
+                    int len = this.in.getInt();
+                    byte[] b = new byte[len];
+                    this.in.get(b);
+                    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(b))) {
+                        value = ois.readObject();
+                    } catch (ClassNotFoundException ex) {
+                        throw new IOException(ex);
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown attribute value state " + state);
+            }
+            if (o.getAttribute() == null) {
+                o.createAttributeInstance();
+            }
+            ValueMember vm = ((ValueTuple) o.getAttribute()).getValueMemberAt(member);
+            if (vm == null) {
+                throw new IOException("Attribute member " + member + " of type "
+                        + o.getType().getName() + " not found.");
+            }
+            if (state == EXPRESSION) {
+                vm.setExprAsText((String) value);
+            } else {
+                vm.setExprAsObject(value);
+            }
+        }
+
+        private Object readConstant(final byte kind) throws IOException {
+            switch (kind) {
+                case K_INT:
+                    return Integer.valueOf(this.in.getInt());
+                case K_LONG:
+                    return Long.valueOf(this.in.getLong());
+                case K_SHORT:
+                    return Short.valueOf(this.in.getShort());
+                case K_BYTE:
+                    return Byte.valueOf(this.in.get());
+                case K_CHAR:
+                    return Character.valueOf(this.in.getChar());
+                case K_BOOLEAN:
+                    return Boolean.valueOf(this.in.get() != 0);
+                case K_FLOAT:
+                    return Float.valueOf(this.in.getFloat());
+                case K_DOUBLE:
+                    return Double.valueOf(this.in.getDouble());
+                case K_STRING:
+                    return string(this.in.getInt());
+                default:
+                    throw new IOException("Unknown attribute column kind " + kind);
+            }
+        }
+
+        private List<GraphObject> objectsOf(final List<List<GraphObject>> objectsOfType, final int t) {
+            List<GraphObject> objects = objectsOfType.get(t);
+            if (objects == null) {
+                objects = new ArrayList<>();
+                objectsOfType.set(t, objects);
+            }
+            return objects;
+        }
+
+        private void setName(final GraphObject o, final int name) throws IOException {
+            if (name != -1) {
+                o.setObjectName(string(name));
+            }
+        }
+
+        private Node node(final Node[] nodes, final int i) throws IOException {
+            if (i < 0 || i >= nodes.length) {
+                throw new IOException("Node index " + i + " out of range.");
+            }
+            return nodes[i];
+        }
+
+        private Type type(final int i) throws IOException {
+            if (i < 0 || i >= this.types.length) {
+                throw new IOException("Type index " + i + " out of range.");
+            }
+            return this.types[i];
+        }
+
+        private String string(final int i) throws IOException {
+            if (i == -1) {
+                return null;
+            }
+            if (i < 0 || i >= this.strings.length) {
+                throw new IOException("String index " + i + " out of range.");
+            }
+            return this.strings[i];
+        }
+    }
+
+    /**
+     * Reads a file through memory mapped windows, so files larger than one
+     * mapping can be read.
+     */
+    private static final class MappedInput {
+
+        private final FileChannel channel;
+        final long size;
+        private long base;
+        private ByteBuffer buffer;
+
+        MappedInput(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        void position(final long pos) throws IOException {
+            if (this.buffer != null && pos >= this.base && pos <= this.base + this.buffer.limit()) {
+                this.buffer.position((int) (pos - this.base));
+            } else {
+                map(pos);
+            }
+        }
+
+        private void map(final long pos) throws IOException {
+            this.base = pos;
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, pos,
+                    Math.min(WINDOW, this.size - pos));
+        }
+
+        private void ensure(final int n) throws IOException {
+            if (this.buffer.remaining() < n) {
+                long pos = this.base + this.buffer.position();
+                if (pos + n > this.size) {
+                    throw new IOException("Unexpected end of the snapshot.");
+                }
+                map(pos);
+            }
+        }
+
+        byte get() throws IOException {
+            ensure(1);
+            return this.buffer.get();
+        }
+
+        void get(final byte[] b) throws IOException {
+            int done = 0;
+            while (done < b.length) {
+                ensure(1);
+                int n = Math.min(b.length - done, this.buffer.remaining());
+                this.buffer.get(b, done, n);
+                done += n;
+            }
+        }
+
+        short getShort() throws IOException {
+            ensure(2);
+            return this.buffer.getShort();
+        }
+
+        char getChar() throws IOException {
+            ensure(2);
+            return this.buffer.getChar();
+        }
+
+        int getInt() throws IOException {
+            ensure(4);
+            return this.buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(8);
+            return this.buffer.getLong();
+        }
+
+        float getFloat() throws IOException {
+            ensure(4);
+            return this.buffer.getFloat();
+        }
+
+        double getDouble() throws IOException {
+            ensure(8);
+            return this.buffer.getDouble();
+        }
+
+        String getString(final int len) throws IOException {
+            byte[] b = new byte[len];
+            get(b);
+            return new String(b, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Counts the written bytes, DataOutputStream counts up to 2 GB only.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+    }
+}
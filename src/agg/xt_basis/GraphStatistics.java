@@ -0,0 +1,219 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of a graph for the estimation of search plans: the cardinality
+ * of the domain of each type and arc key and the histograms of the degrees of
+ * the nodes of a type for an arc type and direction.
+ *
+ * <p>
+ * The cardinalities are the sizes of the sets of the type objects map, so
+ * they are always up to date. A histogram is counted from the arc buckets of
+ * the nodes, when it is asked for, and kept until the count of the nodes of
+ * the type or the count of the arcs of the graph drifted by more than an
+ * eighth.
+ *
+ * @author Janusch Rentenatus
+ * @see Graph#getStatistics()
+ */
+public final class GraphStatistics {
+
+    private final Graph graph;
+    private final Map<List<Object>, Degrees> degrees = new HashMap<>();
+
+    GraphStatistics(final Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Returns the count of the nodes of the specified type and of its child
+     * types.
+     *
+     * @param nodeType a node type
+     * @return the count of nodes
+     */
+    public int getCardinality(final Type nodeType) {
+        final HashSet<GraphObject> domain = domain(this.graph.getTypeSet().getTypeId(nodeType));
+        return domain == null ? 0 : domain.size();
+    }
+
+    /**
+     * Returns the count of the arcs of the specified arc key.
+     *
+     * @param sourceType the type of the source nodes
+     * @param arcType the arc type
+     * @param targetType the type of the target nodes
+     * @return the count of arcs
+     */
+    public int getCardinality(final Type sourceType, final Type arcType, final Type targetType) {
+        final HashSet<GraphObject> domain = domain(
+                this.graph.getTypeSet().getArcKeyId(sourceType, arcType, targetType));
+        return domain == null ? 0 : domain.size();
+    }
+
+    /**
+     * Returns the histogram of the degrees of the nodes of the specified type
+     * for arcs of the specified arc type. In an undirected graph all arcs of a
+     * node are counted as outgoing arcs.
+     *
+     * @param nodeType the type of the nodes
+     * @param arcType the arc type
+     * @param otherType the type of the nodes at the other end of the arcs or
+     * null for all nodes
+     * @param outgoing true for the outgoing arcs, false for the incoming arcs
+     * @return the degrees
+     */
+    public synchronized Degrees getDegrees(final Type nodeType, final Type arcType, final Type otherType,
+            final boolean outgoing) {
+        final List<Object> key = Arrays.asList(nodeType, arcType, otherType, outgoing);
+        final int nodes = getCardinality(nodeType);
+        final int arcs = this.graph.getArcsCount();
+        Degrees result = this.degrees.get(key);
+        if (result == null || drifted(result.countedNodes, nodes) || drifted(result.countedArcs, arcs)) {
+            result = new Degrees(nodes, arcs);
+            final HashSet<GraphObject> domain = domain(this.graph.getTypeSet().getTypeId(nodeType));
+            if (domain != null) {
+                for (GraphObject go : domain) {
+                    final Node n = (Node) go;
+                    result.add(outgoing
+                            ? n.getNumberOfOutgoingArcsInBucket(arcType, otherType)
+                            : n.getNumberOfIncomingArcsInBucket(arcType, otherType));
+                }
+            }
+            this.degrees.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Forgets all histograms.
+     */
+    public synchronized void clear() {
+        this.degrees.clear();
+    }
+
+    /**
+     * Returns true, if the counts differ by more than an eighth.
+     *
+     * @param before the count before
+     * @param now the count now
+     * @return true, if the count drifted
+     */
+    public static boolean drifted(final double before, final double now) {
+        final double a = before + 1;
+        final double b = now + 1;
+        return a > b * 1.125 || b > a * 1.125;
+    }
+
+    private HashSet<GraphObject> domain(final int id) {
+        final TypeObjectsMap map = this.graph.itsTypeObjectsMap;
+        if (map.isEmpty()) {
+            this.graph.fillTypeObjectsMap();
+        }
+        return map.get(id);
+    }
+
+    /**
+     * The degrees of the nodes of a type for an arc type and direction. The
+     * histogram counts the nodes by the binary logarithm of their degree:
+     * bucket 0 holds the nodes without arcs, bucket <i>b</i> the nodes with a
+     * degree from 2<sup><i>b</i>-1</sup> to 2<sup><i>b</i></sup>-1.
+     */
+    public static final class Degrees {
+
+        private final int countedNodes;
+        private final int countedArcs;
+        private int nodes;
+        private long sum;
+        private long squares;
+        private int max;
+        private int[] buckets = new int[1];
+
+        Degrees(final int countedNodes, final int countedArcs) {
+            this.countedNodes = countedNodes;
+            this.countedArcs = countedArcs;
+        }
+
+        void add(final int degree) {
+            this.nodes++;
+            this.sum += degree;
+            this.squares += (long) degree * degree;
+            this.max = Math.max(this.max, degree);
+            final int bucket = 32 - Integer.numberOfLeadingZeros(degree);
+            if (bucket >= this.buckets.length) {
+                this.buckets = Arrays.copyOf(this.buckets, bucket + 1);
+            }
+            this.buckets[bucket]++;
+        }
+
+        /**
+         * Returns the count of the nodes.
+         */
+        public int getNodes() {
+            return this.nodes;
+        }
+
+        /**
+         * Returns the sum of the degrees, that is the count of the arcs.
+         */
+        public long getSum() {
+            return this.sum;
+        }
+
+        /**
+         * Returns the maximal degree.
+         */
+        public int getMax() {
+            return this.max;
+        }
+
+        /**
+         * Returns the mean degree of the nodes.
+         */
+        public double getMean() {
+            return this.nodes == 0 ? 0 : (double) this.sum / this.nodes;
+        }
+
+        /**
+         * Returns the mean degree of the node at the end of an arc, which is
+         * the mean degree of the nodes weighted by their degree. For a skewed
+         * graph it is much greater than the mean degree.
+         */
+        public double getSizeBiasedMean() {
+            return this.sum == 0 ? 0 : (double) this.squares / this.sum;
+        }
+
+        /**
+         * Returns the count of the buckets of the histogram.
+         */
+        public int getBucketCount() {
+            return this.buckets.length;
+        }
+
+        /**
+         * Returns the count of the nodes in the specified bucket.
+         */
+        public int getBucket(final int bucket) {
+            return bucket < this.buckets.length ? this.buckets[bucket] : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Degrees[nodes=" + this.nodes + ", mean=" + getMean() + ", max=" + this.max
+                    + ", histogram=" + Arrays.toString(this.buckets) + "]";
+        }
+    }
+}
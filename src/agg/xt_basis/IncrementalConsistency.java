@@ -0,0 +1,475 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import agg.cons.AtomConstraint;
+import agg.cons.Formula;
+import agg.util.Change;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Observer;
+import java.util.Set;
+
+/**
+ * Checks the graph constraints of a grammar at a host graph after each
+ * transformation step by inspecting only the part of the host graph changed by
+ * the step.
+ *
+ * <p>
+ * The values of the atomic constraints at the host graph are kept across
+ * steps. An atomic constraint which was satisfied before a step can only be
+ * violated afterwards by a premise match containing a created or modified
+ * object, or by a premise match whose conclusion used a deleted or modified
+ * object. When every conclusion is connected to its premise, such a premise
+ * match contains a node near the deleted or modified objects, where "near"
+ * is the largest distance of a conclusion node to the premise. So only the
+ * premise matches at these anchor nodes are checked again. The formulas are
+ * evaluated with the resulting values, which gives the same verdict as
+ * {@link GraGra#checkGraphConsistency(Graph, List)}.
+ *
+ * <p>
+ * An atomic constraint is evaluated at the whole host graph when its value is
+ * not known, when it was violated before the step, or when a conclusion has a
+ * part not connected to the premise and the step deleted or modified objects.
+ * Changes of the host graph made outside {@link GraTra} steps forget all
+ * values.
+ *
+ * <p>
+ * A step can be tested at the host graph itself instead of at a copy of it:
+ * an undo journal of the host graph is opened by {@link #openJournal()}
+ * before the step, and the step is taken back by
+ * {@link #discard(GraphJournal)}, which uses the values of the atomic
+ * constraints before the step again. The step is made in the host graph
+ * itself, so its observers see the step and its undo.
+ *
+ * @author Janusch Rentenatus
+ */
+public class IncrementalConsistency {
+
+    /**
+     * Tick of the evaluations by {@link #check(List)}; the ticks used by
+     * formulas themselves are not negative, and -1 means no tick. Each check
+     * sets or resets the value of every atomic constraint for this tick.
+     */
+    private static final int TICK = -2;
+
+    private final GraGra grammar;
+    private final Graph host;
+    private final Map<AtomConstraint, Boolean> values = new HashMap<>();
+    private final Map<AtomConstraint, Integer> radius = new HashMap<>();
+    private StepDelta pending;
+    private Map<AtomConstraint, Boolean> journaled;
+    @SuppressWarnings("deprecation")
+    private final Observer observer = (o, arg) -> changed(arg);
+    private boolean inStep;
+    private int fullEvaluations;
+    private int localEvaluations;
+
+    /**
+     * Creates an incremental consistency check for the constraints of the
+     * specified grammar at the specified host graph and registers it as
+     * observer of the graph.
+     *
+     * @param gra the grammar
+     * @param host the host graph
+     */
+    public IncrementalConsistency(final GraGra gra, final Graph host) {
+        this.grammar = gra;
+        this.host = host;
+        this.host.addObserver(this.observer);
+    }
+
+    /**
+     * Returns the host graph of this check.
+     *
+     * @return the host graph
+     */
+    public Graph getHostGraph() {
+        return this.host;
+    }
+
+    /**
+     * Forgets all values and deregisters from the host graph.
+     */
+    public void dispose() {
+        reset();
+        this.host.deleteObserver(this.observer);
+    }
+
+    /**
+     * Forgets all values. Each atomic constraint will be evaluated at the
+     * whole host graph at the next check.
+     */
+    public void reset() {
+        this.values.clear();
+        this.radius.clear();
+        this.pending = null;
+        this.journaled = null;
+    }
+
+    /**
+     * Returns true if a step of the specified rule can be taken back by
+     * {@link #discard(GraphJournal)} so that its match stays valid, that is the
+     * rule is injective and does not delete objects.
+     *
+     * @param r the rule
+     * @return true if the steps of the rule can be undone
+     */
+    public static boolean canUndo(final Rule r) {
+        if (!r.isInjective()) {
+            return false;
+        }
+        for (GraphObject l : r.getLeft().getNodesSet()) {
+            if (r.getImage(l) == null) {
+                return false;
+            }
+        }
+        for (GraphObject l : r.getLeft().getArcsSet()) {
+            if (r.getImage(l) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of evaluations of an atomic constraint at the whole
+     * host graph done by this check since creation.
+     *
+     * @return the number of full evaluations
+     */
+    public int getFullEvaluations() {
+        return this.fullEvaluations;
+    }
+
+    /**
+     * Returns the number of evaluations of an atomic constraint at anchor
+     * nodes done since creation.
+     *
+     * @return the number of local evaluations
+     */
+    public int getLocalEvaluations() {
+        return this.localEvaluations;
+    }
+
+    /**
+     * Records the part of the host graph which will be deleted or modified by
+     * a step using the specified valid match. Has to be called directly before
+     * the step is executed.
+     *
+     * @param m the match of the step
+     * @return the recorded delta
+     */
+    public StepDelta beforeStep(final Match m) {
+        this.inStep = true;
+        final StepDelta delta = new StepDelta(m.getRule());
+        if (this.pending != null) {
+            // two steps without a check between them
+            this.values.clear();
+            this.pending = null;
+        }
+        final Rule r = m.getRule();
+        if (this.values.isEmpty()) {
+            return delta;
+        }
+        final Set<Node> starts = new LinkedHashSet<>();
+        for (GraphObject l : r.getLeft().getNodesSet()) {
+            addStarts(r, m, l, starts, delta);
+        }
+        for (GraphObject l : r.getLeft().getArcsSet()) {
+            addStarts(r, m, l, starts, delta);
+        }
+        if (delta.deletesOrModifies) {
+            int max = 0;
+            for (Map.Entry<AtomConstraint, Boolean> e : this.values.entrySet()) {
+                if (e.getValue().booleanValue()) {
+                    max = Math.max(max, radiusOf(e.getKey()));
+                }
+            }
+            delta.near.addAll(neighbourhood(starts, max));
+        }
+        return delta;
+    }
+
+    /**
+     * Records the objects created by a step. Has to be called directly after
+     * the step, also when the step failed.
+     *
+     * @param delta the delta recorded by {@link #beforeStep(Match)}
+     * @param comatch the co-match of the step, or null if the step failed
+     */
+    public void afterStep(final StepDelta delta, final Morphism comatch) {
+        this.inStep = false;
+        if (comatch == null) {
+            this.values.clear();
+            return;
+        }
+        if (this.values.isEmpty()) {
+            return;
+        }
+        final Set<Node> anchors = new LinkedHashSet<>();
+        for (Node n : delta.near) {
+            if (this.host.isElement(n)) {
+                anchors.add(n);
+            }
+        }
+        for (GraphObject rhsObj : StaticStep.getCreatedObjects(delta.rule, comatch)) {
+            final GraphObject img = comatch.getImage(rhsObj);
+            if (img != null) {
+                addNodesOf(img, anchors);
+            }
+        }
+        delta.anchors.addAll(anchors);
+        this.pending = delta;
+    }
+
+    /**
+     * Checks the specified graph constraints at the host graph. The values of
+     * the atomic constraints are updated by the delta of the last step.
+     *
+     * @param constraints the constraints to check
+     * @return true if the host graph satisfies all constraints
+     */
+    public boolean check(final List<Formula> constraints) {
+        final StepDelta delta = this.pending;
+        this.pending = null;
+        final List<AtomConstraint> atomics = this.grammar.getListOfAtomics();
+        for (AtomConstraint a : atomics) {
+            final Boolean known = this.values.remove(a);
+            Boolean value = known;
+            if (known != null && delta != null) {
+                if (known.booleanValue()
+                        && !(delta.deletesOrModifies && radiusOf(a) < 0)) {
+                    this.localEvaluations++;
+                    value = Boolean.valueOf(a.isValid() && a.evalAt(this.host, delta.anchors));
+                } else {
+                    // evaluated by the formula
+                    value = null;
+                }
+            }
+            if (value != null) {
+                a.setValueOfTick(TICK, value.booleanValue());
+                this.values.put(a, value);
+            } else {
+                // not taken from an earlier check
+                a.resetValueOfTick();
+            }
+        }
+        final boolean result = this.grammar.checkGraphConsistency(this.host, constraints, TICK);
+        for (AtomConstraint a : atomics) {
+            if (!this.values.containsKey(a)) {
+                final Boolean value = a.getValueOfTick(TICK);
+                if (value != null) {
+                    this.fullEvaluations++;
+                    this.values.put(a, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens an undo journal of the host graph before a test step and keeps the
+     * values of the atomic constraints, so the step can be taken back by
+     * {@link #discard(GraphJournal)}.
+     *
+     * @return the journal of the host graph
+     * @see Graph#openJournal()
+     */
+    public GraphJournal openJournal() {
+        this.journaled = this.pending == null ? new HashMap<>(this.values) : null;
+        return this.host.openJournal();
+    }
+
+    /**
+     * Keeps the test step of the specified journal.
+     *
+     * @param journal the journal returned by {@link #openJournal()}
+     */
+    public void commit(final GraphJournal journal) {
+        this.journaled = null;
+        journal.commit();
+    }
+
+    /**
+     * Takes back the test step of the specified journal. The values of the
+     * atomic constraints before the step are used again.
+     *
+     * @param journal the journal returned by {@link #openJournal()}
+     */
+    public void discard(final GraphJournal journal) {
+        this.inStep = true;
+        try {
+            journal.discard();
+        } finally {
+            this.inStep = false;
+        }
+        this.values.clear();
+        if (this.journaled != null) {
+            this.values.putAll(this.journaled);
+        }
+        this.journaled = null;
+        this.pending = null;
+    }
+
+    /**
+     * Forgets all values when the host graph is changed outside of a step.
+     */
+    private void changed(final Object arg) {
+        if (this.inStep || !(arg instanceof Change)) {
+            return;
+        }
+        final Change change = (Change) arg;
+        switch (change.getEvent()) {
+            case Change.OBJECT_CREATED:
+            case Change.OBJECT_MODIFIED:
+            case Change.OBJECT_DESTROYED:
+            case Change.OBJECT_GLUED:
+            case Change.OBSERVABLE_GONE:
+                reset();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void addStarts(
+            final Rule r,
+            final Match m,
+            final GraphObject l,
+            final Set<Node> starts,
+            final StepDelta delta) {
+        final GraphObject img = m.getImage(l);
+        if (img == null) {
+            return;
+        }
+        final GraphObject rhsObj = r.getImage(l);
+        if (rhsObj == null) {
+            delta.deletesOrModifies = true;
+            addNodesOf(img, starts);
+            if (img.isNode()) {
+                // dangling arcs are deleted as well
+                for (Arc a : ((Node) img).getIncomingArcsSet()) {
+                    addNodesOf(a, starts);
+                }
+                for (Arc a : ((Node) img).getOutgoingArcsSet()) {
+                    addNodesOf(a, starts);
+                }
+            }
+        } else if (IncrementalMatcher.changesAttribute(l, rhsObj)) {
+            delta.deletesOrModifies = true;
+            addNodesOf(img, starts);
+        }
+    }
+
+    private static void addNodesOf(final GraphObject go, final Set<Node> nodes) {
+        if (go.isNode()) {
+            nodes.add((Node) go);
+        } else {
+            nodes.add((Node) ((Arc) go).getSource());
+            nodes.add((Node) ((Arc) go).getTarget());
+        }
+    }
+
+    /**
+     * Returns the nodes of the host graph with a distance of at most the
+     * specified radius to one of the start nodes. Arcs are used in both
+     * directions.
+     */
+    private static Set<Node> neighbourhood(final Set<Node> starts, final int max) {
+        final Set<Node> visited = new HashSet<>(starts);
+        ArrayDeque<Node> layer = new ArrayDeque<>(starts);
+        for (int d = 0; d < max && !layer.isEmpty(); d++) {
+            final ArrayDeque<Node> next = new ArrayDeque<>();
+            for (Node n : layer) {
+                for (Arc a : n.getOutgoingArcsSet()) {
+                    final Node t = (Node) a.getTarget();
+                    if (visited.add(t)) {
+                        next.add(t);
+                    }
+                }
+                for (Arc a : n.getIncomingArcsSet()) {
+                    final Node s = (Node) a.getSource();
+                    if (visited.add(s)) {
+                        next.add(s);
+                    }
+                }
+            }
+            layer = next;
+        }
+        return visited;
+    }
+
+    /**
+     * Returns the largest distance of a node of a conclusion to the image of
+     * the premise, or -1 if a conclusion has a node not connected to the
+     * premise.
+     */
+    private int radiusOf(final AtomConstraint a) {
+        Integer r = this.radius.get(a);
+        if (r == null) {
+            int max = 0;
+            final Enumeration<AtomConstraint> conclusions = a.getConclusions();
+            while (conclusions.hasMoreElements() && max >= 0) {
+                final AtomConstraint c = conclusions.nextElement();
+                final Set<Node> premiseImage = new HashSet<>();
+                for (Node p : c.getOriginal().getNodesSet()) {
+                    final GraphObject img = c.getImage(p);
+                    if (img != null) {
+                        premiseImage.add((Node) img);
+                    }
+                }
+                final Set<Node> conclusionNodes = c.getImage().getNodesSet();
+                int d = 0;
+                Set<Node> reached = premiseImage;
+                while (reached.size() < conclusionNodes.size()) {
+                    final Set<Node> next = neighbourhood(reached, 1);
+                    if (next.size() == reached.size()) {
+                        d = -1;
+                        break;
+                    }
+                    reached = next;
+                    d++;
+                }
+                max = d < 0 ? -1 : Math.max(max, d);
+            }
+            r = Integer.valueOf(max);
+            this.radius.put(a, r);
+        }
+        return r.intValue();
+    }
+
+    /**
+     * Part of the host graph changed by a single step.
+     */
+    public static final class StepDelta {
+
+        /**
+         * Nodes near the deleted or modified objects, recorded before the
+         * step.
+         */
+        final List<Node> near = new ArrayList<>();
+        /**
+         * Nodes at which the premise matches have to be checked again.
+         */
+        final Set<Node> anchors = new LinkedHashSet<>();
+        final Rule rule;
+        boolean deletesOrModifies;
+
+        StepDelta(final Rule r) {
+            this.rule = r;
+        }
+    }
+}
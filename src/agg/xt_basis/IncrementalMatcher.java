@@ -0,0 +1,633 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import agg.attribute.impl.ValueMember;
+import agg.attribute.impl.ValueTuple;
+import agg.attribute.impl.VarMember;
+import agg.attribute.impl.VarTuple;
+import agg.util.Change;
+import agg.xt_basis.csp.CompletionPropertyBits;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Observer;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Keeps the complete matches of rules at a host graph across transformation
+ * steps, so that a rule application does not need to search the whole host
+ * graph again after each step.
+ *
+ * <p>
+ * For each rule the matches found by a full search are cached as tuples of
+ * host graph objects. After a step only the changed part of the host graph is
+ * inspected: tuples which contain deleted objects are dropped, and new tuples
+ * are searched starting at the created and the attribute-modified objects only
+ * (seeded search). A cached tuple is always checked again by
+ * {@link Match#isValid()} and by its application conditions before it is
+ * handed out, so stale tuples never lead to an invalid step.
+ *
+ * <p>
+ * A rule falls back to a full search when a step may have enabled matches not
+ * containing any changed object: deleted or modified objects touching the
+ * types of a NAC, created or modified objects touching the types of a PAC or
+ * GAC, deleted arcs for a rule with node deletion (dangling condition), or
+ * checks of type multiplicities. Changes of the host graph made outside
+ * {@link GraTra} steps invalidate all rules as well.
+ *
+ * <p>
+ * Rule schemes, parallel rules, rules with parallel matching and rules with
+ * post application constraints are not handled; for those
+ * {@link #isSupported(Rule)} returns false and the usual search is used.
+ *
+ * @author Janusch Rentenatus
+ */
+public class IncrementalMatcher {
+
+    /**
+     * Maximal number of seeded searches done for a rule before a full search
+     * is preferred.
+     */
+    private static final int SEED_LIMIT = 8;
+
+    private final Graph host;
+    private final Map<Rule, RuleMatches> ruleMatches = new HashMap<>();
+    private final Random random = new Random();
+    @SuppressWarnings("deprecation")
+    private final Observer observer = (o, arg) -> changed(arg);
+    private boolean inStep;
+    private int fullSearches;
+    private int seededSearches;
+
+    /**
+     * Creates an incremental matcher for the specified host graph and registers
+     * an observer at the graph.
+     *
+     * @param host the host graph
+     */
+    public IncrementalMatcher(final Graph host) {
+        this.host = host;
+        this.host.addObserver(this.observer);
+    }
+
+    /**
+     * Returns the host graph of this matcher.
+     *
+     * @return the host graph
+     */
+    public Graph getHostGraph() {
+        return this.host;
+    }
+
+    /**
+     * Removes all cached matches and deregisters from the host graph.
+     */
+    public void dispose() {
+        reset();
+        this.host.deleteObserver(this.observer);
+    }
+
+    /**
+     * Removes all cached matches. Each rule will be searched completely at its
+     * next use.
+     */
+    public void reset() {
+        for (RuleMatches entry : this.ruleMatches.values()) {
+            entry.dispose();
+        }
+        this.ruleMatches.clear();
+    }
+
+    /**
+     * Returns the number of full searches done since creation.
+     *
+     * @return the number of full searches
+     */
+    public int getFullSearches() {
+        return this.fullSearches;
+    }
+
+    /**
+     * Returns the number of seeded searches done since creation.
+     *
+     * @return the number of seeded searches
+     */
+    public int getSeededSearches() {
+        return this.seededSearches;
+    }
+
+    /**
+     * Checks if the matches of the specified rule can be maintained
+     * incrementally.
+     *
+     * @param r the rule
+     * @return true if the rule is handled by this matcher
+     */
+    public boolean isSupported(final Rule r) {
+        return !(r instanceof agg.xt_basis.agt.RuleScheme)
+                && !(r instanceof ParallelRule)
+                && !r.parallelMatching
+                && r.getConstraints().isEmpty();
+    }
+
+    /**
+     * Sets the next valid match of the rule of the specified match. The match
+     * has to be empty and its target has to be the host graph of this matcher.
+     *
+     * @param m the match to complete
+     * @return true if a valid match was set, otherwise false
+     */
+    public boolean nextMatch(final Match m) {
+        final RuleMatches entry = entryOf(m);
+        if (takeMatch(m, entry)) {
+            return true;
+        }
+        if (entry.pendingSeeds.isEmpty()) {
+            return false;
+        }
+        searchSeeds(m, entry);
+        return takeMatch(m, entry);
+    }
+
+    /**
+     * Returns all valid matches of the rule of the specified match. Each match
+     * is given by the images of the nodes and then the arcs of the left-hand
+     * side, in the order of {@link Graph#getNodesSet()} and
+     * {@link Graph#getArcsSet()}. The specified match is used for the checks
+     * and is empty afterwards.
+     *
+     * @param m an empty match at the host graph of this matcher
+     * @return the images of the valid matches
+     */
+    public List<List<GraphObject>> getMatches(final Match m) {
+        final RuleMatches entry = entryOf(m);
+        if (!entry.pendingSeeds.isEmpty()) {
+            searchSeeds(m, entry);
+        }
+        final List<List<GraphObject>> matches = new ArrayList<>();
+        int i = 0;
+        while (i < entry.tuples.size()) {
+            final GraphObject[] tuple = entry.tuples.get(i);
+            if (isAlive(tuple) && setMatch(m, entry.originals, tuple)) {
+                matches.add(Arrays.asList(tuple.clone()));
+                i++;
+            } else {
+                entry.remove(i);
+            }
+        }
+        m.clear();
+        return matches;
+    }
+
+    private RuleMatches entryOf(final Match m) {
+        final Rule r = m.getRule();
+        RuleMatches entry = this.ruleMatches.get(r);
+        if (entry == null) {
+            entry = new RuleMatches(r);
+            this.ruleMatches.put(r, entry);
+        }
+        final String params = inputParameterSnapshot(r);
+        if (!params.equals(entry.inputParameters)) {
+            entry.dirty = true;
+        }
+        if (entry.dirty) {
+            fullSearch(m, entry);
+            entry.inputParameters = params;
+        }
+        return entry;
+    }
+
+    private void searchSeeds(final Match m, final RuleMatches entry) {
+        if (entry.seedPairs(this.host) > SEED_LIMIT) {
+            fullSearch(m, entry);
+        } else {
+            seededSearch(m, entry);
+        }
+    }
+
+    private boolean takeMatch(final Match m, final RuleMatches entry) {
+        final boolean randomized = m.getCompletionStrategy() != null
+                && m.getCompletionStrategy().isRandomisedDomain();
+        while (!entry.tuples.isEmpty()) {
+            final int i = randomized ? this.random.nextInt(entry.tuples.size()) : 0;
+            final GraphObject[] tuple = entry.tuples.get(i);
+            if (isAlive(tuple) && setMatch(m, entry.originals, tuple)) {
+                return true;
+            }
+            entry.remove(i);
+            m.clear();
+        }
+        return false;
+    }
+
+    /**
+     * Records the part of the host graph which will be deleted or modified by
+     * a step using the specified valid match. Has to be called directly before
+     * the step is executed.
+     *
+     * @param m the match of the step
+     * @return the recorded delta
+     */
+    public StepDelta beforeStep(final Match m) {
+        this.inStep = true;
+        final StepDelta delta = new StepDelta(m.getRule());
+        final Rule r = m.getRule();
+        for (GraphObject l : delta.originals) {
+            final GraphObject img = m.getImage(l);
+            if (img == null) {
+                continue;
+            }
+            final GraphObject rhsObj = r.getImage(l);
+            if (rhsObj == null) {
+                delta.deletedTypes.add(img.getType());
+                if (img.isNode()) {
+                    delta.nodesDeleted = true;
+                    for (Arc a : ((Node) img).getIncomingArcsSet()) {
+                        delta.deletedTypes.add(a.getType());
+                        delta.arcsDeleted = true;
+                    }
+                    for (Arc a : ((Node) img).getOutgoingArcsSet()) {
+                        delta.deletedTypes.add(a.getType());
+                        delta.arcsDeleted = true;
+                    }
+                } else {
+                    delta.arcsDeleted = true;
+                }
+            } else if (changesAttribute(l, rhsObj)) {
+                delta.modified.add(img);
+                delta.modifiedTypes.add(img.getType());
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Updates the cached matches after a step. Has to be called directly after
+     * the step, also when the step failed.
+     *
+     * @param delta the delta recorded by {@link #beforeStep(Match)}
+     * @param comatch the co-match of the step, or null if the step failed
+     */
+    public void afterStep(final StepDelta delta, final Morphism comatch) {
+        this.inStep = false;
+        if (comatch == null) {
+            return;
+        }
+        final List<GraphObject> created = new ArrayList<>();
+        for (GraphObject rhsObj : StaticStep.getCreatedObjects(delta.rule, comatch)) {
+            final GraphObject img = comatch.getImage(rhsObj);
+            if (img != null) {
+                created.add(img);
+            }
+        }
+        final Set<Type> createdTypes = new HashSet<>();
+        for (GraphObject go : created) {
+            createdTypes.add(go.getType());
+        }
+        final List<GraphObject> seeds = new ArrayList<>(created);
+        for (GraphObject go : delta.modified) {
+            if (this.host.isElement(go)) {
+                seeds.add(go);
+            }
+        }
+        final boolean multiplicity
+                = this.host.getTypeSet().getLevelOfTypeGraphCheck() > TypeSet.ENABLED;
+        for (RuleMatches entry : this.ruleMatches.values()) {
+            if (entry.dirty) {
+                continue;
+            }
+            if (multiplicity
+                    || (delta.arcsDeleted && entry.deletesNodes)
+                    || touches(entry.nacTypes, delta.deletedTypes)
+                    || touches(entry.nacTypes, delta.modifiedTypes)
+                    || touches(entry.pacTypes, createdTypes)
+                    || touches(entry.pacTypes, delta.modifiedTypes)
+                    || (entry.hasGACs && (!seeds.isEmpty() || delta.arcsDeleted || delta.nodesDeleted))) {
+                entry.dirty = true;
+                continue;
+            }
+            if (delta.nodesDeleted || delta.arcsDeleted) {
+                entry.dropDeleted(this.host);
+            }
+            if (entry.originals.length > 0) {
+                entry.pendingSeeds.addAll(seeds);
+            }
+        }
+    }
+
+    /**
+     * Resets the cached matches when the host graph is changed outside of a
+     * step.
+     */
+    private void changed(final Object arg) {
+        if (this.inStep || !(arg instanceof Change)) {
+            return;
+        }
+        final Change change = (Change) arg;
+        switch (change.getEvent()) {
+            case Change.OBJECT_CREATED:
+            case Change.OBJECT_MODIFIED:
+            case Change.OBJECT_DESTROYED:
+            case Change.OBJECT_GLUED:
+            case Change.OBSERVABLE_GONE:
+                reset();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void fullSearch(final Match m, final RuleMatches entry) {
+        this.fullSearches++;
+        entry.tuples.clear();
+        entry.known.clear();
+        entry.pendingSeeds.clear();
+        entry.dirty = false;
+        collect(searchMatchOf(m, entry), entry);
+    }
+
+    private void seededSearch(final Match m, final RuleMatches entry) {
+        final List<GraphObject> seeds = new ArrayList<>(entry.pendingSeeds);
+        entry.pendingSeeds.clear();
+        for (GraphObject seed : seeds) {
+            if (!this.host.isElement(seed)) {
+                continue;
+            }
+            for (GraphObject l : entry.originals) {
+                if (!fits(l, seed)) {
+                    continue;
+                }
+                this.seededSearches++;
+                final Match sm = searchMatchOf(m, entry);
+                try {
+                    if (l.isArc()) {
+                        final Arc la = (Arc) l;
+                        final Arc sa = (Arc) seed;
+                        sm.addMapping(la.getSource(), sa.getSource());
+                        sm.addMapping(la.getTarget(), sa.getTarget());
+                    }
+                    sm.addMapping(l, seed);
+                    collect(sm, entry);
+                } catch (BadMappingException ex) {
+                    // the seed does not fit to this object
+                }
+            }
+        }
+    }
+
+    /**
+     * The search is done by a separate match of the rule, so that the
+     * completion strategy of the match to set is not used up. Each search gets
+     * a new copy of the strategy, which initializes its CSP at the current
+     * host graph.
+     */
+    private Match searchMatchOf(final Match m, final RuleMatches entry) {
+        if (entry.searchMatch == null) {
+            entry.searchMatch = BaseFactory.theFactory().createMatch(m.getRule(), this.host);
+        } else {
+            entry.searchMatch.clear();
+        }
+        entry.searchMatch.setCompletionStrategy(
+                (MorphCompletionStrategy) m.getCompletionStrategy().clone(), true);
+        return entry.searchMatch;
+    }
+
+    private static void collect(final Match sm, final RuleMatches entry) {
+        while (sm.nextCompletion()) {
+            if (sm.isValid()) {
+                entry.add(tupleOf(sm, entry.originals));
+            }
+        }
+    }
+
+    private static boolean fits(final GraphObject l, final GraphObject seed) {
+        return l.isNode() == seed.isNode()
+                && l.getType().isParentOf(seed.getType());
+    }
+
+    private boolean isAlive(final GraphObject[] tuple) {
+        for (GraphObject go : tuple) {
+            if (go == null || !this.host.isElement(go)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean setMatch(
+            final Match m,
+            final GraphObject[] originals,
+            final GraphObject[] tuple) {
+        m.clear();
+        try {
+            for (int i = 0; i < originals.length; i++) {
+                m.addMapping(originals[i], tuple[i]);
+            }
+        } catch (BadMappingException ex) {
+            return false;
+        }
+        // the application conditions are checked by the completion only,
+        // not by isValid(), and a step may have violated a NAC
+        return m.isParallelArcSatisfied()
+                && m.isAttrConditionSatisfied()
+                && m.arePACsSatisfied()
+                && m.areNACsSatisfied()
+                && (!m.getCompletionStrategy().getProperties().get(CompletionPropertyBits.GAC)
+                || m.getRule().evalFormula())
+                && m.isValid();
+    }
+
+    private static GraphObject[] tupleOf(final Match m, final GraphObject[] originals) {
+        final GraphObject[] tuple = new GraphObject[originals.length];
+        for (int i = 0; i < originals.length; i++) {
+            tuple[i] = m.getImage(originals[i]);
+        }
+        return tuple;
+    }
+
+    private static String inputParameterSnapshot(final Rule r) {
+        if (r.getAttrContext() == null) {
+            return "";
+        }
+        final VarTuple vars = (VarTuple) r.getAttrContext().getVariables();
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < vars.getSize(); i++) {
+            final VarMember var = vars.getVarMemberAt(i);
+            if (var.isInputParameter()) {
+                sb.append(var.getName()).append('=').append(var.getExprAsText()).append(';');
+            }
+        }
+        return sb.toString();
+    }
+
+    static boolean changesAttribute(final GraphObject lhsObj, final GraphObject rhsObj) {
+        if (rhsObj.getAttribute() == null) {
+            return false;
+        }
+        final ValueTuple rhsValues = (ValueTuple) rhsObj.getAttribute();
+        final ValueTuple lhsValues = (ValueTuple) lhsObj.getAttribute();
+        for (int i = 0; i < rhsValues.getNumberOfEntries(); i++) {
+            final ValueMember rhsMember = rhsValues.getValueMemberAt(i);
+            if (!rhsMember.isSet()) {
+                continue;
+            }
+            final ValueMember lhsMember = lhsValues != null
+                    ? lhsValues.getValueMemberAt(rhsMember.getName()) : null;
+            if (lhsMember == null || !lhsMember.isSet()
+                    || !rhsMember.getExprAsText().equals(lhsMember.getExprAsText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean touches(final Set<Type> condTypes, final Set<Type> changedTypes) {
+        if (condTypes.isEmpty() || changedTypes.isEmpty()) {
+            return false;
+        }
+        for (Type c : condTypes) {
+            for (Type t : changedTypes) {
+                if (c.isParentOf(t)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static GraphObject[] originalsOf(final Rule r) {
+        final List<GraphObject> list = new ArrayList<>();
+        list.addAll(r.getLeft().getNodesSet());
+        list.addAll(r.getLeft().getArcsSet());
+        return list.toArray(new GraphObject[list.size()]);
+    }
+
+    private static void addTypes(final Graph g, final Set<Type> types) {
+        for (Node n : g.getNodesSet()) {
+            types.add(n.getType());
+        }
+        for (Arc a : g.getArcsSet()) {
+            types.add(a.getType());
+        }
+    }
+
+    /**
+     * Cached matches of a single rule.
+     */
+    private static final class RuleMatches {
+
+        final Rule rule;
+        final GraphObject[] originals;
+        final List<GraphObject[]> tuples = new ArrayList<>();
+        final Set<List<GraphObject>> known = new HashSet<>();
+        final Set<GraphObject> pendingSeeds = new LinkedHashSet<>();
+        final Set<Type> nacTypes = new HashSet<>();
+        final Set<Type> pacTypes = new HashSet<>();
+        final boolean hasGACs;
+        final boolean deletesNodes;
+        boolean dirty = true;
+        String inputParameters = "";
+        Match searchMatch;
+
+        RuleMatches(final Rule r) {
+            this.rule = r;
+            this.originals = originalsOf(r);
+            for (OrdinaryMorphism nac : r.getNACsList()) {
+                addTypes(nac.getTarget(), this.nacTypes);
+            }
+            for (OrdinaryMorphism pac : r.getPACsList()) {
+                addTypes(pac.getTarget(), this.pacTypes);
+            }
+            this.hasGACs = !r.getNestedACsList().isEmpty();
+            boolean del = false;
+            for (Node n : r.getLeft().getNodesSet()) {
+                if (r.getImage(n) == null) {
+                    del = true;
+                    break;
+                }
+            }
+            this.deletesNodes = del;
+        }
+
+        void dispose() {
+            if (this.searchMatch != null) {
+                this.searchMatch.dispose();
+                this.searchMatch = null;
+            }
+        }
+
+        int seedPairs(final Graph g) {
+            int n = 0;
+            final Iterator<GraphObject> iter = this.pendingSeeds.iterator();
+            while (iter.hasNext()) {
+                final GraphObject seed = iter.next();
+                if (!g.isElement(seed)) {
+                    iter.remove();
+                    continue;
+                }
+                for (GraphObject l : this.originals) {
+                    if (fits(l, seed)) {
+                        n++;
+                    }
+                }
+            }
+            return n;
+        }
+
+        void add(final GraphObject[] tuple) {
+            if (this.known.add(Arrays.asList(tuple))) {
+                this.tuples.add(tuple);
+            }
+        }
+
+        void remove(final int i) {
+            this.known.remove(Arrays.asList(this.tuples.remove(i)));
+        }
+
+        void dropDeleted(final Graph g) {
+            final Iterator<GraphObject[]> iter = this.tuples.iterator();
+            while (iter.hasNext()) {
+                final GraphObject[] tuple = iter.next();
+                for (GraphObject go : tuple) {
+                    if (go == null || !g.isElement(go)) {
+                        iter.remove();
+                        this.known.remove(Arrays.asList(tuple));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Part of the host graph deleted or modified by a single step.
+     */
+    public static final class StepDelta {
+
+        final Rule rule;
+        final GraphObject[] originals;
+        final Set<Type> deletedTypes = new HashSet<>();
+        final Set<Type> modifiedTypes = new HashSet<>();
+        final List<GraphObject> modified = new ArrayList<>();
+        boolean nodesDeleted;
+        boolean arcsDeleted;
+
+        StepDelta(final Rule r) {
+            this.rule = r;
+            this.originals = originalsOf(r);
+        }
+    }
+}
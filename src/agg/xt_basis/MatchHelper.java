@@ -1792,10 +1792,12 @@ public final class MatchHelper {
             final List<Pair<OrdinaryMorphism, OrdinaryMorphism>> overlapGraphs,
             final Pair<OrdinaryMorphism, OrdinaryMorphism> overlapPair) {
         final Graph overlapGraph = overlapPair.first.getTarget();
+        final GraphFingerprint overlapFp = overlapGraphs.isEmpty() ? null : overlapGraph.getFingerprint();
         for (int j = 0; j < overlapGraphs.size(); j++) {
             Pair<OrdinaryMorphism, OrdinaryMorphism> pj = overlapGraphs.get(j);
             Graph gj = pj.first.getTarget();
-            if (gj.isIsomorphicTo(overlapGraph)) {
+            if (gj.getFingerprint().mayBeIsomorphicTo(overlapFp)
+                    && gj.isIsomorphicTo(overlapGraph)) {
                 if (pj.first.isIsomorphicTo(overlapPair.first)
                         && pj.second.isIsomorphicTo(overlapPair.second)) {
                     return true;
@@ -303,4 +303,31 @@ public class MorphCompletionStrategy implements StrategyProperties,
      */
     public void removeObjectNameConstraint(GraphObject anObj) {
     }
+
+    /**
+     * Returns the GraphObject of the CSP variable, which the search starts
+     * with, or <code>null</code> if the strategy does not provide it.
+     * Each subclass should implement this method.
+     */
+    public GraphObject getStartObject() {
+        return null;
+    }
+
+    /**
+     * Returns the current domain of the CSP variable of the given GraphObject
+     * anObj, or <code>null</code> if the strategy does not provide it.
+     * Each subclass should implement this method.
+     */
+    public HashSet<?> getTypeDomain(GraphObject anObj) {
+        return null;
+    }
+
+    /**
+     * Restricts the domain of the CSP variable of the given GraphObject anObj
+     * to the specified objects, <code>null</code> removes the restriction.
+     * The solver has to be reset afterwards. Each subclass should implement
+     * this method.
+     */
+    public void restrictVariableDomain(GraphObject anObj, Collection<GraphObject> objects) {
+    }
 }
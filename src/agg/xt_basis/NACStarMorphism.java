@@ -130,8 +130,7 @@ public class NACStarMorphism extends OrdinaryMorphism {
         removeAttrMappings();
 //		 unset its own variables only	
         unsetVariablesOfNAC();
-        this.itsDomObjects.clear();
-        this.itsCodomObjects.clear();
+        clearDomainMappings();
         this.itsTouchedFlag = true;
         this.itsInteractiveFlag = true;
         clearErrorMsg();
@@ -26,10 +26,12 @@ import agg.util.Pair;
 import agg.util.XMLHelper;
 import agg.util.XMLObject;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a node in a graph. Nodes are the fundamental building blocks of
@@ -46,6 +48,18 @@ public class Node extends GraphObject implements XMLObject {
     final protected LinkedHashSet<Arc> itsOutgoingArcs = new LinkedHashSet<>();
     final protected LinkedHashSet<Arc> itsIncomingArcs = new LinkedHashSet<>();
 
+    /**
+     * The outgoing and incoming arcs by arc type and by type of the node at
+     * the other end of the arc. Empty buckets are removed.
+     */
+    final private Map<Type, ArcBuckets> itsOutgoingBuckets = new HashMap<>(4);
+    final private Map<Type, ArcBuckets> itsIncomingBuckets = new HashMap<>(4);
+
+    /**
+     * Returned for an empty bucket, never modified.
+     */
+    private static final LinkedHashSet<Arc> NO_ARCS = new LinkedHashSet<>(0);
+
     /**
      * Creates a new node with the specified type and graph context.
      *
@@ -146,6 +160,8 @@ public class Node extends GraphObject implements XMLObject {
     public void dispose() {
         this.itsOutgoingArcs.clear();
         this.itsIncomingArcs.clear();
+        this.itsOutgoingBuckets.clear();
+        this.itsIncomingBuckets.clear();
         if (this.itsAttr != null) {
             this.itsAttr.removeObserver(this);
             ((ValueTuple) this.itsAttr).dispose();
@@ -162,7 +178,9 @@ public class Node extends GraphObject implements XMLObject {
      * @param anArc the arc to add as outgoing
      */
     protected synchronized void addOut(Arc anArc) {
-        this.itsOutgoingArcs.add((Arc) anArc);
+        if (this.itsOutgoingArcs.add((Arc) anArc)) {
+            addToBucket(this.itsOutgoingBuckets, anArc, otherEnd(anArc));
+        }
     }
 
     /**
@@ -171,7 +189,9 @@ public class Node extends GraphObject implements XMLObject {
      * @param anArc the arc to add as incoming
      */
     protected synchronized void addIn(Arc anArc) {
-        this.itsIncomingArcs.add((Arc) anArc);
+        if (this.itsIncomingArcs.add((Arc) anArc)) {
+            addToBucket(this.itsIncomingBuckets, anArc, otherEnd(anArc));
+        }
     }
 
     /**
@@ -180,7 +200,9 @@ public class Node extends GraphObject implements XMLObject {
      * @param anArc the arc to remove from outgoing arcs
      */
     protected synchronized void removeOut(Arc anArc) {
-        this.itsOutgoingArcs.remove(anArc);
+        if (this.itsOutgoingArcs.remove(anArc)) {
+            removeFromBucket(this.itsOutgoingBuckets, anArc, otherEnd(anArc));
+        }
     }
 
     /**
@@ -189,7 +211,106 @@ public class Node extends GraphObject implements XMLObject {
      * @param anArc the arc to remove from incoming arcs
      */
     protected synchronized void removeIn(Arc anArc) {
-        this.itsIncomingArcs.remove(anArc);
+        if (this.itsIncomingArcs.remove(anArc)) {
+            removeFromBucket(this.itsIncomingBuckets, anArc, otherEnd(anArc));
+        }
+    }
+
+    /**
+     * Returns the type of the node at the other end of the specified arc. The
+     * nodes of an undirected graph store an arc as outgoing arc at both ends.
+     */
+    private Type otherEnd(final Arc anArc) {
+        return (anArc.getSource() == this) ? anArc.getTargetType() : anArc.getSourceType();
+    }
+
+    private static void addToBucket(final Map<Type, ArcBuckets> buckets,
+            final Arc anArc, final Type other) {
+        final ArcBuckets byType = buckets.computeIfAbsent(anArc.getType(), t -> new ArcBuckets());
+        byType.all.add(anArc);
+        byType.byOther.computeIfAbsent(other, t -> new ArcBucket()).add(anArc);
+    }
+
+    private static void removeFromBucket(final Map<Type, ArcBuckets> buckets,
+            final Arc anArc, final Type other) {
+        final ArcBuckets byType = buckets.get(anArc.getType());
+        if (byType != null) {
+            final ArcBucket bucket = byType.byOther.get(other);
+            if (bucket != null && bucket.remove(anArc)) {
+                byType.all.remove(anArc);
+                if (bucket.isEmpty()) {
+                    byType.byOther.remove(other);
+                    if (byType.byOther.isEmpty()) {
+                        buckets.remove(anArc.getType());
+                    }
+                }
+                return;
+            }
+        }
+        // the arc was added with other types, search all buckets
+        for (ArcBuckets m : buckets.values()) {
+            for (ArcBucket bucket : m.byOther.values()) {
+                if (bucket.remove(anArc)) {
+                    m.all.remove(anArc);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the buckets of the specified arc type. The arc types are looked
+     * up by identity first and then compared, so the arcs of a graph with
+     * another type set are found as well.
+     */
+    private static ArcBuckets bucketsOf(final Map<Type, ArcBuckets> buckets, final Type arcType) {
+        ArcBuckets byType = buckets.get(arcType);
+        if (byType == null && !buckets.isEmpty()) {
+            for (Map.Entry<Type, ArcBuckets> e : buckets.entrySet()) {
+                if (e.getKey().compareTo(arcType)) {
+                    return e.getValue();
+                }
+            }
+        }
+        return byType;
+    }
+
+    private static ArcBucket bucketOf(final ArcBuckets byType, final Type other) {
+        final ArcBucket bucket = byType.byOther.get(other);
+        if (bucket == null) {
+            for (Map.Entry<Type, ArcBucket> e : byType.byOther.entrySet()) {
+                if (e.getKey().compareTo(other)) {
+                    return e.getValue();
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private static HashSet<Arc> bucket(final Map<Type, ArcBuckets> buckets,
+            final Type arcType, final Type other) {
+        final ArcBuckets byType = bucketsOf(buckets, arcType);
+        final ArcBucket bucket = byType != null ? bucketOf(byType, other) : null;
+        return bucket != null ? bucket.share() : NO_ARCS;
+    }
+
+    private static HashSet<Arc> bucket(final Map<Type, ArcBuckets> buckets,
+            final Type arcType) {
+        final ArcBuckets byType = bucketsOf(buckets, arcType);
+        return byType != null ? byType.all.share() : NO_ARCS;
+    }
+
+    private static int bucketSize(final Map<Type, ArcBuckets> buckets,
+            final Type arcType, final Type other) {
+        final ArcBuckets byType = bucketsOf(buckets, arcType);
+        if (byType == null) {
+            return 0;
+        }
+        if (other == null) {
+            return byType.all.size();
+        }
+        final ArcBucket bucket = bucketOf(byType, other);
+        return bucket != null ? bucket.size() : 0;
     }
 
     /**
@@ -233,6 +354,43 @@ public class Node extends GraphObject implements XMLObject {
         return this.itsIncomingArcs;
     }
 
+    /**
+     * Returns the incoming arcs of the specified arc type from nodes of the
+     * specified type. The returned set must not be modified. It is not changed
+     * by later changes of this node, so it can be iterated while arcs are
+     * created or deleted.
+     *
+     * @param arcType the arc type
+     * @param sourceType the type of the source nodes
+     * @return a set of incoming arcs
+     */
+    public final HashSet<Arc> getIncomingArcsSet(final Type arcType, final Type sourceType) {
+        return bucket(this.itsIncomingBuckets, arcType, sourceType);
+    }
+
+    /**
+     * Returns the incoming arcs of the specified arc type. The returned set
+     * must not be modified. It is not changed by later changes of this node.
+     *
+     * @param arcType the arc type
+     * @return a set of incoming arcs
+     */
+    public final HashSet<Arc> getIncomingArcsSet(final Type arcType) {
+        return bucket(this.itsIncomingBuckets, arcType);
+    }
+
+    /**
+     * Returns the number of incoming arcs of the specified arc type from nodes
+     * of the specified type, or from all nodes if the node type is null.
+     *
+     * @param arcType the arc type
+     * @param sourceType the type of the source nodes or null
+     * @return the number of incoming arcs
+     */
+    public final int getNumberOfIncomingArcsInBucket(final Type arcType, final Type sourceType) {
+        return bucketSize(this.itsIncomingBuckets, arcType, sourceType);
+    }
+
     /**
      * Returns the number of incoming arcs to this node.
      *
@@ -374,6 +532,45 @@ public class Node extends GraphObject implements XMLObject {
         return this.itsOutgoingArcs;
     }
 
+    /**
+     * Returns the outgoing arcs of the specified arc type to nodes of the
+     * specified type. The returned set must not be modified. It is not changed
+     * by later changes of this node, so it can be iterated while arcs are
+     * created or deleted. The nodes of an undirected graph store all arcs as
+     * outgoing arcs, then the node type is the type of the node at the other
+     * end.
+     *
+     * @param arcType the arc type
+     * @param targetType the type of the target nodes
+     * @return a set of outgoing arcs
+     */
+    public final HashSet<Arc> getOutgoingArcsSet(final Type arcType, final Type targetType) {
+        return bucket(this.itsOutgoingBuckets, arcType, targetType);
+    }
+
+    /**
+     * Returns the outgoing arcs of the specified arc type. The returned set
+     * must not be modified. It is not changed by later changes of this node.
+     *
+     * @param arcType the arc type
+     * @return a set of outgoing arcs
+     */
+    public final HashSet<Arc> getOutgoingArcsSet(final Type arcType) {
+        return bucket(this.itsOutgoingBuckets, arcType);
+    }
+
+    /**
+     * Returns the number of outgoing arcs of the specified arc type to nodes
+     * of the specified type, or to all nodes if the node type is null.
+     *
+     * @param arcType the arc type
+     * @param targetType the type of the target nodes or null
+     * @return the number of outgoing arcs
+     */
+    public final int getNumberOfOutgoingArcsInBucket(final Type arcType, final Type targetType) {
+        return bucketSize(this.itsOutgoingBuckets, arcType, targetType);
+    }
+
     /**
      * Returns an iterator through all outgoing arcs from this node. The order
      * of arcs may differ from the creation order.
@@ -828,4 +1025,58 @@ public class Node extends GraphObject implements XMLObject {
             }
         }
     }
+
+    /**
+     * The arcs of one arc type at a node: all of them and by the type of the
+     * node at the other end.
+     */
+    private static final class ArcBuckets {
+
+        final ArcBucket all = new ArcBucket();
+        final Map<Type, ArcBucket> byOther = new HashMap<>(2);
+    }
+
+    /**
+     * A set of arcs which is copied on write after it was handed out. So a
+     * handed out set is never changed and the search of a match can go on
+     * iterating it after a step.
+     */
+    private static final class ArcBucket {
+
+        private LinkedHashSet<Arc> arcs = new LinkedHashSet<>();
+        private boolean shared;
+
+        LinkedHashSet<Arc> share() {
+            this.shared = true;
+            return this.arcs;
+        }
+
+        void add(final Arc anArc) {
+            unshare();
+            this.arcs.add(anArc);
+        }
+
+        boolean remove(final Arc anArc) {
+            if (!this.arcs.contains(anArc)) {
+                return false;
+            }
+            unshare();
+            return this.arcs.remove(anArc);
+        }
+
+        int size() {
+            return this.arcs.size();
+        }
+
+        boolean isEmpty() {
+            return this.arcs.isEmpty();
+        }
+
+        private void unshare() {
+            if (this.shared) {
+                this.arcs = new LinkedHashSet<>(this.arcs);
+                this.shared = false;
+            }
+        }
+    }
 }
@@ -70,6 +70,10 @@ public class NodeTypeImpl implements Type {
      */
     TypeGraphNode typeGraphNode;
     String keyStr = null;
+    /**
+     * the number given by the type set, -1 if not numbered yet
+     */
+    int typeId = -1;
 
     /**
      * Creates a new node type with default settings.
@@ -223,6 +227,7 @@ public class NodeTypeImpl implements Type {
         if (this.keyStr == null) {
             this.keyStr = this.itsStringRepr.concat("%").concat(this.additionalRepr);
 //			this.keyStr = String.valueOf(this.hashCode());
+            TypeIds.keysChanged();
         }
         return this.keyStr;
     }
@@ -230,9 +235,18 @@ public class NodeTypeImpl implements Type {
     public String resetKey() {
         this.keyStr = this.itsStringRepr.concat("%").concat(this.additionalRepr);
 //		this.keyStr = String.valueOf(this.hashCode());
+        TypeIds.keysChanged();
         return this.keyStr;
     }
 
+    public int getTypeId() {
+        return this.typeId;
+    }
+
+    public void setTypeId(final int id) {
+        this.typeId = id;
+    }
+
     /**
      * Adds those attribute members of the specified Type type which are not
      * found in this type. A conflict can arise when a new member and an
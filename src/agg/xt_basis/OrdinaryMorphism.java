@@ -37,6 +37,7 @@ import de.jare.ndimcol.ref.ArraySeason;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +81,13 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
     protected static final AttrContext cKeepContext = null;
     final protected List<GraphObject> itsDomObjects = new ArrayList<>();
     final protected List<GraphObject> itsCodomObjects = new ArrayList<>();
+    /**
+     * Index of the parallel lists itsDomObjects / itsCodomObjects. An index
+     * built again by a reader is published by this volatile field only after
+     * it is complete, so parallel readers of a morphism, which is not changed
+     * meanwhile, never see a partial index.
+     */
+    private volatile MappingIndex itsIndex = new MappingIndex();
     protected OrdinaryMorphism itsCoMorph;
     protected boolean enabled = true;
     boolean mappingChanged;
@@ -215,6 +223,43 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
         this.itsOrig = g;
     }
 
+    /**
+     * Moves this morphism to isomorphic source and target graphs. All mapped
+     * graph objects which are keys of the specified table are replaced by
+     * their values, the attribute mappings are created again. No change is
+     * propagated.
+     *
+     * @param source the new source graph or null to keep the current one
+     * @param target the new target graph or null to keep the current one
+     * @param table maps graph objects of the current graphs to graph objects of the new graphs
+     */
+    public void replaceGraphs(final Graph source, final Graph target,
+            final Map<GraphObject, GraphObject> table) {
+        final List<GraphObject> dom = new ArrayList<>(this.itsDomObjects);
+        final List<GraphObject> codom = new ArrayList<>(this.itsCodomObjects);
+        removeAllMappings();
+        if (source != null && source != this.itsOrig) {
+            this.itsOrig.removeUsingMorph(this);
+            this.itsOrig = source;
+            this.itsOrig.addUsingMorph(this);
+        }
+        if (target != null && target != this.itsImag) {
+            this.itsImag.removeUsingMorph(this);
+            this.itsImag = target;
+            this.itsImag.addUsingMorph(this);
+        }
+        for (int i = 0; i < dom.size(); i++) {
+            final GraphObject orig = table.getOrDefault(dom.get(i), dom.get(i));
+            final GraphObject image = table.getOrDefault(codom.get(i), codom.get(i));
+            try {
+                addAttrMapping(orig.getAttribute(), image.getAttribute());
+            } catch (BadMappingException ex) {
+                // the object mapping is kept without its attribute mapping
+            }
+            addDomainMapping(orig, image, false);
+        }
+    }
+
     public boolean isTypeObjectsMapChanged() {
         return this.typeObjectsMapChanged;
     }
@@ -1435,8 +1480,10 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
      * @param image belongs to the target graph of this
      */
     private void addDomainMapping(final GraphObject orig, final GraphObject image, boolean notificationRequired) {
+        final MappingIndex index = mappingIndex();
         this.itsDomObjects.add(orig);
         this.itsCodomObjects.add(image);
+        index.add(orig, image);
         this.mappingChanged = true;
         if (notificationRequired) {
             if (isNotificationRequired()) {
@@ -1803,9 +1850,50 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
 
     public void removeAllMappings() {
         removeAttrMappings();
+        clearDomainMappings();
+        this.mappingChanged = false;
+    }
+
+    /**
+     * Removes all object mappings and their index without any notification.
+     */
+    protected void clearDomainMappings() {
         this.itsDomObjects.clear();
         this.itsCodomObjects.clear();
-        this.mappingChanged = false;
+        this.itsIndex = new MappingIndex();
+    }
+
+    private MappingIndex rebuildMappingIndex() {
+        final MappingIndex index = new MappingIndex();
+        for (int k = 0; k < this.itsDomObjects.size(); k++) {
+            index.add(this.itsDomObjects.get(k), this.itsCodomObjects.get(k));
+        }
+        this.itsIndex = index;
+        return index;
+    }
+
+    /**
+     * The lists of {@link #getDomainObjects()} and {@link #getCodomainObjects()} may be extended outside, so the index
+     * is built again when its size does not fit.
+     */
+    private MappingIndex mappingIndex() {
+        final MappingIndex index = this.itsIndex;
+        if (index.size != this.itsDomObjects.size()) {
+            return rebuildMappingIndex();
+        }
+        return index;
+    }
+
+    /**
+     * Returns the list index of the mapping of the specified original to the specified image, or -1.
+     */
+    private int indexOfMapping(final GraphObject orig, final GraphObject image) {
+        for (int k = 0; k < this.itsDomObjects.size(); k++) {
+            if (this.itsDomObjects.get(k) == orig && this.itsCodomObjects.get(k) == image) {
+                return k;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -1817,40 +1905,29 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
      */
     public boolean removeMapping(final Node src, final Node tar) {
         if (this.getSource().isElement(src) && this.getTarget().isElement(tar)) {
-            int i = this.itsDomObjects.indexOf(src);
-            int j = this.itsCodomObjects.indexOf(tar);
-            if (i >= 0 && j >= 0) {
-                if (i != j && this.itsDomObjects.get(j) == src) {
-                    i = j;
-                }
-                if (i == j) {
-                    GraphObject aNeighbor;
-                    Iterator<Arc> anIter = src.getIncomingArcsSet().iterator();
-                    while (anIter.hasNext()) {
-                        aNeighbor = anIter.next();
-                        if (getImage(aNeighbor) != null) {
-                            removeMapping(aNeighbor);
-                        }
-                    }
-                    anIter = src.getOutgoingArcsSet().iterator();
-                    while (anIter.hasNext()) {
-                        aNeighbor = anIter.next();
-                        if (getImage(aNeighbor) != null) {
-                            removeMapping(aNeighbor);
-                        }
-                    }
-                    // update the index of Node src
-                    i = this.itsDomObjects.indexOf(src);
-                    j = this.itsCodomObjects.indexOf(tar);
-                    if (i != j && this.itsDomObjects.get(j) == src) {
-                        i = j;
+            if (getImage(src) == tar) {
+                GraphObject aNeighbor;
+                Iterator<Arc> anIter = src.getIncomingArcsSet().iterator();
+                while (anIter.hasNext()) {
+                    aNeighbor = anIter.next();
+                    if (getImage(aNeighbor) != null) {
+                        removeMapping(aNeighbor);
                     }
-                    if (i == j) {
-                        removeAttrMapping(src.getAttribute());
-                        removeDomainMapping(i, true);
-                        return true;
+                }
+                anIter = src.getOutgoingArcsSet().iterator();
+                while (anIter.hasNext()) {
+                    aNeighbor = anIter.next();
+                    if (getImage(aNeighbor) != null) {
+                        removeMapping(aNeighbor);
                     }
                 }
+                // find the index of Node src
+                final int i = indexOfMapping(src, tar);
+                if (i >= 0) {
+                    removeAttrMapping(src.getAttribute());
+                    removeDomainMapping(i, true);
+                    return true;
+                }
             }
         }
         return false;
@@ -1860,10 +1937,14 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
      * @param i index of a graph object inside of this.itsDomObjects
      */
     private void removeDomainMapping(int i, boolean notificationRequired) {
+        final MappingIndex index = mappingIndex();
         final GraphObject dom = this.itsDomObjects.get(i);
         this.itsDomObjects.remove(i);
         final GraphObject codom = this.itsCodomObjects.get(i);
         this.itsCodomObjects.remove(i);
+        if (!index.remove(dom, codom)) {
+            rebuildMappingIndex();
+        }
         this.mappingChanged = true;
         if (notificationRequired) {
             if (isNotificationRequired()) {
@@ -1890,18 +1971,13 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
      * @return
      */
     public boolean removeMapping(final Arc src, final Arc tar) {
-        if (this.getSource().isElement(src) && this.getTarget().isElement(tar)) {
-            int i = this.itsDomObjects.indexOf(src);
-            int j = this.itsCodomObjects.indexOf(tar);
-            if (i >= 0 && j >= 0) {
-                if (i != j && this.itsDomObjects.get(j) == src) {
-                    i = j;
-                }
-                if (i == j) {
-                    removeAttrMapping(src.getAttribute());
-                    removeDomainMapping(i, true);
-                    return true;
-                }
+        if (this.getSource().isElement(src) && this.getTarget().isElement(tar)
+                && getImage(src) == tar) {
+            final int i = indexOfMapping(src, tar);
+            if (i >= 0) {
+                removeAttrMapping(src.getAttribute());
+                removeDomainMapping(i, true);
+                return true;
             }
         }
         return false;
@@ -1944,8 +2020,8 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
     }
 
     private void doRemoveMapping(final GraphObject o) {
-        int i = this.itsDomObjects.indexOf(o);
-        if (i >= 0) {
+        if (getImage(o) != null) {
+            int i;
             if (o.isNode()) {
                 GraphObject aNeighbor;
                 Iterator<Arc> anIter = ((Node) o).getIncomingArcsSet().iterator();
@@ -1962,9 +2038,8 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
                         doRemoveMapping(aNeighbor);
                     }
                 }
-                // update the index of Node o
-                i = this.itsDomObjects.indexOf(o);
             }
+            i = this.itsDomObjects.indexOf(o);
             removeAttrMapping(o.getAttribute());
             removeDomainMapping(i, true);
         }
@@ -2092,11 +2167,7 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
      */
     @Override
     public GraphObject getImage(final GraphObject o) {
-        int i = this.itsDomObjects.indexOf(o);
-        if ((i > -1) && (i < this.itsCodomObjects.size())) {
-            return this.itsCodomObjects.get(i);
-        }
-        return null;
+        return mappingIndex().images.get(o);
     }
 
     /**
@@ -2110,25 +2181,18 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
 
     @Override
     public GraphObject firstOfInverseImage(GraphObject o) {
-        return this.itsDomObjects.get(this.itsCodomObjects.indexOf(o));
+        final List<GraphObject> origs = mappingIndex().originals.get(o);
+        return (origs != null) ? origs.get(0) : null;
     }
 
     @Override
     public boolean hasInverseImage(GraphObject o) {
-        return this.itsCodomObjects.contains(o);
-        // dann waere ja etwas aus this.itsDomObjects zu holen gewesen.
+        return mappingIndex().originals.containsKey(o);
     }
 
     public List<GraphObject> getInverseImageList(final GraphObject o) {
-        final List<GraphObject> invImages = new ArrayList<>();
-        final int[] i = {0};
-        this.itsCodomObjects.forEach(codo -> {
-            if (codo.equals(o)) {
-                invImages.add(this.itsDomObjects.get(i[0]));
-            }
-            i[0]++;
-        });
-        return invImages;
+        final List<GraphObject> origs = mappingIndex().originals.get(o);
+        return (origs != null) ? new ArrayList<>(origs) : new ArrayList<>();
     }
 
     public List<GraphObject> getElementsToCreate() {
@@ -2889,14 +2953,14 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
         final Iterator<Node> nodes = this.itsOrig.getNodesSet().iterator();
         while (nodes.hasNext()) {
             GraphObject go = nodes.next();
-            if (!this.itsDomObjects.contains(go)) {
+            if (getImage(go) == null) {
                 nonMapped.add(go);
             }
         }
         final Iterator<Arc> arcs = this.itsOrig.getArcsSet().iterator();
         while (arcs.hasNext()) {
             GraphObject go = arcs.next();
-            if (!this.itsDomObjects.contains(go)) {
+            if (getImage(go) == null) {
                 nonMapped.add(go);
             }
         }
@@ -2916,14 +2980,14 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
         final Iterator<Node> gos = this.itsImag.getNodesSet().iterator();
         while (gos.hasNext()) {
             GraphObject go = gos.next();
-            if (!this.itsCodomObjects.contains(go)) {
+            if (!hasInverseImage(go)) {
                 nonMapped.add(go);
             }
         }
         final Iterator<Arc> gos1 = this.itsImag.getArcsSet().iterator();
         while (gos1.hasNext()) {
             GraphObject go = gos1.next();
-            if (!this.itsCodomObjects.contains(go)) {
+            if (!hasInverseImage(go)) {
                 nonMapped.add(go);
             }
         }
@@ -3282,7 +3346,7 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
         final Iterator<GraphObject> inpCodom = input.getCodomain();
         while (inpCodom.hasNext()) {
             final GraphObject g = inpCodom.next();
-            if (this.itsCodomObjects.contains(g)) {
+            if (hasInverseImage(g)) {
                 intersection.add(g);
             }
         }
@@ -4235,4 +4299,55 @@ public class OrdinaryMorphism extends ExtObservable implements Morphism // , Obs
 //		vars.showVariables();
 //		conds.showConditions();
     }
+
+    /**
+     * Images of the originals and originals of the images of the mappings, the
+     * originals in the order of the lists. An original mapped more than once
+     * keeps the image of its first mapping.
+     */
+    private static final class MappingIndex {
+
+        final Map<GraphObject, GraphObject> images = new IdentityHashMap<>(4);
+        final Map<GraphObject, List<GraphObject>> originals = new IdentityHashMap<>(4);
+        int size;
+        int duplicateOriginals;
+
+        void add(final GraphObject orig, final GraphObject image) {
+            if (this.images.putIfAbsent(orig, image) != null) {
+                this.duplicateOriginals++;
+            }
+            List<GraphObject> origs = this.originals.get(image);
+            if (origs == null) {
+                origs = new ArrayList<>(1);
+                this.originals.put(image, origs);
+            }
+            origs.add(orig);
+            this.size++;
+        }
+
+        /**
+         * Removes a mapping, returns false if the index has to be built again
+         * because an original is mapped more than once.
+         */
+        boolean remove(final GraphObject orig, final GraphObject image) {
+            if (this.duplicateOriginals > 0) {
+                return false;
+            }
+            this.images.remove(orig);
+            final List<GraphObject> origs = this.originals.get(image);
+            if (origs != null) {
+                for (int k = 0; k < origs.size(); k++) {
+                    if (origs.get(k) == orig) {
+                        origs.remove(k);
+                        break;
+                    }
+                }
+                if (origs.isEmpty()) {
+                    this.originals.remove(image);
+                }
+            }
+            this.size--;
+            return true;
+        }
+    }
 }
@@ -129,8 +129,7 @@ public class PACStarMorphism extends OrdinaryMorphism {
         removeAttrMappings();
 //		unset its own variables only
         unsetVariablesOfPAC();
-        this.itsDomObjects.clear();
-        this.itsCodomObjects.clear();
+        clearDomainMappings();
         this.itsTouchedFlag = true;
         this.itsInteractiveFlag = true;
         clearErrorMsg();
@@ -0,0 +1,217 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Enumerates all matches of a rule into a graph on a work stealing pool. The
+ * domain of the object of the left-hand side, which the search plan starts
+ * with, is split into slices. Each slice is matched by a worker match with
+ * its own CSP and the same plan, so the workers search disjoint parts of the
+ * search space of a sequential search.
+ *
+ * <p>
+ * The graph and the rule must not be changed while the matches are
+ * enumerated. The completion strategy has to support the restriction of the
+ * variable domains, as <code>Completion_CSP</code> does, otherwise the
+ * matches are enumerated sequentially.
+ *
+ * @author Janusch Rentenatus
+ * @see MorphCompletionStrategy#restrictVariableDomain(GraphObject, Collection)
+ */
+public class ParallelMatchEnumerator {
+
+    /**
+     * Count of slices per worker, so idle workers can steal the slices of
+     * busy workers.
+     */
+    private static final int SLICES_PER_WORKER = 16;
+
+    private final Rule itsRule;
+    private final Graph itsGraph;
+    private final MorphCompletionStrategy itsStrategy;
+    private final int itsParallelism;
+
+    private final ConcurrentLinkedQueue<Match> itsIdleMatches = new ConcurrentLinkedQueue<>();
+    private final List<Match> itsMatches = new ArrayList<>();
+    private final LongAdder itsCount = new LongAdder();
+
+    private GraphObject itsStart;
+    private List<GraphObject> itsDomain;
+    private int itsGrain;
+    private Consumer<Match> itsConsumer;
+
+    /**
+     * Creates an enumerator of the matches of the rule into the graph.
+     *
+     * @param rule the rule
+     * @param graph the graph, which is not changed while enumerating
+     * @param strategy the completion strategy, which is cloned for each worker
+     * @param parallelism the count of workers, the count of available
+     * processors if it is not positive
+     */
+    public ParallelMatchEnumerator(Rule rule, Graph graph,
+            MorphCompletionStrategy strategy, int parallelism) {
+        this.itsRule = rule;
+        this.itsGraph = graph;
+        this.itsStrategy = strategy;
+        this.itsParallelism = (parallelism > 0)
+                ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Enumerates all matches and hands each match over to the consumer. The
+     * consumer is called by the workers concurrently, the match is valid
+     * during the call only and must not be changed by the consumer.
+     *
+     * @param consumer the consumer of the matches
+     * @return the count of matches
+     */
+    public synchronized long enumerate(Consumer<Match> consumer) {
+        this.itsConsumer = consumer;
+        this.itsCount.reset();
+        if (this.itsGraph.getTypeObjectsMap().isEmpty()) {
+            this.itsGraph.fillTypeObjectsMap();
+        }
+        try {
+            final Match first = createMatch();
+            if (this.itsParallelism < 2 || !chooseStart(first)) {
+                enumerate(first, null);
+                return this.itsCount.sum();
+            }
+            if (this.itsDomain.isEmpty()) {
+                return 0;
+            }
+            this.itsIdleMatches.add(first);
+            final int workers = Math.min(this.itsParallelism, this.itsDomain.size());
+            for (int i = 1; i < workers; i++) {
+                this.itsIdleMatches.add(createMatch());
+            }
+            this.itsGrain = Math.max(1, this.itsDomain.size() / (workers * SLICES_PER_WORKER));
+            final ForkJoinPool pool = new ForkJoinPool(workers);
+            try {
+                pool.invoke(new Slice(null, 0, this.itsDomain.size()));
+            } finally {
+                pool.shutdown();
+            }
+            return this.itsCount.sum();
+        } finally {
+            for (Match m : this.itsMatches) {
+                BaseFactory.theFactory().destroyMatch(m);
+            }
+            this.itsMatches.clear();
+            this.itsIdleMatches.clear();
+            this.itsStart = null;
+            this.itsDomain = null;
+            this.itsConsumer = null;
+        }
+    }
+
+    /**
+     * Chooses the object, which the search plan starts with, and takes a
+     * snapshot of its domain. Returns false, if the strategy does not provide
+     * the start object.
+     */
+    private boolean chooseStart(final Match m) {
+        final MorphCompletionStrategy s = m.getCompletionStrategy();
+        final GraphObject start = s.getStartObject();
+        final Collection<?> domain = (start != null) ? s.getTypeDomain(start) : null;
+        if (domain == null) {
+            return false;
+        }
+        this.itsStart = start;
+        this.itsDomain = new ArrayList<>(domain.size());
+        for (Object go : domain) {
+            this.itsDomain.add((GraphObject) go);
+        }
+        return true;
+    }
+
+    /**
+     * Creates a worker match with its own clone of the completion strategy
+     * and computes the plan of its search.
+     */
+    private Match createMatch() {
+        synchronized (this.itsMatches) {
+            final Match m = BaseFactory.theFactory().createMatch(this.itsRule, this.itsGraph);
+            final MorphCompletionStrategy s = (MorphCompletionStrategy) this.itsStrategy.clone();
+            m.setCompletionStrategy(s, true);
+            s.initialize(m);
+            s.getStartObject();
+            this.itsMatches.add(m);
+            return m;
+        }
+    }
+
+    /**
+     * Enumerates the matches, which map the start object to one of the
+     * specified objects, or all matches if the objects are null.
+     */
+    private void enumerate(final Match m, final Collection<GraphObject> objects) {
+        if (this.itsStart != null) {
+            final MorphCompletionStrategy s = m.getCompletionStrategy();
+            s.restrictVariableDomain(this.itsStart, objects);
+            s.resetVariableDomain(true);
+            s.resetSolver(false);
+        }
+        while (m.nextCompletion()) {
+            this.itsCount.increment();
+            this.itsConsumer.accept(m);
+        }
+    }
+
+    /**
+     * A slice of the domain of the start object. The slice forks its right
+     * halves down to the grain and enumerates the left rest itself.
+     */
+    private final class Slice extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+
+        Slice(final CountedCompleter<?> parent, final int lo, final int hi) {
+            super(parent);
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public void compute() {
+            int h = this.hi;
+            while (h - this.lo > ParallelMatchEnumerator.this.itsGrain) {
+                final int mid = (this.lo + h) >>> 1;
+                addToPendingCount(1);
+                new Slice(this, mid, h).fork();
+                h = mid;
+            }
+            Match m = ParallelMatchEnumerator.this.itsIdleMatches.poll();
+            if (m == null) {
+                m = createMatch();
+            }
+            try {
+                enumerate(m, new LinkedHashSet<>(
+                        ParallelMatchEnumerator.this.itsDomain.subList(this.lo, h)));
+            } finally {
+                ParallelMatchEnumerator.this.itsIdleMatches.add(m);
+            }
+            propagateCompletion();
+        }
+    }
+}
@@ -41,6 +41,7 @@ import de.jare.ndimcol.primint.ArrayMovieInt;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -107,6 +108,12 @@ public class Rule extends OrdinaryMorphism implements XMLObject {
     protected Match itsMatch;
     protected boolean notApplicable, waitBeforeApply;
     private InverseRuleConstructData invConstruct;
+    /* the used types of the left-hand side with the counts of their objects, valid for the stamp */
+    transient private Graph usedTypesOfLeft;
+    transient private int usedTypesStamp;
+    transient private Type[] usedTypes;
+    transient private int[] usedTypeCounts;
+    transient private boolean[] usedTypeOfNode;
 
     /**
      * Creates a new rule with default left and right graphs. Initializes the rule with default names for the graphs and
@@ -2741,7 +2748,7 @@ public class Rule extends OrdinaryMorphism implements XMLObject {
         while (objIter.hasNext()) {
             GraphObject currentObj = objIter.next();
             if (currentObj.getAttribute() == null
-                    || this.itsCodomObjects.contains(currentObj)) {
+                    || hasInverseImage(currentObj)) {
                 continue;
             }
             ValueTuple attrVal = (ValueTuple) currentObj.getAttribute();
@@ -3277,7 +3284,7 @@ public class Rule extends OrdinaryMorphism implements XMLObject {
         final boolean result = true;
         while (elems.hasNext()) {
             final GraphObject o = (GraphObject) elems.next();
-            if (this.itsCodomObjects.contains(o)) {
+            if (hasInverseImage(o)) {
                 continue;
             }
             if (o.getAttribute() == null) {
@@ -4273,18 +4280,42 @@ public class Rule extends OrdinaryMorphism implements XMLObject {
 
     /**
      * Returns true if this rule can make a match basically. It works for INJECTIVE matching, only.
+     * The used types of the left-hand side are computed once per change of the left-hand side, the
+     * counts of the used types of the graph are kept by the graph, so the check does not iterate the
+     * graph. For an injective strategy the graph has to contain at least as many objects of each type
+     * as the left-hand side.
      */
     public boolean canMatch(Graph g, MorphCompletionStrategy strategy) {
         // check graph size if injective morphism
-        if (strategy.getProperties().get(CompletionPropertyBits.INJECTIVE)) {
+        final boolean injective = strategy.getProperties().get(CompletionPropertyBits.INJECTIVE);
+        if (injective) {
             if ((getLeft().getNodesCount() > g.getNodesCount())
                     || (getLeft().getArcsCount() > g.getArcsCount())) {
                 return false;
             }
         }
+        if (g.getTypeSet() != getTypeSet()) {
+            return canMatchUsedTypes(g);
+        }
         // check types: all types of the orig. graph should be in image, too
-        ArrayMovie<Type> origTypes = getLeft().getUsedTypes();
         // TODO::mit PACs  origTypes erweitern
+        final Graph left = getLeft();
+        if (this.usedTypesOfLeft != left || this.usedTypesStamp != left.getTypeUsageStamp()) {
+            countUsedTypesOfLeft(left);
+        }
+        for (int i = 0; i < this.usedTypes.length; i++) {
+            final int count = this.usedTypeOfNode[i]
+                    ? g.getInheritedTypeUsage(this.usedTypes[i])
+                    : g.getTypeUsage(this.usedTypes[i]);
+            if (count == 0 || (injective && count < this.usedTypeCounts[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean canMatchUsedTypes(Graph g) {
+        ArrayMovie<Type> origTypes = getLeft().getUsedTypes();
         List<Type> otherTypes = g.getUsedAndInheritedTypes();
         for (int i = 0; i < origTypes.size(); i++) {
             if (!otherTypes.contains(origTypes.get(i))) {
@@ -4294,6 +4325,36 @@ public class Rule extends OrdinaryMorphism implements XMLObject {
         return true;
     }
 
+    private void countUsedTypesOfLeft(final Graph left) {
+        final Map<Type, Integer> counts = new LinkedHashMap<>();
+        final List<Boolean> ofNode = new ArrayList<>();
+        for (Node n : left.getNodesSet()) {
+            if (counts.merge(n.getType(), 1, Integer::sum) == 1) {
+                ofNode.add(Boolean.TRUE);
+            }
+        }
+        for (Arc a : left.getArcsSet()) {
+            if (counts.merge(a.getType(), 1, Integer::sum) == 1) {
+                ofNode.add(Boolean.FALSE);
+            }
+        }
+        final Type[] types = new Type[counts.size()];
+        final int[] typeCounts = new int[counts.size()];
+        final boolean[] typeOfNode = new boolean[counts.size()];
+        int i = 0;
+        for (Map.Entry<Type, Integer> e : counts.entrySet()) {
+            types[i] = e.getKey();
+            typeCounts[i] = e.getValue();
+            typeOfNode[i] = ofNode.get(i);
+            i++;
+        }
+        this.usedTypes = types;
+        this.usedTypeCounts = typeCounts;
+        this.usedTypeOfNode = typeOfNode;
+        this.usedTypesStamp = left.getTypeUsageStamp();
+        this.usedTypesOfLeft = left;
+    }
+
     /**
      * Set its match to the specified parameter.
      */
@@ -339,6 +339,22 @@ public interface Type extends XMLObject {
      */
     String resetKey();
 
+    /**
+     * Returns the number of this type given by its type set. The number is the
+     * index of the objects of this type in the type objects map of a graph.
+     *
+     * @return the number of this type or -1, if it has not been numbered yet
+     * @see TypeSet#getTypeId(Type)
+     */
+    int getTypeId();
+
+    /**
+     * Sets the number of this type. Only the type set numbers its types.
+     *
+     * @param id the number of this type
+     */
+    void setTypeId(int id);
+
     /**
      * Checks if the given graph object is validly typed as defined in the type graph.
      * Before this can be checked, all edges and nodes of the type graph must be added
@@ -1263,6 +1263,7 @@ public final class TypeGraph extends Graph {
      *
      */
     protected void addToTypeObjectsMap(GraphObject anObj) {
+        resetTypeUsage();
         if (anObj.isNode()) {
             this.addNodeToTypeObjectsMap((Node) anObj);
         } else {
@@ -1271,6 +1272,7 @@ public final class TypeGraph extends Graph {
     }
 
     protected void removeNodeFromTypeObjectsMap(final Node anObj) {
+        resetTypeUsage();
         final String keystr = anObj.getType().convertToKey();
         this.itsTypeObjectsMap.remove(keystr);
     }
@@ -0,0 +1,313 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dense numbers of the type keys of a type set. The number of a type is the
+ * index of the set of its objects in the type objects map of a graph, the
+ * same holds for the key of an arc built by the types of its source, the arc
+ * and its target. A key string without any type, which was put into a type
+ * objects map, gets a number too.
+ *
+ * <p>
+ * A type of the type set keeps its number, so looking it up costs no hashing
+ * and no string building. A type of another type set shares the number of a
+ * type with the same key, as the string keys of the type objects map did. The
+ * numbers of arc keys are found in an open addressing table of the packed
+ * three type numbers. The table and the arrays are copied when a number is
+ * added, so the numbers can be read by the threads of a parallel match without
+ * a lock.
+ *
+ * <p>
+ * The index from key strings to numbers is built again after a type changed
+ * its key.
+ *
+ * @author Janusch Rentenatus
+ */
+final class TypeIds {
+
+    private static final AtomicInteger KEY_GENERATION = new AtomicInteger();
+    private static final int BITS = 21;
+    private static final int MAX_IDS = 1 << BITS;
+
+    private final TypeSet typeSet;
+    /**
+     * The owner of each number: a type, the three type numbers of an arc key
+     * or a key string.
+     */
+    private volatile Object[] owners = new Object[32];
+    private int size;
+    private volatile ArcKeyTable arcKeys = new ArcKeyTable(64);
+    private volatile KeyIndex index;
+    private final Map<Type, Integer> foreignTypes = new IdentityHashMap<>();
+    private final Map<String, Integer> keyStrings = new HashMap<>();
+
+    TypeIds(final TypeSet typeSet) {
+        this.typeSet = typeSet;
+    }
+
+    /**
+     * Called by the types whenever a key string changes.
+     */
+    static void keysChanged() {
+        KEY_GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of the specified type. A type without number gets
+     * the next one.
+     */
+    int getTypeId(final Type t) {
+        final int id = t.getTypeId();
+        final Object[] o = this.owners;
+        if (id >= 0 && id < o.length && o[id] == t) {
+            return id;
+        }
+        return addType(t);
+    }
+
+    /**
+     * Returns the number of the arc key built by the specified source, arc and
+     * target type. An arc key without number gets the next one.
+     */
+    int getArcKeyId(final Type source, final Type arcType, final Type target) {
+        final long packed = pack(getTypeId(source), getTypeId(arcType), getTypeId(target));
+        final int id = this.arcKeys.get(packed);
+        if (id >= 0) {
+            return id;
+        }
+        return addArcKey(packed);
+    }
+
+    /**
+     * Returns the number of the specified key string or -1, if no type and no
+     * arc key of this type set has this key.
+     */
+    int getKeyId(final String key) {
+        final Integer id = currentIndex().get(key);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the number of the specified key string. An unknown key gets the
+     * next number.
+     */
+    int getOrAddKeyId(final String key) {
+        final int id = getKeyId(key);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            final Integer known = this.keyStrings.get(key);
+            if (known != null) {
+                return known;
+            }
+            final int added = add(key);
+            this.keyStrings.put(key, added);
+            this.index = null;
+            return added;
+        }
+    }
+
+    /**
+     * Returns the current key string of the specified number.
+     */
+    String getKey(final int id) {
+        final Object owner = this.owners[id];
+        if (owner instanceof Type) {
+            return ((Type) owner).convertToKey();
+        }
+        if (owner instanceof int[]) {
+            final int[] arcKey = (int[]) owner;
+            return getKey(arcKey[0]).concat(getKey(arcKey[1])).concat(getKey(arcKey[2]));
+        }
+        return (String) owner;
+    }
+
+    /**
+     * Returns the count of the numbers given so far.
+     */
+    int size() {
+        return this.size;
+    }
+
+    private synchronized int addType(final Type t) {
+        final int id = t.getTypeId();
+        if (id >= 0 && id < this.size && this.owners[id] == t) {
+            return id;
+        }
+        final Integer foreign = this.foreignTypes.get(t);
+        if (foreign != null) {
+            return foreign;
+        }
+        final String key = t.convertToKey();
+        if (this.typeSet.getTypeList().contains(t)) {
+            final Integer byKey = this.keyStrings.remove(key);
+            if (byKey != null) {
+                // the key was put into a type objects map before the type
+                // came into use
+                this.owners[byKey] = t;
+                t.setTypeId(byKey);
+                this.index = null;
+                return byKey;
+            }
+            final int added = add(t);
+            t.setTypeId(added);
+            this.index = null;
+            return added;
+        }
+        final Integer byKey = currentIndex().get(key);
+        final int result = byKey != null ? byKey : add(t);
+        this.foreignTypes.put(t, result);
+        this.index = null;
+        return result;
+    }
+
+    private synchronized int addArcKey(final long packed) {
+        ArcKeyTable table = this.arcKeys;
+        final int known = table.get(packed);
+        if (known >= 0) {
+            return known;
+        }
+        final int[] arcKey = unpack(packed);
+        int id = -1;
+        if (!this.keyStrings.isEmpty()) {
+            final String key = getKey(arcKey[0]).concat(getKey(arcKey[1])).concat(getKey(arcKey[2]));
+            final Integer byKey = this.keyStrings.remove(key);
+            if (byKey != null) {
+                id = byKey;
+                this.owners[id] = arcKey;
+            }
+        }
+        if (id < 0) {
+            id = add(arcKey);
+        }
+        this.arcKeys = table.with(packed, id);
+        this.index = null;
+        return id;
+    }
+
+    private int add(final Object owner) {
+        if (this.size == MAX_IDS) {
+            throw new IllegalStateException("Too many type keys: " + MAX_IDS);
+        }
+        Object[] o = this.owners;
+        if (this.size == o.length) {
+            Object[] grown = new Object[o.length * 2];
+            System.arraycopy(o, 0, grown, 0, o.length);
+            o = grown;
+        }
+        o[this.size] = owner;
+        this.owners = o;
+        return this.size++;
+    }
+
+    private Map<String, Integer> currentIndex() {
+        KeyIndex idx = this.index;
+        final int generation = KEY_GENERATION.get();
+        if (idx == null || idx.generation != generation) {
+            synchronized (this) {
+                idx = this.index;
+                if (idx == null || idx.generation != generation) {
+                    final Map<String, Integer> map = new HashMap<>(this.size * 2);
+                    for (int id = 0; id < this.size; id++) {
+                        map.putIfAbsent(getKey(id), id);
+                    }
+                    idx = new KeyIndex(generation, map);
+                    this.index = idx;
+                }
+            }
+        }
+        return idx.map;
+    }
+
+    private static long pack(final int source, final int arcType, final int target) {
+        return ((long) source << (2 * BITS)) | ((long) arcType << BITS) | target;
+    }
+
+    private static int[] unpack(final long packed) {
+        final int mask = MAX_IDS - 1;
+        return new int[]{(int) (packed >>> (2 * BITS)), (int) (packed >>> BITS) & mask, (int) packed & mask};
+    }
+
+    /**
+     * Key strings of the numbers, valid as long as no key changed.
+     */
+    private static final class KeyIndex {
+
+        final int generation;
+        final Map<String, Integer> map;
+
+        KeyIndex(final int generation, final Map<String, Integer> map) {
+            this.generation = generation;
+            this.map = map;
+        }
+    }
+
+    /**
+     * Open addressing table from packed arc keys to their numbers. A table is
+     * never changed after it was published, a new key gives a new table.
+     */
+    private static final class ArcKeyTable {
+
+        private final long[] keys;
+        private final int[] ids;
+        private int count;
+
+        ArcKeyTable(final int capacity) {
+            this.keys = new long[capacity];
+            this.ids = new int[capacity];
+        }
+
+        int get(final long packed) {
+            final int mask = this.keys.length - 1;
+            int i = hash(packed) & mask;
+            while (this.ids[i] != 0) {
+                if (this.keys[i] == packed) {
+                    return this.ids[i] - 1;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        ArcKeyTable with(final long packed, final int id) {
+            final int capacity = (this.count + 1) * 2 > this.keys.length ? this.keys.length * 2 : this.keys.length;
+            final ArcKeyTable table = new ArcKeyTable(capacity);
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.ids[i] != 0) {
+                    table.put(this.keys[i], this.ids[i] - 1);
+                }
+            }
+            table.put(packed, id);
+            return table;
+        }
+
+        private void put(final long packed, final int id) {
+            final int mask = this.keys.length - 1;
+            int i = hash(packed) & mask;
+            while (this.ids[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = packed;
+            this.ids[i] = id + 1;
+            this.count++;
+        }
+
+        private static int hash(final long packed) {
+            final long h = packed * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The object domains of the used types of a graph. The sets are held in an
+ * array indexed by the numbers of the types and arc keys of the type set, see
+ * {@link TypeSet#getTypeId(Type)} and
+ * {@link TypeSet#getArcKeyId(Type, Type, Type)}.
+ *
+ * <p>
+ * As a map this is a view with the key strings of the types and arc keys. A
+ * set put or removed by its key string is put or removed at the index of the
+ * key.
+ *
+ * @author Janusch Rentenatus
+ */
+final class TypeObjectsMap extends AbstractMap<String, HashSet<GraphObject>> {
+
+    private final TypeIds ids;
+    private HashSet<GraphObject>[] domains;
+    private int count;
+    private Set<Map.Entry<String, HashSet<GraphObject>>> entrySet;
+
+    TypeObjectsMap(final TypeSet typeSet) {
+        this.ids = typeSet.getTypeIds();
+        this.domains = newDomains(Math.max(16, this.ids.size()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static HashSet<GraphObject>[] newDomains(final int size) {
+        return new HashSet[size];
+    }
+
+    /**
+     * Returns the objects at the specified number or null.
+     */
+    HashSet<GraphObject> get(final int id) {
+        return id < this.domains.length ? this.domains[id] : null;
+    }
+
+    /**
+     * Returns the objects at the specified number, an empty set is added if
+     * there are none.
+     */
+    HashSet<GraphObject> getOrAdd(final int id) {
+        HashSet<GraphObject> domain = get(id);
+        if (domain == null) {
+            domain = new LinkedHashSet<>();
+            set(id, domain);
+        }
+        return domain;
+    }
+
+    /**
+     * Sets the objects at the specified number and returns the objects which
+     * were there before. The value null removes them.
+     */
+    HashSet<GraphObject> set(final int id, final HashSet<GraphObject> domain) {
+        if (id >= this.domains.length) {
+            if (domain == null) {
+                return null;
+            }
+            this.domains = Arrays.copyOf(this.domains, Math.max(id + 1, this.domains.length * 2));
+        }
+        final HashSet<GraphObject> old = this.domains[id];
+        this.domains[id] = domain;
+        if (old == null && domain != null) {
+            this.count++;
+        } else if (old != null && domain == null) {
+            this.count--;
+        }
+        return old;
+    }
+
+    @Override
+    public HashSet<GraphObject> get(final Object key) {
+        if (this.count == 0 || !(key instanceof String)) {
+            return null;
+        }
+        final int id = this.ids.getKeyId((String) key);
+        return id < 0 ? null : get(id);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public HashSet<GraphObject> put(final String key, final HashSet<GraphObject> value) {
+        if (value == null) {
+            throw new NullPointerException("null domain of " + key);
+        }
+        return set(this.ids.getOrAddKeyId(key), value);
+    }
+
+    @Override
+    public HashSet<GraphObject> remove(final Object key) {
+        if (this.count == 0 || !(key instanceof String)) {
+            return null;
+        }
+        final int id = this.ids.getKeyId((String) key);
+        return id < 0 ? null : set(id, null);
+    }
+
+    @Override
+    public void clear() {
+        if (this.count != 0) {
+            Arrays.fill(this.domains, null);
+            this.count = 0;
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, HashSet<GraphObject>>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new AbstractSet<Map.Entry<String, HashSet<GraphObject>>>() {
+                @Override
+                public Iterator<Map.Entry<String, HashSet<GraphObject>>> iterator() {
+                    return new DomainIterator();
+                }
+
+                @Override
+                public int size() {
+                    return TypeObjectsMap.this.count;
+                }
+
+                @Override
+                public void clear() {
+                    TypeObjectsMap.this.clear();
+                }
+            };
+        }
+        return this.entrySet;
+    }
+
+    private final class DomainIterator implements Iterator<Map.Entry<String, HashSet<GraphObject>>> {
+
+        private int next = -1;
+        private int last = -1;
+
+        DomainIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do {
+                this.next++;
+            } while (this.next < TypeObjectsMap.this.domains.length
+                    && TypeObjectsMap.this.domains[this.next] == null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < TypeObjectsMap.this.domains.length;
+        }
+
+        @Override
+        public Map.Entry<String, HashSet<GraphObject>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            advance();
+            return new Domain(this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last < 0) {
+                throw new IllegalStateException();
+            }
+            set(this.last, null);
+            this.last = -1;
+        }
+    }
+
+    private final class Domain implements Map.Entry<String, HashSet<GraphObject>> {
+
+        private final int id;
+
+        Domain(final int id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getKey() {
+            return TypeObjectsMap.this.ids.getKey(this.id);
+        }
+
+        @Override
+        public HashSet<GraphObject> getValue() {
+            return get(this.id);
+        }
+
+        @Override
+        public HashSet<GraphObject> setValue(final HashSet<GraphObject> value) {
+            if (value == null) {
+                throw new NullPointerException("null domain of " + getKey());
+            }
+            return set(this.id, value);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
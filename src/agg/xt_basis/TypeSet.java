@@ -84,6 +84,10 @@ public class TypeSet {
      * the types of the edges and nodes will be hold in this list
      */
     private final ArraySeason<Type> types = new ArraySeason<Type>();
+    /**
+     * the numbers of the types and arc keys
+     */
+    private final TypeIds typeIds = new TypeIds(this);
     private boolean directed = true;
     private boolean parallel = true;
     private boolean emptyAttr = true;
@@ -269,6 +273,40 @@ public class TypeSet {
         return this.types;
     }
 
+    /**
+     * Returns the number of the specified type. The numbers of the types and
+     * arc keys of this type set are dense, a graph keeps the objects of a type
+     * at this index of its type objects map. A type of another type set gets
+     * the number of a type with the same key.
+     *
+     * @param t a node or arc type
+     * @return the number of the type
+     */
+    public final int getTypeId(final Type t) {
+        return this.typeIds.getTypeId(t);
+    }
+
+    /**
+     * Returns the number of the arc key built by the specified source, arc and
+     * target type, that is the number of the key
+     * <code>source.convertToKey()+arcType.convertToKey()+target.convertToKey()</code>.
+     *
+     * @param source the source node type
+     * @param arcType the arc type
+     * @param target the target node type
+     * @return the number of the arc key
+     */
+    public final int getArcKeyId(final Type source, final Type arcType, final Type target) {
+        return this.typeIds.getArcKeyId(source, arcType, target);
+    }
+
+    /**
+     * Returns the numbers of the types and arc keys.
+     */
+    final TypeIds getTypeIds() {
+        return this.typeIds;
+    }
+
     /**
      * Returns a set of inheritance edges. An inheritance edge is especial edge
      * kind. It is not in the edge set of a type graph and it cannot be get by
@@ -55,9 +55,13 @@ import agg.xt_basis.csp.CompletionPropertyBits;
 import agg.xt_basis.csp.Completion_CSP;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class computes an amalgamated rule and amalgamated match based on an
@@ -263,6 +267,350 @@ public class Covering {
         return result;
     }
 
+    /**
+     * Returns true if the rule scheme can be applied by {@link #apply()}: a
+     * single match of the kernel rule, disjoint matches of the multi rules,
+     * no input parameters, injective rules and matches, and a type graph
+     * without multiplicity checks.
+     */
+    public boolean isDirectStepSupported() {
+        if (this.ruleScheme.parallelKernelMatch()
+                || !this.ruleScheme.disjointMultiMatches()
+                || this.ruleScheme.hasInputParameter()
+                || !this.strategy.getProperties().get(CompletionPropertyBits.INJECTIVE)
+                || !this.kernelRule.isInjective()
+                || this.hostGraph.getTypeSet().getLevelOfTypeGraphCheck() > TypeSet.ENABLED) {
+            return false;
+        }
+        for (Rule r : getEnabledMultiRules(this.ruleScheme.getMultiRules())) {
+            if (!r.isInjective()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the rule scheme to the host graph directly, without
+     * constructing the amalgamated rule and match. The kernel rule and an
+     * instance of a multi rule for each of its matches over the kernel match
+     * are applied together: the objects of the kernel rule are deleted and
+     * created once, the objects of each instance are glued to them by the
+     * embeddings of the multi rule. The attribute values are computed at the
+     * host graph before the step, as the amalgamated step does.
+     * <code>getErrorMessage()</code> returns a short hint if no step was
+     * done. The rule scheme has to satisfy
+     * <code>isDirectStepSupported()</code>.
+     *
+     * @return true if the rule scheme was applied, otherwise false
+     */
+    public boolean apply() {
+        this.errorMsg = "";
+        this.multiRules = getEnabledMultiRules(this.ruleScheme.getMultiRules());
+        getKernelMatch();
+        boolean applied = false;
+        boolean kernelsteps = false;
+        try {
+            while (!applied && this.kernelMatch.nextCompletionWithConstantsChecking()) {
+                if (this.kernelMatch.isValid()) {
+                    kernelsteps = true;
+                    applied = applyAtKernelMatch();
+                }
+            }
+            if (!applied
+                    && !kernelsteps // because partial match can be already total
+                    && this.kernelMatch.isTotal()
+                    && this.kernelMatch.isValid()) {
+                applied = applyAtKernelMatch();
+            }
+        } finally {
+            this.ruleScheme.clearMatches();
+        }
+        if (!applied && this.errorMsg.isEmpty()) {
+            this.errorMsg = "Rule scheme:  " + this.ruleScheme.getName() + "  - no match found.";
+        }
+        return applied;
+    }
+
+    /**
+     * Collects the instances of the multi rules over the current kernel match
+     * and applies them together with the kernel rule.
+     */
+    private boolean applyAtKernelMatch() {
+        final List<Instance> instances = new ArrayList<Instance>();
+        final Instance kernel = createInstance(this.kernelRule, null, this.kernelMatch);
+        if (kernel == null) {
+            return false;
+        }
+        instances.add(kernel);
+        final Set<GraphObject> owned = new HashSet<GraphObject>();
+        boolean atLeastOneRule = false;
+        for (int i = 0; i < this.multiRules.size(); i++) {
+            if (!(this.multiRules.get(i) instanceof MultiRule)) {
+                continue;
+            }
+            final MultiRule multiRule = (MultiRule) this.multiRules.get(i);
+            final Match multiMatch = getPartialMultiMatch(multiRule);
+            if (multiMatch == null) {
+                continue;
+            }
+            boolean valid = false;
+            while (multiMatch.nextCompletion()) {
+                if (multiMatch.isValid()) {
+                    valid = true;
+                    atLeastOneRule = addInstance(multiRule, multiMatch, owned, instances)
+                            || atLeastOneRule;
+                }
+            }
+            if (!valid // because partial match set before can be total
+                    && multiMatch.isTotal()
+                    && multiMatch.isValid()) {
+                atLeastOneRule = addInstance(multiRule, multiMatch, owned, instances)
+                        || atLeastOneRule;
+            }
+            multiMatch.clear();
+        }
+        clearMultiRuleMatches();
+        if (!atLeastOneRule && this.ruleScheme.atLeastOneMultiMatchRequired()) {
+            return false;
+        }
+        final Set<GraphObject> deleted = new LinkedHashSet<GraphObject>();
+        for (Instance inst : instances) {
+            inst.addDeleted(deleted);
+        }
+        if (this.strategy.getProperties().get(CompletionPropertyBits.DANGLING)
+                && !isDanglingSatisfied(deleted)) {
+            this.errorMsg = "Rule scheme:  " + this.ruleScheme.getName() + "  - dangling condition failed.";
+            return false;
+        }
+        try {
+            execute(instances, deleted);
+        } catch (TypeException ex) {
+            this.errorMsg = "Rule scheme:  " + this.ruleScheme.getName() + " : " + ex.getMessage();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds an instance of the multi rule for the specified match, if the
+     * objects, which the match does not take from the kernel match, are not
+     * used by an other instance.
+     */
+    private boolean addInstance(
+            final MultiRule multiRule,
+            final Match multiMatch,
+            final Set<GraphObject> owned,
+            final List<Instance> instances) {
+        final List<GraphObject> owns = new ArrayList<GraphObject>();
+        final Iterator<GraphObject> objs = multiMatch.getDomain();
+        while (objs.hasNext()) {
+            final GraphObject obj = objs.next();
+            if (!multiRule.isTargetOfEmbeddingLeft(obj)) {
+                final GraphObject img = multiMatch.getImage(obj);
+                if (owned.contains(img)) {
+                    this.errorMsg = "Rule:  " + multiRule.getName() + "  - (multi) disjoint match failed.";
+                    return false;
+                }
+                owns.add(img);
+            }
+        }
+        final Instance inst = createInstance(multiRule, multiRule, multiMatch);
+        if (inst == null) {
+            return false;
+        }
+        owned.addAll(owns);
+        instances.add(inst);
+        return true;
+    }
+
+    /**
+     * Takes the images of the specified match and computes the attribute
+     * values of the changed and the new objects of the rule.
+     */
+    private Instance createInstance(final Rule rule, final MultiRule multiRule, final Match m) {
+        final Instance inst = new Instance(rule, multiRule);
+        final Iterator<GraphObject> dom = m.getDomain();
+        while (dom.hasNext()) {
+            final GraphObject obj = dom.next();
+            inst.images.put(obj, m.getImage(obj));
+        }
+        if (!this.hostGraph.isAttributed()) {
+            return inst;
+        }
+        final AttrContext context = m.getAttrContext();
+        context.freeze();
+        try {
+            computeValues(inst, rule.getRight().getNodesSet().iterator(), context);
+            computeValues(inst, rule.getRight().getArcsSet().iterator(), context);
+        } catch (RuntimeException ex) {
+            this.errorMsg = "Rule:  " + rule.getName() + " : " + ex.getMessage();
+            return null;
+        } finally {
+            context.defreeze();
+        }
+        return inst;
+    }
+
+    private void computeValues(
+            final Instance inst,
+            final Iterator<? extends GraphObject> rhsObjs,
+            final AttrContext context) {
+        while (rhsObjs.hasNext()) {
+            final GraphObject rhsObj = rhsObjs.next();
+            if (rhsObj.getAttribute() == null
+                    || (inst.multiRule != null
+                    && inst.multiRule.getEmbeddingRight().hasInverseImage(rhsObj))) {
+                continue;
+            }
+            final GraphObject lhsObj = inst.rule.firstOfInverseImage(rhsObj);
+            final ValueTuple value;
+            if (lhsObj == null) {
+                value = (ValueTuple) AttrTupleManager.getDefaultManager()
+                        .newInstance(rhsObj.getType().getAttrType());
+            } else {
+                final GraphObject gObj = inst.images.get(lhsObj);
+                if (!gObj.attrExists()
+                        || !this.bf.isDeletedOrChanged(inst.rule, lhsObj)) {
+                    continue;
+                }
+                value = (ValueTuple) AttrTupleManager.getDefaultManager()
+                        .newInstance(gObj.getType().getAttrType());
+                value.copy(gObj.getAttribute());
+            }
+            value.apply(rhsObj.getAttribute(), context);
+            inst.values.put(rhsObj, value);
+        }
+    }
+
+    private boolean isDanglingSatisfied(final Set<GraphObject> deleted) {
+        for (GraphObject obj : deleted) {
+            if (obj.isNode()) {
+                for (Arc a : ((Node) obj).getOutgoingArcsSet()) {
+                    if (!deleted.contains(a)) {
+                        return false;
+                    }
+                }
+                for (Arc a : ((Node) obj).getIncomingArcsSet()) {
+                    if (!deleted.contains(a)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the objects of all instances, then creates the objects of the
+     * kernel rule and of the instances of the multi rules and sets the
+     * computed attribute values.
+     */
+    private void execute(
+            final List<Instance> instances,
+            final Set<GraphObject> deleted) throws TypeException {
+        final Graph g = this.hostGraph;
+        synchronized (g) {
+            for (GraphObject obj : deleted) {
+                if (obj.isArc()) {
+                    g.destroyArcFast((Arc) obj);
+                }
+            }
+            for (GraphObject obj : deleted) {
+                if (obj.isNode()) {
+                    final Node n = (Node) obj;
+                    while (!n.getOutgoingArcsSet().isEmpty()) {
+                        g.destroyArcFast(n.getOutgoingArcsSet().iterator().next());
+                    }
+                    while (!n.getIncomingArcsSet().isEmpty()) {
+                        g.destroyArcFast(n.getIncomingArcsSet().iterator().next());
+                    }
+                    g.destroyNodeFast(n);
+                }
+            }
+            // the kernel instance is the first one
+            final Map<GraphObject, GraphObject> kernelRight = new HashMap<GraphObject, GraphObject>();
+            for (Instance inst : instances) {
+                final Map<GraphObject, GraphObject> right = (inst.multiRule == null)
+                        ? kernelRight : new HashMap<GraphObject, GraphObject>();
+                for (Node n : inst.rule.getRight().getNodesSet()) {
+                    GraphObject img = inst.imageOf(n, kernelRight);
+                    if (img == null) {
+                        img = g.createNode(n.getType());
+                        img.setContextUsage(n.getContextUsage());
+                    }
+                    right.put(n, img);
+                }
+                for (Arc a : inst.rule.getRight().getArcsSet()) {
+                    GraphObject img = inst.imageOf(a, kernelRight);
+                    if (img == null) {
+                        img = g.createArc(a.getType(),
+                                (Node) right.get(a.getSource()),
+                                (Node) right.get(a.getTarget()));
+                        img.setContextUsage(a.getContextUsage());
+                    }
+                    right.put(a, img);
+                }
+                for (Map.Entry<GraphObject, ValueTuple> e : inst.values.entrySet()) {
+                    final GraphObject gObj = right.get(e.getKey());
+                    if (gObj.attrExists()) {
+                        ((ValueTuple) gObj.getAttribute()).copyEntries(e.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The kernel rule or an instance of a multi rule at the host graph.
+     */
+    private static final class Instance {
+
+        final Rule rule;
+        /**
+         * the multi rule, null for the kernel rule
+         */
+        final MultiRule multiRule;
+        final Map<GraphObject, GraphObject> images = new HashMap<GraphObject, GraphObject>();
+        /**
+         * computed attribute values of the RHS objects
+         */
+        final Map<GraphObject, ValueTuple> values = new LinkedHashMap<GraphObject, ValueTuple>();
+
+        Instance(final Rule rule, final MultiRule multiRule) {
+            this.rule = rule;
+            this.multiRule = multiRule;
+        }
+
+        /**
+         * Adds the host objects, which this instance deletes. The kernel
+         * objects of a multi rule are deleted by the kernel rule.
+         */
+        void addDeleted(final Set<GraphObject> deleted) {
+            for (Map.Entry<GraphObject, GraphObject> e : this.images.entrySet()) {
+                if (this.rule.getImage(e.getKey()) == null
+                        && (this.multiRule == null
+                        || !this.multiRule.isTargetOfEmbeddingLeft(e.getKey()))) {
+                    deleted.add(e.getValue());
+                }
+            }
+        }
+
+        /**
+         * Returns the host object of a kernel or a preserved object of the
+         * RHS, or null for a new object.
+         */
+        GraphObject imageOf(final GraphObject rhsObj, final Map<GraphObject, GraphObject> kernelRight) {
+            if (this.multiRule != null
+                    && this.multiRule.getEmbeddingRight().hasInverseImage(rhsObj)) {
+                return kernelRight.get(
+                        this.multiRule.getEmbeddingRight().firstOfInverseImage(rhsObj));
+            }
+            final GraphObject lhsObj = this.rule.firstOfInverseImage(rhsObj);
+            return (lhsObj != null) ? this.images.get(lhsObj) : null;
+        }
+    }
+
     private boolean createAmalgamationData() {
         boolean result = false;
         AmalgamationRuleData kernelData = createInstMatchDuetoKernelMatch(this.kernelMatch, this.kernelRule);
@@ -44,7 +44,10 @@ public class COLIM_VECTOR {
     }
 
     public void put(Object obj, int index) {
-        v.add(index, obj);
+        while (v.size() <= index) {
+            v.add(null);
+        }
+        v.set(index, obj);
     }
 
     public int indexOf(Object obj) {
@@ -61,8 +64,13 @@ public class COLIM_VECTOR {
     }
 
     public void setSize(int size) {
-        // ArrayList does not support setSize directly
-        // This method is kept for compatibility but does nothing
+        // like Vector.setSize: new items are null
+        while (v.size() < size) {
+            v.add(null);
+        }
+        while (v.size() > size) {
+            v.remove(v.size() - 1);
+        }
     }
 
     public void ensureCapacity(int size) {
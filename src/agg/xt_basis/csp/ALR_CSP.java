@@ -12,6 +12,7 @@ package agg.xt_basis.csp;
 
 import agg.attribute.AttrContext;
 import agg.attribute.impl.AttrTupleManager;
+import agg.attribute.impl.ContextView;
 import agg.attribute.impl.ValueTuple;
 import agg.attribute.impl.VarMember;
 import agg.attribute.impl.VarTuple;
@@ -19,10 +20,12 @@ import agg.util.csp.BinaryConstraint;
 import agg.util.csp.CSP;
 import agg.util.csp.Query;
 import agg.util.csp.SolutionStrategy;
+import agg.util.csp.Solution_IndexedBackjump;
 import agg.util.csp.Variable;
 import agg.xt_basis.Arc;
 import agg.xt_basis.Graph;
 import agg.xt_basis.GraphObject;
+import agg.xt_basis.Match;
 import agg.xt_basis.Node;
 import agg.xt_basis.Type;
 import java.util.Collection;
@@ -415,6 +418,67 @@ public class ALR_CSP extends CSP {
         }
     }
 
+    /**
+     * Returns the GraphObject of the variable, which the search plan starts
+     * with, or <code>null</code> if the solver can not compute the plan
+     * before the search. The plan is computed, if it is not done yet.
+     */
+    public GraphObject getStartObject() {
+        if (!this.itsSolver.hasQueries()
+                && this.itsSolver instanceof Solution_IndexedBackjump) {
+            ((Solution_IndexedBackjump) this.itsSolver).initialize(this);
+        }
+        if (!this.itsSolver.hasQueries()) {
+            return null;
+        }
+        final Variable var = this.itsSolver.getStartVariable();
+        return (var != null) ? (GraphObject) var.getGraphObject() : null;
+    }
+
+    /**
+     * Returns the current domain of the type query of the CSP variable of the
+     * given GraphObject anObj, or <code>null</code> if there is no such
+     * variable.
+     */
+    public HashSet<?> getTypeDomain(GraphObject anObj) {
+        Variable anObjVar = this.itsObjVarMap.get(anObj);
+        if (anObjVar != null && anObjVar.getTypeQuery() != null) {
+            return anObjVar.getTypeQuery().execute();
+        }
+        return null;
+    }
+
+    /**
+     * Restricts the domain of the CSP variable of the given GraphObject anObj
+     * to the specified objects. The type query of the variable offers the
+     * allowed objects only and a domain constraint checks the instance,
+     * wherever the variable is in the search plan. The restriction is removed
+     * by <code>null</code>. The solver has to be reset afterwards.
+     */
+    public void restrictVariableDomain(GraphObject anObj, Collection<GraphObject> objects) {
+        Variable anObjVar = this.itsObjVarMap.get(anObj);
+        if (anObjVar == null) {
+            return;
+        }
+        Constraint_Domain domain = null;
+        Iterator<Object> cons = anObjVar.getConstraints();
+        while (cons.hasNext()) {
+            Object c = cons.next();
+            if (c instanceof Constraint_Domain) {
+                domain = (Constraint_Domain) c;
+            }
+        }
+        if (domain == null && objects != null) {
+            domain = new Constraint_Domain(anObjVar);
+        }
+        if (domain != null) {
+            domain.setObjects(objects);
+        }
+        if (anObjVar.getTypeQuery() != null) {
+            anObjVar.getTypeQuery().restrictObjects(objects);
+        }
+    }
+
     // This is dynamic, i.e. can only be done when the domain graph is known.
     // Not more in use.
     protected void fillTypeMap(final Graph domaingraph) {
@@ -530,19 +594,29 @@ public class ALR_CSP extends CSP {
     }
 
     protected void resetTypeMap(final Graph g) {
+        final boolean byConstants = g.isAttributeIndexed() && isMatchOfConstants();
         for (final GraphObject obj : this.itsObjVarMap.keySet()) {
             final Variable var = this.itsObjVarMap.get(obj);
-            final String key = obj.convertToKey();
-            HashSet<GraphObject> list = g.getTypeObjectsMap().get(key);
-            if (list == null) {
-                list = new LinkedHashSet<GraphObject>();
-                g.getTypeObjectsMap().put(key, list);
-            }
-            this.itsTypeMap.put(key, list);
-            var.getTypeQuery().setObjects(list);
+            // the domain is found by the numbers of the types
+            final HashSet<GraphObject> list = g.getOrAddTypeObjects(obj);
+            this.itsTypeMap.put(var.getConvertedTypeString(), list);
+            // objects with other constant values are left out of the domain
+            final HashSet<GraphObject> candidates = byConstants ? g.getTypeObjectsByConstants(obj) : null;
+            var.getTypeQuery().setObjects(candidates != null ? candidates : list);
         }
     }
 
+    /**
+     * Returns true, if this CSP completes a match and the constant attribute
+     * values of the left-hand side have to be equal to the values of the host
+     * graph.
+     */
+    private boolean isMatchOfConstants() {
+        return getRequester() instanceof Match
+                && !(this.itsAttrContext instanceof ContextView
+                && ((ContextView) this.itsAttrContext).isIgnoreConstContext());
+    }
+
     protected void resetTypeMap(
             final Map<String, HashSet<GraphObject>> aTypeMap) {
         for (final GraphObject obj : this.itsObjVarMap.keySet()) {
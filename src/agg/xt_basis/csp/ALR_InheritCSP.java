@@ -384,8 +384,8 @@ public class ALR_InheritCSP extends CSP {
         for (GraphObject lhsobj : this.itsObjVarMap.keySet()) {
             Variable var = this.itsObjVarMap.get(lhsobj);
 
-            String key = lhsobj.convertToKey();
-            if (g.getTypeObjectsMap().get(key) == null) {
+            HashSet<GraphObject> domain = g.getTypeObjects(lhsobj);
+            if (domain == null) {
                 final HashSet<GraphObject> v = new LinkedHashSet<GraphObject>();
                 if (lhsobj.isNode()) {
                     List<Type> parents = lhsobj.getType().getAllParents();
@@ -423,11 +423,12 @@ public class ALR_InheritCSP extends CSP {
                         }
                     }
                 }
-                g.getTypeObjectsMap().put(key, v);
+                g.setTypeObjects(lhsobj, v);
+                domain = v;
             }
 
-            this.itsTypeMap.put(key, g.getTypeObjectsMap().get(key));
-            var.getTypeQuery().setObjects(g.getTypeObjectsMap().get(key));
+            this.itsTypeMap.put(var.getConvertedTypeString(), domain);
+            var.getTypeQuery().setObjects(domain);
         }
     }
 
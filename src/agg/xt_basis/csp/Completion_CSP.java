@@ -258,7 +258,7 @@ public class Completion_CSP extends MorphCompletionStrategy {
      * strategies by subclasses.
      */
     protected SolutionStrategy createSolutionStrategy(boolean injective) {
-        return new agg.util.csp.Solution_Backjump(injective);
+        return new agg.util.csp.Solution_IndexedBackjump(injective);
         // test only
 //		return new agg.util.csp.Solution_Backtrack(injective);
     }
@@ -739,4 +739,24 @@ public class Completion_CSP extends MorphCompletionStrategy {
             this.itsCSP.removeObjectNameConstraint(anObj);
         }
     }
+
+    public GraphObject getStartObject() {
+        if (this.itsCSP != null) {
+            return this.itsCSP.getStartObject();
+        }
+        return null;
+    }
+
+    public HashSet<?> getTypeDomain(GraphObject anObj) {
+        if (this.itsCSP != null) {
+            return this.itsCSP.getTypeDomain(anObj);
+        }
+        return null;
+    }
+
+    public void restrictVariableDomain(GraphObject anObj, Collection<GraphObject> objects) {
+        if (this.itsCSP != null) {
+            this.itsCSP.restrictVariableDomain(anObj, objects);
+        }
+    }
 }
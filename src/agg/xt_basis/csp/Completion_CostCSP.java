@@ -0,0 +1,59 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis.csp;
+
+import agg.util.csp.SolutionStrategy;
+import agg.util.csp.Solution_IndexedBackjump;
+
+/**
+ * An implementation of morphism completion as a Constraint Satisfaction Problem
+ * (CSP), which orders the variables by the estimated cost of the search plan.
+ * It searches for injective solutions only per default. The plans are kept by
+ * the strategy, so a match of a rule uses its plan again, until the
+ * statistics of the host graph drift.
+ *
+ * @author Janusch Rentenatus
+ * @see Search_CostBased
+ */
+public class Completion_CostCSP extends Completion_CSP {
+
+    public static final String NAME = "CSP by cost";
+
+    private Search_CostBased itsSearcher = new Search_CostBased();
+
+    public Completion_CostCSP() {
+        super();
+        getProperties().set(CompletionPropertyBits.INJECTIVE);
+        getProperties().set(CompletionPropertyBits.DANGLING);
+        getProperties().set(CompletionPropertyBits.IDENTIFICATION);
+        this.itsName = NAME;
+    }
+
+    public Completion_CostCSP(boolean randomizeDomain) {
+        this();
+        this.randomDomain = randomizeDomain;
+    }
+
+    protected SolutionStrategy createSolutionStrategy(boolean injective) {
+        return new Solution_IndexedBackjump(injective, this.itsSearcher);
+    }
+
+    /**
+     * Returns the search strategy, which computes and keeps the plans.
+     */
+    public Search_CostBased getSearchStrategy() {
+        return this.itsSearcher;
+    }
+
+    public Object clone() {
+        final Completion_CostCSP aClone = (Completion_CostCSP) super.clone();
+        aClone.itsSearcher = new Search_CostBased();
+        return aClone;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis.csp;
+
+import java.util.Collection;
+import agg.util.csp.BinaryConstraint;
+import agg.util.csp.Variable;
+
+/**
+ * A unary constraint, which restricts the instance of a variable to a set of
+ * objects, wherever the variable is in the search plan.
+ *
+ * @author Janusch Rentenatus
+ * @see ALR_CSP#restrictVariableDomain(agg.xt_basis.GraphObject, Collection)
+ */
+public class Constraint_Domain extends BinaryConstraint {
+
+    private Collection<?> itsObjects;
+
+    public Constraint_Domain(Variable var) {
+        super(var, 0);
+    }
+
+    public void clear() {
+        this.itsVar1 = null;
+        this.itsObjects = null;
+    }
+
+    /**
+     * Set the allowed objects, <code>null</code> allows all objects.
+     */
+    public void setObjects(final Collection<?> objects) {
+        this.itsObjects = objects;
+    }
+
+    /**
+     * Return true iff the current instance of the variable is one of the
+     * allowed objects.
+     */
+    public final boolean execute() {
+        return this.itsObjects == null || this.itsObjects.contains(getVar1().getInstance());
+    }
+}
@@ -12,16 +12,16 @@
 package agg.xt_basis.csp;
 
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
 import agg.util.csp.Query;
 import agg.util.csp.Variable;
 import agg.xt_basis.Arc;
 import agg.xt_basis.Node;
+import agg.xt_basis.Type;
 
 public class Query_Incoming extends Query {
 
-    private String arcKey;
+    private final Type arcType;
+    private final Type sourceType;
     private boolean withNTI; // graph with Node Type Inheritance
 
     /**
@@ -30,29 +30,28 @@ public class Query_Incoming extends Query {
      */
     public Query_Incoming(Variable obj, Variable tar) {
         super(obj, tar, 3);
-        this.arcKey = ((Arc) this.itsTarget.getGraphObject()).convertToKey();
-        this.withNTI = ((Arc) this.itsTarget.getGraphObject()).getContext().getTypeSet().hasInheritance();
+        Arc arc = (Arc) this.itsTarget.getGraphObject();
+        this.arcType = arc.getType();
+        this.sourceType = arc.getSourceType();
+        this.withNTI = arc.getContext().getTypeSet().hasInheritance();
     }
 
+    /**
+     * Returns the bucket of the incoming arcs of the arc type and source
+     * type, with node type inheritance the incoming arcs of the arc type.
+     */
     public final HashSet<?> execute() {//Arc
+        Node n = (Node) getSourceInstance(0);
         if (this.withNTI) {
-            return ((Node) getSourceInstance(0)).getIncomingArcsSet();
-        }
-        HashSet<Arc> ins = ((Node) getSourceInstance(0)).getIncomingArcsSet();
-        HashSet<Arc> result = new LinkedHashSet<Arc>(); //ins.size());
-        Iterator<Arc> iter = ins.iterator();
-        while (iter.hasNext()) {
-            Arc a = iter.next();
-            if (a.convertToKey().equals(this.arcKey)) {
-                result.add(a);
-            }
+            return n.getIncomingArcsSet(this.arcType);
         }
-        return result;
+        return n.getIncomingArcsSet(this.arcType, this.sourceType);
     }
 
     public final int getSize() {
-//		return 1; // pablo
-        return getTarget().getTypeQuery().getAvgIncomingDegree(); // pablo
+        Query_Type sourceQuery = getSource(0).getTypeQuery();
+        return (sourceQuery == null) ? 0 : sourceQuery.getAvgIncomingDegree(
+                this.arcType, this.withNTI ? null : this.sourceType);
     }
 
     /**
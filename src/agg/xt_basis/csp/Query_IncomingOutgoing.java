@@ -12,17 +12,16 @@
 package agg.xt_basis.csp;
 
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
 import agg.util.csp.Query;
 import agg.util.csp.Variable;
 import agg.xt_basis.Arc;
 import agg.xt_basis.Node;
+import agg.xt_basis.Type;
 
 public class Query_IncomingOutgoing extends Query {
 
-    private String arcKey;
-    private String arcKey2;
+    private final Type arcType;
+    private final Type otherType;
     private boolean withNTI; // graph with Node Type Inheritance
 
     /**
@@ -31,39 +30,30 @@ public class Query_IncomingOutgoing extends Query {
      */
     public Query_IncomingOutgoing(Variable obj, Variable tar) {
         super(obj, tar, 3);
-        Arc arc = ((Arc) this.itsTarget.getGraphObject());
-        this.arcKey = arc.convertToKey();
-        // For undirected graphs, we need to check the inverse key as well
-        if (arc.getContext() != null && !arc.getContext().isDirected()) {
-            this.arcKey2 = arc.getTarget().getType().convertToKey()
-                    .concat(arc.getType().convertToKey())
-                    .concat(arc.getSource().getType().convertToKey());
-        } else {
-            this.arcKey2 = null;
-        }
+        Arc arc = (Arc) this.itsTarget.getGraphObject();
+        this.arcType = arc.getType();
+        // the node at the other end of an undirected arc has the source type
+        this.otherType = arc.getSourceType();
         this.withNTI = arc.getContext().getTypeSet().hasInheritance();
     }
 
+    /**
+     * Returns the bucket of the arcs of the arc type to nodes of the source
+     * type, with node type inheritance the arcs of the arc type.
+     */
     public final HashSet<?> execute() {//Arc
         // nodes of an undirected graph store all arcs as the outgoing arcs 
+        Node n = (Node) getSourceInstance(0);
         if (this.withNTI) {
-            return ((Node) getSourceInstance(0)).getOutgoingArcsSet();
-        }
-        HashSet<Arc> ins = ((Node) getSourceInstance(0)).getOutgoingArcsSet();
-        HashSet<Arc> result = new LinkedHashSet<Arc>();
-        Iterator<Arc> iter = ins.iterator();
-        while (iter.hasNext()) {
-            Arc a = iter.next();
-            if ((this.arcKey2 != null && a.convertToKey().equals(this.arcKey2))
-                    || a.convertToKey().equals(this.arcKey)) {
-                result.add(a);
-            }
+            return n.getOutgoingArcsSet(this.arcType);
         }
-        return result;
+        return n.getOutgoingArcsSet(this.arcType, this.otherType);
     }
 
     public final int getSize() {
-        return getTarget().getTypeQuery().getAvgOutgoingDegree();
+        Query_Type sourceQuery = getSource(0).getTypeQuery();
+        return (sourceQuery == null) ? 0 : sourceQuery.getAvgOutgoingDegree(
+                this.arcType, this.withNTI ? null : this.otherType);
     }
 
     /**
@@ -12,16 +12,16 @@
 package agg.xt_basis.csp;
 
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
 import agg.util.csp.Query;
 import agg.util.csp.Variable;
 import agg.xt_basis.Arc;
 import agg.xt_basis.Node;
+import agg.xt_basis.Type;
 
 public class Query_Outgoing extends Query {
 
-    private String arcKey;
+    private final Type arcType;
+    private final Type targetType;
     private boolean withNTI; // graph with Node Type Inheritance
 
     /**
@@ -30,29 +30,28 @@ public class Query_Outgoing extends Query {
      */
     public Query_Outgoing(Variable obj, Variable tar) {
         super(obj, tar, 6);
-        this.arcKey = ((Arc) this.itsTarget.getGraphObject()).convertToKey();
-        this.withNTI = ((Arc) this.itsTarget.getGraphObject()).getContext().getTypeSet().hasInheritance();
+        Arc arc = (Arc) this.itsTarget.getGraphObject();
+        this.arcType = arc.getType();
+        this.targetType = arc.getTargetType();
+        this.withNTI = arc.getContext().getTypeSet().hasInheritance();
     }
 
+    /**
+     * Returns the bucket of the outgoing arcs of the arc type and target
+     * type, with node type inheritance the outgoing arcs of the arc type.
+     */
     public final HashSet<?> execute() {//Arc
+        Node n = (Node) getSourceInstance(0);
         if (this.withNTI) {
-            return ((Node) getSourceInstance(0)).getOutgoingArcsSet();
-        }
-        HashSet<Arc> outs = ((Node) getSourceInstance(0)).getOutgoingArcsSet();
-        HashSet<Arc> result = new LinkedHashSet<Arc>(); //outs.size());
-        Iterator<Arc> iter = outs.iterator();
-        while (iter.hasNext()) {
-            Arc a = iter.next();
-            if (a.convertToKey().equals(this.arcKey)) {
-                result.add(a);
-            }
+            return n.getOutgoingArcsSet(this.arcType);
         }
-        return result;
+        return n.getOutgoingArcsSet(this.arcType, this.targetType);
     }
 
     public final int getSize() {
-//		return 1; // pablo
-        return getTarget().getTypeQuery().getAvgOutgoingDegree(); // pablo
+        Query_Type sourceQuery = getSource(0).getTypeQuery();
+        return (sourceQuery == null) ? 0 : sourceQuery.getAvgOutgoingDegree(
+                this.arcType, this.withNTI ? null : this.targetType);
     }
 
     /**
@@ -10,20 +10,26 @@
  */
 package agg.xt_basis.csp;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Random;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import agg.util.csp.Query;
 import agg.util.csp.Variable;
 import agg.xt_basis.GraphObject;
+import agg.xt_basis.Node;
+import agg.xt_basis.Type;
 
 public class Query_Type extends Query {
 
     private HashSet<GraphObject> itsObjects;
     private HashSet<GraphObject> objList;
+    private Collection<GraphObject> restriction;
     private boolean randomized;
 
     /**
@@ -55,28 +61,45 @@ public class Query_Type extends Query {
     public void setObjects(final HashSet<GraphObject> objects) {
         if (objects != null && this.objList != objects) {
             this.objList = objects;
-            if (this.randomized && this.objList.size() > 1) {
-                this.itsObjects.clear();
-                this.randomize(this.objList);
-            } else {
-                this.itsObjects.clear();
-                this.itsObjects.addAll(this.objList);
-            }
-            getTarget().setDomainSize(this.itsObjects.size());
+            fillObjects();
         }
     }
 
     public void resetObjects() {
         if (this.objList != null) {
-            if (this.randomized && this.objList.size() > 1) {
-                this.itsObjects.clear();
-                this.randomize(this.objList);
-            } else {
-                this.itsObjects.clear();
-                this.itsObjects.addAll(this.objList);
+            fillObjects();
+        }
+    }
+
+    /**
+     * Restrict my objects to the specified objects. The restriction is kept
+     * when my objects are set or reset, until it is removed by
+     * <code>null</code>.
+     */
+    public void restrictObjects(final Collection<GraphObject> objects) {
+        this.restriction = objects;
+        resetObjects();
+    }
+
+    private void fillObjects() {
+        Collection<GraphObject> objects = this.objList;
+        if (this.restriction != null) {
+            objects = new ArrayList<GraphObject>(this.restriction.size());
+            for (GraphObject go : this.restriction) {
+                if (this.objList.contains(go)) {
+                    objects.add(go);
+                }
             }
-            getTarget().setDomainSize(this.itsObjects.size());
         }
+        this.itsObjects.clear();
+        if (this.randomized && objects.size() > 1) {
+            this.randomize(objects);
+        } else {
+            this.itsObjects.addAll(objects);
+        }
+        getTarget().setDomainSize(this.itsObjects.size());
+        this.outgoing.clear();
+        this.incoming.clear();
     }
 
     public final HashSet<?> execute() {
@@ -102,57 +125,65 @@ public class Query_Type extends Query {
     }
     // pablo -->
     /**
-     * Caches results of getAvgOutgoingDegree().
+     * Caches results of getAvgOutgoingDegree(Type, Type) until the objects
+     * are set again.
      *
-     * @see Query_Type.getAvgOutgoingDegree()
+     * @see Query_Type.getAvgOutgoingDegree(Type, Type)
      */
-    int outgoing = -1;
+    private final Map<List<Type>, Integer> outgoing = new HashMap<>(4);
 
     /**
-     * Calculates the average degree of incoming arcs of all nodes in this type
-     * query.
+     * Calculates the average number of outgoing arcs of the specified arc type
+     * to nodes of the specified type of all nodes in this type query. The
+     * numbers are taken from the arc buckets of the nodes.
+     *
+     * @param arcType the arc type
+     * @param targetType the type of the target nodes or null for all nodes
      */
-    public final int getAvgOutgoingDegree() {
+    public final int getAvgOutgoingDegree(final Type arcType, final Type targetType) {
         if (this.getSize() <= 0) {
             return 0;
         }
-        // calculate average degree
-        if (this.outgoing == -1) {
-            this.outgoing = 0;
-            Iterator<?> iter = this.itsObjects.iterator();
-            while (iter.hasNext()) {
-                GraphObject go = (GraphObject) iter.next();
-                this.outgoing += go.getNumberOfOutgoingArcs();
+        return this.outgoing.computeIfAbsent(Arrays.asList(arcType, targetType), k -> {
+            int degree = 0;
+            for (GraphObject go : this.itsObjects) {
+                if (go.isNode()) {
+                    degree += ((Node) go).getNumberOfOutgoingArcsInBucket(arcType, targetType);
+                }
             }
-            this.outgoing /= this.getSize();
-        }
-        return this.outgoing;
+            return degree / this.getSize();
+        });
     }
+
     /**
-     * Caches results of getAvgIncomingDegree().
+     * Caches results of getAvgIncomingDegree(Type, Type) until the objects
+     * are set again.
      *
-     * @see Query_Type.getAvgIncomingDegree()
+     * @see Query_Type.getAvgIncomingDegree(Type, Type)
      */
-    int incoming = -1;
+    private final Map<List<Type>, Integer> incoming = new HashMap<>(4);
 
     /**
-     * all nodes in this type query.
+     * Calculates the average number of incoming arcs of the specified arc type
+     * from nodes of the specified type of all nodes in this type query. The
+     * numbers are taken from the arc buckets of the nodes.
+     *
+     * @param arcType the arc type
+     * @param sourceType the type of the source nodes or null for all nodes
      */
-    public final int getAvgIncomingDegree() {
+    public final int getAvgIncomingDegree(final Type arcType, final Type sourceType) {
         if (this.getSize() <= 0) {
             return 0;
         }
-        // calculate average degree
-        if (this.incoming == -1) {
-            this.incoming = 0;
-            Iterator<?> iter = this.itsObjects.iterator();
-            while (iter.hasNext()) {
-                GraphObject go = (GraphObject) iter.next();
-                this.incoming += go.getNumberOfIncomingArcs();
+        return this.incoming.computeIfAbsent(Arrays.asList(arcType, sourceType), k -> {
+            int degree = 0;
+            for (GraphObject go : this.itsObjects) {
+                if (go.isNode()) {
+                    degree += ((Node) go).getNumberOfIncomingArcsInBucket(arcType, sourceType);
+                }
             }
-            this.incoming /= this.getSize();
-        }
-        return this.incoming;
+            return degree / this.getSize();
+        });
     }
 
     /* (non-Javadoc)
@@ -162,7 +193,7 @@ public class Query_Type extends Query {
         return this.itsObjects.isEmpty();
     }
 
-    private void randomize(HashSet<GraphObject> objects) {
+    private void randomize(Collection<GraphObject> objects) {
         final List<GraphObject> newDom = new ArrayList<GraphObject>(objects);
         final Random r = new Random();
         while (newDom.size() > 0) {
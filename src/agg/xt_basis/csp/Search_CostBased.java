@@ -0,0 +1,549 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying
+ * materials are made available under the terms of the Eclipse Public License
+ * v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package agg.xt_basis.csp;
+
+import agg.util.csp.CSP;
+import agg.util.csp.Query;
+import agg.util.csp.SearchStrategy;
+import agg.util.csp.Variable;
+import agg.xt_basis.Arc;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.GraphStatistics;
+import agg.xt_basis.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * A search strategy that chooses the query order with the least estimated
+ * cost. The cost of a plan is the count of candidates the queries are
+ * expected to return, summed over all steps: a step returns the size of its
+ * query for each partial solution of the steps before. The sizes are
+ * estimated by the statistics of the host graph, see
+ * {@link Graph#getStatistics()}: the domain sizes of the type queries and
+ * the mean degrees of the nodes for the queries of arcs. A second arc of the
+ * same type at a node is estimated by the degree weighted mean degree, so a
+ * plan does not walk from one arc of a hub to its other arcs.
+ *
+ * <p>
+ * Up to {@link #MAX_EXACT} variables without instance the cheapest order is
+ * found by dynamic programming over the sets of variables, more variables are
+ * ordered greedily by the cheapest next step. In both cases the next variable
+ * is taken from the variables connected to the variables before, as long as
+ * there are some.
+ *
+ * <p>
+ * A plan is kept for the left-hand side and its preinstantiated variables and
+ * used again, until a domain size or a mean degree drifted by more than an
+ * eighth.
+ *
+ * @author Janusch Rentenatus
+ */
+public class Search_CostBased implements SearchStrategy {
+
+    /**
+     * The maximal count of variables ordered by dynamic programming.
+     */
+    public static final int MAX_EXACT = 15;
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<List<Object>, Plan> itsPlans = new HashMap<>(4);
+    private int itsPlanCount;
+
+    public Search_CostBased() {
+    }
+
+    /**
+     * Returns the cheapest query order of the CSP.
+     */
+    public Vector<Query> execute(final CSP csp) {
+        final Model model = new Model(csp);
+        if (model.vars.length == 0) {
+            return new Vector<Query>(0);
+        }
+        final Plan plan = this.itsPlans.get(model.key);
+        if (plan != null && !plan.drifted(model)) {
+            final Vector<Query> queries = plan.bind(csp, model.vars.length);
+            if (queries != null) {
+                return queries;
+            }
+        }
+        final int[] order = model.vars.length <= MAX_EXACT ? model.exactOrder() : model.greedyOrder();
+        final Vector<Query> queries = model.queries(order);
+        this.itsPlans.put(model.key, new Plan(model, queries));
+        this.itsPlanCount++;
+        return queries;
+    }
+
+    /**
+     * Returns true, if the queries are not the plan of the current
+     * preinstantiated variables of the CSP or if the statistics of the domain
+     * drifted since the plan was computed.
+     */
+    public boolean isOutdated(final CSP csp, final Vector<Query> queries) {
+        final Model model = new Model(csp);
+        if (model.vars.length == 0) {
+            return !queries.isEmpty();
+        }
+        final Plan plan = this.itsPlans.get(model.key);
+        return plan == null || !plan.describes(queries) || plan.drifted(model);
+    }
+
+    /**
+     * Returns the count of the plans computed so far, plans used again are
+     * not counted.
+     */
+    public int getPlanCount() {
+        return this.itsPlanCount;
+    }
+
+    /**
+     * Forgets all plans.
+     */
+    public void clear() {
+        this.itsPlans.clear();
+    }
+
+    /**
+     * A query which determines a variable by an other variable, with its
+     * estimated size.
+     */
+    private static final class Link {
+
+        final Query query;
+        /**
+         * The index of the source variable or -1, if it is preinstantiated.
+         */
+        final int source;
+        /**
+         * The estimated size for the first and for a further arc of the same
+         * kind at the source node.
+         */
+        double mean = 1;
+        double biased = 1;
+        /**
+         * The other variables with a link of the same kind from the same
+         * node.
+         */
+        int[] siblings = NONE;
+        int boundSiblings;
+        /**
+         * The selectivity of the constraint of this link, if the target is
+         * determined by another query.
+         */
+        double selectivity = 1;
+
+        Link(final Query query, final int source) {
+            this.query = query;
+            this.source = source;
+        }
+
+        boolean isApplicable(final long[] bound) {
+            return this.source < 0 || has(bound, this.source);
+        }
+
+        double estimate(final long[] bound) {
+            int m = this.boundSiblings;
+            for (int sibling : this.siblings) {
+                if (has(bound, sibling)) {
+                    m++;
+                }
+            }
+            return m == 0 ? this.mean : Math.max(0, this.biased - m);
+        }
+    }
+
+    /**
+     * The cost model of the variables without instance.
+     */
+    private static final class Model {
+
+        final List<Object> key;
+        final Variable[] vars;
+        final double[] sizes;
+        final Link[][] links;
+        /**
+         * The inputs of the estimation of each variable: domain size, sum of
+         * the mean and sum of the weighted mean degrees.
+         */
+        final Map<Object, double[]> inputs = new IdentityHashMap<>();
+        // result of estimate()
+        double size;
+        double selectivity;
+        Link link;
+
+        Model(final CSP csp) {
+            final List<Variable> free = new ArrayList<>();
+            final List<Variable> all = new ArrayList<>();
+            final Set<Object> bound = new HashSet<>();
+            final Enumeration<Variable> anEnum = csp.getVariables();
+            while (anEnum.hasMoreElements()) {
+                final Variable aVar = anEnum.nextElement();
+                all.add(aVar);
+                if (aVar.getInstance() == null) {
+                    free.add(aVar);
+                } else {
+                    bound.add(aVar.getGraphObject());
+                }
+            }
+            final GraphStatistics stats = csp.getDomain() instanceof Graph
+                    ? ((Graph) csp.getDomain()).getStatistics() : null;
+            this.key = Arrays.asList(all.isEmpty() ? null : ((GraphObject) all.get(0).getGraphObject()).getContext(),
+                    bound);
+            this.vars = free.toArray(new Variable[free.size()]);
+            this.sizes = new double[this.vars.length];
+            this.links = new Link[this.vars.length][];
+            final Map<Variable, Integer> index = new IdentityHashMap<>();
+            for (int i = 0; i < this.vars.length; i++) {
+                index.put(this.vars[i], i);
+                this.sizes[i] = domainSize(this.vars[i]);
+            }
+            final Map<List<Object>, List<Link>> kinds = new HashMap<>();
+            final Map<List<Object>, Integer> boundKinds = new HashMap<>();
+            for (Variable aVar : all) {
+                final Integer i = index.get(aVar);
+                final List<Link> varLinks = new ArrayList<>(2);
+                final Iterator<Query> queries = aVar.getIncomingQueries();
+                while (queries.hasNext()) {
+                    final Query q = queries.next();
+                    if (q instanceof Query_Type || q.getSources().size() != 1) {
+                        continue;
+                    }
+                    final Variable src = q.getSource(0);
+                    final Integer s = index.get(src);
+                    final Link l = new Link(q, s == null ? -1 : s);
+                    if (aVar.getKind() == Variable.ARC) {
+                        final List<Object> kind = kindOf(q, src);
+                        if (i == null) {
+                            boundKinds.merge(kind, 1, Integer::sum);
+                            continue;
+                        }
+                        estimateArc(l, (Arc) aVar.getGraphObject(), src, stats);
+                        l.selectivity = 1 / Math.max(1, domainSize(src));
+                        kinds.computeIfAbsent(kind, k -> new ArrayList<>(2)).add(l);
+                    } else if (i != null) {
+                        l.selectivity = 1 / Math.max(1, this.sizes[i]);
+                    }
+                    varLinks.add(l);
+                }
+                if (i != null) {
+                    this.links[i] = varLinks.toArray(new Link[varLinks.size()]);
+                    double means = 0;
+                    double biased = 0;
+                    for (Link l : this.links[i]) {
+                        means += l.mean;
+                        biased += l.biased;
+                    }
+                    this.inputs.put(aVar.getGraphObject(), new double[]{this.sizes[i], means, biased});
+                }
+            }
+            for (Map.Entry<List<Object>, List<Link>> e : kinds.entrySet()) {
+                final Integer boundCount = boundKinds.get(e.getKey());
+                final List<Link> same = e.getValue();
+                for (Link l : same) {
+                    if (same.size() > 1) {
+                        l.siblings = new int[same.size() - 1];
+                        int j = 0;
+                        for (Link other : same) {
+                            if (other != l) {
+                                l.siblings[j++] = index.get(other.query.getTarget());
+                            }
+                        }
+                    }
+                    l.boundSiblings = boundCount == null ? 0 : boundCount;
+                }
+            }
+        }
+
+        /**
+         * The kind of a query of an arc: the source node, the kind of the
+         * query and the types of the arc.
+         */
+        private static List<Object> kindOf(final Query q, final Variable src) {
+            final Arc arc = (Arc) q.getTarget().getGraphObject();
+            return Arrays.asList(src, q.getKind(), arc.getType(), arc.getSourceType(), arc.getTargetType());
+        }
+
+        private static void estimateArc(final Link l, final Arc arc, final Variable src,
+                final GraphStatistics stats) {
+            final boolean withNTI = arc.getContext().getTypeSet().hasInheritance();
+            final Type nodeType = ((GraphObject) src.getGraphObject()).getType();
+            final String kind = l.query.getKind();
+            GraphStatistics.Degrees degrees = null;
+            if (stats != null) {
+                if ("Query_Outgoing".equals(kind) || "Query_OutgoingIncoming".equals(kind)) {
+                    degrees = stats.getDegrees(nodeType, arc.getType(),
+                            withNTI ? null : arc.getTargetType(), true);
+                } else if ("Query_Incoming".equals(kind)) {
+                    degrees = stats.getDegrees(nodeType, arc.getType(),
+                            withNTI ? null : arc.getSourceType(), false);
+                } else if ("Query_IncomingOutgoing".equals(kind)) {
+                    // nodes of an undirected graph store all arcs as outgoing arcs
+                    degrees = stats.getDegrees(nodeType, arc.getType(),
+                            withNTI ? null : arc.getSourceType(), true);
+                }
+            }
+            if (degrees != null) {
+                l.mean = degrees.getMean();
+                l.biased = degrees.getSizeBiasedMean();
+            } else {
+                l.mean = l.query.getSize();
+                l.biased = l.mean;
+            }
+        }
+
+        private static double domainSize(final Variable v) {
+            final Query_Type q = v.getTypeQuery();
+            return q != null ? q.getSize() : v.getDomainSize();
+        }
+
+        /**
+         * Estimates the step of the specified variable after the bound
+         * variables: the size of its cheapest applicable query and the
+         * selectivity of its other constraints. Returns false, if no query
+         * but the type query is applicable.
+         */
+        boolean estimate(final int x, final long[] bound) {
+            this.size = this.sizes[x];
+            this.link = null;
+            final Link[] varLinks = this.links[x];
+            for (Link l : varLinks) {
+                if (l.isApplicable(bound)) {
+                    final double e = l.estimate(bound);
+                    if (e < this.size || this.link == null && e == this.size) {
+                        this.size = e;
+                        this.link = l;
+                    }
+                }
+            }
+            this.selectivity = 1;
+            boolean connected = false;
+            for (Link l : varLinks) {
+                if (l.isApplicable(bound)) {
+                    connected = true;
+                    if (l != this.link) {
+                        this.selectivity *= l.selectivity;
+                    }
+                }
+            }
+            return connected;
+        }
+
+        /**
+         * Returns true, if a variable which is not bound has an applicable
+         * query of another variable.
+         */
+        private boolean hasFrontier(final long[] bound) {
+            for (int x = 0; x < this.vars.length; x++) {
+                if (!has(bound, x)) {
+                    for (Link l : this.links[x]) {
+                        if (l.isApplicable(bound)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        int[] exactOrder() {
+            final int k = this.vars.length;
+            final int full = (1 << k) - 1;
+            final double[] cost = new double[full + 1];
+            final double[] card = new double[full + 1];
+            final byte[] last = new byte[full + 1];
+            final long[] bound = new long[1];
+            Arrays.fill(cost, Double.POSITIVE_INFINITY);
+            cost[0] = 0;
+            card[0] = 1;
+            for (int mask = 0; mask < full; mask++) {
+                if (cost[mask] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                bound[0] = mask;
+                final boolean frontier = hasFrontier(bound);
+                for (int x = 0; x < k; x++) {
+                    final int bit = 1 << x;
+                    if ((mask & bit) != 0 || !estimate(x, bound) && frontier) {
+                        continue;
+                    }
+                    final double c = cost[mask] + card[mask] * this.size;
+                    final double n = card[mask] * this.size * this.selectivity;
+                    final int next = mask | bit;
+                    if (c < cost[next] || c == cost[next] && n < card[next]) {
+                        cost[next] = c;
+                        card[next] = n;
+                        last[next] = (byte) x;
+                    }
+                }
+            }
+            final int[] order = new int[k];
+            int mask = full;
+            for (int i = k - 1; i >= 0; i--) {
+                order[i] = last[mask];
+                mask &= ~(1 << order[i]);
+            }
+            return order;
+        }
+
+        int[] greedyOrder() {
+            final int k = this.vars.length;
+            final int[] order = new int[k];
+            final long[] bound = new long[(k + 63) >>> 6];
+            double card = 1;
+            for (int i = 0; i < k; i++) {
+                final boolean frontier = hasFrontier(bound);
+                int best = -1;
+                double bestCost = 0;
+                double bestCard = 0;
+                for (int x = 0; x < k; x++) {
+                    if (has(bound, x) || !estimate(x, bound) && frontier) {
+                        continue;
+                    }
+                    final double c = card * this.size;
+                    final double n = c * this.selectivity;
+                    if (best < 0 || c < bestCost || c == bestCost && n < bestCard) {
+                        best = x;
+                        bestCost = c;
+                        bestCard = n;
+                    }
+                }
+                order[i] = best;
+                set(bound, best);
+                card = bestCard;
+            }
+            return order;
+        }
+
+        Vector<Query> queries(final int[] order) {
+            final Vector<Query> result = new Vector<>(order.length);
+            final long[] bound = new long[(order.length + 63) >>> 6];
+            for (int x : order) {
+                estimate(x, bound);
+                result.add(this.link != null ? this.link.query : this.vars[x].getTypeQuery());
+                set(bound, x);
+            }
+            return result;
+        }
+    }
+
+    private static boolean has(final long[] bits, final int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(final long[] bits, final int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * A plan by the objects of the left-hand side and the inputs of its
+     * estimation.
+     */
+    private static final class Plan {
+
+        final Object[] targets;
+        final Object[] sources;
+        final String[] kinds;
+        final Map<Object, double[]> inputs;
+
+        Plan(final Model model, final List<Query> queries) {
+            this.targets = new Object[queries.size()];
+            this.sources = new Object[queries.size()];
+            this.kinds = new String[queries.size()];
+            for (int i = 0; i < queries.size(); i++) {
+                final Query q = queries.get(i);
+                this.targets[i] = q.getTarget().getGraphObject();
+                this.sources[i] = q instanceof Query_Type ? null : q.getSource(0).getGraphObject();
+                this.kinds[i] = q.getKind();
+            }
+            this.inputs = model.inputs;
+        }
+
+        boolean drifted(final Model model) {
+            if (model.inputs.size() != this.inputs.size()) {
+                return true;
+            }
+            for (Map.Entry<Object, double[]> e : model.inputs.entrySet()) {
+                final double[] before = this.inputs.get(e.getKey());
+                if (before == null) {
+                    return true;
+                }
+                for (int i = 0; i < before.length; i++) {
+                    if (GraphStatistics.drifted(before[i], e.getValue()[i])) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns true, if the queries are the queries of this plan.
+         */
+        boolean describes(final List<Query> queries) {
+            if (queries.size() != this.targets.length) {
+                return false;
+            }
+            for (int i = 0; i < this.targets.length; i++) {
+                final Query q = queries.get(i);
+                if (q.getTarget().getGraphObject() != this.targets[i] || !q.getKind().equals(this.kinds[i])
+                        || (this.sources[i] != null && q.getSource(0).getGraphObject() != this.sources[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the queries of the plan in the specified CSP or null, if a
+         * query is not found.
+         */
+        Vector<Query> bind(final CSP csp, final int count) {
+            if (this.targets.length != count) {
+                return null;
+            }
+            final Vector<Query> result = new Vector<>(count);
+            for (int i = 0; i < this.targets.length; i++) {
+                final Variable target = csp.getVariable((GraphObject) this.targets[i]);
+                if (target == null || target.getInstance() != null) {
+                    return null;
+                }
+                Query found = null;
+                if (this.sources[i] == null) {
+                    found = target.getTypeQuery();
+                } else {
+                    final Variable source = csp.getVariable((GraphObject) this.sources[i]);
+                    final Iterator<Query> queries = target.getIncomingQueries();
+                    while (queries.hasNext() && found == null) {
+                        final Query q = queries.next();
+                        if (!(q instanceof Query_Type) && q.getSource(0) == source
+                                && q.getKind().equals(this.kinds[i])) {
+                            found = q;
+                        }
+                    }
+                }
+                if (found == null) {
+                    return null;
+                }
+                result.add(found);
+            }
+            return result;
+        }
+    }
+}
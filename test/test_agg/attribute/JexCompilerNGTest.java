@@ -0,0 +1,319 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.attribute;
+
+import agg.attribute.AttrContext;
+import agg.attribute.AttrInstance;
+import agg.attribute.AttrVariableTuple;
+import agg.attribute.handler.AttrHandlerException;
+import agg.attribute.handler.HandlerExpr;
+import agg.attribute.handler.HandlerType;
+import agg.attribute.handler.SymbolTable;
+import agg.attribute.handler.impl.javaExpr.JexExpr;
+import agg.attribute.handler.impl.javaExpr.JexHandler;
+import agg.attribute.handler.impl.javaExpr.JexType;
+import agg.attribute.impl.CondMember;
+import agg.attribute.impl.CondTuple;
+import agg.attribute.impl.ValueMember;
+import agg.attribute.impl.ValueTuple;
+import agg.attribute.impl.VarMember;
+import agg.attribute.parser.javaExpr.JexCode;
+import agg.attribute.parser.javaExpr.Node;
+import agg.cons.AtomConstraint;
+import agg.util.Pair;
+import agg.xt_basis.Arc;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Rule;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the values of compiled attribute expressions with the values computed by the interpreter.
+ *
+ * @author Janusch Rentenatus
+ */
+public class JexCompilerNGTest {
+
+    private static final String[][] EXPRESSIONS = {
+        {"int", "x+y*2"},
+        {"int", "(x-y)/2+x%2"},
+        {"int", "-x"},
+        {"float", "f*x+1.5"},
+        {"boolean", "x<y && s.length()==2"},
+        {"boolean", "x>=y || !b"},
+        {"boolean", "x==y"},
+        {"boolean", "f!=x"},
+        {"boolean", "b==true"},
+        {"boolean", "s.equals(\"ab\")"},
+        {"String", "s+x"},
+        {"String", "s.substring(1)+'c'"},
+        {"int", "x%2==1 ? x : y"},
+        {"int", "Math.max(x,y)"},
+        {"int", "Integer.MAX_VALUE-x"}
+    };
+
+    private static final String[] FILES = {
+        "test_agg/xt_basis/knots/KnotsSem.ggx",
+        "test_agg/xt_basis/tictactoe/TicTacToeSem.ggx",
+        "test_agg/graphs/Lovers_Graph.ggx"
+    };
+
+    private static final Map<Class<?>, String> SAMPLES = new HashMap<>();
+
+    static {
+        SAMPLES.put(Integer.TYPE, "17");
+        SAMPLES.put(Float.TYPE, "2.5");
+        SAMPLES.put(Double.TYPE, "2.5");
+        SAMPLES.put(Boolean.TYPE, "true");
+        SAMPLES.put(String.class, "\"ab\"");
+    }
+
+    private final JexHandler handler = new JexHandler();
+    private final Map<String, HandlerType> types = new HashMap<>();
+    private final Map<String, HandlerExpr> values = new HashMap<>();
+    private final SymbolTable symtab = new SymbolTable() {
+        @Override
+        public HandlerType getType(String name) {
+            return types.get(name);
+        }
+
+        @Override
+        public HandlerExpr getExpr(String name) {
+            return values.get(name);
+        }
+    };
+
+    public JexCompilerNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start JexCompilerNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End JexCompilerNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws AttrHandlerException {
+        long startTime = System.nanoTime();
+        declare("x", "int", "3");
+        declare("y", "int", "4");
+        declare("f", "float", "2.5");
+        declare("b", "boolean", "false");
+        declare("s", "String", "\"ab\"");
+        for (String[] e : EXPRESSIONS) {
+            HandlerType type = this.handler.newHandlerType(e[0]);
+            JexExpr expr = (JexExpr) this.handler.newHandlerExpr(type, e[1]);
+            this.handler.adaptParser();
+            Node ast = expr.getAST();
+            Object interpreted = JexExpr.getParser().interpret(ast.copy(), type.getClazz(), this.symtab);
+            JexCode code = JexExpr.getParser().compile(ast, this.symtab);
+            assertNotNull(code, e[1] + " is not compiled.");
+            assertEquals(code.evaluate(this.symtab), interpreted, e[1]);
+            JexExpr copy = (JexExpr) expr.getCopy();
+            copy.evaluate(this.symtab);
+            assertEquals(copy.getValue(), interpreted, e[1]);
+            assertEquals(expr.getString(), ast.getString(), "The tree of " + e[1] + " is changed.");
+        }
+        // a variable without value is left to the interpreter
+        this.values.remove("y");
+        JexExpr expr = (JexExpr) this.handler.newHandlerExpr(this.handler.newHandlerType("int"), "x+y");
+        JexCode code = JexExpr.getParser().compile(expr.getAST(), this.symtab);
+        assertNotNull(code);
+        assertSame(code.evaluate(this.symtab), JexCode.UNDECIDED);
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * A method call, which returns null or nothing, is evaluated once.
+     */
+    @Test
+    public void testSideEffects() throws AttrHandlerException {
+        HandlerType mapType = this.handler.newHandlerType("java.util.HashMap");
+        HashMap<String, String> map = new HashMap<>();
+        this.types.put("m", mapType);
+        this.values.put("m", new JexExpr(map, (JexType) mapType));
+        declare("s", "String", "\"ab\"");
+        HandlerType type = this.handler.newHandlerType("java.lang.Object");
+        JexExpr put = (JexExpr) this.handler.newHandlerExpr(type, "m.put(s+m.size(),s)");
+        this.handler.adaptParser();
+        put.evaluate(this.symtab);
+        assertNull(put.getValue());
+        assertEquals(map.size(), 1, "m.put(..) is evaluated twice.");
+        JexExpr clear = (JexExpr) this.handler.newHandlerExpr(type, "m.clear()");
+        this.handler.adaptParser();
+        map.put("k", "v");
+        clear.evaluate(this.symtab);
+        assertNull(clear.getValue());
+        assertTrue(map.isEmpty());
+        JexCode code = JexExpr.getParser().compile(put.getAST(), this.symtab);
+        assertNotNull(code);
+        assertNull(code.evaluate(this.symtab));
+        assertEquals(map.size(), 1);
+    }
+
+    /**
+     * Compares the compiled and the interpreted values of the attribute expressions and conditions of the grammars
+     * used by the tests. The variables of a rule or a conclusion get a value of their type.
+     */
+    @Test
+    public void testGrammarExpressions() throws Exception {
+        int compared = 0;
+        int total = 0;
+        for (String fileName : FILES) {
+            GraGra gragra = new GraGra(false);
+            gragra.load(fileName);
+            List<Pair<JexExpr, HandlerType>> exprs = new ArrayList<>();
+            collect(gragra.getGraph(), exprs);
+            compared += compare(exprs, gragra.getGraph().getAttrContext());
+            total += exprs.size();
+            for (Rule r : gragra.getListOfRules()) {
+                exprs.clear();
+                collect(r.getLeft(), exprs);
+                collect(r.getRight(), exprs);
+                for (OrdinaryMorphism ac : r.getNACsList()) {
+                    collect(ac.getTarget(), exprs);
+                }
+                for (OrdinaryMorphism ac : r.getPACsList()) {
+                    collect(ac.getTarget(), exprs);
+                }
+                collect(r.getAttrContext(), exprs);
+                compared += compare(exprs, r.getAttrContext());
+                total += exprs.size();
+            }
+            for (AtomConstraint a : gragra.getListOfAtomics()) {
+                Enumeration<AtomConstraint> conclusions = a.getConclusions();
+                while (conclusions.hasMoreElements()) {
+                    AtomConstraint c = conclusions.nextElement();
+                    exprs.clear();
+                    collect(c.getSource(), exprs);
+                    collect(c.getTarget(), exprs);
+                    collect(c.getAttrContext(), exprs);
+                    compared += compare(exprs, c.getAttrContext());
+                    total += exprs.size();
+                }
+            }
+        }
+        System.out.println("compared expressions: " + compared + " of " + total);
+        assertTrue(compared > 0);
+    }
+
+    /**
+     * Returns the count of expressions, whose compiled values are compared with the interpreted values.
+     */
+    private int compare(List<Pair<JexExpr, HandlerType>> exprs, AttrContext context) throws AttrHandlerException {
+        declareVariables(context);
+        int compared = 0;
+        for (Pair<JexExpr, HandlerType> p : exprs) {
+            Node ast = p.first.getAST();
+            if (ast == null) {
+                continue;
+            }
+            this.handler.adaptParser();
+            Object interpreted;
+            try {
+                interpreted = JexExpr.getParser().interpret(ast.copy(), p.second.getClazz(), this.symtab);
+            } catch (AttrHandlerException ex) {
+                continue;
+            }
+            JexCode code = JexExpr.getParser().compile(ast, this.symtab);
+            if (code == null) {
+                continue;
+            }
+            Object value = code.evaluate(this.symtab);
+            if (value != JexCode.UNDECIDED) {
+                assertEquals(value, interpreted, ast.getString());
+                compared++;
+            }
+        }
+        return compared;
+    }
+
+    /**
+     * Declares the variables of the context with a value of their type.
+     */
+    private void declareVariables(AttrContext context) throws AttrHandlerException {
+        this.types.clear();
+        this.values.clear();
+        if (context == null) {
+            return;
+        }
+        AttrVariableTuple variables = context.getVariables();
+        for (int i = 0; i < variables.getSize(); i++) {
+            VarMember vm = variables.getVarMemberAt(i);
+            HandlerType type = vm.getDeclaration().getType();
+            String value = type != null ? SAMPLES.get(type.getClazz()) : null;
+            if (value != null) {
+                this.types.put(vm.getName(), type);
+                this.values.put(vm.getName(), this.handler.newHandlerExpr(type, value));
+            }
+        }
+    }
+
+    private static void collect(Graph g, List<Pair<JexExpr, HandlerType>> exprs) {
+        if (g == null) {
+            return;
+        }
+        for (agg.xt_basis.Node n : g.getNodesSet()) {
+            collect(n.getAttribute(), exprs);
+        }
+        for (Arc a : g.getArcsSet()) {
+            collect(a.getAttribute(), exprs);
+        }
+    }
+
+    private static void collect(AttrInstance attr, List<Pair<JexExpr, HandlerType>> exprs) {
+        if (attr == null) {
+            return;
+        }
+        ValueTuple value = (ValueTuple) attr;
+        for (int i = 0; i < value.getNumberOfEntries(); i++) {
+            ValueMember vm = value.getValueMemberAt(i);
+            if (vm != null && vm.getExpr() instanceof JexExpr && vm.getDeclaration() != null) {
+                exprs.add(new Pair<>((JexExpr) vm.getExpr(), vm.getDeclaration().getType()));
+            }
+        }
+    }
+
+    private void collect(AttrContext context, List<Pair<JexExpr, HandlerType>> exprs) throws AttrHandlerException {
+        if (context == null) {
+            return;
+        }
+        CondTuple conditions = (CondTuple) context.getConditions();
+        HandlerType type = this.handler.newHandlerType("boolean");
+        for (int i = 0; i < conditions.getSize(); i++) {
+            CondMember cm = conditions.getCondMemberAt(i);
+            if (cm != null && cm.getExpr() instanceof JexExpr) {
+                exprs.add(new Pair<>((JexExpr) cm.getExpr(), type));
+            }
+        }
+    }
+
+    private void declare(String name, String typeString, String value) throws AttrHandlerException {
+        HandlerType type = this.handler.newHandlerType(typeString);
+        this.types.put(name, type);
+        this.values.put(name, this.handler.newHandlerExpr(type, value));
+    }
+
+}
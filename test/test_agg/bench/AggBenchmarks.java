@@ -0,0 +1,321 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.bench;
+
+import agg.attribute.handler.AttrHandlerException;
+import agg.attribute.handler.HandlerExpr;
+import agg.attribute.handler.HandlerType;
+import agg.attribute.handler.SymbolTable;
+import agg.attribute.handler.impl.javaExpr.JexExpr;
+import agg.attribute.handler.impl.javaExpr.JexHandler;
+import agg.attribute.parser.javaExpr.JexCode;
+import agg.parser.ExcludePairContainer;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Match;
+import agg.xt_basis.MorphCompletionStrategy;
+import agg.xt_basis.Rule;
+import agg.xt_basis.StaticStep;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import test_agg.bench.BenchmarkRunner.Operation;
+
+/**
+ * The benchmarks of the transformation engine: matching, transformation steps, copy and isomorphism of graphs,
+ * loading and saving of grammars, evaluation of attribute expressions and critical pair analysis. The graphs are
+ * generated by {@link GraphGenerator} for each size, so the results show how the times grow with the size.
+ *
+ * <p>
+ * Run from the directory <code>assets_test</code>:
+ * <pre>
+ * java test_agg.bench.AggBenchmarks [-wi 3] [-i 5] [-sizes 500,2000,8000] [-o bench-results.json]
+ * </pre>
+ *
+ * @author Janusch Rentenatus
+ */
+public class AggBenchmarks {
+
+    public static final long SEED = 4711;
+
+    public static final String[] FILES = {
+        "test_agg/xt_basis/knots/KnotsSem.ggx",
+        "test_agg/xt_basis/tictactoe/TicTacToeSem.ggx"
+    };
+
+    public static final String[][] EXPRESSIONS = {
+        {"int", "x+y*2"},
+        {"boolean", "x<y && s.length()==2"},
+        {"String", "s.substring(1)+x"},
+        {"int", "Math.max(x,y)"}
+    };
+
+    private final int[] sizes;
+    private final int operations;
+
+    /**
+     * Creates the benchmarks.
+     *
+     * @param sizes the counts of the nodes of the generated host graphs, the graphs have three arcs per node
+     * @param operations the count of operations of an iteration of the faster benchmarks
+     */
+    public AggBenchmarks(int[] sizes, int operations) {
+        this.sizes = sizes;
+        this.operations = operations;
+    }
+
+    /**
+     * Adds all benchmarks to the runner.
+     *
+     * @param runner the runner
+     */
+    public void addTo(BenchmarkRunner runner) {
+        String[] sizeParams = new String[this.sizes.length];
+        String[] smallParams = new String[this.sizes.length];
+        for (int i = 0; i < this.sizes.length; i++) {
+            sizeParams[i] = String.valueOf(this.sizes[i]);
+            smallParams[i] = String.valueOf(Math.max(10, this.sizes[i] / 10));
+        }
+        String[] exprParams = new String[EXPRESSIONS.length];
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            exprParams[i] = EXPRESSIONS[i][1];
+        }
+        runner.add("matchNextCompletion", "nodes", sizeParams, this.operations, this::setUpMatch);
+        runner.add("staticStepExecute", "nodes", sizeParams, this.operations, this::setUpStep);
+        runner.add("graphcopy", "nodes", sizeParams, Math.max(1, this.operations / 10), this::setUpCopy);
+        runner.add("isIsomorphicTo", "nodes", smallParams, Math.max(1, this.operations / 10), this::setUpIsomorphic);
+        runner.add("xmlLoad", "file", FILES, 1, this::setUpLoad);
+        runner.add("xmlSave", "file", FILES, 1, this::setUpSave);
+        runner.add("jexInterpret", "expression", exprParams, this.operations * 10, p -> setUpJex(p, false));
+        runner.add("jexCompiled", "expression", exprParams, this.operations * 10, p -> setUpJex(p, true));
+        runner.add("criticalPairs", "rules", new String[]{"2", "4"}, 1, this::setUpCriticalPairs);
+    }
+
+    private static MorphCompletionStrategy createStrategy() {
+        return new Completion_NAC(new Completion_InjCSP(false));
+    }
+
+    private static Match createMatch(GraGra gragra, Rule rule) {
+        Match m = gragra.createMatch(rule);
+        m.setCompletionStrategy(createStrategy(), true);
+        return m;
+    }
+
+    /**
+     * The next completion of a path of two arcs, a new match is created when all completions are found.
+     */
+    private Operation setUpMatch(String param) throws Exception {
+        int nodes = Integer.parseInt(param);
+        GraphGenerator generator = new GraphGenerator(SEED, 3, 2);
+        GraGra gragra = generator.createGraGra(nodes, 3 * nodes);
+        Rule rule = generator.createPathRule(gragra, "path", 2);
+        return new Operation() {
+            Match m;
+            boolean found;
+
+            @Override
+            public void prepare() {
+                if (this.m == null || !this.found) {
+                    if (this.m != null) {
+                        gragra.destroyMatch(this.m);
+                    }
+                    this.m = createMatch(gragra, rule);
+                }
+            }
+
+            @Override
+            public Object run() {
+                this.found = this.m.nextCompletion();
+                return this.found;
+            }
+        };
+    }
+
+    /**
+     * The step of a rule, which replaces an arc by a node and two arcs, the match is found before.
+     */
+    private Operation setUpStep(String param) throws Exception {
+        int nodes = Integer.parseInt(param);
+        GraphGenerator generator = new GraphGenerator(SEED, 1, 1);
+        GraGra gragra = generator.createGraGra(nodes, 3 * nodes);
+        Rule rule = generator.createSplitRule(gragra, "split", 0, 0);
+        return new Operation() {
+            Match m;
+
+            @Override
+            public void prepare() {
+                if (this.m != null) {
+                    gragra.destroyMatch(this.m);
+                }
+                this.m = createMatch(gragra, rule);
+                if (!this.m.nextCompletion()) {
+                    throw new IllegalStateException("No match of " + rule.getName());
+                }
+            }
+
+            @Override
+            public Object run() throws Exception {
+                return StaticStep.execute(this.m);
+            }
+        };
+    }
+
+    private Operation setUpCopy(String param) throws Exception {
+        int nodes = Integer.parseInt(param);
+        Graph g = new GraphGenerator(SEED, 3, 2).createGraGra(nodes, 3 * nodes).getGraph();
+        return new Operation() {
+            Graph copy;
+
+            @Override
+            public void prepare() {
+                if (this.copy != null) {
+                    this.copy.dispose();
+                }
+            }
+
+            @Override
+            public Object run() {
+                this.copy = g.graphcopy();
+                return this.copy;
+            }
+        };
+    }
+
+    private Operation setUpIsomorphic(String param) throws Exception {
+        int nodes = Integer.parseInt(param);
+        Graph g = new GraphGenerator(SEED, 3, 2).createGraGra(nodes, 3 * nodes).getGraph();
+        Graph copy = g.graphcopy();
+        return () -> g.isIsomorphicTo(copy);
+    }
+
+    private Operation setUpLoad(String file) {
+        return () -> {
+            GraGra gragra = new GraGra(false);
+            gragra.load(file);
+            return gragra;
+        };
+    }
+
+    private Operation setUpSave(String file) throws Exception {
+        GraGra gragra = new GraGra(false);
+        gragra.load(file);
+        File out = File.createTempFile("bench", ".ggx");
+        out.deleteOnExit();
+        return () -> {
+            gragra.save(out.getPath());
+            return out;
+        };
+    }
+
+    private Operation setUpJex(String expression, boolean compiled) throws AttrHandlerException {
+        JexHandler handler = new JexHandler();
+        Map<String, HandlerType> types = new HashMap<>();
+        Map<String, HandlerExpr> values = new HashMap<>();
+        String[][] declarations = {{"x", "int", "3"}, {"y", "int", "4"}, {"s", "String", "\"ab\""}};
+        for (String[] d : declarations) {
+            HandlerType type = handler.newHandlerType(d[1]);
+            types.put(d[0], type);
+            values.put(d[0], handler.newHandlerExpr(type, d[2]));
+        }
+        SymbolTable symtab = new SymbolTable() {
+            @Override
+            public HandlerType getType(String name) {
+                return types.get(name);
+            }
+
+            @Override
+            public HandlerExpr getExpr(String name) {
+                return values.get(name);
+            }
+        };
+        String typeName = null;
+        for (String[] e : EXPRESSIONS) {
+            if (e[1].equals(expression)) {
+                typeName = e[0];
+            }
+        }
+        HandlerType type = handler.newHandlerType(typeName);
+        JexExpr expr = (JexExpr) handler.newHandlerExpr(type, expression);
+        handler.adaptParser();
+        if (compiled) {
+            JexCode code = JexExpr.getParser().compile(expr.getAST(), symtab);
+            return () -> code.evaluate(symtab);
+        }
+        return () -> JexExpr.getParser().interpret(expr.getAST().copy(), type.getClazz(), symtab);
+    }
+
+    /**
+     * The critical pairs of the split rules of a small grammar.
+     */
+    private Operation setUpCriticalPairs(String param) throws Exception {
+        int count = Integer.parseInt(param);
+        GraphGenerator generator = new GraphGenerator(SEED, 2, 1);
+        GraGra gragra = generator.createGraGra(0, 0);
+        for (int i = 0; i < count; i++) {
+            generator.createSplitRule(gragra, "split" + i, i, i / 2);
+        }
+        return () -> {
+            ExcludePairContainer container = new ExcludePairContainer(gragra);
+            container.setRules(gragra.getListOfRules());
+            container.run();
+            return container;
+        };
+    }
+
+    /**
+     * Runs the benchmarks and writes the results in the JSON format of JMH.
+     *
+     * @param args the options <code>-wi</code> count of warmup iterations, <code>-i</code> count of measured
+     * iterations, <code>-ops</code> count of operations of an iteration, <code>-sizes</code> comma separated counts of
+     * nodes, <code>-o</code> the output file
+     * @throws Exception if a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int warmups = 3;
+        int iterations = 5;
+        int ops = 100;
+        int[] sizes = {500, 2000, 8000};
+        String output = "bench-results.json";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-wi":
+                    warmups = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-i":
+                    iterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-ops":
+                    ops = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-sizes":
+                    String[] s = args[i + 1].split(",");
+                    sizes = new int[s.length];
+                    for (int j = 0; j < s.length; j++) {
+                        sizes[j] = Integer.parseInt(s[j].trim());
+                    }
+                    break;
+                case "-o":
+                    output = args[i + 1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        BenchmarkRunner runner = new BenchmarkRunner(warmups, iterations);
+        new AggBenchmarks(sizes, ops).addTo(runner);
+        runner.run();
+        try (Writer out = new FileWriter(output)) {
+            runner.writeJson(out);
+        }
+        System.out.println("Results written to " + new File(output).getAbsolutePath());
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.bench;
+
+import java.io.StringWriter;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Runs all benchmarks with small graphs and few iterations and checks the results and their JSON output.
+ *
+ * @author Janusch Rentenatus
+ */
+public class AggBenchmarksNGTest {
+
+    public AggBenchmarksNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start AggBenchmarksNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End AggBenchmarksNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws Exception {
+        long startTime = System.nanoTime();
+        BenchmarkRunner runner = new BenchmarkRunner(1, 2);
+        new AggBenchmarks(new int[]{100, 400}, 10).addTo(runner);
+        List<BenchmarkRunner.Result> results = runner.run();
+        int expected = 2 * 4 + 2 * AggBenchmarks.FILES.length + 2 * AggBenchmarks.EXPRESSIONS.length + 2;
+        assertEquals(results.size(), expected);
+        for (BenchmarkRunner.Result r : results) {
+            assertTrue(r.getScore() > 0, r.getBenchmark() + " " + r.getParam());
+        }
+        StringWriter out = new StringWriter();
+        runner.writeJson(out);
+        String json = out.toString();
+        assertTrue(json.startsWith("[") && json.trim().endsWith("]"));
+        for (String name : new String[]{"matchNextCompletion", "staticStepExecute", "graphcopy", "isIsomorphicTo",
+            "xmlLoad", "xmlSave", "jexInterpret", "jexCompiled", "criticalPairs"}) {
+            assertTrue(json.contains("\"test_agg.bench." + name + "\""), name);
+        }
+        assertEquals(json.split("\"primaryMetric\"").length - 1, expected);
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+}
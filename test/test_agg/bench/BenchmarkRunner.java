@@ -0,0 +1,282 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs benchmarks in the manner of JMH in average time mode: each benchmark is run for each value of its parameter,
+ * first the warmup iterations, then the measured iterations. An iteration sets up a fresh state, which is not
+ * measured, and measures a fixed count of operations on it. The results are written in the JSON format of JMH, so
+ * the tools for JMH results can read them.
+ *
+ * <p>
+ * All benchmarks run in the same JVM one after another, there are no forks.
+ *
+ * @author Janusch Rentenatus
+ */
+public class BenchmarkRunner {
+
+    /**
+     * z value of the 99.9% confidence interval of the normal distribution, as JMH reports it.
+     */
+    private static final double Z_999 = 3.2905;
+
+    /**
+     * One operation of a benchmark. Only {@link #run()} is measured.
+     */
+    public interface Operation {
+
+        /**
+         * Prepares the next call of {@link #run()}, it is not measured.
+         *
+         * @throws Exception if the state cannot be prepared
+         */
+        default void prepare() throws Exception {
+        }
+
+        /**
+         * Runs the measured operation.
+         *
+         * @return a value of the operation, which is consumed to keep the operation alive
+         * @throws Exception if the operation fails
+         */
+        Object run() throws Exception;
+    }
+
+    /**
+     * Sets up the state of an iteration of a benchmark.
+     */
+    public interface Fixture {
+
+        /**
+         * Sets up a fresh state for the specified parameter value and returns the operation on it.
+         *
+         * @param param the value of the parameter of the benchmark
+         * @return the operation
+         * @throws Exception if the state cannot be set up
+         */
+        Operation setUp(String param) throws Exception;
+    }
+
+    /**
+     * The result of a benchmark for one parameter value.
+     */
+    public static class Result {
+
+        private final String benchmark;
+        private final String paramName;
+        private final String param;
+        private final double[] scores;
+
+        Result(String benchmark, String paramName, String param, double[] scores) {
+            this.benchmark = benchmark;
+            this.paramName = paramName;
+            this.param = param;
+            this.scores = scores;
+        }
+
+        public String getBenchmark() {
+            return this.benchmark;
+        }
+
+        public String getParam() {
+            return this.param;
+        }
+
+        /**
+         * Returns the mean time of an operation in microseconds.
+         */
+        public double getScore() {
+            double sum = 0;
+            for (double s : this.scores) {
+                sum += s;
+            }
+            return sum / this.scores.length;
+        }
+
+        /**
+         * Returns the half width of the 99.9% confidence interval of the score.
+         */
+        public double getScoreError() {
+            if (this.scores.length < 2) {
+                return Double.NaN;
+            }
+            final double mean = getScore();
+            double sq = 0;
+            for (double s : this.scores) {
+                sq += (s - mean) * (s - mean);
+            }
+            return Z_999 * Math.sqrt(sq / (this.scores.length - 1)) / Math.sqrt(this.scores.length);
+        }
+    }
+
+    private static class Entry {
+
+        final String name;
+        final String paramName;
+        final String[] params;
+        final int operations;
+        final Fixture fixture;
+
+        Entry(String name, String paramName, String[] params, int operations, Fixture fixture) {
+            this.name = name;
+            this.paramName = paramName;
+            this.params = params;
+            this.operations = operations;
+            this.fixture = fixture;
+        }
+    }
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<Result> results = new ArrayList<>();
+    private int sink;
+
+    /**
+     * Creates a runner.
+     *
+     * @param warmupIterations count of iterations, which are not measured
+     * @param measurementIterations count of measured iterations
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = Math.max(1, measurementIterations);
+    }
+
+    /**
+     * Adds a benchmark.
+     *
+     * @param name the name of the benchmark
+     * @param paramName the name of the parameter
+     * @param params the values of the parameter, the benchmark runs for each of them
+     * @param operations the count of operations of an iteration
+     * @param fixture the set up of the iterations
+     */
+    public void add(String name, String paramName, String[] params, int operations, Fixture fixture) {
+        this.entries.add(new Entry(name, paramName, params, Math.max(1, operations), fixture));
+    }
+
+    /**
+     * Runs all benchmarks and prints a line for each result.
+     *
+     * @return the results
+     * @throws Exception if a benchmark fails
+     */
+    public List<Result> run() throws Exception {
+        this.results.clear();
+        for (Entry e : this.entries) {
+            for (String param : e.params) {
+                for (int i = 0; i < this.warmupIterations; i++) {
+                    iterate(e, param);
+                }
+                final double[] scores = new double[this.measurementIterations];
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = iterate(e, param);
+                }
+                final Result r = new Result(e.name, e.paramName, param, scores);
+                this.results.add(r);
+                System.out.println(String.format("%-24s %s=%-28s %12.3f +- %9.3f us/op",
+                        e.name, e.paramName, param, r.getScore(), r.getScoreError()));
+            }
+        }
+        return this.results;
+    }
+
+    /**
+     * Runs one iteration and returns the mean time of an operation in microseconds.
+     */
+    private double iterate(Entry e, String param) throws Exception {
+        final Operation op = e.fixture.setUp(param);
+        long time = 0;
+        for (int i = 0; i < e.operations; i++) {
+            op.prepare();
+            final long start = System.nanoTime();
+            final Object value = op.run();
+            time += System.nanoTime() - start;
+            this.sink += System.identityHashCode(value);
+        }
+        return time / 1000d / e.operations;
+    }
+
+    /**
+     * Writes the results of the last run in the JSON format of JMH.
+     *
+     * @param out the writer
+     * @throws IOException if the results cannot be written
+     */
+    public void writeJson(Writer out) throws IOException {
+        out.write("[\n");
+        for (int i = 0; i < this.results.size(); i++) {
+            final Result r = this.results.get(i);
+            final double error = r.getScoreError();
+            final Map<String, Object> json = new LinkedHashMap<>();
+            json.put("benchmark", getClass().getPackage().getName() + "." + r.benchmark);
+            json.put("mode", "avgt");
+            json.put("threads", 1);
+            json.put("forks", 0);
+            json.put("warmupIterations", this.warmupIterations);
+            json.put("measurementIterations", this.measurementIterations);
+            out.write("    {\n");
+            for (Map.Entry<String, Object> field : json.entrySet()) {
+                out.write("        " + quote(field.getKey()) + " : " + value(field.getValue()) + ",\n");
+            }
+            out.write("        \"params\" : {\n            " + quote(r.paramName) + " : " + quote(r.param)
+                    + "\n        },\n");
+            out.write("        \"primaryMetric\" : {\n");
+            out.write("            \"score\" : " + number(r.getScore()) + ",\n");
+            out.write("            \"scoreError\" : " + number(error) + ",\n");
+            out.write("            \"scoreConfidence\" : [" + number(r.getScore() - error) + ", "
+                    + number(r.getScore() + error) + "],\n");
+            out.write("            \"scoreUnit\" : \"us/op\",\n");
+            out.write("            \"rawData\" : [[");
+            for (int j = 0; j < r.scores.length; j++) {
+                out.write((j > 0 ? ", " : "") + number(r.scores[j]));
+            }
+            out.write("]]\n        },\n        \"secondaryMetrics\" : {}\n    }");
+            out.write(i + 1 < this.results.size() ? ",\n" : "\n");
+        }
+        out.write("]\n");
+        out.flush();
+    }
+
+    private static String value(Object o) {
+        return (o instanceof Number) ? o.toString() : quote(String.valueOf(o));
+    }
+
+    private static String number(double d) {
+        return Double.isNaN(d) ? "\"NaN\"" : Double.toString(d);
+    }
+
+    private static String quote(String s) {
+        final StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Returns a value of all operation results, so the operations are not removed by the compiler.
+     */
+    public int getSink() {
+        return this.sink;
+    }
+}
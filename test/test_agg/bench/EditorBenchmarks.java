@@ -0,0 +1,300 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.bench;
+
+import agg.editor.impl.EdArc;
+import agg.editor.impl.EdGraGra;
+import agg.editor.impl.EdGraph;
+import agg.editor.impl.EdNode;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Node;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+import test_agg.bench.BenchmarkRunner.Operation;
+
+/**
+ * The benchmarks of the graph editor: painting a viewport of a large graph into a <code>BufferedImage</code>, picking
+ * the object under the mouse and selecting the nodes inside of a rubber band. The graphs are grids of nodes, each node
+ * is connected to its right and to its lower neighbour. The painting runs headless.
+ *
+ * <p>
+ * The benchmarks <code>drawAll</code> and <code>pickLinear</code> paint all objects and test all objects, as the
+ * editor did without the grid of the graph, to compare with.
+ *
+ * <p>
+ * Run from the directory <code>assets_test</code>:
+ * <pre>
+ * java -Djava.awt.headless=true test_agg.bench.EditorBenchmarks [-wi 3] [-i 5] [-sizes 2000,10000,50000]
+ *      [-o editor-bench-results.json]
+ * </pre>
+ *
+ * @author Janusch Rentenatus
+ */
+public class EditorBenchmarks {
+
+    public static final long SEED = 4711;
+    public static final int VIEW_WIDTH = 800;
+    public static final int VIEW_HEIGHT = 600;
+    public static final int DX = 80;
+    public static final int DY = 60;
+
+    private final int[] sizes;
+    private final int operations;
+
+    /**
+     * Creates the benchmarks.
+     *
+     * @param sizes the counts of the nodes of the generated graphs, the graphs have about two arcs per node
+     * @param operations the count of operations of an iteration of the picking benchmarks
+     */
+    public EditorBenchmarks(int[] sizes, int operations) {
+        this.sizes = sizes;
+        this.operations = operations;
+    }
+
+    /**
+     * Adds all benchmarks to the runner.
+     *
+     * @param runner the runner
+     */
+    public void addTo(BenchmarkRunner runner) {
+        String[] sizeParams = new String[this.sizes.length];
+        for (int i = 0; i < this.sizes.length; i++) {
+            sizeParams[i] = String.valueOf(this.sizes[i]);
+        }
+        runner.add("drawViewport", "nodes", sizeParams, Math.max(1, this.operations / 10), p -> setUpDraw(p, true));
+        runner.add("drawAll", "nodes", sizeParams, 1, p -> setUpDraw(p, false));
+        runner.add("pick", "nodes", sizeParams, this.operations, p -> setUpPick(p, true));
+        runner.add("pickLinear", "nodes", sizeParams, this.operations, p -> setUpPick(p, false));
+        runner.add("rubberBand", "nodes", sizeParams, this.operations, this::setUpRubberBand);
+    }
+
+    /**
+     * Creates the layout of a grid of nodes, the arcs connect the neighbours.
+     *
+     * @param nodes count of the nodes
+     * @return the layout graph
+     * @throws TypeException if an object cannot be created
+     */
+    public static EdGraph createEdGraph(int nodes) throws TypeException {
+        GraGra gragra = new GraGra(true);
+        Type nodeType = gragra.createNodeType(false);
+        nodeType.setStringRepr("N");
+        Type arcType = gragra.createArcType(false);
+        arcType.setStringRepr("E");
+        Graph g = gragra.getGraph();
+        int columns = columns(nodes);
+        Node[] list = new Node[nodes];
+        for (int i = 0; i < nodes; i++) {
+            list[i] = g.createNode(nodeType);
+            if (i % columns > 0) {
+                g.createArc(arcType, list[i - 1], list[i]);
+            }
+            if (i >= columns) {
+                g.createArc(arcType, list[i - columns], list[i]);
+            }
+        }
+        EdGraph eGraph = new EdGraGra(gragra).getGraph();
+        for (int i = 0; i < nodes; i++) {
+            eGraph.findNode(list[i]).setXY(DX / 2 + (i % columns) * DX, DY / 2 + (i / columns) * DY);
+        }
+        return eGraph;
+    }
+
+    /**
+     * Returns the count of columns of the grid of nodes.
+     *
+     * @param nodes count of the nodes
+     * @return the count of columns
+     */
+    public static int columns(int nodes) {
+        return Math.max(1, (int) Math.sqrt(nodes));
+    }
+
+    /**
+     * Paints the graph into an image of the size of the view, the view moves over the graph.
+     *
+     * @param eGraph the graph
+     * @param image the image
+     * @param view the view, its position is the position in the graph
+     * @param clipped true to paint the lists of the graph with a clip, false to paint copies of the lists as a whole
+     */
+    public static void draw(EdGraph eGraph, BufferedImage image, Rectangle view, boolean clipped) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.translate(-view.x, -view.y);
+            List<EdNode> nodes = eGraph.getVisibleNodes();
+            List<EdArc> arcs = eGraph.getVisibleArcs();
+            if (clipped) {
+                g.setClip(view);
+            } else {
+                nodes = new Vector<>(nodes);
+                arcs = new Vector<>(arcs);
+            }
+            eGraph.drawGraphics(g, nodes, arcs, true, true);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private Operation setUpDraw(String param, boolean clipped) throws TypeException {
+        int nodes = Integer.parseInt(param);
+        EdGraph eGraph = createEdGraph(nodes);
+        BufferedImage image = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int width = columns(nodes) * DX;
+        int height = (nodes / columns(nodes) + 1) * DY;
+        draw(eGraph, image, new Rectangle(0, 0, VIEW_WIDTH, VIEW_HEIGHT), clipped);
+        return new Operation() {
+            final Rectangle view = new Rectangle(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
+
+            @Override
+            public void prepare() {
+                // scroll diagonal over the graph
+                this.view.x = (this.view.x + VIEW_WIDTH / 3) % Math.max(1, width - VIEW_WIDTH / 2);
+                this.view.y = (this.view.y + VIEW_HEIGHT / 3) % Math.max(1, height - VIEW_HEIGHT / 2);
+            }
+
+            @Override
+            public Object run() {
+                draw(eGraph, image, this.view, clipped);
+                return image;
+            }
+        };
+    }
+
+    private Operation setUpPick(String param, boolean indexed) throws TypeException {
+        int nodes = Integer.parseInt(param);
+        EdGraph eGraph = createEdGraph(nodes);
+        draw(eGraph, new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB),
+                new Rectangle(0, 0, VIEW_WIDTH, VIEW_HEIGHT), false);
+        int width = columns(nodes) * DX;
+        int height = (nodes / columns(nodes) + 1) * DY;
+        Random random = new Random(SEED);
+        return new Operation() {
+            int x;
+            int y;
+
+            @Override
+            public void prepare() {
+                this.x = random.nextInt(width);
+                this.y = random.nextInt(height);
+            }
+
+            @Override
+            public Object run() {
+                if (indexed) {
+                    return eGraph.getPicked(this.x, this.y);
+                }
+                return pickLinear(eGraph, this.x, this.y);
+            }
+        };
+    }
+
+    /**
+     * Returns the topmost node or arc at the position, it tests all nodes and arcs.
+     *
+     * @param eGraph the graph
+     * @param x the x position
+     * @param y the y position
+     * @return the node or arc, or null
+     */
+    public static Object pickLinear(EdGraph eGraph, int x, int y) {
+        for (int i = eGraph.getNodes().size() - 1; i >= 0; i--) {
+            if (eGraph.getNodes().get(i).inside(x, y)) {
+                return eGraph.getNodes().get(i);
+            }
+        }
+        for (int i = eGraph.getArcs().size() - 1; i >= 0; i--) {
+            if (eGraph.getArcs().get(i).inside(x, y)) {
+                return eGraph.getArcs().get(i);
+            }
+        }
+        return null;
+    }
+
+    private Operation setUpRubberBand(String param) throws TypeException {
+        int nodes = Integer.parseInt(param);
+        EdGraph eGraph = createEdGraph(nodes);
+        int width = columns(nodes) * DX;
+        int height = (nodes / columns(nodes) + 1) * DY;
+        Random random = new Random(SEED);
+        return new Operation() {
+            final Rectangle band = new Rectangle(0, 0, 4 * DX, 3 * DY);
+
+            @Override
+            public void prepare() {
+                this.band.x = random.nextInt(width);
+                this.band.y = random.nextInt(height);
+            }
+
+            @Override
+            public Object run() {
+                return eGraph.getNodesInside(this.band);
+            }
+        };
+    }
+
+    /**
+     * Runs the benchmarks and writes the results in the JSON format of JMH.
+     *
+     * @param args the options <code>-wi</code> count of warmup iterations, <code>-i</code> count of measured
+     * iterations, <code>-ops</code> count of operations of an iteration, <code>-sizes</code> comma separated counts of
+     * nodes, <code>-o</code> the output file
+     * @throws Exception if a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int warmups = 3;
+        int iterations = 5;
+        int ops = 100;
+        int[] sizes = {2000, 10000, 50000};
+        String output = "editor-bench-results.json";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-wi":
+                    warmups = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-i":
+                    iterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-ops":
+                    ops = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-sizes":
+                    String[] s = args[i + 1].split(",");
+                    sizes = new int[s.length];
+                    for (int j = 0; j < s.length; j++) {
+                        sizes[j] = Integer.parseInt(s[j].trim());
+                    }
+                    break;
+                case "-o":
+                    output = args[i + 1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        BenchmarkRunner runner = new BenchmarkRunner(warmups, iterations);
+        new EditorBenchmarks(sizes, ops).addTo(runner);
+        runner.run();
+        try (Writer out = new FileWriter(output)) {
+            runner.writeJson(out);
+        }
+        System.out.println("Results written to " + new File(output).getAbsolutePath());
+    }
+}
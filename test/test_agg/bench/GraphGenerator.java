@@ -0,0 +1,150 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.bench;
+
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates grammars with random host graphs of a given size and rules on them. The graphs depend on the seed only,
+ * so the benchmarks of different runs work on equal graphs.
+ *
+ * @author Janusch Rentenatus
+ */
+public class GraphGenerator {
+
+    private final long seed;
+    private final int nodeTypeCount;
+    private final int arcTypeCount;
+    private Type[] nodeTypes;
+    private Type[] arcTypes;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed the seed of the random graphs
+     * @param nodeTypeCount count of the node types
+     * @param arcTypeCount count of the arc types
+     */
+    public GraphGenerator(long seed, int nodeTypeCount, int arcTypeCount) {
+        this.seed = seed;
+        this.nodeTypeCount = Math.max(1, nodeTypeCount);
+        this.arcTypeCount = Math.max(1, arcTypeCount);
+    }
+
+    /**
+     * Creates a grammar with the node types N0, N1, ... and the arc types E0, E1, ... and a host graph of the specified
+     * size. The arcs connect random nodes, their types are random, too.
+     *
+     * @param nodes count of the nodes of the host graph
+     * @param arcs count of the arcs of the host graph
+     * @return the grammar
+     * @throws TypeException if an object cannot be created
+     */
+    public GraGra createGraGra(int nodes, int arcs) throws TypeException {
+        GraGra gragra = new GraGra(true);
+        this.nodeTypes = new Type[this.nodeTypeCount];
+        for (int i = 0; i < this.nodeTypes.length; i++) {
+            this.nodeTypes[i] = gragra.createNodeType(false);
+            this.nodeTypes[i].setStringRepr("N" + i);
+        }
+        this.arcTypes = new Type[this.arcTypeCount];
+        for (int i = 0; i < this.arcTypes.length; i++) {
+            this.arcTypes[i] = gragra.createArcType(false);
+            this.arcTypes[i].setStringRepr("E" + i);
+        }
+        fill(gragra.getGraph(), nodes, arcs);
+        return gragra;
+    }
+
+    /**
+     * Adds random nodes and arcs of the types of the last created grammar to the specified graph.
+     *
+     * @param g the graph
+     * @param nodes count of the new nodes
+     * @param arcs count of the new arcs
+     * @throws TypeException if an object cannot be created
+     */
+    public void fill(Graph g, int nodes, int arcs) throws TypeException {
+        Random random = new Random(this.seed);
+        List<Node> list = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            list.add(g.createNode(this.nodeTypes[random.nextInt(this.nodeTypes.length)]));
+        }
+        for (int i = 0; i < arcs && !list.isEmpty(); i++) {
+            g.createArc(this.arcTypes[random.nextInt(this.arcTypes.length)],
+                    list.get(random.nextInt(list.size())), list.get(random.nextInt(list.size())));
+        }
+    }
+
+    /**
+     * Creates a rule, which keeps a path of arcs. The types of the nodes and arcs follow the order of the types.
+     *
+     * @param gragra the last created grammar
+     * @param name the name of the rule
+     * @param length count of the arcs of the path
+     * @return the rule
+     * @throws TypeException if an object cannot be created
+     */
+    public Rule createPathRule(GraGra gragra, String name, int length) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName(name);
+        Node l = rule.getLeft().createNode(this.nodeTypes[0]);
+        Node r = rule.getRight().createNode(this.nodeTypes[0]);
+        rule.addMapping(l, r);
+        for (int i = 1; i <= length; i++) {
+            Type type = this.nodeTypes[i % this.nodeTypes.length];
+            Node l2 = rule.getLeft().createNode(type);
+            Node r2 = rule.getRight().createNode(type);
+            rule.addMapping(l2, r2);
+            Type arcType = this.arcTypes[(i - 1) % this.arcTypes.length];
+            rule.addMapping(rule.getLeft().createArc(arcType, l, l2), rule.getRight().createArc(arcType, r, r2));
+            l = l2;
+            r = r2;
+        }
+        return rule;
+    }
+
+    /**
+     * Creates a rule, which replaces an arc between two nodes of any types by a new node and two arcs.
+     *
+     * @param gragra the last created grammar
+     * @param name the name of the rule
+     * @param source index of the source node type
+     * @param target index of the target node type
+     * @return the rule
+     * @throws TypeException if an object cannot be created
+     */
+    public Rule createSplitRule(GraGra gragra, String name, int source, int target) throws TypeException {
+        Type s = this.nodeTypes[source % this.nodeTypes.length];
+        Type t = this.nodeTypes[target % this.nodeTypes.length];
+        Type e = this.arcTypes[0];
+        Rule rule = gragra.createRule();
+        rule.setName(name);
+        Node l1 = rule.getLeft().createNode(s);
+        Node l2 = rule.getLeft().createNode(t);
+        rule.getLeft().createArc(e, l1, l2);
+        Node r1 = rule.getRight().createNode(s);
+        Node r2 = rule.getRight().createNode(t);
+        rule.addMapping(l1, r1);
+        rule.addMapping(l2, r2);
+        if (source % 2 == 0) {
+            Node r3 = rule.getRight().createNode(s);
+            rule.getRight().createArc(e, r1, r3);
+            rule.getRight().createArc(e, r3, r2);
+        }
+        return rule;
+    }
+}
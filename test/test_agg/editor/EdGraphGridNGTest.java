@@ -0,0 +1,173 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.editor;
+
+import agg.editor.impl.EdArc;
+import agg.editor.impl.EdGraph;
+import agg.editor.impl.EdGraphObject;
+import agg.editor.impl.EdNode;
+import agg.xt_basis.TypeException;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import test_agg.bench.BenchmarkRunner;
+import test_agg.bench.EditorBenchmarks;
+
+/**
+ * Compares picking, rubber band selection, incident arcs and painting of a large graph layout, which uses its grid,
+ * with tests of all objects, also after moving, adding and removing objects.
+ *
+ * @author Janusch Rentenatus
+ */
+public class EdGraphGridNGTest {
+
+    public final static int NODES = 1500;
+    public final static int POINTS = 2000;
+
+    public EdGraphGridNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        System.out.println("===============================================");
+        System.out.println("## Start EdGraphGridNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End EdGraphGridNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        EdGraph eGraph = EditorBenchmarks.createEdGraph(NODES);
+        BufferedImage image = new BufferedImage(EditorBenchmarks.VIEW_WIDTH, EditorBenchmarks.VIEW_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+        EditorBenchmarks.draw(eGraph, image, new Rectangle(0, 0, 4000, 3000), false);
+        Random random = new Random(EditorBenchmarks.SEED);
+        comparePicking(eGraph, random, "initial");
+
+        // move nodes together with their arcs, bring some to front
+        for (int i = 0; i < 200; i++) {
+            EdNode n = eGraph.getNodes().get(random.nextInt(eGraph.getNodes().size()));
+            eGraph.moveNode(n, random.nextInt(400) - 200, random.nextInt(300) - 150);
+            if (i % 10 == 0) {
+                eGraph.nodeToFront(n);
+            }
+        }
+        comparePicking(eGraph, random, "moved");
+
+        // add and remove nodes
+        for (int i = 0; i < 20; i++) {
+            eGraph.addNode(random.nextInt(3000), random.nextInt(2000),
+                    eGraph.getTypeSet().getNodeTypes().get(0), true);
+            EdNode n = eGraph.getNodes().get(random.nextInt(eGraph.getNodes().size()));
+            eGraph.delNode(n.getBasisNode());
+        }
+        comparePicking(eGraph, random, "changed");
+
+        // a large layout change
+        for (EdNode n : eGraph.getNodes()) {
+            n.setXY(n.getY(), n.getX());
+        }
+        comparePicking(eGraph, random, "transposed");
+        compareDrawing(eGraph, random);
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    @Test
+    public void testBenchmarks() throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner(0, 1);
+        new EditorBenchmarks(new int[]{600}, 5).addTo(runner);
+        List<BenchmarkRunner.Result> results = runner.run();
+        assertEquals(results.size(), 5);
+        for (BenchmarkRunner.Result r : results) {
+            assertTrue(r.getScore() > 0, r.getBenchmark() + " " + r.getParam());
+        }
+    }
+
+    private void comparePicking(EdGraph eGraph, Random random, String state) {
+        // the arcs get their geometry while drawing
+        EditorBenchmarks.draw(eGraph, new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB),
+                new Rectangle(-500, -500, 5000, 5000), true);
+        int found = 0;
+        for (int i = 0; i < POINTS; i++) {
+            int x = random.nextInt(3200) - 100;
+            int y = random.nextInt(2400) - 100;
+            Object expected = EditorBenchmarks.pickLinear(eGraph, x, y);
+            EdGraphObject picked = eGraph.getPicked(x, y);
+            assertSame(picked, expected, state + " at " + x + "," + y);
+            if (picked != null) {
+                found++;
+            }
+        }
+        assertTrue(found > POINTS / 10, state + ": only " + found + " objects picked");
+        for (int i = 0; i < 50; i++) {
+            Rectangle band = new Rectangle(random.nextInt(3000), random.nextInt(2000), 300, 200);
+            List<EdNode> expected = new ArrayList<>();
+            for (EdNode n : eGraph.getNodes()) {
+                if (band.contains(n.getX(), n.getY())) {
+                    expected.add(n);
+                }
+            }
+            assertEquals(eGraph.getNodesInside(band), expected, state + " inside " + band);
+        }
+        for (int i = 0; i < 50; i++) {
+            EdNode n = eGraph.getNodes().get(random.nextInt(eGraph.getNodes().size()));
+            List<EdArc> in = new ArrayList<>();
+            List<EdArc> out = new ArrayList<>();
+            for (EdArc a : eGraph.getArcs()) {
+                if (a.getTarget() == n) {
+                    in.add(a);
+                }
+                if (a.getSource() == n) {
+                    out.add(a);
+                }
+            }
+            assertEquals(eGraph.getIncomingArcs(n), in, state);
+            assertEquals(eGraph.getOutgoingArcs(n), out, state);
+        }
+    }
+
+    /**
+     * Paints views with and without the grid, the images have to be the same.
+     */
+    private void compareDrawing(EdGraph eGraph, Random random) {
+        int w = EditorBenchmarks.VIEW_WIDTH;
+        int h = EditorBenchmarks.VIEW_HEIGHT;
+        for (int i = 0; i < 5; i++) {
+            Rectangle view = new Rectangle(random.nextInt(2400), random.nextInt(2000), w, h);
+            BufferedImage culled = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            BufferedImage all = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            EditorBenchmarks.draw(eGraph, culled, view, true);
+            EditorBenchmarks.draw(eGraph, all, view, false);
+            int painted = 0;
+            for (int x = 0; x < w; x++) {
+                for (int y = 0; y < h; y++) {
+                    assertEquals(culled.getRGB(x, y), all.getRGB(x, y), "pixel " + x + "," + y + " of " + view);
+                    if (all.getRGB(x, y) != 0xff000000) {
+                        painted++;
+                    }
+                }
+            }
+            assertTrue(painted > 0, "nothing painted in " + view);
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.layout;
+
+import agg.editor.impl.EdArc;
+import agg.editor.impl.EdGraph;
+import agg.editor.impl.EdNode;
+import agg.layout.evolutionary.EvolutionaryGraphLayout;
+import agg.layout.evolutionary.LayoutMetrics;
+import agg.xt_basis.TypeException;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import test_agg.bench.EditorBenchmarks;
+
+/**
+ * Compares the accelerated mode of the evolutionary layouter with the exact mode: the counts of intersections of the
+ * layout metrics, the repulsion of an iteration and the metrics of whole layouts.
+ *
+ * @author Janusch Rentenatus
+ */
+public class EvolutionaryGraphLayoutNGTest {
+
+    public final static int NODES = 1200;
+    public final static int WIDTH = 2400;
+
+    public EvolutionaryGraphLayoutNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        System.out.println("===============================================");
+        System.out.println("## Start EvolutionaryGraphLayoutNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End EvolutionaryGraphLayoutNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        EdGraph eGraph = createEdGraph(NODES, new Random(EditorBenchmarks.SEED));
+        List<EdNode> nodes = eGraph.getNodes();
+        List<EdArc> arcs = eGraph.getArcs();
+        LayoutMetrics exact = new LayoutMetrics();
+        LayoutMetrics accelerated = new LayoutMetrics();
+        accelerated.setAccelerated(true);
+        int arcArc = exact.getArcArcIntersect(arcs);
+        int arcNode = exact.getArcNodeIntersect(nodes, arcs);
+        int nodeNode = exact.getNodeIntersect(nodes, true);
+        Set<EdNode> marked = getOverlapping(nodes);
+        System.out.println("Intersections arc-arc: " + arcArc + " arc-node: " + arcNode + " node-node: " + nodeNode);
+        assertTrue(arcArc > 0 && arcNode > 0 && nodeNode > 0);
+        assertEquals(accelerated.getArcArcIntersect(arcs), arcArc);
+        assertEquals(accelerated.getArcNodeIntersect(nodes, arcs), arcNode);
+        assertEquals(accelerated.getNodeIntersect(nodes, true), nodeNode);
+        assertEquals(getOverlapping(nodes), marked);
+        assertEquals(accelerated.getOverallIntersect(nodes, arcs), exact.getOverallIntersect(nodes, arcs));
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * One iteration from the same positions: the forces of the accelerated repulsion are near the exact ones, and
+     * they do not depend on the count of workers.
+     */
+    @Test
+    public void testRepulsion() throws TypeException {
+        EdGraph exactGraph = createEdGraph(NODES, new Random(EditorBenchmarks.SEED));
+        int[][] exact = iterate(exactGraph, false, 1);
+        int[][] single = iterate(createEdGraph(NODES, new Random(EditorBenchmarks.SEED)), true, 1);
+        int[][] parallel = iterate(createEdGraph(NODES, new Random(EditorBenchmarks.SEED)), true, 4);
+        int near = 0;
+        for (int i = 0; i < NODES; i++) {
+            assertEquals(parallel[i][0], single[i][0], "node " + i);
+            assertEquals(parallel[i][1], single[i][1], "node " + i);
+            for (int axis = 0; axis < 2; axis++) {
+                if (isNear(single[i][axis], exact[i][axis])) {
+                    near++;
+                }
+            }
+        }
+        // the exact forces are sums of truncated integers, so some differ more
+        System.out.println("Repulsion: " + near + " of " + (2 * NODES) + " forces near the exact force");
+        assertTrue(near >= 2 * NODES * 90 / 100, near + " of " + (2 * NODES));
+    }
+
+    @Test
+    public void testLayoutGraph() throws TypeException {
+        int[] exact = layoutGraph(false);
+        int[] accelerated = layoutGraph(true);
+        assertTrue(accelerated[0] <= exact[0] * 3 / 2 + 10, "node intersections " + accelerated[0]
+                + " > " + exact[0]);
+        assertTrue(accelerated[1] <= exact[1] * 3 / 2 + 10, "overall intersections " + accelerated[1]
+                + " > " + exact[1]);
+        assertTrue(accelerated[2] <= exact[2] * 3 / 2 + 10, "arc length deviation " + accelerated[2]
+                + " > " + exact[2]);
+    }
+
+    private int[] layoutGraph(boolean accelerated) throws TypeException {
+        EdGraph eGraph = createEdGraph(NODES, new Random(EditorBenchmarks.SEED));
+        List<EdNode> nodes = eGraph.getNodes();
+        List<EdArc> arcs = eGraph.getArcs();
+        EvolutionaryGraphLayout layouter = new EvolutionaryGraphLayout(100, null);
+        layouter.setAccelerated(accelerated);
+        layouter.setPanelSize(layouter.getNeededPanelSize(nodes));
+        long start = System.nanoTime();
+        layouter.layoutGraph(eGraph, nodes, arcs, 50, 1, 50);
+        long duration = (System.nanoTime() - start) / 1_000_000;
+        LayoutMetrics metrics = layouter.getLayoutMetrics();
+        int[] ret = {metrics.getNodeIntersect(nodes, false), metrics.getOverallIntersect(nodes, arcs),
+            metrics.getAverageArcLengthDeviation(arcs)};
+        System.out.println("layoutGraph " + (accelerated ? "accelerated" : "exact") + ": " + duration
+                + " ms, node-node " + ret[0] + ", overall " + ret[1] + ", arc length deviation " + ret[2]);
+        return ret;
+    }
+
+    /**
+     * Runs one iteration of the layout on a panel, which is large enough to keep all nodes inside, and returns the
+     * forces on the nodes.
+     */
+    private int[][] iterate(EdGraph eGraph, boolean accelerated, int workers) {
+        List<EdNode> nodes = eGraph.getNodes();
+        EvolutionaryGraphLayout layouter = new EvolutionaryGraphLayout(100, null);
+        layouter.setAccelerated(accelerated);
+        layouter.setParallelism(workers);
+        layouter.setPanelSize(new Dimension(100 * WIDTH, 100 * WIDTH));
+        layouter.layout(eGraph, nodes, new ArrayList<>(), 1);
+        int[][] ret = new int[nodes.size()][];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = new int[]{nodes.get(i).getLNode().getDistX(), nodes.get(i).getLNode().getDistY()};
+        }
+        return ret;
+    }
+
+    private static boolean isNear(int value, int expected) {
+        return Math.abs(value - expected) <= Math.max(5, Math.abs(expected) / 20);
+    }
+
+    private static Set<EdNode> getOverlapping(List<EdNode> nodes) {
+        Set<EdNode> ret = new HashSet<>();
+        for (EdNode n : nodes) {
+            if (n.getLNode().isOverlapping()) {
+                ret.add(n);
+                n.getLNode().unsetOverlap();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Creates a grid graph with nodes at distinct random positions.
+     */
+    private static EdGraph createEdGraph(int count, Random random) throws TypeException {
+        EdGraph eGraph = EditorBenchmarks.createEdGraph(count);
+        // the nodes get their sizes while drawing
+        EditorBenchmarks.draw(eGraph, new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB),
+                new Rectangle(0, 0, 16, 16), false);
+        Set<Point> used = new HashSet<>();
+        for (EdNode n : eGraph.getNodes()) {
+            Point p;
+            do {
+                p = new Point(50 + random.nextInt(WIDTH), 50 + random.nextInt(WIDTH));
+            } while (!used.add(p));
+            n.setXY(p.x, p.y);
+        }
+        eGraph.updateNodePosEtoL(eGraph.getNodes());
+        return eGraph;
+    }
+
+}
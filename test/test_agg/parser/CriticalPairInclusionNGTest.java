@@ -0,0 +1,90 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.parser;
+
+import agg.parser.ExcludePairContainer;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Computes the critical pairs of rules whose overlappings are built from the graph inclusions of their left-hand
+ * sides: a rule deleting a node is in conflict with itself and with a rule using the node, two rules preserving
+ * everything are not in conflict.
+ *
+ * @author Janusch Rentenatus
+ */
+public class CriticalPairInclusionNGTest {
+
+    public CriticalPairInclusionNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start CriticalPairInclusionNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End CriticalPairInclusionNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test(timeOut = 60000)
+    public void testSomeMethod() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        Type nodeType = gragra.createNodeType(false);
+        nodeType.setStringRepr("N");
+        Type arcType = gragra.createArcType(false);
+        arcType.setStringRepr("E");
+
+        Rule delete = gragra.createRule();
+        delete.setName("delete");
+        Node l1 = delete.getLeft().createNode(nodeType);
+        Node l2 = delete.getLeft().createNode(nodeType);
+        delete.getLeft().createArc(arcType, l1, l2);
+        delete.addMapping(l1, delete.getRight().createNode(nodeType));
+
+        Rule keep = gragra.createRule();
+        keep.setName("keep");
+        l1 = keep.getLeft().createNode(nodeType);
+        l2 = keep.getLeft().createNode(nodeType);
+        Node r1 = keep.getRight().createNode(nodeType);
+        Node r2 = keep.getRight().createNode(nodeType);
+        keep.getRight().createArc(arcType, r1, r2);
+        keep.addMapping(l1, r1);
+        keep.addMapping(l2, r2);
+
+        List<Rule> rules = gragra.getListOfRules();
+        ExcludePairContainer container = new ExcludePairContainer(gragra);
+        container.setRules(rules);
+        container.run();
+        assertTrue(isCritical(container, delete, delete));
+        assertTrue(isCritical(container, delete, keep));
+        assertFalse(isCritical(container, keep, keep));
+    }
+
+    private static boolean isCritical(ExcludePairContainer container, Rule r1, Rule r2) {
+        ExcludePairContainer.Entry entry = container.getEntry(r1, r2);
+        boolean critical = entry.isCritical();
+        if (critical) {
+            assertNotNull(entry.getOverlapping());
+            assertFalse(entry.getOverlapping().isEmpty(), r1.getName() + ", " + r2.getName());
+        }
+        return critical;
+    }
+
+}
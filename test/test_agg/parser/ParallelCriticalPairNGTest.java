@@ -0,0 +1,115 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.parser;
+
+import agg.parser.ExcludePairContainer;
+import agg.util.Pair;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Node;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the critical pairs computed by the worker pool with the critical pairs computed one after another.
+ *
+ * @author Janusch Rentenatus
+ */
+public class ParallelCriticalPairNGTest {
+
+    public final static int RULES = 6;
+
+    public ParallelCriticalPairNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start ParallelCriticalPairNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End ParallelCriticalPairNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        String sequential = computeCriticalPairs(false);
+        String parallel = computeCriticalPairs(true);
+        assertTrue(sequential.contains("true"), "No critical pair found.");
+        assertEquals(parallel, sequential);
+    }
+
+    private String computeCriticalPairs(boolean parallel) throws TypeException {
+        GraGra gragra = createGraGra();
+        List<Rule> rules = gragra.getListOfRules();
+        ExcludePairContainer container = new ExcludePairContainer(gragra);
+        container.setRules(rules);
+        container.enableParallelComputation(parallel);
+        container.setParallelism(3);
+        container.run();
+        StringBuilder sb = new StringBuilder();
+        for (Rule r1 : rules) {
+            for (Rule r2 : rules) {
+                ExcludePairContainer.Entry entry = container.getEntry(r1, r2);
+                List<?> overlapping = entry.getOverlapping();
+                sb.append(r1.getName()).append(',').append(r2.getName()).append(": ")
+                        .append(entry.isCritical()).append(' ')
+                        .append(overlapping == null ? 0 : overlapping.size()).append('\n');
+                if (overlapping != null) {
+                    for (Object o : overlapping) {
+                        @SuppressWarnings("unchecked")
+                        Pair<Pair<OrdinaryMorphism, OrdinaryMorphism>, ?> p
+                                = (Pair<Pair<OrdinaryMorphism, OrdinaryMorphism>, ?>) o;
+                        Graph source = p.first.first.getSource();
+                        assertTrue(source == r1.getLeft() || source == r1.getRight(),
+                                "Overlapping of " + r1.getName() + " is not at its rule.");
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Each rule deletes the edge of a path of two nodes, some of them delete the second node or add a new one.
+     */
+    private GraGra createGraGra() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        Type nodeType = gragra.createNodeType(false);
+        nodeType.setStringRepr("N");
+        Type arcType = gragra.createArcType(false);
+        arcType.setStringRepr("E");
+        for (int k = 0; k < RULES; k++) {
+            Rule rule = gragra.createRule();
+            rule.setName("rule" + k);
+            Node l1 = rule.getLeft().createNode(nodeType);
+            Node l2 = rule.getLeft().createNode(nodeType);
+            rule.getLeft().createArc(arcType, l1, l2);
+            Node r1 = rule.getRight().createNode(nodeType);
+            rule.addMapping(l1, r1);
+            if (k % 2 == 0) {
+                rule.addMapping(l2, rule.getRight().createNode(nodeType));
+            }
+            if (k % 3 == 0) {
+                rule.getRight().createArc(arcType, r1, rule.getRight().createNode(nodeType));
+            }
+        }
+        return gragra;
+    }
+
+}
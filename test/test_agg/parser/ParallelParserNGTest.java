@@ -0,0 +1,213 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.parser;
+
+import agg.parser.ParallelParser;
+import agg.parser.Parser;
+import agg.parser.ParserFactory;
+import agg.parser.ParserOption;
+import agg.parser.SimpleParser;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.RuleLayer;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the parallel parser with the simple parser in undo log mode for several counts of workers.
+ *
+ * @author Janusch Rentenatus
+ */
+public class ParallelParserNGTest {
+
+    public final static int NODES = 5;
+
+    private Type nodeType;
+    private Type arcType;
+    private Type keepType;
+
+    public ParallelParserNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start ParallelParserNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End ParallelParserNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        for (boolean loop : new boolean[]{false, true}) {
+            GraGra gragra = createGraGra();
+            SimpleParser simple = new SimpleParser(gragra, gragra.getGraph(), createStopGraph(gragra, loop));
+            simple.setUndoLogEnabled(true);
+            boolean expected = simple.parse();
+            assertEquals(expected, !loop);
+            for (int workers : new int[]{1, 2, 4}) {
+                gragra = createGraGra();
+                Graph host = gragra.getGraph();
+                Graph before = host.graphcopy();
+                Graph stop = createStopGraph(gragra, loop);
+                ParallelParser parser = new ParallelParser(gragra, host, stop);
+                parser.setParallelism(workers);
+                long start = System.nanoTime();
+                boolean result = parser.parse();
+                System.out.println("ParallelParser " + workers + " workers" + (loop ? " loop" : " node") + ": "
+                        + result + " in " + ((System.nanoTime() - start) / 1_000) + " us, derivation "
+                        + parser.getDerivation().size() + " steps");
+                assertEquals(result, expected, workers + " workers");
+                if (result) {
+                    assertTrue(parser.getHostGraph().isIsomorphicTo(stop));
+                    assertFalse(parser.getDerivation().isEmpty());
+                    for (Rule r : parser.getDerivation()) {
+                        assertTrue(gragra.getListOfRules().contains(r), "Not an original rule: " + r.getName());
+                    }
+                } else {
+                    assertSame(parser.getHostGraph(), host);
+                    assertTrue(host.isIsomorphicTo(before), "The host graph is not reset.");
+                    assertTrue(parser.getDerivation().isEmpty());
+                }
+                assertFalse(host.hasOpenJournal());
+            }
+        }
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    @Test
+    public void testRegularGraphs() throws TypeException {
+        for (boolean cycleFirst : new boolean[]{true, false}) {
+            for (int workers : new int[]{1, 2, 4}) {
+                String name = workers + " workers" + (cycleFirst ? " cycle first" : " triangles first");
+                GraGra gragra = createRegularGraGra(cycleFirst);
+                Graph host = gragra.getGraph();
+                Graph stop = new Graph(gragra.getTypeSet());
+                stop.createNode(this.keepType);
+                ParallelParser parser = new ParallelParser(gragra, host, stop);
+                parser.setParallelism(workers);
+                assertTrue(parser.parse(), name);
+                assertTrue(parser.getHostGraph().isIsomorphicTo(stop), name);
+                assertFalse(host.hasOpenJournal());
+            }
+        }
+    }
+
+    @Test
+    public void testParserFactory() throws TypeException {
+        GraGra gragra = createGraGra();
+        ParserOption option = new ParserOption();
+        option.setSelectedParser(ParserOption.PARALLELPARSER);
+        assertEquals(option.getSelectedParser(), ParserOption.PARALLELPARSER);
+        Parser parser = ParserFactory.createParser(gragra, gragra.getGraph(),
+                createStopGraph(gragra, false), null, option, (RuleLayer) null);
+        assertTrue(parser instanceof ParallelParser);
+        assertTrue(parser.parse());
+    }
+
+    /**
+     * Two rules, the first deletes an edge, the second deletes a node. The host graph is a path.
+     */
+    private GraGra createGraGra() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        this.nodeType = gragra.createNodeType(false);
+        this.nodeType.setStringRepr("N");
+        this.arcType = gragra.createArcType(false);
+        this.arcType.setStringRepr("E");
+        Rule dropArc = gragra.createRule();
+        dropArc.setName("dropArc");
+        Node l1 = dropArc.getLeft().createNode(this.nodeType);
+        Node l2 = dropArc.getLeft().createNode(this.nodeType);
+        dropArc.getLeft().createArc(this.arcType, l1, l2);
+        dropArc.addMapping(l1, dropArc.getRight().createNode(this.nodeType));
+        dropArc.addMapping(l2, dropArc.getRight().createNode(this.nodeType));
+        Rule dropNode = gragra.createRule();
+        dropNode.setName("dropNode");
+        dropNode.getLeft().createNode(this.nodeType);
+        Graph host = gragra.getGraph();
+        Node prev = host.createNode(this.nodeType);
+        for (int i = 1; i < NODES; i++) {
+            Node next = host.createNode(this.nodeType);
+            host.createArc(this.arcType, prev, next);
+            prev = next;
+        }
+        return gragra;
+    }
+
+    /**
+     * The start node is replaced by a directed cycle of six nodes or by two directed triangles, only triangles can
+     * be removed. Both graphs are 2-regular and have the same fingerprint, but only the triangles lead to the stop
+     * graph, the kept node.
+     */
+    private GraGra createRegularGraGra(boolean cycleFirst) throws TypeException {
+        GraGra gragra = new GraGra(true);
+        this.nodeType = gragra.createNodeType(false);
+        this.nodeType.setStringRepr("N");
+        this.arcType = gragra.createArcType(false);
+        this.arcType.setStringRepr("E");
+        Type startType = gragra.createNodeType(false);
+        startType.setStringRepr("S");
+        this.keepType = gragra.createNodeType(false);
+        this.keepType.setStringRepr("K");
+        Rule first = gragra.createRule();
+        Rule second = gragra.createRule();
+        Rule toCycle = cycleFirst ? first : second;
+        Rule toTriangles = cycleFirst ? second : first;
+        toCycle.setName("toCycle");
+        toCycle.getLeft().createNode(startType);
+        createCycle(toCycle.getRight(), 6);
+        toTriangles.setName("toTriangles");
+        toTriangles.getLeft().createNode(startType);
+        createCycle(toTriangles.getRight(), 3);
+        createCycle(toTriangles.getRight(), 3);
+        Rule dropTriangle = gragra.createRule();
+        dropTriangle.setName("dropTriangle");
+        createCycle(dropTriangle.getLeft(), 3);
+        Graph host = gragra.getGraph();
+        host.createNode(startType);
+        host.createNode(this.keepType);
+        return gragra;
+    }
+
+    private void createCycle(Graph g, int length) throws TypeException {
+        Node first = g.createNode(this.nodeType);
+        Node prev = first;
+        for (int i = 1; i < length; i++) {
+            Node next = g.createNode(this.nodeType);
+            g.createArc(this.arcType, prev, next);
+            prev = next;
+        }
+        g.createArc(this.arcType, prev, first);
+    }
+
+    /**
+     * A single node, with a loop the stop graph cannot be reached.
+     */
+    private Graph createStopGraph(GraGra gragra, boolean loop) throws TypeException {
+        Graph stop = new Graph(gragra.getTypeSet());
+        Node n = stop.createNode(this.nodeType);
+        if (loop) {
+            stop.createArc(this.arcType, n, n);
+        }
+        return stop;
+    }
+
+}
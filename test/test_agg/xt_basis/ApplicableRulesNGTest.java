@@ -0,0 +1,88 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.CompletionStrategySelector;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.MorphCompletionStrategy;
+import agg.xt_basis.Rule;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the sequential and the parallel scan for applicable rules on the host graphs of the test grammars and
+ * measures both.
+ *
+ * @author Janusch Rentenatus
+ */
+public class ApplicableRulesNGTest {
+
+    public final static int ROUNDS = 20;
+    public final static int WORKERS = 4;
+
+    private static final String[] FILES = {
+        "test_agg/xt_basis/knots/KnotsSem.ggx",
+        "test_agg/xt_basis/tictactoe/TicTacToeSem.ggx"
+    };
+
+    public ApplicableRulesNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start ApplicableRulesNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End ApplicableRulesNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws Exception {
+        long startTime = System.nanoTime();
+        for (String fileName : FILES) {
+            GraGra gragra = new GraGra(false);
+            gragra.load(fileName);
+            MorphCompletionStrategy strategy = (MorphCompletionStrategy) CompletionStrategySelector.getDefault().clone();
+            long sequential = 0;
+            long parallel = 0;
+            for (Graph g : gragra.getListOfGraphs()) {
+                List<Rule> expected = gragra.getApplicableRules(g, strategy);
+                List<Rule> actual = gragra.getApplicableRulesInParallel(g, strategy, WORKERS);
+                assertEquals(actual, expected, g.getName());
+                for (Rule r : gragra.getListOfRules()) {
+                    assertEquals(r.isApplicable(), expected.contains(r), r.getName());
+                }
+                for (int i = 0; i < ROUNDS; i++) {
+                    long t0 = System.nanoTime();
+                    gragra.getApplicableRules(g, strategy);
+                    long t1 = System.nanoTime();
+                    gragra.getApplicableRulesInParallel(g, strategy, WORKERS);
+                    long t2 = System.nanoTime();
+                    sequential += t1 - t0;
+                    parallel += t2 - t1;
+                }
+                System.out.println(g.getName() + ": " + expected.size() + " of "
+                        + gragra.getListOfRules().size() + " rules applicable");
+            }
+            System.out.println(fileName + ": sequential " + (sequential / 1_000_000) + " ms, parallel ("
+                    + WORKERS + " workers) " + (parallel / 1_000_000) + " ms");
+        }
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+}
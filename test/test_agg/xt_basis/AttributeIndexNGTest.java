@@ -0,0 +1,153 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.attribute.facade.impl.DefaultInformationFacade;
+import agg.attribute.handler.AttrHandler;
+import agg.attribute.impl.ValueTuple;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Match;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Matches rules with constant attribute values with and without the attribute value index of the host graph, also
+ * after changing and deleting host nodes.
+ *
+ * @author Janusch Rentenatus
+ */
+public class AttributeIndexNGTest {
+
+    public final static int NODES = 100000;
+
+    private Type person;
+
+    public AttributeIndexNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start AttributeIndexNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End AttributeIndexNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        AttrHandler handler = DefaultInformationFacade.self().getJavaHandler();
+        GraGra gragra = new GraGra(true);
+        this.person = gragra.createNodeType(true);
+        this.person.setStringRepr("Person");
+        this.person.getAttrType().addMember(handler, "String", "name");
+        this.person.getAttrType().addMember(handler, "int", "age");
+        Graph g = gragra.getGraph();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node n = g.createNode(this.person);
+            ValueTuple value = (ValueTuple) n.getAttribute();
+            if (i % 1000 != 999) {
+                value.getValueMemberAt("name").setExprAsObject("p" + (i % 50000));
+            }
+            value.getValueMemberAt("age").setExprAsObject(Integer.valueOf(i % 100));
+            nodes.add(n);
+        }
+        Rule byName = createRule(gragra, "byName", "p4711", null);
+        Rule byAge = createRule(gragra, "byAge", null, Integer.valueOf(42));
+        Rule byBoth = createRule(gragra, "byBoth", "p4742", Integer.valueOf(42));
+
+        long plainTime = System.nanoTime();
+        int plain = countMatches(gragra, byName);
+        plainTime = System.nanoTime() - plainTime;
+        g.setAttributeIndexed(true);
+        long firstTime = System.nanoTime();
+        assertEquals(countMatches(gragra, byName), plain);
+        firstTime = System.nanoTime() - firstTime;
+        long indexedTime = System.nanoTime();
+        assertEquals(countMatches(gragra, byName), plain);
+        indexedTime = System.nanoTime() - indexedTime;
+        assertEqualCounts(gragra, g, byAge, byBoth);
+
+        // the index follows changed values and deleted nodes
+        for (int i = 0; i < 30; i++) {
+            ValueTuple value = (ValueTuple) nodes.get(i * 7).getAttribute();
+            value.getValueMemberAt("name").setExprAsObject("p4711");
+            value.getValueMemberAt("age").setExprAsObject(Integer.valueOf(42));
+        }
+        for (int i = 4711; i < NODES; i += 50000) {
+            g.destroyNode(nodes.get(i));
+        }
+        g.destroyNode(nodes.get(1999));
+        assertEqualCounts(gragra, g, byName, byAge, byBoth);
+        Node added = g.createNode(this.person);
+        ((ValueTuple) added.getAttribute()).getValueMemberAt("name").setExprAsObject("p4742");
+        ((ValueTuple) added.getAttribute()).getValueMemberAt("age").setExprAsObject(Integer.valueOf(42));
+        assertEqualCounts(gragra, g, byName, byAge, byBoth);
+
+        System.out.println("match by name in " + NODES + " nodes: " + (plainTime / 1_000_000d) + " ms, indexed "
+                + (firstTime / 1_000_000d) + " ms (with building the index), " + (indexedTime / 1_000_000d) + " ms");
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    private void assertEqualCounts(GraGra gragra, Graph g, Rule... rules) {
+        for (Rule rule : rules) {
+            int indexed = countMatches(gragra, rule);
+            g.setAttributeIndexed(false);
+            int plain = countMatches(gragra, rule);
+            g.setAttributeIndexed(true);
+            assertEquals(indexed, plain, rule.getName());
+            assertTrue(plain > 0, rule.getName());
+        }
+    }
+
+    /**
+     * Creates a rule which keeps a person with the specified constant values.
+     */
+    private Rule createRule(GraGra gragra, String name, String personName, Integer age) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName(name);
+        Node l = rule.getLeft().createNode(this.person);
+        Node r = rule.getRight().createNode(this.person);
+        ValueTuple value = (ValueTuple) l.getAttribute();
+        if (personName != null) {
+            value.getValueMemberAt("name").setExprAsObject(personName);
+        }
+        if (age != null) {
+            value.getValueMemberAt("age").setExprAsObject(age);
+        }
+        rule.addMapping(l, r);
+        return rule;
+    }
+
+    private int countMatches(GraGra gragra, Rule rule) {
+        Match m = gragra.createMatch(rule);
+        int n = 0;
+        while (m.nextCompletion()) {
+            n++;
+        }
+        gragra.destroyMatch(m);
+        return n;
+    }
+
+}
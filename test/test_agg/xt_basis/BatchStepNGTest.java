@@ -0,0 +1,173 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.attribute.handler.AttrHandler;
+import agg.attribute.facade.impl.DefaultInformationFacade;
+import agg.attribute.impl.ValueTuple;
+import agg.xt_basis.Arc;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.DefaultGraTraImpl;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.GraTraOptions;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Applies a rule with parallel matching by single steps and by batch steps to equal graphs and compares the result
+ * graphs and the time.
+ *
+ * @author Janusch Rentenatus
+ */
+public class BatchStepNGTest {
+
+    public final static int NODES = 1000;
+    public final static int ARCS = 3000;
+
+    private Type a;
+    private Type b;
+    private Type e;
+    private Type f;
+    private Rule rule;
+
+    public BatchStepNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start BatchStepNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End BatchStepNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        int[] single = transform(false);
+        int[] batch = transform(true);
+        for (int i = 1; i < single.length; i++) {
+            assertEquals(batch[i], single[i], "count " + i);
+        }
+        assertEquals(batch[1], NODES);
+        assertEquals(batch[2], ARCS);
+        assertEquals(batch[3], 0);
+        assertEquals(batch[4], 2 * ARCS);
+        assertTrue(batch[5] > 0);
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * Applies the rule until there is no match and returns the count of rule applications, the counts of the nodes
+     * and arcs of each type and the count of the marked nodes.
+     */
+    private int[] transform(boolean batch) throws TypeException {
+        GraGra gragra = createGraGra();
+        Graph g = gragra.getGraph();
+        Rule rule = this.rule;
+        rule.setParallelMatchingEnabled(true);
+        DefaultGraTraImpl gratra = new DefaultGraTraImpl();
+        gratra.setGraGra(gragra);
+        gratra.setHostGraph(g);
+        List<String> options = new ArrayList<>();
+        if (batch) {
+            options.add(GraTraOptions.BATCH_APPLY);
+        }
+        gratra.setGraTraOptions(options);
+        gratra.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)));
+        long time = System.nanoTime();
+        int applications = 0;
+        while (gratra.apply(rule)) {
+            applications++;
+        }
+        time = System.nanoTime() - time;
+        int[] result = new int[]{applications, 0, 0, 0, 0, 0};
+        for (Node n : g.getNodesSet()) {
+            if (n.getType() == this.a) {
+                result[1]++;
+                Object v = ((ValueTuple) n.getAttribute()).getValueMemberAt("v").getExprAsObject();
+                if (Integer.valueOf(1).equals(v)) {
+                    result[5]++;
+                }
+            } else {
+                result[2]++;
+            }
+        }
+        for (Arc arc : g.getArcsSet()) {
+            result[arc.getType() == this.e ? 3 : 4]++;
+        }
+        System.out.println((batch ? "batch steps: " : "single steps: ") + applications + " applications, "
+                + result[5] + " marked nodes, " + (time / 1_000_000) + " ms");
+        gratra.dispose();
+        return result;
+    }
+
+    /**
+     * Creates a graph of random e arcs and a rule, which replaces an e arc by a new node and two f arcs and marks
+     * the target of the arc.
+     */
+    private GraGra createGraGra() throws TypeException {
+        AttrHandler handler = DefaultInformationFacade.self().getJavaHandler();
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(true);
+        this.a.setStringRepr("A");
+        this.a.getAttrType().addMember(handler, "int", "v");
+        this.b = gragra.createNodeType(false);
+        this.b.setStringRepr("B");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        this.f = gragra.createArcType(false);
+        this.f.setStringRepr("f");
+        Graph g = gragra.getGraph();
+        Random random = new Random(4711);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node n = g.createNode(this.a);
+            ((ValueTuple) n.getAttribute()).getValueMemberAt("v").setExprAsObject(Integer.valueOf(0));
+            nodes.add(n);
+        }
+        for (int i = 0; i < ARCS; i++) {
+            int src = random.nextInt(NODES);
+            int tar = (src + 1 + random.nextInt(NODES - 1)) % NODES;
+            g.createArc(this.e, nodes.get(src), nodes.get(tar));
+        }
+        Rule rule = gragra.createRule();
+        rule.setName("split");
+        this.rule = rule;
+        Node l0 = rule.getLeft().createNode(this.a);
+        Node l1 = rule.getLeft().createNode(this.a);
+        rule.getLeft().createArc(this.e, l0, l1);
+        Node r0 = rule.getRight().createNode(this.a);
+        Node r1 = rule.getRight().createNode(this.a);
+        ((ValueTuple) r1.getAttribute()).getValueMemberAt("v").setExprAsText("1");
+        Node r2 = rule.getRight().createNode(this.b);
+        rule.getRight().createArc(this.f, r0, r2);
+        rule.getRight().createArc(this.f, r2, r1);
+        rule.addMapping(l0, r0);
+        rule.addMapping(l1, r1);
+        return gragra;
+    }
+
+}
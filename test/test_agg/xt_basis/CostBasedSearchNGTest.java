@@ -0,0 +1,210 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.Arc;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphStatistics;
+import agg.xt_basis.Match;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import agg.xt_basis.csp.Completion_CostCSP;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Matches rules on a graph with a hub node and on a ring by the default strategy and by the strategy with cost based
+ * search plans, checks the statistics of the graph and the reuse of the plans.
+ *
+ * @author Janusch Rentenatus
+ */
+public class CostBasedSearchNGTest {
+
+    public final static int NODES = 3000;
+    public final static int RARE = 20;
+    public final static int RING = 300;
+
+    private Type a;
+    private Type b;
+    private Type h;
+    private Type e;
+    private Type f;
+
+    public CostBasedSearchNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start CostBasedSearchNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End CostBasedSearchNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(false);
+        this.a.setStringRepr("A");
+        this.b = gragra.createNodeType(false);
+        this.b.setStringRepr("B");
+        this.h = gragra.createNodeType(false);
+        this.h.setStringRepr("H");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        this.f = gragra.createArcType(false);
+        this.f.setStringRepr("f");
+        Graph g = gragra.getGraph();
+        Node hub = g.createNode(this.h);
+        for (int i = 0; i < NODES; i++) {
+            Node na = g.createNode(this.a);
+            g.createArc(this.e, na, hub);
+            if (i < RARE) {
+                g.createArc(this.f, na, g.createNode(this.b));
+            }
+        }
+        List<Node> ring = new ArrayList<>();
+        for (int i = 0; i < RING; i++) {
+            ring.add(g.createNode(this.b));
+        }
+        for (int i = 0; i < RING; i++) {
+            g.createArc(this.e, ring.get(i), ring.get((i + 1) % RING));
+        }
+
+        GraphStatistics stats = g.getStatistics();
+        assertEquals(stats.getCardinality(this.a), NODES);
+        assertEquals(stats.getCardinality(this.a, this.e, this.h), NODES);
+        GraphStatistics.Degrees toHub = stats.getDegrees(this.h, this.e, this.a, false);
+        assertEquals(toHub.getNodes(), 1);
+        assertEquals(toHub.getMax(), NODES);
+        assertEquals(toHub.getSizeBiasedMean(), (double) NODES);
+        GraphStatistics.Degrees fromA = stats.getDegrees(this.a, this.f, this.b, true);
+        assertEquals(fromA.getMean(), RARE / (double) NODES);
+        assertEquals(fromA.getBucket(0), NODES - RARE);
+        assertEquals(fromA.getBucket(1), RARE);
+
+        Rule pair = createPairRule(gragra);
+        Rule path = createPathRule(gragra, 4);
+        Rule longPath = createPathRule(gragra, 8);
+        assertCounts(gragra, pair, RARE * (RARE - 1));
+        assertCounts(gragra, path, RING);
+        assertCounts(gragra, longPath, RING);
+
+        // the plan is used again until the statistics drift
+        Completion_CostCSP strategy = new Completion_CostCSP();
+        Match m = gragra.createMatch(pair);
+        m.setCompletionStrategy(new Completion_NAC(strategy), true);
+        assertEquals(countMatches(m), RARE * (RARE - 1));
+        m.resetTarget(g);
+        assertEquals(countMatches(m), RARE * (RARE - 1));
+        assertEquals(strategy.getSearchStrategy().getPlanCount(), 1);
+        for (int i = 0; i < NODES / 2; i++) {
+            g.createArc(this.e, g.createNode(this.a), hub);
+        }
+        m.resetTarget(g);
+        assertEquals(countMatches(m), RARE * (RARE - 1));
+        assertEquals(strategy.getSearchStrategy().getPlanCount(), 2);
+        gragra.destroyMatch(m);
+
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    private void assertCounts(GraGra gragra, Rule rule, int expected) {
+        long defaultTime = System.nanoTime();
+        Match m = gragra.createMatch(rule);
+        assertEquals(countMatches(m), expected, rule.getName());
+        gragra.destroyMatch(m);
+        defaultTime = System.nanoTime() - defaultTime;
+        long costTime = System.nanoTime();
+        m = gragra.createMatch(rule);
+        m.setCompletionStrategy(new Completion_NAC(new Completion_CostCSP()), true);
+        assertEquals(countMatches(m), expected, rule.getName());
+        gragra.destroyMatch(m);
+        costTime = System.nanoTime() - costTime;
+        System.out.println(rule.getName() + ": " + expected + " matches, default " + (defaultTime / 1_000_000)
+                + " ms, by cost " + (costTime / 1_000_000) + " ms");
+    }
+
+    /**
+     * Creates a rule with two nodes of type A, which have an arc to the same hub and an arc to a node of type B each.
+     */
+    private Rule createPairRule(GraGra gragra) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName("pair");
+        Graph lhs = rule.getLeft();
+        Node hub = lhs.createNode(this.h);
+        for (int i = 0; i < 2; i++) {
+            Node na = lhs.createNode(this.a);
+            lhs.createArc(this.e, na, hub);
+            lhs.createArc(this.f, na, lhs.createNode(this.b));
+        }
+        identity(rule);
+        return rule;
+    }
+
+    /**
+     * Creates a rule with a path of the specified count of arcs between nodes of type B.
+     */
+    private Rule createPathRule(GraGra gragra, int length) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName("path" + length);
+        Graph lhs = rule.getLeft();
+        Node last = lhs.createNode(this.b);
+        for (int i = 0; i < length; i++) {
+            Node next = lhs.createNode(this.b);
+            lhs.createArc(this.e, last, next);
+            last = next;
+        }
+        identity(rule);
+        return rule;
+    }
+
+    /**
+     * Copies the left-hand side of the rule to its right-hand side and maps all objects.
+     */
+    private void identity(Rule rule) throws TypeException {
+        Graph lhs = rule.getLeft();
+        Graph rhs = rule.getRight();
+        Map<Node, Node> nodes = new HashMap<>();
+        for (Node n : lhs.getNodesSet()) {
+            Node r = rhs.createNode(n.getType());
+            nodes.put(n, r);
+            rule.addMapping(n, r);
+        }
+        for (Arc arc : lhs.getArcsSet()) {
+            rule.addMapping(arc, rhs.createArc(arc.getType(), nodes.get((Node) arc.getSource()),
+                    nodes.get((Node) arc.getTarget())));
+        }
+    }
+
+    private int countMatches(Match m) {
+        int n = 0;
+        while (m.nextCompletion()) {
+            n++;
+        }
+        return n;
+    }
+
+}
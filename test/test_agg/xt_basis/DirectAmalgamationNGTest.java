@@ -0,0 +1,196 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.attribute.handler.AttrHandler;
+import agg.attribute.facade.impl.DefaultInformationFacade;
+import agg.attribute.impl.ValueTuple;
+import agg.attribute.impl.VarTuple;
+import agg.xt_basis.Arc;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.DefaultGraTraImpl;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.GraTraOptions;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import agg.xt_basis.agt.MultiRule;
+import agg.xt_basis.agt.RuleScheme;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Applies a rule scheme by the amalgamated rule and directly to equal graphs and compares the result graphs and the
+ * time.
+ *
+ * @author Janusch Rentenatus
+ */
+public class DirectAmalgamationNGTest {
+
+    public final static int CENTERS = 10;
+    public final static int LEAVES = 60;
+
+    private Type c;
+    private Type l;
+    private Type m;
+    private Type k;
+    private Type e;
+    private Type f;
+    private Type g;
+    private RuleScheme scheme;
+
+    public DirectAmalgamationNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start DirectAmalgamationNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End DirectAmalgamationNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        Map<String, Integer> amalgamated = transform(false);
+        Map<String, Integer> direct = transform(true);
+        assertEquals(direct, amalgamated);
+        assertEquals(direct.get("applications"), Integer.valueOf(CENTERS));
+        assertEquals(direct.get("K"), Integer.valueOf(CENTERS));
+        assertEquals(direct.get("M"), Integer.valueOf(CENTERS * LEAVES));
+        assertEquals(direct.get("e"), Integer.valueOf(0));
+        assertEquals(direct.get("f"), Integer.valueOf(CENTERS * LEAVES));
+        // sum of i*2 and of i+1 for all leaves i
+        int sum = CENTERS * (LEAVES * (LEAVES - 1) / 2);
+        assertEquals(direct.get("L.v"), Integer.valueOf(2 * sum));
+        assertEquals(direct.get("M.v"), Integer.valueOf(sum + CENTERS * LEAVES));
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * Applies the rule scheme until there is no match and returns the count of applications, the counts of the
+     * nodes and arcs of each type and the sums of the attribute values.
+     */
+    private Map<String, Integer> transform(boolean direct) throws TypeException {
+        GraGra gragra = createGraGra();
+        Graph host = gragra.getGraph();
+        DefaultGraTraImpl gratra = new DefaultGraTraImpl();
+        gratra.setGraGra(gragra);
+        gratra.setHostGraph(host);
+        List<String> options = new ArrayList<>();
+        if (direct) {
+            options.add(GraTraOptions.DIRECT_AMALGAMATION);
+        }
+        gratra.setGraTraOptions(options);
+        gratra.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)));
+        long time = System.nanoTime();
+        int applications = 0;
+        while (applications <= CENTERS && gratra.apply(this.scheme)) {
+            applications++;
+        }
+        time = System.nanoTime() - time;
+        Map<String, Integer> result = new HashMap<>();
+        result.put("applications", applications);
+        for (Node n : host.getNodesSet()) {
+            result.merge(n.getType().getName(), 1, Integer::sum);
+            if (n.getAttribute() != null) {
+                Object v = ((ValueTuple) n.getAttribute()).getValueMemberAt("v").getExprAsObject();
+                result.merge(n.getType().getName() + ".v", (Integer) v, Integer::sum);
+            }
+        }
+        for (Arc a : host.getArcsSet()) {
+            result.merge(a.getType().getName(), 1, Integer::sum);
+        }
+        result.putIfAbsent("e", 0);
+        System.out.println((direct ? "direct steps: " : "amalgamated steps: ") + applications + " applications, "
+                + (time / 1_000_000) + " ms");
+        gratra.dispose();
+        return result;
+    }
+
+    /**
+     * Creates a graph of centers with leaves and a rule scheme. The kernel rule creates a K node at a center, the
+     * multi rule replaces the arc to a leaf by a new M node and changes the value of the leaf.
+     */
+    private GraGra createGraGra() throws TypeException {
+        AttrHandler handler = DefaultInformationFacade.self().getJavaHandler();
+        GraGra gragra = new GraGra(true);
+        this.c = createNodeType(gragra, "C", false);
+        this.l = createNodeType(gragra, "L", true);
+        this.m = createNodeType(gragra, "M", true);
+        this.k = createNodeType(gragra, "K", false);
+        this.e = createArcType(gragra, "e");
+        this.f = createArcType(gragra, "f");
+        this.g = createArcType(gragra, "g");
+        Graph host = gragra.getGraph();
+        for (int i = 0; i < CENTERS; i++) {
+            Node center = host.createNode(this.c);
+            for (int j = 0; j < LEAVES; j++) {
+                Node leaf = host.createNode(this.l);
+                ((ValueTuple) leaf.getAttribute()).getValueMemberAt("v").setExprAsObject(Integer.valueOf(j));
+                host.createArc(this.e, center, leaf);
+            }
+        }
+        this.scheme = gragra.createRuleScheme();
+        this.scheme.setName("grow");
+        this.scheme.setAtLeastOneMultiMatchRequired(true);
+        Rule kernel = this.scheme.getKernelRule();
+        Node kc = kernel.getLeft().createNode(this.c);
+        Node kc2 = kernel.getRight().createNode(this.c);
+        kernel.addMapping(kc, kc2);
+        Node kk = kernel.getRight().createNode(this.k);
+        kernel.getRight().createArc(this.g, kc2, kk);
+
+        MultiRule multi = this.scheme.createMultiRule("leaf");
+        ((VarTuple) multi.getAttrContext().getVariables()).declare(handler, "int", "x");
+        Node mc = (Node) multi.getEmbeddingLeft().getImage(kc);
+        Node mc2 = (Node) multi.getEmbeddingRight().getImage(kc2);
+        Node ml = multi.getLeft().createNode(this.l);
+        ((ValueTuple) ml.getAttribute()).getValueMemberAt("v").setExprAsText("x");
+        multi.getLeft().createArc(this.e, mc, ml);
+        Node ml2 = multi.getRight().createNode(this.l);
+        ((ValueTuple) ml2.getAttribute()).getValueMemberAt("v").setExprAsText("x*2");
+        multi.addMapping(ml, ml2);
+        Node mm = multi.getRight().createNode(this.m);
+        ((ValueTuple) mm.getAttribute()).getValueMemberAt("v").setExprAsText("x+1");
+        multi.getRight().createArc(this.f, mc2, mm);
+        return gragra;
+    }
+
+    private static Type createNodeType(GraGra gragra, String name, boolean attributed) {
+        Type t = gragra.createNodeType(attributed);
+        t.setStringRepr(name);
+        if (attributed) {
+            t.getAttrType().addMember(DefaultInformationFacade.self().getJavaHandler(), "int", "v");
+        }
+        return t;
+    }
+
+    private static Type createArcType(GraGra gragra, String name) {
+        Type t = gragra.createArcType(false);
+        t.setStringRepr(name);
+        return t;
+    }
+
+}
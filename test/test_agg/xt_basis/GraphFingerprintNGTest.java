@@ -0,0 +1,184 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.attribute.facade.impl.DefaultInformationFacade;
+import agg.attribute.impl.ValueTuple;
+import agg.xt_basis.BaseFactory;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphFingerprint;
+import agg.xt_basis.Node;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that isomorphic graphs have equal fingerprints and that the removal of isomorphic subgraph inclusions keeps
+ * one inclusion of each isomorphism class. The kept fingerprint of a graph has to follow changes of attribute values
+ * and of the node type inheritance.
+ *
+ * @author Janusch Rentenatus
+ */
+public class GraphFingerprintNGTest {
+
+    public GraphFingerprintNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start GraphFingerprintNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End GraphFingerprintNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        Type a = gragra.createNodeType(false);
+        a.setStringRepr("A");
+        Type b = gragra.createNodeType(false);
+        b.setStringRepr("B");
+        Type e = gragra.createArcType(false);
+        e.setStringRepr("E");
+        Graph g = gragra.getGraph();
+        Node n1 = g.createNode(a);
+        Node n2 = g.createNode(a);
+        Node n3 = g.createNode(b);
+        Node n4 = g.createNode(a);
+        g.createArc(e, n1, n2);
+        g.createArc(e, n2, n3);
+        g.createArc(e, n3, n4);
+        g.createArc(e, n4, n1);
+        g.createArc(e, n2, n1);
+
+        OrdinaryMorphism copy = g.isomorphicCopy();
+        assertEquals(copy.getTarget().getFingerprint(), g.getFingerprint());
+        assertTrue(copy.getTarget().getFingerprint().mayBeIsomorphicTo(g.getFingerprint()));
+
+        BaseFactory bf = BaseFactory.theFactory();
+        List<OrdinaryMorphism> all = bf.generateAllSubgraphs(g, -1, false, true);
+        List<Graph> classes = new ArrayList<>();
+        for (OrdinaryMorphism inc : all) {
+            Graph sub = inc.getSource();
+            GraphFingerprint fp = sub.getFingerprint();
+            boolean found = false;
+            for (Graph c : classes) {
+                boolean iso = c.isIsomorphicTo(sub);
+                if (iso) {
+                    assertTrue(c.getFingerprint().mayBeIsomorphicTo(fp), sub.toString());
+                }
+                found = found || iso;
+            }
+            if (!found) {
+                classes.add(sub);
+            }
+        }
+        List<OrdinaryMorphism> reduced = bf.generateAllSubgraphs(g, -1, false, false);
+        assertEquals(reduced.size(), classes.size());
+        for (int i = 0; i < reduced.size(); i++) {
+            for (int j = i + 1; j < reduced.size(); j++) {
+                assertFalse(reduced.get(i).getSource().isIsomorphicTo(reduced.get(j).getSource()));
+            }
+        }
+        System.out.println("subgraphs: " + all.size() + ", isomorphism classes: " + classes.size());
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    @Test
+    public void testAttributes() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        Type a = gragra.createNodeType(true);
+        a.setStringRepr("A");
+        a.getAttrType().addMember(DefaultInformationFacade.self().getJavaHandler(), "int", "v");
+        Type e = gragra.createArcType(false);
+        e.setStringRepr("E");
+        Graph g = gragra.getGraph();
+        Node n1 = g.createNode(a);
+        Node n2 = g.createNode(a);
+        g.createArc(e, n1, n2);
+        setValue(n1, 1);
+        setValue(n2, 2);
+        Graph copy = g.isomorphicCopy().getTarget();
+        GraphFingerprint fp = g.getFingerprint();
+        assertTrue(fp.isAttributesKnown());
+        assertSame(g.getFingerprint(), fp);
+        assertTrue(copy.getFingerprint().mayHaveEqualConstants(fp));
+
+        // the values are swapped along the arc: the isomorphism check does not compare values,
+        // but no isomorphism maps the constants to equal constants
+        setValue(n1, 2);
+        setValue(n2, 1);
+        assertNotSame(g.getFingerprint(), fp);
+        assertEquals(g.getFingerprint(), fp);
+        assertTrue(copy.isIsomorphicTo(g));
+        assertTrue(copy.getFingerprint().mayBeIsomorphicTo(g.getFingerprint()));
+        assertFalse(copy.getIsomorphicWith(g).checkConstants());
+        assertFalse(copy.getFingerprint().mayHaveEqualConstants(g.getFingerprint()));
+
+        setValue(n1, 1);
+        setValue(n2, 2);
+        assertTrue(copy.getIsomorphicWith(g).checkConstants());
+        assertTrue(copy.getFingerprint().mayHaveEqualConstants(g.getFingerprint()));
+
+        // an unset value matches any value
+        setValue(n1, 2);
+        ((ValueTuple) n2.getAttribute()).getValueMemberAt("v").setExpr(null);
+        assertFalse(g.getFingerprint().isAttributesKnown());
+        assertTrue(copy.getFingerprint().mayHaveEqualConstants(g.getFingerprint()));
+    }
+
+    @Test
+    public void testInheritance() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        Type a = gragra.createNodeType(false);
+        a.setStringRepr("A");
+        Type b = gragra.createNodeType(false);
+        b.setStringRepr("B");
+        Type e = gragra.createArcType(false);
+        e.setStringRepr("E");
+        Graph typeGraph = gragra.createTypeGraph();
+        Node ta = typeGraph.createNode(a);
+        typeGraph.createNode(b);
+        typeGraph.createArc(e, ta, ta);
+        Graph g = gragra.getGraph();
+        g.createArc(e, g.createNode(a), g.createNode(a));
+        Graph h = BaseFactory.theFactory().createGraph(gragra.getTypeSet());
+        h.createArc(e, h.createNode(a), h.createNode(b));
+        GraphFingerprint fp = g.getFingerprint();
+        assertFalse(h.getFingerprint().mayBeIsomorphicTo(fp));
+        assertFalse(h.isIsomorphicTo(g));
+
+        // the node types are left out as soon as a node of type A may be mapped to a node of the child type B
+        assertNull(gragra.getTypeSet().addInheritanceRelation(b, a));
+        assertNotSame(g.getFingerprint(), fp);
+        assertTrue(h.getFingerprint().mayBeIsomorphicTo(g.getFingerprint()));
+
+        gragra.getTypeSet().removeAllInheritanceRelations(b);
+        assertFalse(h.getFingerprint().mayBeIsomorphicTo(g.getFingerprint()));
+    }
+
+    private static void setValue(Node n, int v) {
+        ((ValueTuple) n.getAttribute()).getValueMemberAt("v").setExprAsObject(Integer.valueOf(v));
+    }
+
+}
@@ -0,0 +1,360 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.attribute.facade.impl.DefaultInformationFacade;
+import agg.attribute.impl.ValueTuple;
+import agg.cons.AtomConstraint;
+import agg.cons.Formula;
+import agg.util.Change;
+import agg.xt_basis.Arc;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.DefaultGraTraImpl;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.GraTraOptions;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphJournal;
+import agg.xt_basis.Match;
+import agg.xt_basis.Morphism;
+import agg.xt_basis.Node;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Rule;
+import agg.xt_basis.StaticStep;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observer;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Changes a graph under nested undo journals by steps and by direct changes and checks that a discarded journal
+ * restores the graph and a committed journal keeps the changes. Then applies rules with consistent steps only, which
+ * are tested in the host graph under undo journals.
+ *
+ * @author Janusch Rentenatus
+ */
+public class GraphJournalNGTest {
+
+    public final static int NODES = 20000;
+    public final static int ARCS = 60000;
+    public final static int CHANGES = 300;
+    public final static int STEPS = 40;
+
+    private final Random random = new Random(4711);
+    private Type a;
+    private Type e;
+    private Rule mark;
+    private Rule split;
+    private int nextValue = NODES;
+
+    public GraphJournalNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start GraphJournalNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End GraphJournalNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = createGraGra();
+        Graph g = gragra.getGraph();
+        List<String> initial = stateOf(g);
+
+        long time = System.nanoTime();
+        GraphJournal outer = g.openJournal();
+        long openTime = System.nanoTime() - time;
+        assertTrue(g.hasOpenJournal());
+        change(gragra, CHANGES);
+        List<String> changed = stateOf(g);
+        assertNotEquals(changed, initial);
+
+        GraphJournal inner = g.openJournal();
+        change(gragra, CHANGES);
+        assertTrue(inner.getChangeCount() > 0);
+        time = System.nanoTime();
+        inner.discard();
+        long discardTime = System.nanoTime() - time;
+        assertFalse(inner.isOpen());
+        assertEquals(stateOf(g), changed);
+        assertTrue(g.hasOpenJournal());
+
+        inner = g.openJournal();
+        change(gragra, CHANGES);
+        List<String> committed = stateOf(g);
+        inner.commit();
+        assertEquals(stateOf(g), committed);
+        // the outer journal has to be closed after the inner ones
+        GraphJournal third = g.openJournal();
+        try {
+            outer.discard();
+            fail("The outer journal is discarded before the inner one.");
+        } catch (IllegalStateException ex) {
+            third.commit();
+        }
+        outer.discard();
+        assertFalse(g.hasOpenJournal());
+        assertEquals(stateOf(g), initial);
+        assertEquals(g.getNodesCount(), NODES);
+        assertEquals(g.getArcsCount(), ARCS);
+
+        outer = g.openJournal();
+        change(gragra, CHANGES);
+        changed = stateOf(g);
+        outer.commit();
+        assertFalse(g.hasOpenJournal());
+        assertEquals(stateOf(g), changed);
+
+        time = System.nanoTime();
+        Graph copy = g.graphcopy();
+        long copyTime = System.nanoTime() - time;
+        copy.dispose();
+        System.out.println("open journal: " + (openTime / 1000) + " us, discard of " + CHANGES + " changes: "
+                + (discardTime / 1000) + " us, graphcopy: " + (copyTime / 1000) + " us");
+
+        checkConsistentSteps(false);
+        checkConsistentSteps(true);
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * Makes random changes: steps of the rules "mark" and "split", new and destroyed nodes and arcs.
+     */
+    private void change(GraGra gragra, int count) throws TypeException {
+        Graph g = gragra.getGraph();
+        for (int i = 0; i < count; i++) {
+            List<Node> nodes = new ArrayList<>(g.getNodesSet());
+            switch (this.random.nextInt(6)) {
+                case 0:
+                    step(gragra, this.mark, nodes);
+                    break;
+                case 1:
+                    step(gragra, this.split, nodes);
+                    break;
+                case 2:
+                    Node n = g.createNode(this.a);
+                    setValue(n, this.nextValue++);
+                    g.createArc(this.e, n, nodes.get(this.random.nextInt(nodes.size())));
+                    break;
+                case 3:
+                    g.destroyNode(nodes.get(this.random.nextInt(nodes.size())));
+                    break;
+                case 4:
+                    List<Arc> arcs = new ArrayList<>(nodes.get(this.random.nextInt(nodes.size())).getOutgoingArcsSet());
+                    if (!arcs.isEmpty()) {
+                        g.destroyArc(arcs.get(0));
+                    }
+                    break;
+                default:
+                    g.createArc(this.e, nodes.get(this.random.nextInt(nodes.size())),
+                            nodes.get(this.random.nextInt(nodes.size())));
+                    break;
+            }
+        }
+    }
+
+    private void step(GraGra gragra, Rule rule, List<Node> nodes) throws TypeException {
+        Match m = gragra.createMatch(rule);
+        m.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)), true);
+        Node l = rule.getLeft().getNodesSet().iterator().next();
+        if (rule.getLeft().getArcsCount() > 0) {
+            l = (Node) rule.getLeft().getArcsSet().iterator().next().getSource();
+        }
+        m.addMapping(l, nodes.get(this.random.nextInt(nodes.size())));
+        if (m.nextCompletion()) {
+            StaticStep.execute(m);
+        }
+        gragra.destroyMatch(m);
+    }
+
+    /**
+     * Returns the sorted values of the nodes and pairs of values of the arcs.
+     */
+    private static List<String> stateOf(Graph g) {
+        List<String> state = new ArrayList<>();
+        for (Node n : g.getNodesSet()) {
+            state.add(String.valueOf(valueOf(n)));
+        }
+        for (Arc arc : g.getArcsSet()) {
+            state.add(valueOf((Node) arc.getSource()) + "->" + valueOf((Node) arc.getTarget()));
+        }
+        Collections.sort(state);
+        return state;
+    }
+
+    private static Object valueOf(Node n) {
+        return ((ValueTuple) n.getAttribute()).getValueMemberAt("v").getExprAsObject();
+    }
+
+    private static void setValue(Node n, int v) {
+        ((ValueTuple) n.getAttribute()).getValueMemberAt("v").setExprAsObject(Integer.valueOf(v));
+    }
+
+    /**
+     * Creates a graph of nodes with distinct values and random arcs, the rule "mark", which changes the value of a
+     * node, and the rule "split", which replaces an arc by a new node and two arcs.
+     */
+    private GraGra createGraGra() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(true);
+        this.a.setStringRepr("A");
+        this.a.getAttrType().addMember(DefaultInformationFacade.self().getJavaHandler(), "int", "v");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        Graph g = gragra.getGraph();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node n = g.createNode(this.a);
+            setValue(n, i);
+            nodes.add(n);
+        }
+        for (int i = 0; i < ARCS; i++) {
+            g.createArc(this.e, nodes.get(this.random.nextInt(NODES)), nodes.get(this.random.nextInt(NODES)));
+        }
+        this.mark = gragra.createRule();
+        this.mark.setName("mark");
+        Node l = this.mark.getLeft().createNode(this.a);
+        Node r = this.mark.getRight().createNode(this.a);
+        ((ValueTuple) r.getAttribute()).getValueMemberAt("v").setExprAsText("-1");
+        this.mark.addMapping(l, r);
+
+        this.split = gragra.createRule();
+        this.split.setName("split");
+        Node l0 = this.split.getLeft().createNode(this.a);
+        Node l1 = this.split.getLeft().createNode(this.a);
+        this.split.getLeft().createArc(this.e, l0, l1);
+        Node r0 = this.split.getRight().createNode(this.a);
+        Node r1 = this.split.getRight().createNode(this.a);
+        Node r2 = this.split.getRight().createNode(this.a);
+        ((ValueTuple) r2.getAttribute()).getValueMemberAt("v").setExprAsText("-2");
+        this.split.getRight().createArc(this.e, r0, r2);
+        this.split.getRight().createArc(this.e, r2, r1);
+        this.split.addMapping(l0, r0);
+        this.split.addMapping(l1, r1);
+        return gragra;
+    }
+
+    /**
+     * Applies the rules "grow", which makes the graph inconsistent, and "link" with consistent steps only. With the
+     * incremental consistency check each step is tested in the host graph under an undo journal, without it at a copy.
+     * In both modes the rejected steps are taken back.
+     */
+    @SuppressWarnings("deprecation")
+    private void checkConsistentSteps(boolean incremental) throws TypeException {
+        GraGra gragra = new GraGra(true);
+        Type n = gragra.createNodeType(false);
+        n.setStringRepr("N");
+        Type arc = gragra.createArcType(false);
+        arc.setStringRepr("E");
+        Rule grow = gragra.createRule();
+        grow.setName("grow");
+        Node lx = grow.getLeft().createNode(n);
+        Node rx = grow.getRight().createNode(n);
+        grow.getRight().createArc(arc, rx, grow.getRight().createNode(n));
+        grow.addMapping(lx, rx);
+        Rule link = gragra.createRule();
+        link.setName("link");
+        lx = link.getLeft().createNode(n);
+        Node ly = link.getLeft().createNode(n);
+        rx = link.getRight().createNode(n);
+        Node ry = link.getRight().createNode(n);
+        link.getRight().createArc(arc, rx, ry);
+        link.getRight().createArc(arc, ry, rx);
+        link.addMapping(lx, rx);
+        link.addMapping(ly, ry);
+
+        // each arc has an opposite arc
+        AtomConstraint opposite = gragra.createAtomic("opposite");
+        opposite.setAtomicName("opposite");
+        OrdinaryMorphism pc = opposite.getConclusion(0);
+        Node px = pc.getSource().createNode(n);
+        Node py = pc.getSource().createNode(n);
+        Arc pa = pc.getSource().createArc(arc, px, py);
+        Node cx = pc.getTarget().createNode(n);
+        Node cy = pc.getTarget().createNode(n);
+        Arc ca = pc.getTarget().createArc(arc, cx, cy);
+        pc.getTarget().createArc(arc, cy, cx);
+        pc.addMapping(px, cx);
+        pc.addMapping(py, cy);
+        pc.addMapping(pa, ca);
+        Formula f = gragra.createConstraint("opposite");
+        f.setFormula(gragra.getListOfAtomicObjects(), "1");
+        assertTrue(f.isValid());
+
+        Graph host = gragra.getGraph();
+        for (int i = 0; i < 10; i++) {
+            host.createNode(n);
+        }
+        DefaultGraTraImpl gratra = new DefaultGraTraImpl();
+        gratra.setGraGra(gragra);
+        gratra.setHostGraph(host);
+        List<String> options = new ArrayList<>();
+        options.add(GraTraOptions.CONSISTENT_ONLY);
+        gratra.setGraTraOptions(options);
+        gratra.setIncrementalConsistencyEnabled(incremental);
+        gratra.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)));
+        int[] created = new int[1];
+        Observer counter = (o, arg) -> {
+            if (arg instanceof Change && ((Change) arg).getEvent() == Change.OBJECT_CREATED) {
+                created[0]++;
+            }
+        };
+        host.addObserver(counter);
+        int rejected = 0;
+        int applied = 0;
+        for (int i = 0; i < STEPS; i++) {
+            Rule rule = (i % 2 == 0) ? grow : link;
+            int nodes = host.getNodesCount();
+            int arcs = host.getArcsCount();
+            Match m = gragra.createMatch(rule);
+            m.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)), true);
+            if (m.nextCompletion()) {
+                created[0] = 0;
+                Morphism co_match = gratra.apply(m);
+                if (co_match != null) {
+                    applied++;
+                } else {
+                    rejected++;
+                    assertEquals(host.getNodesCount(), nodes, "step " + i);
+                    assertEquals(host.getArcsCount(), arcs, "step " + i);
+                    if (!incremental) {
+                        assertEquals(created[0], 0, "The host graph sees a rejected step " + i);
+                    }
+                }
+            }
+            gragra.destroyMatch(m);
+            assertFalse(host.hasOpenJournal());
+            assertTrue(gragra.checkGraphConsistency(host), "step " + i);
+        }
+        host.deleteObserver(counter);
+        assertTrue(applied > 0);
+        assertTrue(rejected > 0);
+        assertEquals(gratra.getIncrementalConsistency() != null, incremental);
+        System.out.println((incremental ? "incremental " : "") + "consistent steps: " + applied
+                + ", rejected steps: " + rejected);
+        gratra.dispose();
+    }
+
+}
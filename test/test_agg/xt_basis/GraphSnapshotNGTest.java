@@ -0,0 +1,144 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.attribute.facade.impl.DefaultInformationFacade;
+import agg.attribute.handler.AttrHandler;
+import agg.attribute.impl.ValueTuple;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Node;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Saves host graphs as binary snapshot, loads them into the same and into an empty grammar and compares the graphs.
+ *
+ * @author Janusch Rentenatus
+ */
+public class GraphSnapshotNGTest {
+
+    public final static int NODES = 20000;
+
+    public GraphSnapshotNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start GraphSnapshotNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End GraphSnapshotNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws Exception {
+        long startTime = System.nanoTime();
+        File out = File.createTempFile("snapshot", ".ags");
+        out.deleteOnExit();
+
+        GraGra expected = new GraGra(false);
+        expected.load("test_agg/xt_basis/tictactoe/TicTacToeSem.ggx");
+        expected.saveSnapshot(out.getPath());
+        GraGra loaded = new GraGra(false);
+        loaded.load("test_agg/xt_basis/tictactoe/TicTacToeSem.ggx");
+        loaded.getGraph().destroyNode(loaded.getGraph().getNodesSet().iterator().next());
+        loaded.loadSnapshot(out.getPath());
+        assertEqualGraphs(loaded.getListOfGraphs(), expected.getListOfGraphs());
+        assertSame(loaded.getGraph(), loaded.getListOfGraphs().get(0));
+
+        // the types are created in an empty grammar
+        Graph g = expected.getListOfGraphs().get(2);
+        g.saveSnapshot(out.getPath());
+        GraGra empty = new GraGra(true);
+        empty.getGraph().loadSnapshot(out.getPath());
+        List<Graph> single = new ArrayList<>();
+        single.add(g);
+        assertEqualGraphs(empty.getListOfGraphs(), single);
+
+        Graph large = createLargeGraph();
+        long saveTime = System.nanoTime();
+        large.saveSnapshot(out.getPath());
+        long loadTime = System.nanoTime();
+        GraGra other = new GraGra(true);
+        other.getGraph().loadSnapshot(out.getPath());
+        long endLoadTime = System.nanoTime();
+        single.set(0, large);
+        assertEqualGraphs(other.getListOfGraphs(), single);
+        assertEquals(other.getGraph().getTypeObjectsMap().get(large.getNodesSet().iterator().next().convertToKey()).size(),
+                large.getTypeObjectsMap().get(large.getNodesSet().iterator().next().convertToKey()).size());
+        System.out.println("snapshot of " + large.getNodesCount() + " nodes and " + large.getArcsCount()
+                + " arcs: " + out.length() + " bytes, save " + ((loadTime - saveTime) / 1_000_000) + " ms, load "
+                + ((endLoadTime - loadTime) / 1_000_000) + " ms");
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    private void assertEqualGraphs(List<Graph> actual, List<Graph> expected) {
+        assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < actual.size(); i++) {
+            Graph a = actual.get(i);
+            Graph e = expected.get(i);
+            assertEquals(a.getName(), e.getName());
+            assertEquals(a.getNodesCount(), e.getNodesCount(), a.getName());
+            assertEquals(a.getArcsCount(), e.getArcsCount(), a.getName());
+            assertEquals(a.getFingerprint(), e.getFingerprint(), a.getName());
+            assertEquals(a.getFingerprint().isAttributesKnown(), e.getFingerprint().isAttributesKnown(), a.getName());
+            assertTrue(a.getFingerprint().mayHaveEqualConstants(e.getFingerprint()), a.getName());
+        }
+    }
+
+    private Graph createLargeGraph() throws TypeException {
+        AttrHandler handler = DefaultInformationFacade.self().getJavaHandler();
+        GraGra gragra = new GraGra(true);
+        Type city = gragra.createNodeType(true);
+        city.setStringRepr("City");
+        city.getAttrType().addMember(handler, "String", "name");
+        city.getAttrType().addMember(handler, "int", "size");
+        city.getAttrType().addMember(handler, "double", "x");
+        Type road = gragra.createArcType(true);
+        road.setStringRepr("Road");
+        road.getAttrType().addMember(handler, "int", "length");
+        road.getAttrType().addMember(handler, "boolean", "toll");
+        Graph g = gragra.getGraph();
+        g.setName("large");
+        Random random = new Random(4711);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node n = g.createNode(city);
+            ValueTuple value = (ValueTuple) n.getAttribute();
+            value.getValueMemberAt("name").setExprAsObject("c" + (i % 1000));
+            value.getValueMemberAt("size").setExprAsObject(Integer.valueOf(random.nextInt(100)));
+            if (i % 3 != 0) {
+                value.getValueMemberAt("x").setExprAsObject(Double.valueOf(random.nextDouble()));
+            }
+            nodes.add(n);
+        }
+        for (int i = 0; i < 2 * NODES; i++) {
+            ValueTuple value = (ValueTuple) g.createArc(road, nodes.get(random.nextInt(NODES)),
+                    nodes.get(random.nextInt(NODES))).getAttribute();
+            value.getValueMemberAt("length").setExprAsObject(Integer.valueOf(random.nextInt(500)));
+            value.getValueMemberAt("toll").setExprAsObject(Boolean.valueOf(random.nextBoolean()));
+        }
+        return g;
+    }
+
+}
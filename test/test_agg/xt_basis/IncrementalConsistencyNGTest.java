@@ -0,0 +1,283 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.cons.AtomConstraint;
+import agg.cons.Formula;
+import agg.xt_basis.Arc;
+import agg.xt_basis.BadMappingException;
+import agg.xt_basis.DefaultGraTraImpl;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.GraTraOptions;
+import agg.xt_basis.Graph;
+import agg.xt_basis.IncrementalConsistency;
+import agg.xt_basis.Match;
+import agg.xt_basis.Morphism;
+import agg.xt_basis.Node;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Applies random steps with the incremental consistency check and compares its verdict with the check of the whole
+ * host graph after each step.
+ *
+ * @author Janusch Rentenatus
+ */
+public class IncrementalConsistencyNGTest {
+
+    public final static int STEPS = 150;
+
+    private Type nodeType;
+    private Type arcType;
+    private Rule close;
+    private final Random random = new Random(4711);
+
+    public IncrementalConsistencyNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start IncrementalConsistencyNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End IncrementalConsistencyNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        this.nodeType = gragra.createNodeType(false);
+        this.nodeType.setStringRepr("N");
+        this.arcType = gragra.createArcType(false);
+        this.arcType.setStringRepr("E");
+        List<Rule> rules = createRules(gragra);
+        createConstraints(gragra);
+        Graph host = gragra.getGraph();
+
+        DefaultGraTraImpl gratra = new DefaultGraTraImpl();
+        gratra.setGraGra(gragra);
+        gratra.setHostGraph(host);
+        List<String> options = new ArrayList<>();
+        gratra.setGraTraOptions(options);
+        gratra.setIncrementalConsistencyEnabled(true);
+        int inconsistent = 0;
+        for (int i = 0; i < STEPS; i++) {
+            Morphism co_match = applyRandomStep(gragra, gratra, rules);
+            if (co_match != null) {
+                boolean expected = gragra.checkGraphConsistency(host);
+                assertEquals(gratra.isGraphConsistent(), expected, "step " + i);
+                if (!expected) {
+                    inconsistent++;
+                }
+            }
+        }
+        IncrementalConsistency check = gratra.getIncrementalConsistency();
+        assertNotNull(check);
+        assertTrue(check.getLocalEvaluations() > 0);
+        assertTrue(inconsistent > 0);
+        System.out.println("inconsistent steps: " + inconsistent
+                + ", full evaluations: " + check.getFullEvaluations()
+                + ", local evaluations: " + check.getLocalEvaluations());
+
+        // close all arcs, then consistent steps only
+        while (applyStep(gragra, gratra, this.close) != null) {
+        }
+        assertTrue(gragra.checkGraphConsistency(host));
+        options.add(GraTraOptions.CONSISTENT_ONLY);
+        gratra.setGraTraOptions(options);
+        int rejected = 0;
+        for (int i = 0; i < STEPS; i++) {
+            int nodes = host.getNodesCount();
+            int arcs = host.getArcsCount();
+            Morphism co_match = applyRandomStep(gragra, gratra, rules);
+            if (co_match != null) {
+                assertTrue(gragra.checkGraphConsistency(host), "step " + i);
+            } else if (!gratra.isGraphConsistent()) {
+                rejected++;
+                assertEquals(host.getNodesCount(), nodes, "step " + i);
+                assertEquals(host.getArcsCount(), arcs, "step " + i);
+                assertTrue(gragra.checkGraphConsistency(host), "step " + i);
+            }
+        }
+        assertTrue(rejected > 0);
+        System.out.println("rejected steps: " + rejected);
+        gratra.dispose();
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    private Morphism applyRandomStep(GraGra gragra, DefaultGraTraImpl gratra, List<Rule> rules) {
+        return applyStep(gragra, gratra, rules.get(this.random.nextInt(rules.size())));
+    }
+
+    /**
+     * Applies the rule at randomly chosen host objects, the rule "close" at the first match found.
+     */
+    private Morphism applyStep(GraGra gragra, DefaultGraTraImpl gratra, Rule rule) {
+        Graph host = gragra.getGraph();
+        Match m = gragra.createMatch(rule);
+        try {
+            List<Node> nodes = new ArrayList<>(host.getNodesSet());
+            List<Arc> arcs = new ArrayList<>(host.getArcsSet());
+            if (rule == this.close) {
+                if (!m.nextCompletion()) {
+                    return null;
+                }
+            } else if (!rule.getLeft().getArcsSet().isEmpty()) {
+                if (arcs.isEmpty()) {
+                    return null;
+                }
+                Arc arc = arcs.get(this.random.nextInt(arcs.size()));
+                m.addMapping(rule.getLeft().getArcsSet().iterator().next(), arc);
+                if (!m.nextCompletion()) {
+                    return null;
+                }
+            } else {
+                for (Node l : rule.getLeft().getNodesSet()) {
+                    if (nodes.isEmpty()) {
+                        return null;
+                    }
+                    m.addMapping(l, nodes.remove(this.random.nextInt(nodes.size())));
+                }
+            }
+            if (!m.isTotal() || !m.isValid()) {
+                return null;
+            }
+            return gratra.apply(m);
+        } catch (BadMappingException ex) {
+            return null;
+        } finally {
+            gragra.destroyMatch(m);
+        }
+    }
+
+    /**
+     * Rules to create and delete nodes and arcs of a graph with opposite arcs. The rules "grow" and "unlink" make the
+     * graph inconsistent, the rule "close" repairs it.
+     */
+    private List<Rule> createRules(GraGra gragra) throws TypeException {
+        List<Rule> rules = new ArrayList<>();
+        Rule addNode = gragra.createRule();
+        addNode.setName("addNode");
+        addNode.getRight().createNode(this.nodeType);
+        rules.add(addNode);
+        rules.add(addNode);
+
+        Rule link = gragra.createRule();
+        link.setName("link");
+        Node lx = link.getLeft().createNode(this.nodeType);
+        Node ly = link.getLeft().createNode(this.nodeType);
+        Node rx = link.getRight().createNode(this.nodeType);
+        Node ry = link.getRight().createNode(this.nodeType);
+        link.getRight().createArc(this.arcType, rx, ry);
+        link.getRight().createArc(this.arcType, ry, rx);
+        link.addMapping(lx, rx);
+        link.addMapping(ly, ry);
+        rules.add(link);
+        rules.add(link);
+
+        Rule grow = gragra.createRule();
+        grow.setName("grow");
+        lx = grow.getLeft().createNode(this.nodeType);
+        rx = grow.getRight().createNode(this.nodeType);
+        ry = grow.getRight().createNode(this.nodeType);
+        grow.getRight().createArc(this.arcType, rx, ry);
+        grow.addMapping(lx, rx);
+        rules.add(grow);
+
+        this.close = gragra.createRule();
+        this.close.setName("close");
+        lx = this.close.getLeft().createNode(this.nodeType);
+        ly = this.close.getLeft().createNode(this.nodeType);
+        Arc la = this.close.getLeft().createArc(this.arcType, lx, ly);
+        rx = this.close.getRight().createNode(this.nodeType);
+        ry = this.close.getRight().createNode(this.nodeType);
+        Arc ra = this.close.getRight().createArc(this.arcType, rx, ry);
+        this.close.getRight().createArc(this.arcType, ry, rx);
+        this.close.addMapping(lx, rx);
+        this.close.addMapping(ly, ry);
+        this.close.addMapping(la, ra);
+        OrdinaryMorphism nac = this.close.createNAC();
+        Node nx = nac.getTarget().createNode(this.nodeType);
+        Node ny = nac.getTarget().createNode(this.nodeType);
+        nac.getTarget().createArc(this.arcType, ny, nx);
+        nac.addMapping(lx, nx);
+        nac.addMapping(ly, ny);
+        rules.add(this.close);
+        rules.add(this.close);
+
+        Rule unlink = gragra.createRule();
+        unlink.setName("unlink");
+        lx = unlink.getLeft().createNode(this.nodeType);
+        ly = unlink.getLeft().createNode(this.nodeType);
+        unlink.getLeft().createArc(this.arcType, lx, ly);
+        rx = unlink.getRight().createNode(this.nodeType);
+        ry = unlink.getRight().createNode(this.nodeType);
+        unlink.addMapping(lx, rx);
+        unlink.addMapping(ly, ry);
+        rules.add(unlink);
+
+        Rule delNode = gragra.createRule();
+        delNode.setName("delNode");
+        delNode.getLeft().createNode(this.nodeType);
+        rules.add(delNode);
+        return rules;
+    }
+
+    /**
+     * Constraint 1: each arc has an opposite arc. Constraint 2: besides each node there is another node, the
+     * conclusion is not connected to the premise.
+     */
+    private void createConstraints(GraGra gragra) throws TypeException {
+        AtomConstraint opposite = gragra.createAtomic("opposite");
+        opposite.setAtomicName("opposite");
+        OrdinaryMorphism pc = opposite.getConclusion(0);
+        Node px = pc.getSource().createNode(this.nodeType);
+        Node py = pc.getSource().createNode(this.nodeType);
+        Arc pa = pc.getSource().createArc(this.arcType, px, py);
+        Node cx = pc.getTarget().createNode(this.nodeType);
+        Node cy = pc.getTarget().createNode(this.nodeType);
+        Arc ca = pc.getTarget().createArc(this.arcType, cx, cy);
+        pc.getTarget().createArc(this.arcType, cy, cx);
+        pc.addMapping(px, cx);
+        pc.addMapping(py, cy);
+        pc.addMapping(pa, ca);
+
+        AtomConstraint pair = gragra.createAtomic("pair");
+        pair.setAtomicName("pair");
+        OrdinaryMorphism qc = pair.getConclusion(0);
+        Node qx = qc.getSource().createNode(this.nodeType);
+        Node dx = qc.getTarget().createNode(this.nodeType);
+        qc.getTarget().createNode(this.nodeType);
+        qc.addMapping(qx, dx);
+
+        Formula f1 = gragra.createConstraint("opposite");
+        f1.setFormula(gragra.getListOfAtomicObjects(), "1");
+        Formula f2 = gragra.createConstraint("pair");
+        f2.setFormula(gragra.getListOfAtomicObjects(), "2 || !1");
+        assertTrue(opposite.isValid());
+        assertTrue(pair.isValid());
+        assertTrue(f1.isValid() && f2.isValid());
+    }
+
+}
@@ -0,0 +1,267 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.attribute.facade.impl.DefaultInformationFacade;
+import agg.attribute.impl.ValueTuple;
+import agg.xt_basis.Arc;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.IncrementalMatcher;
+import agg.xt_basis.Match;
+import agg.xt_basis.MorphCompletionStrategy;
+import agg.xt_basis.Morphism;
+import agg.xt_basis.Node;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Rule;
+import agg.xt_basis.StaticStep;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import agg.xt_basis.csp.CompletionPropertyBits;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Applies random steps which create, delete and modify objects and compares after each step the matches kept by the
+ * incremental matcher with the matches of a full search. The rules contain a NAC, a node deletion and attribute
+ * conditions, so that the fallbacks to a full search are used, and the host graph is changed outside of steps from
+ * time to time.
+ *
+ * @author Janusch Rentenatus
+ */
+public class IncrementalMatcherNGTest {
+
+    public final static int NODES = 30;
+    public final static int ARCS = 40;
+    public final static int STEPS = 300;
+
+    private final Random random = new Random(4711);
+    private Type a;
+    private Type e;
+    private final List<Rule> stepRules = new ArrayList<>();
+    private final List<Rule> queryRules = new ArrayList<>();
+
+    public IncrementalMatcherNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start IncrementalMatcherNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End IncrementalMatcherNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        GraGra gragra = createGraGra();
+        Graph host = gragra.getGraph();
+        IncrementalMatcher matcher = new IncrementalMatcher(host);
+        compare(gragra, matcher, -1);
+        int applied = 0;
+        for (int i = 0; i < STEPS; i++) {
+            if (i % 50 == 49) {
+                // a change outside of a step resets the matcher
+                Node n = host.createNode(this.a);
+                setValue(n, 0);
+            } else if (step(gragra, matcher, this.stepRules.get(this.random.nextInt(this.stepRules.size())))) {
+                applied++;
+            }
+            compare(gragra, matcher, i);
+        }
+        assertTrue(applied > STEPS / 2, "steps: " + applied);
+        assertTrue(matcher.getSeededSearches() > 0);
+        // the initial searches and the resets are not the only full searches
+        assertTrue(matcher.getFullSearches() > (1 + STEPS / 50) * this.queryRules.size());
+        System.out.println("steps: " + applied + ", full searches: " + matcher.getFullSearches()
+                + ", seeded searches: " + matcher.getSeededSearches());
+        matcher.dispose();
+    }
+
+    /**
+     * Applies the specified rule at a random one of its matches, reporting the step to the matcher.
+     */
+    private boolean step(GraGra gragra, IncrementalMatcher matcher, Rule rule) throws TypeException {
+        List<List<GraphObject>> matches = new ArrayList<>(fullSearch(gragra, rule));
+        if (matches.isEmpty()) {
+            return false;
+        }
+        List<GraphObject> images = matches.get(this.random.nextInt(matches.size()));
+        Match m = createMatch(gragra, rule);
+        int i = 0;
+        for (Node n : rule.getLeft().getNodesSet()) {
+            m.addMapping(n, images.get(i++));
+        }
+        for (Arc arc : rule.getLeft().getArcsSet()) {
+            m.addMapping(arc, images.get(i++));
+        }
+        assertTrue(m.isValid());
+        Morphism co_match = null;
+        IncrementalMatcher.StepDelta delta = matcher.beforeStep(m);
+        try {
+            co_match = StaticStep.execute(m);
+        } finally {
+            matcher.afterStep(delta, co_match);
+        }
+        gragra.destroyMatch(m);
+        return co_match != null;
+    }
+
+    private void compare(GraGra gragra, IncrementalMatcher matcher, int step) {
+        for (Rule rule : this.queryRules) {
+            Match m = createMatch(gragra, rule);
+            Set<List<GraphObject>> incremental = new HashSet<>(matcher.getMatches(m));
+            gragra.destroyMatch(m);
+            assertEquals(incremental, fullSearch(gragra, rule), rule.getName() + " after step " + step);
+        }
+    }
+
+    private static Set<List<GraphObject>> fullSearch(GraGra gragra, Rule rule) {
+        Set<List<GraphObject>> matches = new HashSet<>();
+        Match m = createMatch(gragra, rule);
+        while (m.nextCompletion()) {
+            if (m.isValid()) {
+                List<GraphObject> images = new ArrayList<>();
+                for (Node n : rule.getLeft().getNodesSet()) {
+                    images.add(m.getImage(n));
+                }
+                for (Arc arc : rule.getLeft().getArcsSet()) {
+                    images.add(m.getImage(arc));
+                }
+                matches.add(images);
+            }
+        }
+        gragra.destroyMatch(m);
+        return matches;
+    }
+
+    /**
+     * Creates a match without dangling condition, so that the rule "drop" deletes the arcs of the node too.
+     */
+    private static Match createMatch(GraGra gragra, Rule rule) {
+        Match m = gragra.createMatch(rule);
+        MorphCompletionStrategy strategy = new Completion_NAC(new Completion_InjCSP(false));
+        strategy.getProperties().clear(CompletionPropertyBits.DANGLING);
+        m.setCompletionStrategy(strategy, true);
+        return m;
+    }
+
+    private static void setValue(Node n, int v) {
+        ((ValueTuple) n.getAttribute()).getValueMemberAt("v").setExprAsObject(Integer.valueOf(v));
+    }
+
+    private static void setExpr(Node n, String expr) {
+        ((ValueTuple) n.getAttribute()).getValueMemberAt("v").setExprAsText(expr);
+    }
+
+    /**
+     * Creates a random graph and the rules: "grow" adds a node with the value 0, "zero" sets the value 0 to 1,
+     * "reset" sets the value 1 to 0, "cut" deletes an arc and "drop" deletes a node with the value 1. The rule "lonely"
+     * matches nodes without outgoing arc by a NAC, the rule "path" matches paths of two arcs.
+     */
+    private GraGra createGraGra() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(true);
+        this.a.setStringRepr("A");
+        this.a.getAttrType().addMember(DefaultInformationFacade.self().getJavaHandler(), "int", "v");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        Graph g = gragra.getGraph();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node n = g.createNode(this.a);
+            setValue(n, i % 3);
+            nodes.add(n);
+        }
+        for (int i = 0; i < ARCS; i++) {
+            g.createArc(this.e, nodes.get(this.random.nextInt(NODES)), nodes.get(this.random.nextInt(NODES)));
+        }
+
+        Rule grow = createRule(gragra, "grow");
+        Node l = grow.getLeft().createNode(this.a);
+        Node r = grow.getRight().createNode(this.a);
+        Node rn = grow.getRight().createNode(this.a);
+        setExpr(rn, "0");
+        grow.getRight().createArc(this.e, r, rn);
+        grow.addMapping(l, r);
+
+        Rule zero = createRule(gragra, "zero");
+        l = zero.getLeft().createNode(this.a);
+        setExpr(l, "0");
+        r = zero.getRight().createNode(this.a);
+        setExpr(r, "1");
+        zero.addMapping(l, r);
+
+        Rule reset = createRule(gragra, "reset");
+        l = reset.getLeft().createNode(this.a);
+        setExpr(l, "1");
+        r = reset.getRight().createNode(this.a);
+        setExpr(r, "0");
+        reset.addMapping(l, r);
+
+        Rule cut = createRule(gragra, "cut");
+        Node l0 = cut.getLeft().createNode(this.a);
+        Node l1 = cut.getLeft().createNode(this.a);
+        cut.getLeft().createArc(this.e, l0, l1);
+        cut.addMapping(l0, cut.getRight().createNode(this.a));
+        cut.addMapping(l1, cut.getRight().createNode(this.a));
+
+        Rule drop = createRule(gragra, "drop");
+        l = drop.getLeft().createNode(this.a);
+        setExpr(l, "1");
+
+        Rule lonely = createRule(gragra, "lonely");
+        l = lonely.getLeft().createNode(this.a);
+        lonely.addMapping(l, lonely.getRight().createNode(this.a));
+        OrdinaryMorphism nac = lonely.createNAC();
+        Node nx = nac.getTarget().createNode(this.a);
+        nac.getTarget().createArc(this.e, nx, nac.getTarget().createNode(this.a));
+        nac.addMapping(l, nx);
+
+        Rule path = createRule(gragra, "path");
+        l0 = path.getLeft().createNode(this.a);
+        l1 = path.getLeft().createNode(this.a);
+        Node l2 = path.getLeft().createNode(this.a);
+        path.getLeft().createArc(this.e, l0, l1);
+        path.getLeft().createArc(this.e, l1, l2);
+        path.addMapping(l0, path.getRight().createNode(this.a));
+        path.addMapping(l1, path.getRight().createNode(this.a));
+        path.addMapping(l2, path.getRight().createNode(this.a));
+
+        this.stepRules.add(grow);
+        this.stepRules.add(zero);
+        this.stepRules.add(reset);
+        this.stepRules.add(cut);
+        this.stepRules.add(drop);
+        this.queryRules.addAll(this.stepRules);
+        this.queryRules.add(lonely);
+        this.queryRules.add(path);
+        return gragra;
+    }
+
+    private static Rule createRule(GraGra gragra, String name) {
+        Rule rule = gragra.createRule();
+        rule.setName(name);
+        return rule;
+    }
+
+}
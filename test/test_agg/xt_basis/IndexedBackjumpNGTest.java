@@ -0,0 +1,194 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.util.csp.SolutionStrategy;
+import agg.util.csp.Solution_Backjump;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Match;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import agg.xt_basis.csp.Completion_CSP;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Enumerates the matches of rules by the indexed backjumping solver and by the former solver and compares the
+ * matches, their order, the time and the allocated bytes. The matches which are not injective are compared too.
+ *
+ * @author Janusch Rentenatus
+ */
+public class IndexedBackjumpNGTest {
+
+    public final static int NODES = 2000;
+    public final static int ARCS = 8000;
+    public final static int ROUNDS = 5;
+
+    private Type a;
+    private Type e;
+
+    public IndexedBackjumpNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start IndexedBackjumpNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End IndexedBackjumpNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(false);
+        this.a.setStringRepr("A");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        Graph g = gragra.getGraph();
+        Random random = new Random(4711);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(g.createNode(this.a));
+        }
+        for (int i = 0; i < ARCS; i++) {
+            g.createArc(this.e, nodes.get(random.nextInt(NODES)), nodes.get(random.nextInt(NODES)));
+        }
+        Rule triangle = createRule(gragra, "triangle", new int[][]{{0, 1}, {1, 2}, {2, 0}});
+        Rule path = createRule(gragra, "path", new int[][]{{0, 1}, {1, 2}, {2, 3}});
+        Rule fork = createRule(gragra, "fork", new int[][]{{0, 1}, {0, 2}, {2, 1}, {3, 1}});
+        for (Rule rule : new Rule[]{triangle, path, fork}) {
+            List<String> former = matches(gragra, rule, true, true);
+            List<String> indexed = matches(gragra, rule, false, true);
+            assertFalse(indexed.isEmpty(), rule.getName());
+            assertEquals(indexed, former, rule.getName());
+            assertEquals(matches(gragra, rule, false, false), matches(gragra, rule, true, false),
+                    rule.getName() + " not injective");
+            long[] formerCost = measure(gragra, rule, true);
+            long[] indexedCost = measure(gragra, rule, false);
+            System.out.println(rule.getName() + ": " + indexed.size() + " matches, former solver "
+                    + (formerCost[0] / 1_000_000) + " ms " + (formerCost[1] >> 10) + " KB, indexed solver "
+                    + (indexedCost[0] / 1_000_000) + " ms " + (indexedCost[1] >> 10) + " KB");
+        }
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * Returns the time and the allocated bytes of enumerating all matches of the rule some rounds.
+     */
+    private long[] measure(GraGra gragra, Rule rule, boolean former) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytes = bean.getThreadAllocatedBytes(threadId);
+        long time = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            Match m = createMatch(gragra, rule, former, true);
+            while (m.nextCompletion()) {
+            }
+            gragra.destroyMatch(m);
+        }
+        return new long[]{System.nanoTime() - time, bean.getThreadAllocatedBytes(threadId) - bytes};
+    }
+
+    private List<String> matches(GraGra gragra, Rule rule, boolean former, boolean injective) {
+        List<String> result = new ArrayList<>();
+        Match m = createMatch(gragra, rule, former, injective);
+        while (m.nextCompletion()) {
+            StringBuilder sb = new StringBuilder();
+            for (Node n : rule.getLeft().getNodesSet()) {
+                sb.append(m.getImage(n).hashCode()).append(' ');
+            }
+            result.add(sb.toString());
+        }
+        gragra.destroyMatch(m);
+        return result;
+    }
+
+    private Match createMatch(GraGra gragra, Rule rule, boolean former, boolean injective) {
+        Match m = gragra.createMatch(rule);
+        Completion_CSP csp;
+        if (injective) {
+            csp = former ? new FormerCSP() : new Completion_InjCSP(false);
+        } else {
+            csp = former ? new FormerNonInjectiveCSP() : new Completion_CSP(false);
+        }
+        m.setCompletionStrategy(new Completion_NAC(csp), true);
+        return m;
+    }
+
+    /**
+     * Creates a rule, which keeps the nodes and arcs between them.
+     */
+    private Rule createRule(GraGra gragra, String name, int[][] arcs) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName(name);
+        List<Node> left = new ArrayList<>();
+        List<Node> right = new ArrayList<>();
+        for (int[] arc : arcs) {
+            while (left.size() <= Math.max(arc[0], arc[1])) {
+                Node l = rule.getLeft().createNode(this.a);
+                Node r = rule.getRight().createNode(this.a);
+                rule.addMapping(l, r);
+                left.add(l);
+                right.add(r);
+            }
+            rule.addMapping(rule.getLeft().createArc(this.e, left.get(arc[0]), left.get(arc[1])),
+                    rule.getRight().createArc(this.e, right.get(arc[0]), right.get(arc[1])));
+        }
+        return rule;
+    }
+
+    /**
+     * The completion by the former solver.
+     */
+    private static class FormerCSP extends Completion_InjCSP {
+
+        FormerCSP() {
+            super(false);
+        }
+
+        @Override
+        protected SolutionStrategy createSolutionStrategy(boolean injective) {
+            return new Solution_Backjump(injective);
+        }
+    }
+
+    /**
+     * The completion of not injective matches by the former solver.
+     */
+    private static class FormerNonInjectiveCSP extends Completion_CSP {
+
+        FormerNonInjectiveCSP() {
+            super(false);
+        }
+
+        @Override
+        protected SolutionStrategy createSolutionStrategy(boolean injective) {
+            return new Solution_Backjump(injective);
+        }
+    }
+
+}
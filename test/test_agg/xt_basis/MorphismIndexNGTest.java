@@ -0,0 +1,197 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.Arc;
+import agg.xt_basis.BaseFactory;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.Match;
+import agg.xt_basis.Node;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.Rule;
+import agg.xt_basis.StaticStep;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Applies a rule with a long left-hand side (a path of {@link #LENGTH} nodes) to measure the mapping lookups of
+ * matches and rules during {@link StaticStep#execute(Match)}. Reads the mappings of a morphism by parallel threads
+ * while its index is built again.
+ *
+ * @author Janusch Rentenatus
+ */
+public class MorphismIndexNGTest {
+
+    public final static int LENGTH = 60;
+    public final static int STEPS = 500;
+    public final static int READERS = 8;
+    public final static int READ_SIZE = 3000;
+
+    private Type nodeType;
+    private Type arcType;
+
+    public MorphismIndexNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start MorphismIndexNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End MorphismIndexNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        this.nodeType = gragra.createNodeType(false);
+        this.nodeType.setStringRepr("N");
+        this.arcType = gragra.createArcType(false);
+        this.arcType.setStringRepr("E");
+
+        Rule rule = gragra.createRule();
+        rule.setName("extendPath");
+        List<Node> leftNodes = new ArrayList<>();
+        List<Arc> leftArcs = new ArrayList<>();
+        createPath(rule.getLeft(), leftNodes, leftArcs);
+        List<Node> rightNodes = new ArrayList<>();
+        List<Arc> rightArcs = new ArrayList<>();
+        createPath(rule.getRight(), rightNodes, rightArcs);
+        for (int i = 0; i < LENGTH; i++) {
+            rule.addMapping(leftNodes.get(i), rightNodes.get(i));
+        }
+        for (int i = 0; i < LENGTH - 1; i++) {
+            rule.addMapping(leftArcs.get(i), rightArcs.get(i));
+        }
+        Node created = rule.getRight().createNode(this.nodeType);
+        rule.getRight().createArc(this.arcType, rightNodes.get(LENGTH - 1), created);
+        assertEquals(rule.getSize(), 2 * LENGTH - 1);
+
+        Graph host = gragra.getGraph();
+        List<Node> hostNodes = new ArrayList<>();
+        List<Arc> hostArcs = new ArrayList<>();
+        createPath(host, hostNodes, hostArcs);
+
+        long startTime = System.nanoTime();
+        for (int step = 0; step < STEPS; step++) {
+            Match match = gragra.createMatch(rule);
+            for (int i = 0; i < LENGTH; i++) {
+                match.addMapping(leftNodes.get(i), hostNodes.get(i));
+            }
+            for (int i = 0; i < LENGTH - 1; i++) {
+                match.addMapping(leftArcs.get(i), hostArcs.get(i));
+            }
+            assertTrue(match.isValid(), "Match of step " + step + " is not valid.");
+            checkIndex(match);
+            OrdinaryMorphism comatch = (OrdinaryMorphism) StaticStep.execute(match);
+            GraphObject image = comatch.getImage(created);
+            assertTrue(image != null && host.isElement(image) && !hostNodes.contains(image));
+            comatch.dispose();
+            gragra.destroyMatch(match);
+        }
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        assertEquals(host.getNodesCount(), LENGTH + STEPS);
+        assertEquals(host.getArcsCount(), LENGTH - 1 + STEPS);
+        checkIndex(rule);
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s  (" + STEPS + " steps, LHS size "
+                + rule.getSize() + ")");
+    }
+
+    /**
+     * Extends the lists of a morphism directly, so that its index is built again, and reads the images in parallel.
+     */
+    @Test
+    public void testParallelReaders() throws Exception {
+        GraGra gragra = new GraGra(true);
+        this.nodeType = gragra.createNodeType(false);
+        this.nodeType.setStringRepr("N");
+        this.arcType = gragra.createArcType(false);
+        this.arcType.setStringRepr("E");
+        Graph source = new Graph(gragra.getTypeSet());
+        Graph target = new Graph(gragra.getTypeSet());
+        List<Node> sourceNodes = new ArrayList<>();
+        List<Node> targetNodes = new ArrayList<>();
+        for (int i = 0; i < READ_SIZE; i++) {
+            sourceNodes.add(source.createNode(this.nodeType));
+            targetNodes.add(target.createNode(this.nodeType));
+        }
+        OrdinaryMorphism morph = BaseFactory.theFactory().createMorphism(source, target);
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        try {
+            for (int i = 0; i < READ_SIZE; i++) {
+                morph.getDomainObjects().add(sourceNodes.get(i));
+                morph.getCodomainObjects().add(targetNodes.get(i));
+                if (i % 10 != 9) {
+                    continue;
+                }
+                int size = i + 1;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int k = 0; k < READERS; k++) {
+                    int first = k * size / READERS;
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        for (int j = 0; j < size; j++) {
+                            int n = (first + j) % size;
+                            if (morph.getImage(sourceNodes.get(n)) != targetNodes.get(n)
+                                    || morph.firstOfInverseImage(targetNodes.get(n)) != sourceNodes.get(n)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }));
+                }
+                start.countDown();
+                for (Future<Boolean> result : results) {
+                    assertTrue(result.get(), "Wrong image after " + size + " mappings.");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        checkIndex(morph);
+    }
+
+    private void createPath(Graph g, List<Node> nodes, List<Arc> arcs) throws TypeException {
+        for (int i = 0; i < LENGTH; i++) {
+            nodes.add(g.createNode(this.nodeType));
+            if (i > 0) {
+                arcs.add(g.createArc(this.arcType, nodes.get(i - 1), nodes.get(i)));
+            }
+        }
+    }
+
+    private void checkIndex(OrdinaryMorphism morph) {
+        Iterator<GraphObject> dom = morph.getDomain();
+        while (dom.hasNext()) {
+            GraphObject o = dom.next();
+            GraphObject image = morph.getImage(o);
+            assertNotNull(image);
+            assertTrue(morph.getInverseImageList(image).contains(o));
+        }
+    }
+
+}
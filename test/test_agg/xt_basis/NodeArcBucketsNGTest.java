@@ -0,0 +1,245 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.Arc;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.DefaultGraTraImpl;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Match;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the arc buckets of the nodes after creating, redirecting and deleting arcs and matches rules at a node with
+ * many arcs. A bucket handed out to the search of a match is not changed by the steps done meanwhile.
+ *
+ * @author Janusch Rentenatus
+ */
+public class NodeArcBucketsNGTest {
+
+    public final static int NODES = 600;
+
+    private Type a;
+    private Type b;
+    private Type e;
+    private Type f;
+
+    public NodeArcBucketsNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start NodeArcBucketsNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End NodeArcBucketsNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(false);
+        this.a.setStringRepr("A");
+        this.b = gragra.createNodeType(false);
+        this.b.setStringRepr("B");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        this.f = gragra.createArcType(false);
+        this.f.setStringRepr("f");
+        Graph g = gragra.getGraph();
+        Node hub = g.createNode(this.a);
+        List<Node> as = new ArrayList<>();
+        List<Node> bs = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            Node nb = g.createNode(this.b);
+            bs.add(nb);
+            g.createArc(this.e, hub, nb);
+            if (i % 2 == 0) {
+                g.createArc(this.f, hub, nb);
+            }
+            Node na = g.createNode(this.a);
+            as.add(na);
+            if (i % 3 == 0) {
+                g.createArc(this.e, hub, na);
+            }
+            g.createArc(this.e, na, hub);
+        }
+        assertBuckets(g);
+        assertEquals(hub.getOutgoingArcsSet(this.e, this.b).size(), NODES);
+        assertEquals(hub.getOutgoingArcsSet(this.f, this.b).size(), NODES / 2);
+        assertEquals(hub.getOutgoingArcsSet(this.f, this.a).size(), 0);
+        assertEquals(hub.getIncomingArcsSet(this.e, this.a).size(), NODES);
+
+        // redirect and delete arcs, delete nodes with their arcs
+        List<Arc> arcs = new ArrayList<>(hub.getOutgoingArcsSet(this.e, this.b));
+        for (int i = 0; i < arcs.size(); i += 5) {
+            arcs.get(i).setTarget(as.get(i));
+        }
+        for (int i = 1; i < arcs.size(); i += 7) {
+            g.destroyArc(arcs.get(i));
+        }
+        for (int i = 2; i < NODES; i += 11) {
+            g.destroyNode(bs.get(i));
+            g.destroyNode(as.get(i));
+        }
+        assertBuckets(g);
+
+        Rule outE = createRule(gragra, this.e, this.b, true);
+        Rule outF = createRule(gragra, this.f, this.b, true);
+        Rule outEA = createRule(gragra, this.e, this.a, true);
+        Rule inE = createRule(gragra, this.e, this.a, false);
+        long matchTime = System.nanoTime();
+        assertEquals(countMatches(gragra, outE, hub), hub.getOutgoingArcsSet(this.e, this.b).size());
+        assertEquals(countMatches(gragra, outF, hub), hub.getOutgoingArcsSet(this.f, this.b).size());
+        assertEquals(countMatches(gragra, outEA, hub), hub.getOutgoingArcsSet(this.e, this.a).size());
+        assertEquals(countMatches(gragra, inE, hub), hub.getIncomingArcsSet(this.e, this.a).size());
+        System.out.println("matches at a node with " + hub.getNumberOfInOutArcs() + " arcs: "
+                + ((System.nanoTime() - matchTime) / 1_000_000) + " ms");
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * Applies a rule, which adds an arc at the node of its match, to all outgoing arcs of a node at once. The search of
+     * the next match goes on iterating the bucket of the node after each step.
+     */
+    @Test
+    public void testStepsDuringSearch() throws TypeException {
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(false);
+        this.a.setStringRepr("A");
+        this.b = gragra.createNodeType(false);
+        this.b.setStringRepr("B");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        Graph g = gragra.getGraph();
+        Node hub = g.createNode(this.a);
+        for (int i = 0; i < 10; i++) {
+            g.createArc(this.e, hub, g.createNode(this.b));
+        }
+        Set<Arc> before = hub.getOutgoingArcsSet(this.e, this.b);
+        Set<Arc> copy = new HashSet<>(before);
+        Arc added = g.createArc(this.e, hub, g.createNode(this.b));
+        assertEquals(before, copy, "A handed out bucket is changed.");
+        assertTrue(hub.getOutgoingArcsSet(this.e, this.b).contains(added));
+        assertTrue(hub.getOutgoingArcsSet(this.e).contains(added));
+        g.destroyArc(added);
+        assertBuckets(g);
+
+        Rule sprout = createRule(gragra, this.e, this.b, true);
+        Node rx = sprout.getRight().getNodesSet().stream().filter(n -> n.getType() == this.a).findFirst().get();
+        sprout.getRight().createArc(this.e, rx, sprout.getRight().createNode(this.b));
+        sprout.setParallelMatchingEnabled(true);
+        Match m = gragra.createMatch(sprout);
+        m.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)), true);
+        for (Node n : sprout.getLeft().getNodesSet()) {
+            if (n.getType() == this.a) {
+                m.addMapping(n, hub);
+            }
+        }
+        DefaultGraTraImpl gratra = new DefaultGraTraImpl();
+        gratra.setGraGra(gragra);
+        gratra.setHostGraph(g);
+        gratra.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)));
+        assertTrue(gratra.apply(sprout));
+        assertEquals(hub.getNumberOfOutgoingArcs(), 20);
+        assertBuckets(g);
+    }
+
+    /**
+     * Compares the buckets of all nodes with the arcs filtered by type.
+     */
+    private void assertBuckets(Graph g) {
+        Type[] arcTypes = {this.e, this.f};
+        Type[] nodeTypes = {this.a, this.b};
+        for (Node n : g.getNodesSet()) {
+            for (Type at : arcTypes) {
+                Set<Arc> allOut = new HashSet<>();
+                Set<Arc> allIn = new HashSet<>();
+                for (Type nt : nodeTypes) {
+                    Set<Arc> out = new HashSet<>();
+                    for (Arc arc : n.getOutgoingArcsSet()) {
+                        if (arc.getType() == at && arc.getTargetType() == nt) {
+                            out.add(arc);
+                        }
+                    }
+                    Set<Arc> in = new HashSet<>();
+                    for (Arc arc : n.getIncomingArcsSet()) {
+                        if (arc.getType() == at && arc.getSourceType() == nt) {
+                            in.add(arc);
+                        }
+                    }
+                    assertEquals(n.getOutgoingArcsSet(at, nt), out);
+                    assertEquals(n.getIncomingArcsSet(at, nt), in);
+                    assertEquals(n.getNumberOfOutgoingArcsInBucket(at, nt), out.size());
+                    assertEquals(n.getNumberOfIncomingArcsInBucket(at, nt), in.size());
+                    allOut.addAll(out);
+                    allIn.addAll(in);
+                }
+                assertEquals(n.getOutgoingArcsSet(at), allOut);
+                assertEquals(n.getIncomingArcsSet(at), allIn);
+                assertEquals(n.getNumberOfOutgoingArcsInBucket(at, null), allOut.size());
+            }
+        }
+    }
+
+    /**
+     * Creates a rule which keeps an arc of the specified type between a node of type A and a node of the specified
+     * type. The node of type A is the source of the arc, if outgoing is true, otherwise the target.
+     */
+    private Rule createRule(GraGra gragra, Type arcType, Type other, boolean outgoing) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName(arcType.getName() + (outgoing ? "To" : "From") + other.getName());
+        Node lx = rule.getLeft().createNode(this.a);
+        Node ly = rule.getLeft().createNode(other);
+        Arc la = outgoing ? rule.getLeft().createArc(arcType, lx, ly) : rule.getLeft().createArc(arcType, ly, lx);
+        Node rx = rule.getRight().createNode(this.a);
+        Node ry = rule.getRight().createNode(other);
+        Arc ra = outgoing ? rule.getRight().createArc(arcType, rx, ry) : rule.getRight().createArc(arcType, ry, rx);
+        rule.addMapping(lx, rx);
+        rule.addMapping(ly, ry);
+        rule.addMapping(la, ra);
+        return rule;
+    }
+
+    /**
+     * Counts the matches of the rule which map the node of type A of the left-hand side to the specified node.
+     */
+    private int countMatches(GraGra gragra, Rule rule, Node at) {
+        Match m = gragra.createMatch(rule);
+        Iterator<Node> lhs = rule.getLeft().getNodesSet().iterator();
+        m.addMapping(lhs.next(), at);
+        int n = 0;
+        while (m.nextCompletion()) {
+            n++;
+        }
+        gragra.destroyMatch(m);
+        return n;
+    }
+
+}
@@ -0,0 +1,156 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.Completion_NAC;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Match;
+import agg.xt_basis.Node;
+import agg.xt_basis.OrdinaryMorphism;
+import agg.xt_basis.ParallelMatchEnumerator;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Enumerates all matches of rules sequentially and by the parallel match enumerator and compares the matches and the
+ * time.
+ *
+ * @author Janusch Rentenatus
+ */
+public class ParallelMatchEnumeratorNGTest {
+
+    public final static int NODES = 2000;
+    public final static int ARCS = 8000;
+    public final static int PARALLELISM = 4;
+
+    private Type a;
+    private Type e;
+    private List<Node> left;
+
+    public ParallelMatchEnumeratorNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start ParallelMatchEnumeratorNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End ParallelMatchEnumeratorNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        this.a = gragra.createNodeType(false);
+        this.a.setStringRepr("A");
+        this.e = gragra.createArcType(false);
+        this.e.setStringRepr("e");
+        Graph g = gragra.getGraph();
+        Random random = new Random(4711);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(g.createNode(this.a));
+        }
+        for (int i = 0; i < ARCS; i++) {
+            g.createArc(this.e, nodes.get(random.nextInt(NODES)), nodes.get(random.nextInt(NODES)));
+        }
+        Rule triangle = createRule(gragra, "triangle", new int[][]{{0, 1}, {1, 2}, {2, 0}});
+        Rule path = createRule(gragra, "path", new int[][]{{0, 1}, {1, 2}, {2, 3}});
+        Rule open = createRule(gragra, "open", new int[][]{{0, 1}, {1, 2}});
+        // no arc back to the first node
+        OrdinaryMorphism nac = open.createNAC();
+        Node n0 = nac.getTarget().createNode(this.a);
+        Node n2 = nac.getTarget().createNode(this.a);
+        nac.getTarget().createArc(this.e, n2, n0);
+        nac.addMapping(this.left.get(0), n0);
+        nac.addMapping(this.left.get(2), n2);
+
+        for (Rule rule : new Rule[]{triangle, path, open}) {
+            long time = System.nanoTime();
+            List<String> sequential = sequentialMatches(gragra, rule);
+            long sequentialTime = System.nanoTime() - time;
+            time = System.nanoTime();
+            ConcurrentLinkedQueue<String> keys = new ConcurrentLinkedQueue<>();
+            ParallelMatchEnumerator enumerator = new ParallelMatchEnumerator(rule, g,
+                    new Completion_NAC(new Completion_InjCSP(false)), PARALLELISM);
+            long count = enumerator.enumerate(m -> keys.add(keyOf(rule, m)));
+            long parallelTime = System.nanoTime() - time;
+            List<String> parallel = new ArrayList<>(keys);
+            Collections.sort(parallel);
+            assertFalse(parallel.isEmpty(), rule.getName());
+            assertEquals(count, (long) parallel.size(), rule.getName());
+            assertEquals(parallel, sequential, rule.getName());
+            System.out.println(rule.getName() + ": " + count + " matches, sequential "
+                    + (sequentialTime / 1_000_000) + " ms, " + PARALLELISM + " workers "
+                    + (parallelTime / 1_000_000) + " ms");
+        }
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    private List<String> sequentialMatches(GraGra gragra, Rule rule) {
+        List<String> result = new ArrayList<>();
+        Match m = gragra.createMatch(rule);
+        m.setCompletionStrategy(new Completion_NAC(new Completion_InjCSP(false)), true);
+        while (m.nextCompletion()) {
+            result.add(keyOf(rule, m));
+        }
+        gragra.destroyMatch(m);
+        Collections.sort(result);
+        return result;
+    }
+
+    private static String keyOf(Rule rule, Match m) {
+        StringBuilder sb = new StringBuilder();
+        for (Node n : rule.getLeft().getNodesSet()) {
+            sb.append(m.getImage(n).hashCode()).append(' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates a rule, which keeps the nodes and arcs between them, and keeps its left nodes.
+     */
+    private Rule createRule(GraGra gragra, String name, int[][] arcs) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName(name);
+        this.left = new ArrayList<>();
+        List<Node> right = new ArrayList<>();
+        for (int[] arc : arcs) {
+            while (this.left.size() <= Math.max(arc[0], arc[1])) {
+                Node l = rule.getLeft().createNode(this.a);
+                Node r = rule.getRight().createNode(this.a);
+                rule.addMapping(l, r);
+                this.left.add(l);
+                right.add(r);
+            }
+            rule.addMapping(rule.getLeft().createArc(this.e, this.left.get(arc[0]), this.left.get(arc[1])),
+                    rule.getRight().createArc(this.e, right.get(arc[0]), right.get(arc[1])));
+        }
+        return rule;
+    }
+
+}
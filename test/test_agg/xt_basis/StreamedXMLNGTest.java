@@ -0,0 +1,109 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.Rule;
+import java.io.File;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Loads the grammar files with the DOM and the streamed XML reader and compares the grammars, then saves them
+ * streamed and loads them again.
+ *
+ * @author Janusch Rentenatus
+ */
+public class StreamedXMLNGTest {
+
+    private static final String[] FILES = {
+        "test_agg/xt_basis/knots/KnotsSem.ggx",
+        "test_agg/xt_basis/tictactoe/TicTacToeSem.ggx"
+    };
+
+    public StreamedXMLNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start StreamedXMLNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End StreamedXMLNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws Exception {
+        long startTime = System.nanoTime();
+        for (String fileName : FILES) {
+            GraGra dom = new GraGra(false);
+            dom.load(fileName);
+            GraGra streamed = new GraGra(false);
+            streamed.setStreamedXML(true);
+            streamed.load(fileName);
+            assertEqualGraGras(streamed, dom);
+
+            File out = File.createTempFile("streamed", ".ggx");
+            out.deleteOnExit();
+            streamed.save(out.getPath());
+            GraGra reloaded = new GraGra(false);
+            reloaded.load(out.getPath());
+            assertEqualGraGras(reloaded, dom);
+            GraGra reloadedStreamed = new GraGra(false);
+            reloadedStreamed.setStreamedXML(true);
+            reloadedStreamed.load(out.getPath());
+            assertEqualGraGras(reloadedStreamed, dom);
+            System.out.println(fileName + ": " + dom.getGraph().getNodesCount() + " nodes, "
+                    + dom.getGraph().getArcsCount() + " arcs");
+        }
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    private void assertEqualGraGras(GraGra actual, GraGra expected) {
+        assertEquals(actual.getName(), expected.getName());
+        assertEquals(actual.getTypeSet().getTypeList().size(), expected.getTypeSet().getTypeList().size());
+        List<Graph> graphs = actual.getListOfGraphs();
+        List<Graph> expectedGraphs = expected.getListOfGraphs();
+        assertEquals(graphs.size(), expectedGraphs.size());
+        for (int i = 0; i < graphs.size(); i++) {
+            assertEqualGraphs(graphs.get(i), expectedGraphs.get(i));
+        }
+        List<Rule> rules = actual.getListOfRules();
+        List<Rule> expectedRules = expected.getListOfRules();
+        assertEquals(rules.size(), expectedRules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            assertEquals(rules.get(i).getName(), expectedRules.get(i).getName());
+            assertEqualGraphs(rules.get(i).getLeft(), expectedRules.get(i).getLeft());
+            assertEqualGraphs(rules.get(i).getRight(), expectedRules.get(i).getRight());
+            assertEquals(rules.get(i).getNACsList().size(), expectedRules.get(i).getNACsList().size());
+            assertEquals(rules.get(i).getSize(), expectedRules.get(i).getSize());
+        }
+        assertEquals(actual.getListOfAtomics().size(), expected.getListOfAtomics().size());
+        assertEquals(actual.getListOfConstraints().size(), expected.getListOfConstraints().size());
+    }
+
+    private void assertEqualGraphs(Graph actual, Graph expected) {
+        assertEquals(actual.getName(), expected.getName());
+        assertEquals(actual.getNodesCount(), expected.getNodesCount(), actual.getName());
+        assertEquals(actual.getArcsCount(), expected.getArcsCount(), actual.getName());
+        assertEquals(actual.getFingerprint(), expected.getFingerprint(), actual.getName());
+        assertEquals(actual.getFingerprint().isAttributesKnown(), expected.getFingerprint().isAttributesKnown());
+        assertTrue(actual.getFingerprint().mayHaveEqualConstants(expected.getFingerprint()), actual.getName());
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.Arc;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.GraphObject;
+import agg.xt_basis.Node;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import agg.xt_basis.TypeSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the numbers of the types and arc keys and the type objects map, which is held by these numbers, against the
+ * key strings of the types.
+ *
+ * @author Janusch Rentenatus
+ */
+public class TypeIdsNGTest {
+
+    public final static int NODES = 20000;
+
+    public TypeIdsNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start TypeIdsNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End TypeIdsNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        TypeSet types = gragra.getTypeSet();
+        Type a = gragra.createNodeType(false);
+        a.setStringRepr("A");
+        Type b = gragra.createNodeType(false);
+        b.setStringRepr("B");
+        Type c = gragra.createNodeType(false);
+        c.setStringRepr("C");
+        Type e = gragra.createArcType(false);
+        e.setStringRepr("e");
+        Graph typeGraph = gragra.createTypeGraph();
+        Node ta = typeGraph.createNode(a);
+        typeGraph.createNode(b);
+        Node tc = typeGraph.createNode(c);
+        typeGraph.createArc(e, ta, tc);
+        typeGraph.createArc(e, tc, tc);
+        assertNull(types.addInheritanceRelation(b, a));
+
+        // the numbers are dense and stable
+        assertEquals(types.getTypeId(a), types.getTypeId(a));
+        assertNotEquals(types.getTypeId(a), types.getTypeId(b));
+        assertNotEquals(types.getArcKeyId(a, e, c), types.getArcKeyId(c, e, a));
+        assertEquals(types.getArcKeyId(a, e, c), types.getArcKeyId(a, e, c));
+
+        Graph g = gragra.getGraph();
+        // a domain put by its key before the first arc of the key is created
+        HashSet<GraphObject> early = new LinkedHashSet<>();
+        g.getTypeObjectsMap().put(c.convertToKey() + e.convertToKey() + c.convertToKey(), early);
+        Node c1 = g.createNode(c);
+        Node c2 = g.createNode(c);
+        Arc cc = g.createArc(e, c1, c2);
+        assertTrue(early.contains(cc));
+        assertSame(g.getTypeObjects(cc), early);
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            nodes.add(g.createNode(i % 2 == 0 ? a : b));
+        }
+        List<Arc> arcs = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            arcs.add(g.createArc(e, nodes.get(i), c1));
+        }
+        assertAgainstKeys(g);
+        assertEquals(g.getTypeObjectsMap().get(a.convertToKey()).size(), 30);
+        assertEquals(g.getTypeObjectsMap().get(b.convertToKey()).size(), 15);
+        assertEquals(g.getTypeObjectsMap().get(a.convertToKey() + e.convertToKey() + c.convertToKey()).size(), 30);
+        assertEquals(g.getTypeObjectsMap().get(b.convertToKey() + e.convertToKey() + c.convertToKey()).size(), 15);
+
+        for (int i = 0; i < arcs.size(); i += 3) {
+            g.destroyArc(arcs.get(i));
+        }
+        for (int i = 0; i < nodes.size(); i += 4) {
+            g.destroyNode(nodes.get(i));
+        }
+        assertAgainstKeys(g);
+
+        // the map follows a new name of a type
+        String oldKey = c.convertToKey();
+        HashSet<GraphObject> ofC = g.getTypeObjectsMap().get(oldKey);
+        c.setStringRepr("D");
+        assertNull(g.getTypeObjectsMap().get(oldKey));
+        assertSame(g.getTypeObjectsMap().get(c.convertToKey()), ofC);
+        assertAgainstKeys(g);
+
+        // the map is built again after clearing it
+        g.getTypeObjectsMap().clear();
+        assertTrue(g.getTypeObjectsMap().get(a.convertToKey()) != null);
+        assertAgainstKeys(g);
+
+        Graph large = new Graph(types, true);
+        long fillTime = System.nanoTime();
+        Node hub = large.createNode(c);
+        for (int i = 0; i < NODES; i++) {
+            Node n = large.createNode(i % 2 == 0 ? a : b);
+            large.createArc(e, n, hub);
+        }
+        long removeTime = System.nanoTime();
+        large.destroyNode(hub);
+        long endRemoveTime = System.nanoTime();
+        assertEquals(large.getTypeObjectsMap().get(a.convertToKey()).size(), NODES);
+        assertEquals(large.getTypeObjectsMap().get(a.convertToKey() + e.convertToKey() + c.convertToKey()).size(), 0);
+        System.out.println("create " + NODES + " nodes and arcs: " + ((removeTime - fillTime) / 1_000_000)
+                + " ms, remove the arcs: " + ((endRemoveTime - removeTime) / 1_000_000) + " ms");
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    /**
+     * Compares each domain of the map with the objects of the graph, which have the key of the domain by their type
+     * or by a parent of their types.
+     */
+    private void assertAgainstKeys(Graph g) {
+        Map<String, HashSet<GraphObject>> map = g.getTypeObjectsMap();
+        int domains = 0;
+        for (Map.Entry<String, HashSet<GraphObject>> entry : map.entrySet()) {
+            domains++;
+            HashSet<GraphObject> expected = new HashSet<>();
+            for (Node n : g.getNodesSet()) {
+                for (Type t : n.getType().getAllParents()) {
+                    if (t.convertToKey().equals(entry.getKey())) {
+                        expected.add(n);
+                    }
+                }
+            }
+            for (Arc arc : g.getArcsSet()) {
+                for (Type s : arc.getSourceType().getAllParents()) {
+                    for (Type t : arc.getTargetType().getAllParents()) {
+                        String key = s.convertToKey() + arc.getType().convertToKey() + t.convertToKey();
+                        if (key.equals(entry.getKey())) {
+                            expected.add(arc);
+                        }
+                    }
+                }
+            }
+            assertEquals(new HashSet<>(entry.getValue()), expected, entry.getKey());
+            assertSame(map.get(entry.getKey()), entry.getValue(), entry.getKey());
+        }
+        assertEquals(domains, map.size());
+        for (Node n : g.getNodesSet()) {
+            assertTrue(g.getTypeObjects(n).contains(n));
+        }
+        for (Arc arc : g.getArcsSet()) {
+            assertTrue(g.getTypeObjects(arc).contains(arc));
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis;
+
+import agg.xt_basis.Arc;
+import agg.xt_basis.Completion_InjCSP;
+import agg.xt_basis.GraGra;
+import agg.xt_basis.Graph;
+import agg.xt_basis.MorphCompletionStrategy;
+import agg.xt_basis.Node;
+import agg.xt_basis.Rule;
+import agg.xt_basis.Type;
+import agg.xt_basis.TypeException;
+import agg.xt_basis.csp.CompletionPropertyBits;
+import de.jare.ndimcol.ref.ArrayMovie;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the type usage counts of a graph while nodes and arcs are added and removed, and compares
+ * <code>Rule.canMatch</code> with the check by the used types of the graphs.
+ *
+ * @author Janusch Rentenatus
+ */
+public class TypeUsageNGTest {
+
+    public final static int NODES = 2000;
+    public final static int ARCS = 6000;
+    public final static int RULES = 200;
+    public final static int CHECKS = 200;
+
+    private Type[] nodeTypes;
+    private Type[] arcTypes;
+
+    public TypeUsageNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start TypeUsageNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End TypeUsageNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws TypeException {
+        long startTime = System.nanoTime();
+        GraGra gragra = new GraGra(true);
+        Type p = createNodeType(gragra, "P");
+        Type c = createNodeType(gragra, "C");
+        Type d = createNodeType(gragra, "D");
+        Type q = createNodeType(gragra, "Q");
+        Type s = createNodeType(gragra, "S");
+        c.addParent(p);
+        d.addParent(c);
+        this.nodeTypes = new Type[]{p, c, d, q, s};
+        this.arcTypes = new Type[]{createArcType(gragra, "e"), createArcType(gragra, "f"),
+            createArcType(gragra, "g")};
+
+        Graph g = gragra.getGraph();
+        Random random = new Random(4711);
+        // S and g are not used by the graph
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(g.createNode(this.nodeTypes[random.nextInt(3) == 0 ? 3 : random.nextInt(3)]));
+        }
+        for (int i = 0; i < ARCS; i++) {
+            g.createArc(this.arcTypes[random.nextInt(2)], nodes.get(random.nextInt(NODES)),
+                    nodes.get(random.nextInt(NODES)));
+        }
+        checkCounts(g);
+        for (int i = 0; i < NODES / 2; i++) {
+            Node n = nodes.remove(random.nextInt(nodes.size()));
+            if (i % 2 == 0) {
+                g.destroyNode(n);
+            } else {
+                g.destroyNodeFast(n);
+            }
+        }
+        List<Arc> arcs = new ArrayList<>(g.getArcsSet());
+        for (int i = 0; i < arcs.size() / 2; i++) {
+            g.destroyArc(arcs.get(i));
+        }
+        checkCounts(g);
+        for (Node n : new ArrayList<>(g.getNodesSet())) {
+            if (n.getType() == d) {
+                g.destroyNode(n);
+            }
+        }
+        checkCounts(g);
+        assertEquals(g.getTypeUsage(d), 0);
+        assertEquals(g.getInheritedTypeUsage(p), g.getTypeUsage(p) + g.getTypeUsage(c));
+
+        MorphCompletionStrategy injective = new Completion_InjCSP(false);
+        MorphCompletionStrategy other = new Completion_InjCSP(false);
+        other.getProperties().clear(CompletionPropertyBits.INJECTIVE);
+        Graph small = new Graph(gragra.getTypeSet(), true);
+        for (int i = 0; i < 2; i++) {
+            small.createNode(p);
+            small.createNode(c);
+            small.createNode(d);
+        }
+        small.createArc(this.arcTypes[0], small.getNodesSet().iterator().next(),
+                small.getNodesSet().iterator().next());
+        long usedTypesTime = 0;
+        long canMatchTime = 0;
+        int possible = 0;
+        for (int i = 0; i < RULES; i++) {
+            Rule rule = createRule(gragra, random);
+            for (Graph host : new Graph[]{g, small}) {
+                long time = System.nanoTime();
+                boolean byUsedTypes = false;
+                for (int j = 0; j < CHECKS; j++) {
+                    byUsedTypes = canMatchByUsedTypes(rule, host);
+                }
+                usedTypesTime += System.nanoTime() - time;
+                time = System.nanoTime();
+                boolean result = false;
+                for (int j = 0; j < CHECKS; j++) {
+                    result = rule.canMatch(host, other);
+                }
+                canMatchTime += System.nanoTime() - time;
+                assertEquals(result, byUsedTypes, rule.getName());
+                assertEquals(rule.canMatch(host, injective),
+                        byUsedTypes && fitsInjective(rule, host), rule.getName());
+                if (result) {
+                    possible++;
+                }
+            }
+            // a change of the left-hand side is seen by the next check
+            rule.getLeft().createNode(s);
+            assertFalse(rule.canMatch(g, other), rule.getName());
+        }
+        assertTrue(possible > 0);
+        System.out.println(possible + " of " + (2 * RULES) + " rules can match, used types "
+                + (usedTypesTime / 1_000_000) + " ms, canMatch " + (canMatchTime / 1_000_000) + " ms");
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s");
+    }
+
+    private void checkCounts(Graph g) {
+        for (Type t : this.nodeTypes) {
+            int count = 0;
+            int inherited = 0;
+            for (Node n : g.getNodesSet()) {
+                if (n.getType() == t) {
+                    count++;
+                }
+                if (n.getType().getAllParents().contains(t)) {
+                    inherited++;
+                }
+            }
+            assertEquals(g.getTypeUsage(t), count, t.getName());
+            assertEquals(g.getInheritedTypeUsage(t), inherited, t.getName());
+        }
+        for (Type t : this.arcTypes) {
+            int count = 0;
+            for (Arc a : g.getArcsSet()) {
+                if (a.getType() == t) {
+                    count++;
+                }
+            }
+            assertEquals(g.getTypeUsage(t), count, t.getName());
+        }
+    }
+
+    /**
+     * The check of <code>Rule.canMatch</code> before the graphs kept their type usage.
+     */
+    private static boolean canMatchByUsedTypes(Rule rule, Graph g) {
+        ArrayMovie<Type> origTypes = rule.getLeft().getUsedTypes();
+        List<Type> otherTypes = g.getUsedAndInheritedTypes();
+        for (int i = 0; i < origTypes.size(); i++) {
+            if (!otherTypes.contains(origTypes.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean fitsInjective(Rule rule, Graph g) {
+        Graph left = rule.getLeft();
+        if (left.getNodesCount() > g.getNodesCount() || left.getArcsCount() > g.getArcsCount()) {
+            return false;
+        }
+        for (Type t : this.nodeTypes) {
+            int count = 0;
+            for (Node n : left.getNodesSet()) {
+                if (n.getType() == t) {
+                    count++;
+                }
+            }
+            if (count > g.getInheritedTypeUsage(t)) {
+                return false;
+            }
+        }
+        for (Type t : this.arcTypes) {
+            int count = 0;
+            for (Arc a : left.getArcsSet()) {
+                if (a.getType() == t) {
+                    count++;
+                }
+            }
+            if (count > g.getTypeUsage(t)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a rule with a random left-hand side of up to four nodes and three arcs.
+     */
+    private Rule createRule(GraGra gragra, Random random) throws TypeException {
+        Rule rule = gragra.createRule();
+        rule.setName("r" + gragra.getListOfRules().size());
+        Graph left = rule.getLeft();
+        List<Node> nodes = new ArrayList<>();
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            int t = random.nextInt(10);
+            nodes.add(left.createNode(this.nodeTypes[t < 9 ? t % 4 : 4]));
+        }
+        count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            int t = random.nextInt(10);
+            left.createArc(this.arcTypes[t < 9 ? t % 2 : 2], nodes.get(random.nextInt(nodes.size())),
+                    nodes.get(random.nextInt(nodes.size())));
+        }
+        return rule;
+    }
+
+    private static Type createNodeType(GraGra gragra, String name) {
+        Type t = gragra.createNodeType(false);
+        t.setStringRepr(name);
+        return t;
+    }
+
+    private static Type createArcType(GraGra gragra, String name) {
+        Type t = gragra.createArcType(false);
+        t.setStringRepr(name);
+        return t;
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis.colim;
+
+import agg.xt_basis.colim.COLIM_VECTOR;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that COLIM_VECTOR keeps the semantics of the Vector it was ported from: setSize pads with null and cuts,
+ * put replaces the item at an index. The colimits of the amalgamated rules size their vectors first and put the items
+ * afterwards.
+ *
+ * @author Janusch Rentenatus
+ */
+public class ColimVectorNGTest {
+
+    public ColimVectorNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start ColimVectorNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End ColimVectorNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() {
+        COLIM_VECTOR v = new COLIM_VECTOR();
+        v.setSize(4);
+        assertEquals(v.size(), 4);
+        for (int i = 0; i < 4; i++) {
+            assertNull(v.item(i));
+        }
+        v.put("c", 3);
+        v.put("a", 1);
+        assertEquals(v.size(), 4);
+        assertEquals(v.item(1), "a");
+        assertEquals(v.item(3), "c");
+
+        // put replaces the item
+        v.put("b", 1);
+        assertEquals(v.size(), 4);
+        assertEquals(v.item(1), "b");
+        assertEquals(v.indexOf("c"), 3);
+
+        v.setSize(2);
+        assertEquals(v.size(), 2);
+        assertEquals(v.item(1), "b");
+        assertEquals(v.indexOf("c"), -1);
+
+        v.push_back("d");
+        assertEquals(v.size(), 3);
+        assertEquals(v.item(2), "d");
+    }
+
+}
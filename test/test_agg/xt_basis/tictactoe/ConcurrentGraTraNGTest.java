@@ -0,0 +1,78 @@
+/**
+ * <copyright>
+ * Copyright (c) 2026, Janusch Rentenatus. This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v2.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ * </copyright>
+ */
+package test_agg.xt_basis.tictactoe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import test_agg.rulesystem.AggRuleSystem;
+import test_agg.xt_basis.knots.GraGraKnotsNGTest;
+
+/**
+ * Transforms several independent grammars at the same time. Each thread loads its own grammar, so only the static
+ * state of the engine (e.g. of the attribute expression evaluator) is shared.
+ *
+ * @author Janusch Rentenatus
+ */
+public class ConcurrentGraTraNGTest {
+
+    public final static int GAMES = 3;
+    public final static int KNOTS = 2;
+
+    public ConcurrentGraTraNGTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.out.println("===============================================");
+        System.out.println("## Start ConcurrentGraTraNGTest.");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        System.out.println("## End ConcurrentGraTraNGTest.");
+        System.out.println("===============================================");
+    }
+
+    @Test
+    public void testSomeMethod() throws InterruptedException {
+        long startTime = System.nanoTime();
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            threads.add(new Thread(() -> {
+                GraGraTicTacToeNGTest game = new GraGraTicTacToeNGTest();
+                AggRuleSystem ars = game.loadAggSemantics();
+                game.play(ars);
+                game.checkRedu(ars);
+            }, "TicTacToe " + i));
+        }
+        for (int i = 0; i < KNOTS; i++) {
+            threads.add(new Thread(() -> new GraGraKnotsNGTest().testSomeMethod(), "Knots " + i));
+        }
+        for (Thread t : threads) {
+            t.setUncaughtExceptionHandler((th, ex) -> {
+                failures.add(ex);
+                System.out.println(th.getName() + " failed: " + ex);
+            });
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime) / 1_000_000; // Zeit in Millisekunden
+        System.out.println(">>>>>>>>>>>>> Dauer: " + (duration / 1000d) + " s  (" + threads.size() + " threads)");
+        assertTrue(failures.isEmpty(), failures.size() + " of " + threads.size() + " transformations failed.");
+    }
+
+}